@@ -1,5 +1,6 @@
 package de.fraunhofer.isst.dataspaceconnector;
 
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceBackupRunner;
 import io.swagger.v3.oas.models.Components;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.info.Contact;
@@ -29,7 +30,12 @@ import java.util.Properties;
 public class ConnectorApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(ConnectorApplication.class, args);
+        final var context = SpringApplication.run(ConnectorApplication.class, args);
+
+        // Shut down after a backup from the command line, only the main method ends the process.
+        if (context.getBean(ResourceBackupRunner.class).isCompleted()) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
     /**
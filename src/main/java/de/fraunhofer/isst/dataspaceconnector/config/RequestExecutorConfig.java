@@ -0,0 +1,96 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class configures the thread pools of the asynchronous outgoing connector requests, of the
+ * broker requests and of the hedged backend requests. The pool size bounds the number of
+ * concurrent requests, the queue bounds the number of waiting requests. Requests exceeding the
+ * queue are rejected.
+ */
+@Configuration
+public class RequestExecutorConfig {
+
+    @Value("${request.async.max-parallelism:8}")
+    private int maxParallelism;
+
+    @Value("${request.async.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${broker.async.max-parallelism:4}")
+    private int brokerParallelism;
+
+    @Value("${broker.async.queue-capacity:100}")
+    private int brokerQueueCapacity;
+
+    @Value("${resource.backend.hedging.max-parallelism:16}")
+    private int backendParallelism;
+
+    /**
+     * Creates the executor of the outgoing connector requests.
+     *
+     * @return The executor.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService connectorRequestExecutor() {
+        return createExecutor("connector-request", maxParallelism, queueCapacity);
+    }
+
+    /**
+     * Creates the executor of the broker requests, so slow brokers occupy these threads instead of
+     * the servlet threads.
+     *
+     * @return The executor.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService brokerRequestExecutor() {
+        return createExecutor("broker-request", brokerParallelism, brokerQueueCapacity);
+    }
+
+    /**
+     * Creates the executor of the hedged backend requests. It has no queue: a hedge that finds no
+     * free thread is rejected and the caller requests the representation itself.
+     *
+     * @return The executor.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService backendRequestExecutor() {
+        return createExecutor("backend-request", backendParallelism, 0);
+    }
+
+    /**
+     * Creates an executor of a fixed number of daemon threads, which time out when idle.
+     *
+     * @param name          The name prefix of the threads.
+     * @param parallelism   The number of threads.
+     * @param queueCapacity The number of waiting tasks, 0 to reject tasks finding no free thread.
+     * @return The executor.
+     */
+    private static ExecutorService createExecutor(String name, int parallelism,
+        int queueCapacity) {
+        final var counter = new AtomicInteger();
+        final ThreadFactory threadFactory = runnable -> {
+            final var thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        final BlockingQueue<Runnable> queue = queueCapacity > 0
+            ? new LinkedBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        final var executor = new ThreadPoolExecutor(parallelism, parallelism, 60L,
+            TimeUnit.SECONDS, queue, threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
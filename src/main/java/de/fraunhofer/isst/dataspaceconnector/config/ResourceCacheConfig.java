@@ -0,0 +1,57 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceMetadataCache;
+import org.apache.commons.lang3.SerializationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * This class configures the caches of the offered and requested resource metadata. The cached
+ * copies never contain the resource data.
+ */
+@Configuration
+public class ResourceCacheConfig {
+
+    @Value("${resource.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${resource.cache.maximum-size:1000}")
+    private long maximumSize;
+
+    @Value("${resource.cache.expire-after-write:PT10M}")
+    private Duration expireAfterWrite;
+
+    /**
+     * Creates the cache for offered resources.
+     *
+     * @return The cache.
+     */
+    @Bean
+    public ResourceMetadataCache<OfferedResource> offeredResourceCache() {
+        return new ResourceMetadataCache<>(enabled, maximumSize, expireAfterWrite,
+            resource -> new OfferedResource(resource.getUuid(), resource.getCreated(),
+                resource.getModified(), SerializationUtils.clone(resource.getResourceMetadata()),
+                null));
+    }
+
+    /**
+     * Creates the cache for requested resources.
+     *
+     * @return The cache.
+     */
+    @Bean
+    public ResourceMetadataCache<RequestedResource> requestedResourceCache() {
+        return new ResourceMetadataCache<>(enabled, maximumSize, expireAfterWrite, resource -> {
+            final var copy = new RequestedResource(resource.getCreated(), resource.getModified(),
+                SerializationUtils.clone(resource.getResourceMetadata()), null,
+                resource.getAccessed());
+            copy.setUuid(resource.getUuid());
+            return copy;
+        });
+    }
+}
@@ -0,0 +1,348 @@
+package de.fraunhofer.isst.dataspaceconnector.config;
+
+import de.fraunhofer.isst.dataspaceconnector.model.PayloadEncoding;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This filter compresses the responses of the admin API and of the IDS endpoints with gzip, if the
+ * client accepts it. Connectors using OkHttp accept gzip and decompress it transparently, so
+ * multipart responses between such connectors are compressed without further negotiation. Only
+ * successful responses of the configured media types and at least the minimum size are
+ * compressed. Responses that already have a content coding, like stored payloads sent as they are
+ * or the pre-compressed self-description, pass through unchanged, as do partial and asynchronous
+ * responses and the responses to HEAD requests, which have no body. The compressed stream is
+ * flushed along with the response, so streamed responses reach the client as they are written.
+ */
+@Component
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean enabled;
+    private final long minSize;
+    private final List<MediaType> mediaTypes = new ArrayList<>();
+
+    /**
+     * Constructor for ResponseCompressionFilter.
+     *
+     * @param enabled    False disables compression.
+     * @param minSize    The minimum size of responses with known length to compress.
+     * @param mediaTypes The media types to compress.
+     */
+    public ResponseCompressionFilter(
+        @Value("${http.compression.enabled:true}") boolean enabled,
+        @Value("${http.compression.min-size:2048}") long minSize,
+        @Value("${http.compression.media-types:application/json,application/ld+json,"
+            + "application/xml,text/plain,text/xml,text/turtle,multipart/form-data,"
+            + "multipart/mixed}") String[] mediaTypes) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        for (final var mediaType : mediaTypes) {
+            this.mediaTypes.add(MediaType.parseMediaType(mediaType.trim()));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+        final var accepted = PayloadEncoding.GZIP.isAccepted(
+            request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        final var compressingResponse = new CompressingResponse(response, accepted);
+        try {
+            filterChain.doFilter(request, compressingResponse);
+        } finally {
+            compressingResponse.finish(request.isAsyncStarted());
+        }
+    }
+
+    private boolean isCompressible(String contentType) {
+        try {
+            final var mediaType = MediaType.parseMediaType(contentType);
+            return mediaTypes.stream().anyMatch(type -> type.includes(mediaType));
+        } catch (RuntimeException exception) {
+            return false;
+        }
+    }
+
+    /**
+     * A response deciding with its first write whether to compress the body. Until then the
+     * content length is held back, since it does not apply to the compressed body.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final boolean accepted;
+        private long contentLength = -1;
+        private Boolean compress;
+        private GZIPOutputStream gzip;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        private CompressingResponse(HttpServletResponse response, boolean accepted) {
+            super(response);
+            this.accepted = accepted;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (compress == null) {
+                contentLength = length;
+            } else if (!compress) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            skip();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            skip();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            skip();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called.");
+            }
+
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(super.getOutputStream());
+            }
+
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called.");
+                }
+
+                outputStream = new CompressingOutputStream(super.getOutputStream());
+                writer = new PrintWriter(new OutputStreamWriter(outputStream,
+                    Charset.forName(getCharacterEncoding())));
+            }
+
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            } else {
+                decide();
+            }
+
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (compress != null && compress) {
+                throw new IllegalStateException("The compressed body has already been written.");
+            }
+
+            super.resetBuffer();
+        }
+
+        /**
+         * Completes the body. An asynchronous response is written after this request returned,
+         * so it is not compressed unless that was decided already.
+         */
+        private void finish(boolean async) throws IOException {
+            if (async) {
+                if (compress == null) {
+                    skip();
+                } else if (writer != null) {
+                    writer.flush();
+                }
+                return;
+            }
+
+            if (writer != null) {
+                writer.flush();
+            }
+
+            decide();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        }
+
+        private void skip() {
+            if (compress == null) {
+                compress = false;
+                if (contentLength >= 0) {
+                    super.setContentLengthLong(contentLength);
+                }
+            }
+        }
+
+        private void decide() throws IOException {
+            if (compress != null) {
+                return;
+            }
+
+            if (!shouldCompress()) {
+                skip();
+                return;
+            }
+
+            compress = true;
+            super.setHeader(HttpHeaders.CONTENT_ENCODING, PayloadEncoding.GZIP.toString());
+            gzip = new GZIPOutputStream(super.getOutputStream(), BUFFER_SIZE, true);
+        }
+
+        private boolean shouldCompress() {
+            if (getStatus() != HttpServletResponse.SC_OK || isCommitted()
+                || containsHeader(HttpHeaders.CONTENT_ENCODING)
+                || containsHeader(HttpHeaders.CONTENT_RANGE)
+                || getContentType() == null || !isCompressible(getContentType())) {
+                return false;
+            }
+
+            // The body depends on the accepted encodings from here on.
+            addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            return accepted && (contentLength < 0 || contentLength >= minSize);
+        }
+
+        /**
+         * The body stream, writing to the compressed or the original stream once decided.
+         */
+        private final class CompressingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream original;
+
+            private CompressingOutputStream(ServletOutputStream original) {
+                this.original = original;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                decide();
+                target().write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (len == 0) {
+                    return;
+                }
+
+                decide();
+                target().write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                decide();
+                target().flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                decide();
+                if (gzip != null) {
+                    gzip.finish();
+                }
+
+                original.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return original.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                original.setWriteListener(writeListener);
+            }
+
+            private OutputStream target() {
+                return gzip != null ? gzip : original;
+            }
+        }
+    }
+}
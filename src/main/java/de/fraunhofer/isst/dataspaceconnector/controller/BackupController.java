@@ -0,0 +1,91 @@
+package de.fraunhofer.isst.dataspaceconnector.controller;
+
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceBackupService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * This class provides endpoints for exporting and restoring all resources of the connector.
+ */
+@RestController
+@RequestMapping("/admin/api/backup")
+@Tag(name = "Connector: Backup", description = "Endpoints for resource export and restore")
+public class BackupController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackupController.class);
+
+    private final ResourceBackupService resourceBackupService;
+
+    /**
+     * Constructor for BackupController.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public BackupController(@NotNull ResourceBackupService resourceBackupService)
+        throws IllegalArgumentException {
+        if (resourceBackupService == null) {
+            throw new IllegalArgumentException("The ResourceBackupService cannot be null.");
+        }
+
+        this.resourceBackupService = resourceBackupService;
+    }
+
+    /**
+     * Streams all offered and requested resources as gzip compressed newline delimited json.
+     *
+     * @return The backup stream.
+     */
+    @Operation(summary = "Export Resources",
+        description = "Export all offered and requested resources as gzip compressed NDJSON.")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<StreamingResponseBody> exportResources() {
+        final var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/gzip"));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"resources.ndjson.gz\"");
+
+        return new ResponseEntity<>(resourceBackupService::exportResources, headers,
+            HttpStatus.OK);
+    }
+
+    /**
+     * Restores resources from a backup. The request body is read as a stream, gzip compressed
+     * and plain newline delimited json are accepted.
+     *
+     * @param inputStream The request body.
+     * @return The outcome of the restore.
+     */
+    @Operation(summary = "Restore Resources",
+        description = "Restore resources from a (gzip compressed) NDJSON backup. Existing " +
+            "resources with the same uuid are overwritten.")
+    @RequestMapping(value = "/restore", method = RequestMethod.POST)
+    @ResponseBody
+    public ResponseEntity<Object> restoreResources(InputStream inputStream) {
+        try {
+            final var result = resourceBackupService.restoreResources(inputStream);
+            return new ResponseEntity<>(result,
+                result.getFailed() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS);
+        } catch (IOException exception) {
+            LOGGER.warn("Failed to read the backup.", exception);
+            return new ResponseEntity<>("The backup could not be read.", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
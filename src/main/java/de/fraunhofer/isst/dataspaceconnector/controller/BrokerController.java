@@ -1,26 +1,41 @@
 package de.fraunhofer.isst.dataspaceconnector.controller;
 
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerJobService;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerQueryBuilder;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerSyncService;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.DatTokenCache;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.HttpClientRegistry;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.MultipartStreamReader;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
 import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.spring.starter.BrokerService;
 import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
-import de.fraunhofer.isst.ids.framework.util.ClientProvider;
 import io.jsonwebtoken.lang.Assert;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.security.GeneralSecurityException;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import okhttp3.Response;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -38,9 +53,16 @@ public class BrokerController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BrokerController.class);
 
-    private final TokenProvider tokenProvider;
+    private static final int MAX_HEADER_SIZE = 64 * 1024;
+
+    private final DatTokenCache tokenProvider;
     private final BrokerService brokerService;
     private final OfferedResourceService offeredResourceService;
+    private final BrokerSyncService brokerSyncService;
+    private final BrokerJobService brokerJobService;
+
+    @Value("${broker.query.max-limit:1000}")
+    private int maxQueryLimit;
 
     /**
      * Constructor for BrokerController.
@@ -49,15 +71,31 @@ public class BrokerController {
      * @throws GeneralSecurityException - if the framework has an error.
      */
     @Autowired
-    public BrokerController(@NotNull TokenProvider tokenProvider,
+    public BrokerController(@NotNull DatTokenCache tokenProvider,
+        @NotNull TokenProvider dapsTokenProvider,
         @NotNull ConfigurationContainer configurationContainer,
-        @NotNull OfferedResourceService offeredResourceService)
+        @NotNull HttpClientRegistry httpClientRegistry,
+        @NotNull OfferedResourceService offeredResourceService,
+        @NotNull BrokerSyncService brokerSyncService,
+        @NotNull BrokerJobService brokerJobService)
         throws IllegalArgumentException, GeneralSecurityException {
         if (offeredResourceService == null) {
             throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
         }
 
+        if (brokerSyncService == null) {
+            throw new IllegalArgumentException("The BrokerSyncService cannot be null.");
+        }
+
+        if (brokerJobService == null) {
+            throw new IllegalArgumentException("The BrokerJobService cannot be null.");
+        }
+
         if (tokenProvider == null) {
+            throw new IllegalArgumentException("The DatTokenCache cannot be null.");
+        }
+
+        if (dapsTokenProvider == null) {
             throw new IllegalArgumentException("The TokenProvider cannot be null.");
         }
 
@@ -65,45 +103,44 @@ public class BrokerController {
             throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
         }
 
+        if (httpClientRegistry == null) {
+            throw new IllegalArgumentException("The HttpClientRegistry cannot be null.");
+        }
+
         this.tokenProvider = tokenProvider;
         this.offeredResourceService = offeredResourceService;
+        this.brokerSyncService = brokerSyncService;
+        this.brokerJobService = brokerJobService;
 
-        try {
-            this.brokerService = new BrokerService(configurationContainer,
-                new ClientProvider(configurationContainer), tokenProvider);
-        } catch (NoSuchAlgorithmException | KeyManagementException exception) {
-            LOGGER.error("Failed to initialize the broker. Error in the framework.", exception);
-            throw new GeneralSecurityException("Error in the framework.", exception);
-        }
+        this.brokerService = new BrokerService(configurationContainer,
+            httpClientRegistry.getClientProvider(HttpClientRegistry.Profile.BROKER),
+            dapsTokenProvider);
     }
 
     /**
      * Sends a ConnectorAvailableMessage to an IDS broker.
      *
-     * @param url The broker address.
-     * @return The broker response message or an error.
+     * @param url   The broker address.
+     * @param async Whether to return the job instead of waiting for the broker.
+     * @return The broker response message, the job or an error.
      */
     @Operation(summary = "Register Connector",
         description = "Register or update connector at an IDS broker.")
     @RequestMapping(value = {"/register", "/update"}, method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> updateAtBroker(@Parameter(description = "The url of the broker."
+    public ResponseEntity<Object> updateAtBroker(@Parameter(description = "The url of the broker."
         , required = true, example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
-    @RequestParam("broker") String url) {
+    @RequestParam("broker") String url,
+        @Parameter(description = "Return the job instead of waiting for the broker.")
+        @RequestParam(value = "async", defaultValue = "false") boolean async) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(brokerService, "The brokerService cannot be null.");
 
         // Make sure the request is authorized.
         if (tokenProvider.getTokenJWS() != null) {
-            try {
-                // Send the update request to the broker
-                final var brokerResponse = brokerService.updateAtBroker(url);
-                return new ResponseEntity<>("The broker answered with: "
-                    + brokerResponse.body().string(),
-                    HttpStatus.OK);
-            } catch (NullPointerException | IOException exception) {
-                return respondBrokerCommunicationFailed(exception);
-            }
+            // Send the update request to the broker
+            return runJob("update", url, async, () -> brokerService.updateAtBroker(url),
+                "The broker answered with: ");
         } else {
             // The request was unauthorized.
             return respondRejectUnauthorized(url);
@@ -113,28 +150,27 @@ public class BrokerController {
     /**
      * Sends a ConnectorUnavailableMessage to an IDS broker.
      *
-     * @param url The broker address.
-     * @return The broker response message or an error.
+     * @param url   The broker address.
+     * @param async Whether to return the job instead of waiting for the broker.
+     * @return The broker response message, the job or an error.
      */
     @Operation(summary = "Unregister Connector", description = "Unregister connector at an IDS broker.")
     @RequestMapping(value = "/unregister", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> unregisterAtBroker(
+    public ResponseEntity<Object> unregisterAtBroker(
         @Parameter(description = "The url of the broker.",
             required = true, example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
-        @RequestParam("broker") String url) {
+        @RequestParam("broker") String url,
+        @Parameter(description = "Return the job instead of waiting for the broker.")
+        @RequestParam(value = "async", defaultValue = "false") boolean async) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(brokerService, "The brokerService cannot be null.");
 
         // Make sure the request is authorized.
         if (tokenProvider.getTokenJWS() != null) {
-            try {
-                // Send the unregister request to the broker
-                final var brokerResponse = brokerService.unregisterAtBroker(url);
-                return new ResponseEntity<>(brokerResponse.body().string(), HttpStatus.OK);
-            } catch (NullPointerException | IOException exception) {
-                return respondBrokerCommunicationFailed(exception);
-            }
+            // Send the unregister request to the broker
+            return runJob("unregister", url, async, () -> brokerService.unregisterAtBroker(url),
+                "");
         } else {
             // The request was unauthorized.
             return respondRejectUnauthorized(url);
@@ -142,41 +178,89 @@ public class BrokerController {
     }
 
     /**
-     * Sends a QueryMessage to an IDS broker.
+     * Sends a QueryMessage to an IDS broker. The SPARQL query is taken from the request body or
+     * built from the filter parameters, and is limited to one page. The payload of the broker
+     * response is streamed to the caller.
      *
-     * @param url The broker address.
-     * @return The broker response message or an error.
+     * @param url       The broker address.
+     * @param query     The SPARQL SELECT query, may be null.
+     * @param keyword   A part of a keyword of the resources.
+     * @param publisher The publisher of the resources.
+     * @param type      The type of the resources.
+     * @param limit     The page size.
+     * @param offset    The index of the first result.
+     * @param async     Whether to return the job instead of waiting for the broker.
+     * @return The broker response payload, the job or an error.
      */
-    @Operation(summary = "Broker Query Request", description = "Send a query request to an IDS broker.")
+    @Operation(summary = "Broker Query Request", description = "Send a query request to an IDS "
+        + "broker. Without query, the resources matching the filter parameters are selected.")
     @RequestMapping(value = "/query", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> queryBroker(
+    public ResponseEntity<Object> queryBroker(
         @Parameter(description = "The url of the broker.",
             required = true, example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
-        @RequestParam("broker") String url) {
+        @RequestParam("broker") String url,
+        @RequestBody(required = false) String query,
+        @Parameter(description = "A part of a keyword of the resources.")
+        @RequestParam(value = "keyword", required = false) String keyword,
+        @Parameter(description = "The publisher of the resources.")
+        @RequestParam(value = "publisher", required = false) String publisher,
+        @Parameter(description = "The type of the resources.", example = "ids:Resource")
+        @RequestParam(value = "type", required = false) String type,
+        @Parameter(description = "The page size.")
+        @RequestParam(value = "limit", defaultValue = "100") int limit,
+        @Parameter(description = "The index of the first result.")
+        @RequestParam(value = "offset", defaultValue = "0") long offset,
+        @Parameter(description = "Return the job instead of waiting for the broker.")
+        @RequestParam(value = "async", defaultValue = "false") boolean async) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(brokerService, "The brokerService cannot be null.");
 
         // Make sure the request is authorized.
-        if (tokenProvider.getTokenJWS() != null) {
-            // Send the query request to the broker
-            final var query = "SELECT ?subject ?predicate ?object\n" +
-                "FROM <urn:x-arq:UnionGraph>\n" +
-                "WHERE {\n" +
-                "  ?subject ?predicate ?object\n" +
-                "};";
-
-            try {
-                final var brokerResponse = brokerService.queryBroker(url, query,
-                    null, null, null);
-                return new ResponseEntity<>(brokerResponse.body().string(), HttpStatus.OK);
-            } catch (IOException exception) {
-                return respondBrokerCommunicationFailed(exception);
-            }
-        } else {
+        if (tokenProvider.getTokenJWS() == null) {
             // The request was unauthorized.
             return respondRejectUnauthorized(url);
         }
+
+        if (limit < 1 || limit > maxQueryLimit || offset < 0) {
+            return new ResponseEntity<>(String.format("The limit has to be between 1 and %d, "
+                + "the offset cannot be negative.", maxQueryLimit), HttpStatus.BAD_REQUEST);
+        }
+
+        final String sparql;
+        try {
+            sparql = query != null && !query.isBlank()
+                ? BrokerQueryBuilder.page(query, limit, offset, maxQueryLimit)
+                : BrokerQueryBuilder.filter(keyword, publisher, type, limit, offset);
+        } catch (IllegalArgumentException exception) {
+            return new ResponseEntity<>(exception.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+
+        // Send the query request to the broker
+        final BrokerJobService.BrokerRequest request =
+            () -> brokerService.queryBroker(url, sparql, null, null, null);
+        if (async) {
+            return runJob("query", url, true, request, "");
+        }
+
+        final Response response;
+        try {
+            response = brokerJobService.send(request).join();
+        } catch (CompletionException exception) {
+            final var cause = exception.getCause();
+            if (cause instanceof TimeoutException) {
+                LOGGER.info("Broker communication timed out: " + cause.getMessage());
+                return new ResponseEntity<>("The broker did not answer in time.",
+                    HttpStatus.GATEWAY_TIMEOUT);
+            } else if (cause instanceof RejectedExecutionException) {
+                return new ResponseEntity<>("Too many pending broker requests.",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+            }
+
+            return respondBrokerCommunicationFailed(cause.getMessage());
+        }
+
+        return respondStreamedPayload(response);
     }
 
     /**
@@ -184,18 +268,21 @@ public class BrokerController {
      *
      * @param url        The broker address.
      * @param resourceId The resource uuid.
-     * @return The broker response message or an error.
+     * @param async      Whether to return the job instead of waiting for the broker.
+     * @return The broker response message, the job or an error.
      */
     @Operation(summary = "Update Resource at Broker",
         description = "Update an IDS resource at an IDS broker.")
     @RequestMapping(value = "/update/{resource-id}", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> updateResourceAtBroker(
+    public ResponseEntity<Object> updateResourceAtBroker(
         @Parameter(description = "The url of the broker.", required = true,
             example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
         @RequestParam("broker") String url,
         @Parameter(description = "The resource id.", required = true)
-        @PathVariable("resource-id") UUID resourceId) {
+        @PathVariable("resource-id") UUID resourceId,
+        @Parameter(description = "Return the job instead of waiting for the broker.")
+        @RequestParam(value = "async", defaultValue = "false") boolean async) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(brokerService, "The brokerService cannot be null.");
         Assert.notNull(offeredResourceService, "The offeredResourceService cannot be null.");
@@ -211,17 +298,14 @@ public class BrokerController {
                     return respondResourceNotFound(resourceId);
                 } else {
                     // The resource has been received, update at broker
-                    final var brokerResponse =
-                        brokerService.updateResourceAtBroker(url, resource);
-                    return new ResponseEntity<>(brokerResponse.body().string(), HttpStatus.OK);
+                    return runJob("update-resource", url, async,
+                        () -> brokerService.updateResourceAtBroker(url, resource), "");
                 }
             } catch (ClassCastException | NullPointerException exception) {
                 // An (implementation) error occurred while receiving the resource
                 LOGGER.error("Resource not be loaded.");
                 return new ResponseEntity<>("Could not load resource.",
                     HttpStatus.INTERNAL_SERVER_ERROR);
-            } catch (IOException exception) {
-                return respondBrokerCommunicationFailed(exception);
             }
         } else {
             // The request was unauthorized.
@@ -234,18 +318,21 @@ public class BrokerController {
      *
      * @param url        The broker address.
      * @param resourceId The resource uuid.
-     * @return The broker response message or an error.
+     * @param async      Whether to return the job instead of waiting for the broker.
+     * @return The broker response message, the job or an error.
      */
     @Operation(summary = "Remove Resource from Broker",
         description = "Remove an IDS resource at an IDS broker.")
     @RequestMapping(value = "/remove/{resource-id}", method = RequestMethod.POST)
     @ResponseBody
-    public ResponseEntity<String> deleteResourceAtBroker(
+    public ResponseEntity<Object> deleteResourceAtBroker(
         @Parameter(description = "The url of the broker.", required = true,
             example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
         @RequestParam("broker") String url,
         @Parameter(description = "The resource id.", required = true)
-        @PathVariable("resource-id") UUID resourceId) {
+        @PathVariable("resource-id") UUID resourceId,
+        @Parameter(description = "Return the job instead of waiting for the broker.")
+        @RequestParam(value = "async", defaultValue = "false") boolean async) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(brokerService, "The brokerService cannot be null.");
         Assert.notNull(offeredResourceService, "The offeredResourceService cannot be null.");
@@ -261,17 +348,14 @@ public class BrokerController {
                     return respondResourceNotFound(resourceId);
                 } else {
                     // The resource has been received, remove from broker
-                    final var brokerResponse =
-                        brokerService.removeResourceFromBroker(url, resource);
-                    return new ResponseEntity<>(brokerResponse.body().string(), HttpStatus.OK);
+                    return runJob("remove-resource", url, async,
+                        () -> brokerService.removeResourceFromBroker(url, resource), "");
                 }
             } catch (ClassCastException | NullPointerException exception) {
                 // An (implementation) error occurred while receiving the resource
                 LOGGER.error("Resource not be loaded.");
                 return new ResponseEntity<>("Could not load resource.",
                     HttpStatus.INTERNAL_SERVER_ERROR);
-            } catch (IOException exception) {
-                return respondBrokerCommunicationFailed(exception);
             }
         } else {
             // The request was unauthorized.
@@ -279,24 +363,199 @@ public class BrokerController {
         }
     }
 
-    private ResponseEntity<String> respondResourceNotFound(UUID resourceId) {
+    /**
+     * Returns a broker job with its state and, once finished, the broker response.
+     *
+     * @param jobId The job id.
+     * @return The job or not found.
+     */
+    @Operation(summary = "Broker Job",
+        description = "Get the state and result of a broker operation started asynchronously.")
+    @RequestMapping(value = "/jobs/{job-id}", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getJob(
+        @Parameter(description = "The job id.", required = true)
+        @PathVariable("job-id") UUID jobId) {
+        final var job = brokerJobService.getJob(jobId);
+        if (job == null) {
+            return new ResponseEntity<>("Job not found.", HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(job, HttpStatus.OK);
+    }
+
+    /**
+     * Starts the synchronization of the offered resources with an IDS broker. Only resources
+     * changed or deleted since the last synchronization are sent.
+     *
+     * @param url The broker address.
+     * @return The status of the synchronization.
+     */
+    @Operation(summary = "Synchronize Resources with Broker",
+        description = "Start sending the resources changed or deleted since the last "
+            + "synchronization to an IDS broker.")
+    @RequestMapping(value = "/sync", method = RequestMethod.POST)
+    @ResponseBody
+    public ResponseEntity<Object> syncWithBroker(
+        @Parameter(description = "The url of the broker.",
+            required = true, example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
+        @RequestParam("broker") String url) {
+        Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
+
+        // Make sure the request is authorized.
+        if (tokenProvider.getTokenJWS() != null) {
+            return new ResponseEntity<>(brokerSyncService.startSync(url), HttpStatus.ACCEPTED);
+        } else {
+            // The request was unauthorized.
+            return respondRejectUnauthorized(url);
+        }
+    }
+
+    /**
+     * Returns the status of the last synchronization with an IDS broker.
+     *
+     * @param url The broker address.
+     * @return The status of the synchronization or not found.
+     */
+    @Operation(summary = "Broker Synchronization Status",
+        description = "Get the progress of the last synchronization with an IDS broker.")
+    @RequestMapping(value = "/sync", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getSyncStatus(
+        @Parameter(description = "The url of the broker.",
+            required = true, example = "https://broker.ids.isst.fraunhofer.de/infrastructure")
+        @RequestParam("broker") String url) {
+        final var status = brokerSyncService.getStatus(url);
+        if (status == null) {
+            return new ResponseEntity<>("No synchronization with this broker.",
+                HttpStatus.NOT_FOUND);
+        }
+
+        return new ResponseEntity<>(status, HttpStatus.OK);
+    }
+
+    /**
+     * Submits a broker operation. An asynchronous call returns the job right away, otherwise the
+     * job is awaited, which takes at most the job timeout.
+     */
+    private ResponseEntity<Object> runJob(String operation, String url, boolean async,
+        BrokerJobService.BrokerRequest request, String responsePrefix) {
+        final var job = brokerJobService.submit(operation, url, request);
+        if (async) {
+            return ResponseEntity.accepted()
+                .location(URI.create("/admin/api/broker/jobs/" + job.getId()))
+                .body(job);
+        }
+
+        job.getCompletion().join();
+        switch (job.getState()) {
+            case SUCCEEDED:
+                return new ResponseEntity<>(responsePrefix + job.getResponse(), HttpStatus.OK);
+            case TIMEOUT:
+                LOGGER.info("Broker communication timed out: " + job.getMessage());
+                return new ResponseEntity<>("The broker did not answer in time.",
+                    HttpStatus.GATEWAY_TIMEOUT);
+            case REJECTED:
+                LOGGER.info("Broker communication rejected: " + job.getMessage());
+                return new ResponseEntity<>("Too many pending broker requests.",
+                    HttpStatus.SERVICE_UNAVAILABLE);
+            default:
+                return respondBrokerCommunicationFailed(job.getMessage());
+        }
+    }
+
+    /**
+     * Streams the payload part of a multipart broker response, or the whole body if it is no
+     * multipart message. The broker response is closed once the stream was written. A rejection
+     * of the broker is answered with bad gateway.
+     */
+    private ResponseEntity<Object> respondStreamedPayload(Response response) {
+        final var body = response.body();
+        if (body == null) {
+            response.close();
+            return respondBrokerCommunicationFailed("Received no response body.");
+        }
+
+        final var headers = new HttpHeaders();
+        final var contentType = body.contentType();
+        final var boundary =
+            MultipartStreamReader.getBoundary(contentType == null ? null : contentType.toString());
+        try {
+            if (boundary == null) {
+                headers.setContentType(contentType == null ? MediaType.TEXT_PLAIN
+                    : MediaType.parseMediaType(contentType.toString()));
+                return new ResponseEntity<>(new InputStreamResource(
+                    new ClosingInputStream(body.byteStream(), response)), headers, HttpStatus.OK);
+            }
+
+            final var reader = new MultipartStreamReader(body.byteStream(), boundary);
+            String header = null;
+            while (reader.nextPart()) {
+                final var name = reader.getPartName();
+                if ("header".equals(name)) {
+                    header = reader.readPartAsString(MAX_HEADER_SIZE);
+                } else if ("payload".equals(name)) {
+                    if (header != null && header.contains("RejectionMessage")) {
+                        final var reason = reader.readPartAsString(MAX_HEADER_SIZE);
+                        response.close();
+                        LOGGER.info("The broker rejected the query: " + reason);
+                        return new ResponseEntity<>("The broker rejected the query: " + reason,
+                            HttpStatus.BAD_GATEWAY);
+                    }
+
+                    final var partType = reader.getHeaders().get("content-type");
+                    headers.setContentType(partType == null ? MediaType.TEXT_PLAIN
+                        : MediaType.parseMediaType(partType));
+                    return new ResponseEntity<>(new InputStreamResource(
+                        new ClosingInputStream(reader.getPartStream(), response)), headers,
+                        HttpStatus.OK);
+                }
+            }
+
+            response.close();
+            return respondBrokerCommunicationFailed("The broker response has no payload.");
+        } catch (IOException | IllegalArgumentException exception) {
+            response.close();
+            return respondBrokerCommunicationFailed(exception.getMessage());
+        }
+    }
+
+    private ResponseEntity<Object> respondResourceNotFound(UUID resourceId) {
         // The resource could not be found, reject and inform the requester
         LOGGER.info(String.format("Resource update failed. Resource %s could not be found.",
             resourceId));
         return new ResponseEntity<>("Resource not found.", HttpStatus.NOT_FOUND);
     }
 
-    private ResponseEntity<String> respondBrokerCommunicationFailed(Exception exception) {
+    private ResponseEntity<Object> respondBrokerCommunicationFailed(String message) {
         // The broker could not be reached.
-        LOGGER.info("Broker communication failed: " + exception.getMessage());
+        LOGGER.info("Broker communication failed: " + message);
 
         return new ResponseEntity<>("The communication with the broker failed.",
             HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    private ResponseEntity<String> respondRejectUnauthorized(String url) {
+    private ResponseEntity<Object> respondRejectUnauthorized(String url) {
         // The request was unauthorized.
         LOGGER.warn("Unauthorized call. No DAT token found. Tried call with url:" + url);
         return new ResponseEntity<>("Please check your DAT token.", HttpStatus.UNAUTHORIZED);
     }
+
+    /**
+     * A stream closing the broker response along with itself.
+     */
+    private static final class ClosingInputStream extends FilterInputStream {
+
+        private final Response response;
+
+        private ClosingInputStream(InputStream inputStream, Response response) {
+            super(inputStream);
+            this.response = response;
+        }
+
+        @Override
+        public void close() {
+            response.close();
+        }
+    }
 }
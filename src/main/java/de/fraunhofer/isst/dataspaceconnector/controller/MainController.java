@@ -1,11 +1,12 @@
 package de.fraunhofer.isst.dataspaceconnector.controller;
 
-import de.fraunhofer.iais.eis.BaseConnectorImpl;
 import de.fraunhofer.iais.eis.ResourceCatalog;
 import de.fraunhofer.iais.eis.ResourceCatalogBuilder;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
+import de.fraunhofer.isst.dataspaceconnector.model.PayloadEncoding;
+import de.fraunhofer.isst.dataspaceconnector.services.ConnectorSnapshotService;
 import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceService;
@@ -13,14 +14,21 @@ import de.fraunhofer.isst.ids.framework.spring.starter.SerializerProvider;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.ResponseBody;
@@ -35,10 +43,17 @@ public class MainController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MainController.class);
 
+    private static final MediaType JSON_LD = MediaType.parseMediaType("application/ld+json");
+    private static final String GZIP = PayloadEncoding.GZIP.toString();
+
     private final SerializerProvider serializerProvider;
     private final OfferedResourceService offeredResourceService;
     private final RequestedResourceService requestedResourceService;
     private final IdsUtils idsUtils;
+    private final ConnectorSnapshotService connectorSnapshotService;
+
+    @Value("${ids.self-description.max-age:PT1M}")
+    private Duration selfDescriptionMaxAge;
 
     /**
      * Constructor for MainController.
@@ -49,7 +64,8 @@ public class MainController {
     public MainController(@NotNull SerializerProvider serializerProvider,
         @NotNull OfferedResourceService offeredResourceService,
         @NotNull RequestedResourceService requestedResourceService,
-        @NotNull IdsUtils idsUtils)
+        @NotNull IdsUtils idsUtils,
+        @NotNull ConnectorSnapshotService connectorSnapshotService)
         throws IllegalArgumentException {
         if (serializerProvider == null) {
             throw new IllegalArgumentException("The SerializerProvider cannot be null.");
@@ -67,33 +83,56 @@ public class MainController {
             throw new IllegalArgumentException("The IdsUtils cannot be null.");
         }
 
+        if (connectorSnapshotService == null) {
+            throw new IllegalArgumentException("The ConnectorSnapshotService cannot be null.");
+        }
+
         this.serializerProvider = serializerProvider;
         this.offeredResourceService = offeredResourceService;
         this.requestedResourceService = requestedResourceService;
         this.idsUtils = idsUtils;
+        this.connectorSnapshotService = connectorSnapshotService;
     }
 
     /**
-     * Gets connector self-description without catalog.
+     * Gets connector self-description without catalog. It is encoded once per configuration and
+     * sent gzip compressed if the client accepts it. Clients revalidate with the entity tag.
      *
+     * @param ifNoneMatch    The entity tags known to the client.
+     * @param acceptEncoding The content encodings accepted by the client.
      * @return Self-description or error response.
      */
     @Operation(summary = "Public Endpoint for Connector Self-description",
         description = "Get the connector's reduced self-description.")
     @RequestMapping(value = {"/", ""}, method = RequestMethod.GET)
     @ResponseBody
-    public ResponseEntity<String> getPublicSelfDescription() {
-        Assert.notNull(idsUtils, "The idsUtils cannot be null.");
-        Assert.notNull(serializerProvider, "The serializerProvider cannot be null.");
+    public ResponseEntity<Object> getPublicSelfDescription(
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding) {
+        Assert.notNull(connectorSnapshotService, "The connectorSnapshotService cannot be null.");
 
         try {
-            // Modify a connector for exposing the reduced self description
-            var connector = (BaseConnectorImpl) idsUtils.getConnector();
-            connector.setResourceCatalog(null);
-            connector.setPublicKey(null);
-
-            return new ResponseEntity<>(serializerProvider.getSerializer().serialize(connector),
-                HttpStatus.OK);
+            // The reduced self description is built from a copy, the connector is not modified
+            final var description = connectorSnapshotService.getPublicDescription();
+            final var gzip = PayloadEncoding.GZIP.isAccepted(acceptEncoding);
+
+            final var headers = new HttpHeaders();
+            headers.setCacheControl(CacheControl.maxAge(selfDescriptionMaxAge).cachePublic());
+            headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+            headers.setETag("\"" + description.getTag() + (gzip ? "-" + GZIP : "") + "\"");
+
+            if (matches(ifNoneMatch, description.getTag())) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
+
+            headers.setContentType(JSON_LD);
+            if (gzip) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+                return new ResponseEntity<>(description.getGzip(), headers, HttpStatus.OK);
+            }
+
+            return new ResponseEntity<>(description.getBytes(), headers, HttpStatus.OK);
         } catch (ConnectorConfigurationException exception) {
             // No connector found
             LOGGER.warn("No connector has been configurated.", exception);
@@ -118,15 +157,12 @@ public class MainController {
     @ResponseBody
     public ResponseEntity<String> getSelfService() {
         Assert.notNull(idsUtils, "The idsUtils cannot be null.");
-        Assert.notNull(serializerProvider, "The serializerProvider cannot be null.");
+        Assert.notNull(connectorSnapshotService, "The connectorSnapshotService cannot be null.");
 
         try {
-            // Modify a connector for exposing a resource catalog
-            var connector = (BaseConnectorImpl) idsUtils.getConnector();
-            connector.setResourceCatalog(Util.asList(buildResourceCatalog()));
-
-            return new ResponseEntity<>(serializerProvider.getSerializer().serialize(connector),
-                HttpStatus.OK);
+            // Expose the resource catalog on a copy of the connector
+            return new ResponseEntity<>(connectorSnapshotService.serializeWithCatalogs(
+                idsUtils.getConnector(), Util.asList(buildResourceCatalog())), HttpStatus.OK);
         } catch (ConnectorConfigurationException exception) {
             // No connector found
             LOGGER.warn("No connector has been configurated.", exception);
@@ -140,6 +176,33 @@ public class MainController {
         }
     }
 
+    /**
+     * Checks whether the client knows the entity tag in any encoding.
+     */
+    private static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (var candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.equals("*")) {
+                return true;
+            }
+
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+
+            candidate = candidate.replace("\"", "");
+            if (candidate.equals(tag) || candidate.equals(tag + "-" + GZIP)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     private ResourceCatalog buildResourceCatalog() throws ConstraintViolationException {
         Assert.notNull(offeredResourceService, "The offeredResourceService cannot be null.");
         Assert.notNull(requestedResourceService, "The requestedResourceService cannot be null.");
@@ -1,26 +1,48 @@
 package de.fraunhofer.isst.dataspaceconnector.controller;
 
+import de.fraunhofer.isst.dataspaceconnector.model.ArtifactRequestItem;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestResult;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.ArtifactBatchRequestService;
 import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestServiceUtils;
-import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.DatTokenCache;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.HttpClientRegistry;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.RemoteDescriptionCache;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCatalogService;
 import io.jsonwebtoken.lang.Assert;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.io.IOException;
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import okhttp3.Response;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 
 /**
  * This class provides endpoints for the communication with an IDS connector instance.
@@ -33,9 +55,15 @@ public class RequestController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestController.class);
 
-    private final TokenProvider tokenProvider;
+    private final DatTokenCache tokenProvider;
     private final ConnectorRequestServiceImpl requestMessageService;
     private final ConnectorRequestServiceUtils connectorRequestServiceUtils;
+    private final ArtifactBatchRequestService artifactBatchRequestService;
+    private final HttpClientRegistry httpClientRegistry;
+    private final RemoteDescriptionCache descriptionCache;
+
+    @Value("${request.async.timeout:30000}")
+    private long defaultTimeout;
 
     /**
      * Constructor for RequestController
@@ -43,12 +71,15 @@ public class RequestController {
      * @throws IllegalArgumentException - if any of the parameters is null.
      */
     @Autowired
-    public RequestController(@NotNull TokenProvider tokenProvider,
+    public RequestController(@NotNull DatTokenCache tokenProvider,
         @NotNull ConnectorRequestServiceImpl requestMessageService,
-        @NotNull ConnectorRequestServiceUtils connectorRequestServiceUtils)
+        @NotNull ConnectorRequestServiceUtils connectorRequestServiceUtils,
+        @NotNull ArtifactBatchRequestService artifactBatchRequestService,
+        @NotNull HttpClientRegistry httpClientRegistry,
+        @NotNull RemoteDescriptionCache descriptionCache)
         throws IllegalArgumentException {
         if (tokenProvider == null) {
-            throw new IllegalArgumentException("The TokenProvider cannot be null.");
+            throw new IllegalArgumentException("The DatTokenCache cannot be null.");
         }
 
         if (requestMessageService == null) {
@@ -59,9 +90,24 @@ public class RequestController {
             throw new IllegalArgumentException("The ConnectorRequestServiceUtils cannot be null.");
         }
 
+        if (artifactBatchRequestService == null) {
+            throw new IllegalArgumentException("The ArtifactBatchRequestService cannot be null.");
+        }
+
+        if (httpClientRegistry == null) {
+            throw new IllegalArgumentException("The HttpClientRegistry cannot be null.");
+        }
+
+        if (descriptionCache == null) {
+            throw new IllegalArgumentException("The RemoteDescriptionCache cannot be null.");
+        }
+
         this.tokenProvider = tokenProvider;
         this.requestMessageService = requestMessageService;
         this.connectorRequestServiceUtils = connectorRequestServiceUtils;
+        this.artifactBatchRequestService = artifactBatchRequestService;
+        this.httpClientRegistry = httpClientRegistry;
+        this.descriptionCache = descriptionCache;
     }
 
     /**
@@ -70,12 +116,16 @@ public class RequestController {
      * @param recipient         The target connector uri.
      * @param requestedArtifact The requested resource uri.
      * @param key               a {@link java.util.UUID} object.
+     * @param offset            The first requested byte, e.g. to resume an interrupted transfer.
+     * @param length            The number of requested bytes.
      * @return OK or error response.
      */
     @Operation(summary = "Artifact Request",
         description = "Request data from another IDS connector. " +
             "INFO: Before an artifact can be requested, the metadata must be queried. The key" +
-            " generated in this process must be passed in the artifact query.")
+            " generated in this process must be passed in the artifact query. With an offset," +
+            " only a byte range is requested and written at the offset of the data saved" +
+            " before. The offset cannot exceed the size of the saved data.")
     @RequestMapping(value = "/artifact", method = RequestMethod.POST)
     @ResponseBody
     public ResponseEntity<String> requestData(
@@ -86,39 +136,45 @@ public class RequestController {
             example = "https://w3id.org/idsa/autogen/artifact/a4212311-86e4-40b3-ace3-ef29cd687cf9")
         @RequestParam(value = "requestedArtifact") URI requestedArtifact,
         @Parameter(description = "A unique validation key.", required = true)
-        @RequestParam("key") UUID key) {
+        @RequestParam("key") UUID key,
+        @Parameter(description = "The first requested byte of the data.")
+        @RequestParam(value = "offset", required = false) Long offset,
+        @Parameter(description = "The number of requested bytes, the rest if empty.")
+        @RequestParam(value = "length", required = false) Long length) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(connectorRequestServiceUtils,
             "The connectorRequestServiceUtils cannot be null.");
         Assert.notNull(requestMessageService, "The requestMessageService cannot be null.");
 
         if (tokenProvider.getTokenJWS() != null) {
+            if ((offset != null && offset < 0) || (length != null && length < 1)) {
+                return new ResponseEntity<>("The offset cannot be negative and the length has to " +
+                    "be positive.", HttpStatus.BAD_REQUEST);
+            }
+
             if (connectorRequestServiceUtils.resourceExists(key)) {
                 try {
-                    // Get the resource
-                    final var response =
-                        requestMessageService.sendArtifactRequestMessage(recipient,
+                    // Get the resource, or a range of it
+                    final Response response;
+                    if (offset == null && length == null) {
+                        response = requestMessageService.sendArtifactRequestMessage(recipient,
                             requestedArtifact);
+                    } else {
+                        response = requestMessageService.sendArtifactRequestMessage(recipient,
+                            requestedArtifact, offset == null ? 0 : offset, length);
+                    }
 
                     if (response != null) {
-                        try {
-                            final var responseAsString = response.body().string();
-
-                            try {
-                                connectorRequestServiceUtils.saveData(responseAsString, key);
-                            } catch (Exception exception) {
-                                LOGGER.error("Could not save data to database.", exception);
-                                return new ResponseEntity<>("Failed to save to database.",
-                                    HttpStatus.INTERNAL_SERVER_ERROR);
-                            }
-
+                        // The payload is streamed into the database, only the header is kept.
+                        try (response) {
+                            // A range behind the start continues the data saved before.
+                            final var header = connectorRequestServiceUtils.saveData(response,
+                                key, offset == null ? 0 : offset);
                             return new ResponseEntity<>(String.format("Saved at: %s \nResponse: " +
-                                "%s", key, responseAsString), HttpStatus.OK);
-
-                        } catch (NullPointerException exception) {
-                            // The database response body is null.
-                            LOGGER.error("Could not read response body.", exception);
-                            return new ResponseEntity<>("Failed to parse database response.",
+                                "%s", key, header), HttpStatus.OK);
+                        } catch (Exception exception) {
+                            LOGGER.error("Could not save data to database.", exception);
+                            return new ResponseEntity<>("Failed to save to database.",
                                 HttpStatus.INTERNAL_SERVER_ERROR);
                         }
                     } else {
@@ -148,11 +204,45 @@ public class RequestController {
         }
     }
 
+    /**
+     * Actively requests data of many artifacts from external connectors. The artifacts are
+     * requested in parallel and saved to the requested resources of their keys.
+     *
+     * @param items The artifacts to request with recipient and validation key.
+     * @return The outcome of every request, in the order of the items.
+     */
+    @Operation(summary = "Bulk Artifact Request",
+        description = "Request the data of several artifacts from other IDS connectors in "
+            + "parallel. INFO: The metadata of every artifact must have been queried before.")
+    @RequestMapping(value = "/artifact/batch", method = RequestMethod.POST)
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Object>> requestDataBatch(
+        @Parameter(description = "The artifacts to request.", required = true)
+        @RequestBody List<ArtifactRequestItem> items) {
+        Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
+        Assert.notNull(artifactBatchRequestService,
+            "The artifactBatchRequestService cannot be null.");
+
+        if (tokenProvider.getTokenJWS() == null) {
+            // The request was unauthorized.
+            LOGGER.warn("Unauthorized call. No DAT token found. Tried bulk artifact request.");
+            return CompletableFuture.completedFuture(
+                new ResponseEntity<>("Please check your DAT token.", HttpStatus.UNAUTHORIZED));
+        }
+
+        // The servlet thread is released while the requests run.
+        final var batch = artifactBatchRequestService.requestArtifacts(items);
+        cancelOnAsyncTimeoutOrError(batch);
+        return batch.thenApply(results -> new ResponseEntity<>(results, HttpStatus.OK));
+    }
+
     /**
      * Actively requests metadata from an external connector by building an ArtifactRequestMessage.
+     * A description received recently is answered from the cache.
      *
      * @param recipient         The target connector uri.
      * @param requestedArtifact The requested resource uri.
+     * @param useCache          False to request the description in any case.
      * @return OK or error response.
      */
     @Operation(summary = "Description Request",
@@ -163,15 +253,26 @@ public class RequestController {
         @Parameter(description = "The URI of the requested IDS connector.", required = true,
             example = "https://localhost:8080/api/ids/data")
         @RequestParam("recipient") URI recipient,
-        @Parameter(description = "The URI of the requested resource.", required = false,
+        @Parameter(description = "The URI of the requested resource or catalog page.",
+            required = false,
             example = "https://w3id.org/idsa/autogen/resource/a4212311-86e4-40b3-ace3-ef29cd687cf9")
-        @RequestParam(value = "requestedArtifact", required = false) URI requestedArtifact) {
+        @RequestParam(value = "requestedArtifact", required = false) URI requestedArtifact,
+        @Parameter(description = "Whether a recently received description may be used.")
+        @RequestParam(value = "cache", defaultValue = "true") boolean useCache) {
         Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
         Assert.notNull(connectorRequestServiceUtils,
             "The connectorRequestServiceUtils cannot be null.");
         Assert.notNull(requestMessageService, "The requestMessageService cannot be null.");
 
         if (tokenProvider.getTokenJWS() != null) {
+            final var saveResource = requestedArtifact != null
+                && ResourceCatalogService.getPageNumber(requestedArtifact) == null;
+            final var cached = useCache ? descriptionCache.get(recipient, requestedArtifact) : null;
+            if (cached != null && !cached.needsRefresh()) {
+                return respondDescription(cached.getResponse(), cached.getValidationKey(),
+                    saveResource);
+            }
+
             try {
                 final var response = requestMessageService.sendDescriptionRequestMessage(
                     recipient, requestedArtifact);
@@ -180,23 +281,26 @@ public class RequestController {
                     try {
                         final var responseAsString = response.body().string();
 
-                        if (requestedArtifact != null) {
-                            // Save the artifact request
-                            try {
-                                final var validationKey =
-                                    connectorRequestServiceUtils.saveMetadata(responseAsString);
-                                return new ResponseEntity<>(
-                                    "Validation: " + validationKey + "\n" + responseAsString,
-                                    HttpStatus.OK);
-                            } catch (Exception e) {
-                                LOGGER.error(e.getMessage());
-                                return new ResponseEntity<>(e.getMessage(),
-                                    HttpStatus.INTERNAL_SERVER_ERROR);
+                        UUID validationKey = null;
+                        if (saveResource) {
+                            // Save the artifact request, unless it did not change
+                            validationKey = descriptionCache
+                                .getUnchangedValidationKey(cached, responseAsString);
+                            if (validationKey == null) {
+                                try {
+                                    validationKey =
+                                        connectorRequestServiceUtils.saveMetadata(responseAsString);
+                                } catch (Exception e) {
+                                    LOGGER.error(e.getMessage());
+                                    return new ResponseEntity<>(e.getMessage(),
+                                        HttpStatus.INTERNAL_SERVER_ERROR);
+                                }
                             }
-                        } else {
-                            // Send self description
-                            return new ResponseEntity<>(responseAsString, HttpStatus.OK);
                         }
+
+                        descriptionCache.put(recipient, requestedArtifact, responseAsString,
+                            validationKey);
+                        return respondDescription(responseAsString, validationKey, saveResource);
                     } catch (NullPointerException exception) {
                         // The database response body is null.
                         LOGGER.error("Could not read response body.", exception);
@@ -221,6 +325,171 @@ public class RequestController {
         }
     }
 
+    /**
+     * Requests the self-descriptions of several external connectors at once. The requests are sent
+     * in parallel, each recipient has to answer within the timeout.
+     *
+     * @param recipients The target connector uris.
+     * @param timeout    The timeout per recipient in milliseconds.
+     * @return The outcome of every request, in the order of the recipients.
+     */
+    @Operation(summary = "Multi-Recipient Description Request",
+        description = "Request the self-descriptions of several IDS connectors in parallel.")
+    @RequestMapping(value = "/description/batch", method = RequestMethod.POST)
+    @ResponseBody
+    public CompletableFuture<ResponseEntity<Object>> requestMetadataBatch(
+        @Parameter(description = "The URIs of the requested IDS connectors.", required = true,
+            example = "https://localhost:8080/api/ids/data")
+        @RequestParam("recipients") List<URI> recipients,
+        @Parameter(description = "The timeout per recipient in milliseconds.")
+        @RequestParam(value = "timeout", required = false) Long timeout) {
+        Assert.notNull(tokenProvider, "The tokenProvider cannot be null.");
+        Assert.notNull(requestMessageService, "The requestMessageService cannot be null.");
+
+        if (tokenProvider.getTokenJWS() == null) {
+            // The request was unauthorized.
+            LOGGER.warn(String.format("Unauthorized call. No DAT token found. Tried call with " +
+                "recipients %s.", recipients));
+            return CompletableFuture.completedFuture(
+                new ResponseEntity<>("Please check your DAT token.", HttpStatus.UNAUTHORIZED));
+        }
+
+        if (timeout != null && timeout <= 0) {
+            return CompletableFuture.completedFuture(
+                new ResponseEntity<>("The timeout has to be positive.", HttpStatus.BAD_REQUEST));
+        }
+
+        final var timeoutMillis = timeout == null ? defaultTimeout : timeout;
+        final var results = recipients.stream()
+            .distinct()
+            .map(recipient -> requestMetadataAsync(recipient, timeoutMillis))
+            .collect(Collectors.toList());
+
+        // The servlet thread is released while the requests run. Every result completes, failed
+        // requests are reported as results.
+        return CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+            .thenApply(done -> new ResponseEntity<>(results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList()), HttpStatus.OK));
+    }
+
+    /**
+     * Returns the connection and latency statistics of the outbound http clients.
+     *
+     * @return The statistics by client profile.
+     */
+    @Operation(summary = "Http Client Statistics",
+        description = "Get the connection pool and latency statistics of the outbound http "
+            + "clients.")
+    @RequestMapping(value = "/clients", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getClientStatistics() {
+        return new ResponseEntity<>(httpClientRegistry.statistics(), HttpStatus.OK);
+    }
+
+    /**
+     * Returns the hit and miss statistics of the cache of received descriptions.
+     *
+     * @return The statistics.
+     */
+    @Operation(summary = "Description Cache Statistics",
+        description = "Get the size and hit/miss statistics of the cache of received "
+            + "descriptions.")
+    @RequestMapping(value = "/description/cache", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getDescriptionCacheStatistics() {
+        return new ResponseEntity<>(descriptionCache.statistics(), HttpStatus.OK);
+    }
+
+    private ResponseEntity<String> respondDescription(String response, UUID validationKey,
+        boolean saveResource) {
+        if (saveResource) {
+            // Send the saved resource
+            return new ResponseEntity<>("Validation: " + validationKey + "\n" + response,
+                HttpStatus.OK);
+        } else {
+            // Send self description or catalog page
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+    }
+
+    private CompletableFuture<RequestResult> requestMetadataAsync(URI recipient, long timeout) {
+        final var request =
+            requestMessageService.sendDescriptionRequestMessageAsync(recipient, null);
+        return request
+            .thenApply(response -> {
+                try (response) {
+                    if (response.body() == null) {
+                        throw new CompletionException(
+                            new IOException("Received no response body."));
+                    }
+
+                    return response.body().string();
+                } catch (IOException exception) {
+                    throw new CompletionException(exception);
+                }
+            })
+            .orTimeout(timeout, TimeUnit.MILLISECONDS)
+            .whenComplete((responseAsString, throwable) -> {
+                if (throwable != null) {
+                    // Frees the executor thread and the connection of a request still running.
+                    request.cancel(true);
+                }
+            })
+            .handle((responseAsString, throwable) -> {
+                if (throwable == null) {
+                    return new RequestResult(recipient, null, RequestResult.Status.SUCCESS, null,
+                        responseAsString);
+                }
+
+                final var cause = throwable instanceof CompletionException
+                    && throwable.getCause() != null ? throwable.getCause() : throwable;
+                if (cause instanceof TimeoutException) {
+                    LOGGER.info(String.format("Description request to %s timed out.", recipient));
+                    return new RequestResult(recipient, null, RequestResult.Status.TIMEOUT,
+                        String.format("No response within %d ms.", timeout), null);
+                } else if (cause instanceof RejectedExecutionException) {
+                    LOGGER.warn(String.format("Description request to %s was rejected.",
+                        recipient));
+                    return new RequestResult(recipient, null, RequestResult.Status.REJECTED,
+                        "Too many pending requests.", null);
+                } else {
+                    LOGGER.info(String.format("Description request to %s failed: %s", recipient,
+                        cause.getMessage()));
+                    return new RequestResult(recipient, null, RequestResult.Status.FAILED,
+                        cause.getMessage(), null);
+                }
+            });
+    }
+
+    /**
+     * Cancels a future when the asynchronous processing of the current request times out or
+     * fails, e.g. because the client is gone, so nobody waits for its work anymore.
+     */
+    private static void cancelOnAsyncTimeoutOrError(CompletableFuture<?> future) {
+        final var attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+
+        WebAsyncUtils.getAsyncManager(((ServletRequestAttributes) attributes).getRequest())
+            .registerDeferredResultInterceptor(future, new DeferredResultProcessingInterceptor() {
+                @Override
+                public <T> boolean handleTimeout(NativeWebRequest request,
+                    DeferredResult<T> deferredResult) {
+                    future.cancel(true);
+                    return true;
+                }
+
+                @Override
+                public <T> boolean handleError(NativeWebRequest request,
+                    DeferredResult<T> deferredResult, Throwable throwable) {
+                    future.cancel(true);
+                    return true;
+                }
+            });
+    }
+
     private ResponseEntity<String> respondRejectUnauthorized(URI recipient, URI requestedArtifact) {
         // The request was unauthorized.
         LOGGER.warn(String.format("Unauthorized call. No DAT token found. Tried call with " +
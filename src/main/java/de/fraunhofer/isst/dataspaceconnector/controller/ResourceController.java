@@ -1,10 +1,19 @@
 package de.fraunhofer.isst.dataspaceconnector.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.*;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportItem;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportResult;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceChangeService;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceMetadataCache;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceSearchService;
 import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,11 +22,19 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -35,6 +52,17 @@ public class ResourceController {
     private final OfferedResourceService offeredResourceService;
     private final RequestedResourceService requestedResourceService;
     private final PolicyHandler policyHandler;
+    private final ResourceMetadataCache<OfferedResource> offeredResourceCache;
+    private final ResourceMetadataCache<RequestedResource> requestedResourceCache;
+    private final ResourceSearchService resourceSearchService;
+    private final ResourceChangeService resourceChangeService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${resource.search.max-limit:100}")
+    private int maxSearchLimit;
+
+    @Value("${resource.changes.max-limit:1000}")
+    private int maxChangesLimit;
 
     /**
      * Constructor for ResourceController.
@@ -44,7 +72,12 @@ public class ResourceController {
     @Autowired
     public ResourceController(@NotNull OfferedResourceService offeredResourceService,
         @NotNull PolicyHandler policyHandler,
-        @NotNull RequestedResourceService requestedResourceService)
+        @NotNull RequestedResourceService requestedResourceService,
+        @NotNull ResourceMetadataCache<OfferedResource> offeredResourceCache,
+        @NotNull ResourceMetadataCache<RequestedResource> requestedResourceCache,
+        @NotNull ResourceSearchService resourceSearchService,
+        @NotNull ResourceChangeService resourceChangeService,
+        @NotNull ObjectMapper objectMapper)
         throws IllegalArgumentException {
         if (offeredResourceService == null) {
             throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
@@ -58,9 +91,34 @@ public class ResourceController {
             throw new IllegalArgumentException("The RequestedResourceService cannot be null.");
         }
 
+        if (offeredResourceCache == null) {
+            throw new IllegalArgumentException("The offered resource cache cannot be null.");
+        }
+
+        if (requestedResourceCache == null) {
+            throw new IllegalArgumentException("The requested resource cache cannot be null.");
+        }
+
+        if (resourceSearchService == null) {
+            throw new IllegalArgumentException("The ResourceSearchService cannot be null.");
+        }
+
+        if (resourceChangeService == null) {
+            throw new IllegalArgumentException("The ResourceChangeService cannot be null.");
+        }
+
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("The ObjectMapper cannot be null.");
+        }
+
         this.offeredResourceService = offeredResourceService;
         this.requestedResourceService = requestedResourceService;
         this.policyHandler = policyHandler;
+        this.offeredResourceCache = offeredResourceCache;
+        this.requestedResourceCache = requestedResourceCache;
+        this.resourceSearchService = resourceSearchService;
+        this.resourceChangeService = resourceChangeService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -101,6 +159,167 @@ public class ResourceController {
         }
     }
 
+    /**
+     * Registers a list of resources at once. Every item is handled on its own, so the response
+     * contains a result for every item, in the order of the request.
+     *
+     * @param items The resources to be imported.
+     * @return The import result of every item.
+     */
+    @Operation(summary = "Import Resources",
+        description = "Register a list of resources with their metadata and data.")
+    @RequestMapping(value = "/import", method = RequestMethod.POST,
+        consumes = "application/json")
+    @ResponseBody
+    public ResponseEntity<Object> importResources(@RequestBody List<ResourceImportItem> items) {
+        if (items == null || items.isEmpty()) {
+            return new ResponseEntity<>("No resources to import.", HttpStatus.BAD_REQUEST);
+        }
+
+        return respondImportResults(offeredResourceService.importResources(items));
+    }
+
+    /**
+     * Registers a list of resources passed as newline delimited json. Lines that cannot be parsed
+     * are reported as invalid. The body is read line by line.
+     *
+     * @param body The resources to be imported, one json object per line.
+     * @return The import result of every line.
+     * @throws IOException - if the body could not be read.
+     */
+    @Operation(summary = "Import Resources (NDJSON)",
+        description = "Register a list of resources passed as newline delimited json.")
+    @RequestMapping(value = "/import", method = RequestMethod.POST,
+        consumes = "application/x-ndjson")
+    @ResponseBody
+    public ResponseEntity<Object> importResourcesNdjson(Reader body) throws IOException {
+        final var items = new ArrayList<ResourceImportItem>();
+        try (var reader = new BufferedReader(body)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    items.add(objectMapper.readValue(line, ResourceImportItem.class));
+                } catch (JsonProcessingException exception) {
+                    // The line could not be parsed, the service reports it as invalid.
+                    LOGGER.info(String.format("Failed to parse import line %d.", items.size()),
+                        exception);
+                    items.add(null);
+                }
+            }
+        }
+
+        if (items.isEmpty()) {
+            return new ResponseEntity<>("No resources to import.", HttpStatus.BAD_REQUEST);
+        }
+
+        return respondImportResults(offeredResourceService.importResources(items));
+    }
+
+    /**
+     * Returns the hit and miss statistics of the resource metadata caches.
+     *
+     * @return The statistics of the offered and requested resource cache.
+     */
+    @Operation(summary = "Resource Cache Statistics",
+        description = "Get the size and hit/miss statistics of the resource metadata caches.")
+    @RequestMapping(value = "/cache", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getCacheStatistics() {
+        final var statistics = new LinkedHashMap<String, Object>();
+        statistics.put("offered", offeredResourceCache.statistics());
+        statistics.put("requested", requestedResourceCache.statistics());
+        return new ResponseEntity<>(statistics, HttpStatus.OK);
+    }
+
+    /**
+     * Searches the offered resources by title, description, keywords, owner and license.
+     *
+     * @param query  The search terms.
+     * @param offset The number of skipped results.
+     * @param limit  The maximum number of results.
+     * @return The ranked page of matching resources.
+     */
+    @Operation(summary = "Search Resources",
+        description = "Search the offered resources, best matches first.")
+    @RequestMapping(value = "/search", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> searchResources(
+        @Parameter(description = "The search terms.", required = true)
+        @RequestParam("q") String query,
+        @Parameter(description = "The number of skipped results.")
+        @RequestParam(value = "offset", defaultValue = "0") int offset,
+        @Parameter(description = "The maximum number of results.")
+        @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (offset < 0 || limit < 1 || limit > maxSearchLimit) {
+            return new ResponseEntity<>(String.format("The limit has to be between 1 and %d, "
+                + "the offset cannot be negative.", maxSearchLimit), HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(resourceSearchService.search(query, offset, limit),
+            HttpStatus.OK);
+    }
+
+    /**
+     * Returns the changes of the offered resources following a sequence number.
+     *
+     * @param since The last sequence number known to the caller.
+     * @param limit The maximum number of changes.
+     * @return The changes and the sequence number to continue with.
+     */
+    @Operation(summary = "Resource Changes",
+        description = "Get the changes of the offered resources since a sequence number.")
+    @RequestMapping(value = "/changes", method = RequestMethod.GET)
+    @ResponseBody
+    public ResponseEntity<Object> getChanges(
+        @Parameter(description = "The last known sequence number.")
+        @RequestParam(value = "since", defaultValue = "0") long since,
+        @Parameter(description = "The maximum number of changes.")
+        @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (since < 0 || limit < 1 || limit > maxChangesLimit) {
+            return new ResponseEntity<>(String.format("The limit has to be between 1 and %d, "
+                + "the sequence number cannot be negative.", maxChangesLimit),
+                HttpStatus.BAD_REQUEST);
+        }
+
+        return new ResponseEntity<>(resourceChangeService.getChanges(since, limit),
+            HttpStatus.OK);
+    }
+
+    /**
+     * Streams the changes of the offered resources following a sequence number as server-sent
+     * events.
+     *
+     * @param since       The last sequence number known to the caller.
+     * @param lastEventId The id of the last received event, set when a stream is resumed.
+     * @return The event stream, bad request or service unavailable.
+     */
+    @Operation(summary = "Resource Change Stream",
+        description = "Stream the changes of the offered resources as server-sent events.")
+    @RequestMapping(value = "/changes/stream", method = RequestMethod.GET,
+        produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public ResponseEntity<SseEmitter> streamChanges(
+        @Parameter(description = "The last known sequence number.")
+        @RequestParam(value = "since", defaultValue = "0") long since,
+        @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        // The emitter is only handled as body of its own type, so errors have no body.
+        final var start = lastEventId != null ? lastEventId : since;
+        if (start < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            return new ResponseEntity<>(resourceChangeService.subscribe(start), HttpStatus.OK);
+        } catch (IllegalStateException exception) {
+            LOGGER.info("Rejected a change stream. " + exception.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     /**
      * Updates resource metadata by id.
      *
@@ -495,4 +714,14 @@ public class ResourceController {
                 HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    private ResponseEntity<Object> respondImportResults(List<ResourceImportResult> results) {
+        final var created = results.stream()
+            .filter(result -> result.getStatus() == ResourceImportResult.Status.CREATED)
+            .count();
+        LOGGER.info(String.format("Imported %d of %d resources.", created, results.size()));
+
+        return new ResponseEntity<>(results,
+            created == results.size() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS);
+    }
 }
@@ -1,8 +1,13 @@
 package de.fraunhofer.isst.dataspaceconnector.controller;
 
 import de.fraunhofer.isst.dataspaceconnector.exceptions.InvalidResourceException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.RangeNotSatisfiableException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceNotFoundException;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
+import de.fraunhofer.isst.dataspaceconnector.model.PayloadEncoding;
+import de.fraunhofer.isst.dataspaceconnector.model.RangedData;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,10 +17,13 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 /**
@@ -89,20 +97,38 @@ public class ResourceDataController { // Header: Content-Type: application/json
     }
 
     /**
-     * Gets resource data as a string.
+     * Gets resource data as a string. If the data is stored compressed and the client accepts the
+     * compression, the stored bytes are sent without decompressing them. A single byte range can
+     * be requested with the Range header, e.g. to resume an interrupted download.
      *
-     * @param id The resource id.
+     * @param id             The resource id.
+     * @param acceptEncoding The content codings accepted by the client.
+     * @param rangeHeader    The requested byte range.
      * @return Raw data or an error response.
      */
     @Operation(summary = "Request Data String", description = "Get the resource's data as a string.")
     @RequestMapping(value = "/{resource-id}/data", method = RequestMethod.GET)
     // params = {"type=string"} NOT SUPPORTED with OpenAPI
     @ResponseBody
-    public ResponseEntity<String> getDataById(@Parameter(description = "The resource uuid.",
+    public ResponseEntity<Object> getDataById(@Parameter(description = "The resource uuid.",
         required = true, example = "a4212311-86e4-40b3-ace3-ef29cd687cf9")
-    @PathVariable("resource-id") UUID id) {
+    @PathVariable("resource-id") UUID id,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+            String acceptEncoding,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader) {
+        final var range = ByteRange.parse(rangeHeader);
         try {
             try {
+                if (range != null) {
+                    return respondRange(offeredResourceService.getDataRange(id, null, range));
+                }
+
+                final var payload = offeredResourceService.getStoredPayload(id);
+                if (payload != null && payload.getEncoding() != PayloadEncoding.IDENTITY
+                    && payload.getEncoding().isAccepted(acceptEncoding)) {
+                    return respondEncodedPayload(payload);
+                }
+
                 return new ResponseEntity<>(offeredResourceService.getData(id), HttpStatus.OK);
             } catch (ResourceNotFoundException offeredResourceServiceException) {
                 LOGGER
@@ -123,6 +149,10 @@ public class ResourceDataController { // Header: Content-Type: application/json
             LOGGER.warn(String.format("The resource %s could be found but was invalid.", id),
                 exception);
             return new ResponseEntity<>("Resource not found", HttpStatus.NOT_FOUND);
+        } catch (RangeNotSatisfiableException exception) {
+            LOGGER.info(String.format("The range %s of resource %s is not satisfiable.", range,
+                id));
+            return respondRangeNotSatisfiable(exception);
         } catch (ResourceException exception) {
             LOGGER.error(String.format("Failed to load resource %s.", id), exception);
             return new ResponseEntity<>("Something went wrong.", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -130,24 +160,33 @@ public class ResourceDataController { // Header: Content-Type: application/json
     }
 
     /**
-     * Gets resource data as a string by representation id.
+     * Gets resource data as a string by representation id. A single byte range can be requested
+     * with the Range header.
      *
      * @param resourceId       The resource id.
      * @param representationId The representation id.
+     * @param rangeHeader      The requested byte range.
      * @return Raw data or an error response.
      */
     @Operation(summary = "Request Data String by Representation",
         description = "Get the resource's data as a string by representation.")
     @RequestMapping(value = "/{resource-id}/{representation-id}/data", method = RequestMethod.GET)
     @ResponseBody
-    public ResponseEntity<String> getDataByRepresentation(
+    public ResponseEntity<Object> getDataByRepresentation(
         @Parameter(description = "The resource uuid.", required = true,
             example = "a4212311-86e4-40b3-ace3-ef29cd687cf9")
         @PathVariable("resource-id") UUID resourceId,
         @Parameter(description = "The representation uuid.", required = true)
-        @PathVariable("representation-id") UUID representationId) {
+        @PathVariable("representation-id") UUID representationId,
+        @RequestHeader(value = HttpHeaders.RANGE, required = false) String rangeHeader) {
+        final var range = ByteRange.parse(rangeHeader);
         try {
             try {
+                if (range != null) {
+                    return respondRange(offeredResourceService
+                        .getDataRange(resourceId, representationId, range));
+                }
+
                 return new ResponseEntity<>(
                     offeredResourceService.getDataByRepresentation(resourceId, representationId),
                     HttpStatus.OK);
@@ -170,9 +209,50 @@ public class ResourceDataController { // Header: Content-Type: application/json
                 .warn(String.format("The resource %s could be found but was invalid.", resourceId),
                     exception);
             return new ResponseEntity<>("Resource not found", HttpStatus.NOT_FOUND);
+        } catch (RangeNotSatisfiableException exception) {
+            LOGGER.info(String.format("The range %s of resource %s is not satisfiable.", range,
+                resourceId));
+            return respondRangeNotSatisfiable(exception);
         } catch (ResourceException exception) {
             LOGGER.error(String.format("Failed to load resource %s.", resourceId), exception);
             return new ResponseEntity<>("Something went wrong.", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    /**
+     * Sends a part of the data as partial content.
+     */
+    private ResponseEntity<Object> respondRange(RangedData data) {
+        final var headers = new HttpHeaders();
+        headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.set(HttpHeaders.CONTENT_RANGE,
+            ByteRange.toContentRange(data.getFirst(), data.getLast(), data.getSize()));
+        return new ResponseEntity<>(data.getData(), headers, HttpStatus.PARTIAL_CONTENT);
+    }
+
+    /**
+     * Tells the client the size of the data when the requested range lies outside of it.
+     */
+    private ResponseEntity<Object> respondRangeNotSatisfiable(
+        RangeNotSatisfiableException exception) {
+        final var headers = new HttpHeaders();
+        if (exception.getSize() >= 0) {
+            headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + exception.getSize());
+        }
+
+        return new ResponseEntity<>("The requested range is not satisfiable.", headers,
+            HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+    }
+
+    /**
+     * Sends the stored bytes of a payload with their content coding.
+     */
+    private ResponseEntity<Object> respondEncodedPayload(Payload payload) {
+        final var headers = new HttpHeaders();
+        headers.setContentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8));
+        headers.set(HttpHeaders.CONTENT_ENCODING, payload.getEncoding().toString());
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return new ResponseEntity<>(payload.getContent(), headers, HttpStatus.OK);
+    }
 }
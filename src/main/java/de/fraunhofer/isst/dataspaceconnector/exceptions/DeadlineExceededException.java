@@ -0,0 +1,23 @@
+package de.fraunhofer.isst.dataspaceconnector.exceptions;
+
+public class DeadlineExceededException extends ResourceException {
+
+    /**
+     * Construct an DeadlineExceededException with the specified detail message.
+     *
+     * @param msg The detail message.
+     */
+    public DeadlineExceededException(String msg) {
+        super(msg);
+    }
+
+    /**
+     * Construct an DeadlineExceededException with the specified detail message and cause.
+     *
+     * @param msg   The detail message.
+     * @param cause The cause.
+     */
+    public DeadlineExceededException(String msg, Throwable cause) {
+        super(msg, cause);
+    }
+}
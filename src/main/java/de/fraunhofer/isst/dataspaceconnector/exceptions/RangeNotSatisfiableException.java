@@ -0,0 +1,25 @@
+package de.fraunhofer.isst.dataspaceconnector.exceptions;
+
+public class RangeNotSatisfiableException extends ResourceException {
+
+    private final long size;
+
+    /**
+     * Construct an RangeNotSatisfiableException with the specified detail message and the size
+     * of the data.
+     *
+     * @param msg  The detail message.
+     * @param size The size of the data in bytes or -1 if it is unknown.
+     */
+    public RangeNotSatisfiableException(String msg, long size) {
+        super(msg);
+        this.size = size;
+    }
+
+    /**
+     * @return The size of the data in bytes or -1 if it is unknown.
+     */
+    public long getSize() {
+        return size;
+    }
+}
@@ -1,7 +1,7 @@
 package de.fraunhofer.isst.dataspaceconnector.message;
 
-import static de.fraunhofer.isst.ids.framework.messaging.core.handler.api.util.Util.getGregorianNow;
-
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.fraunhofer.iais.eis.ArtifactRequestMessage;
 import de.fraunhofer.iais.eis.ArtifactRequestMessageImpl;
 import de.fraunhofer.iais.eis.ArtifactResponseMessageBuilder;
@@ -10,13 +10,18 @@ import de.fraunhofer.iais.eis.Resource;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.DeadlineExceededException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.InvalidResourceException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.RangeNotSatisfiableException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.RequestFormatException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceNotFoundException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.UUIDFormatException;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
 import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.UUIDUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.MessageEnvelopeFactory;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
 import de.fraunhofer.isst.dataspaceconnector.services.usagecontrol.PolicyHandler;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.MessageHandler;
@@ -25,13 +30,15 @@ import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.BodyRes
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.ErrorResponse;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.MessagePayload;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.MessageResponse;
-import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.UUID;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
 
@@ -50,7 +57,17 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
 
     public static final Logger LOGGER = LoggerFactory.getLogger(ArtifactMessageHandler.class);
 
-    private final TokenProvider provider;
+    /**
+     * The maximum size of a payload that is read for the byte range and timeout.
+     */
+    private static final int MAX_PAYLOAD_SIZE = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${artifact.response.deadline:PT10M}")
+    private Duration maxDeadline;
+
+    private final MessageEnvelopeFactory envelopeFactory;
     private final OfferedResourceService resourceService;
     private final PolicyHandler policyHandler;
     private final IdsUtils idsUtils;
@@ -62,15 +79,15 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
      */
     @Autowired
     public ArtifactMessageHandler(@NotNull OfferedResourceService offeredResourceService,
-        @NotNull TokenProvider tokenProvider,
+        @NotNull MessageEnvelopeFactory envelopeFactory,
         @NotNull PolicyHandler policyHandler,
         @NotNull IdsUtils idsUtils) throws IllegalArgumentException {
         if (offeredResourceService == null) {
             throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
         }
 
-        if (tokenProvider == null) {
-            throw new IllegalArgumentException("The TokenProvider cannot be null.");
+        if (envelopeFactory == null) {
+            throw new IllegalArgumentException("The MessageEnvelopeFactory cannot be null.");
         }
 
         if (policyHandler == null) {
@@ -82,14 +99,18 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
         }
 
         this.resourceService = offeredResourceService;
-        this.provider = tokenProvider;
+        this.envelopeFactory = envelopeFactory;
         this.policyHandler = policyHandler;
         this.idsUtils = idsUtils;
     }
 
     /**
      * This message implements the logic that is needed to handle the message. As it returns the
-     * input as string the messagePayload-InputStream is converted to a String.
+     * input as string the messagePayload-InputStream is converted to a String. The payload may
+     * contain a byte range like {"offset": 0, "length": 1024}, then only that part of the data is
+     * returned. The range is moved to character boundaries, so consecutive ranges add up to the
+     * whole data. A timeout in milliseconds in the payload, e.g. {"timeout": 5000}, shortens the
+     * configured deadline: when it passes, the backend call is cancelled and no response is built.
      *
      * @throws ConnectorConfigurationException - if no connector is configurated.
      * @throws RuntimeException                - if the response body failed to be build.
@@ -101,7 +122,7 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
     // NOTE: Make runtime exception more concrete and add ConnectorConfigurationException, ResourceTypeException
     public MessageResponse handleMessage(ArtifactRequestMessageImpl requestMessage,
         MessagePayload messagePayload) throws RuntimeException {
-        Assert.notNull(provider, "The TokenProvider cannot be null.");
+        Assert.notNull(envelopeFactory, "The MessageEnvelopeFactory cannot be null.");
         Assert.notNull(idsUtils, "The IdsUtils cannot be null.");
         Assert.notNull(resourceService, "The OfferedResourceService cannot be null.");
         Assert.notNull(policyHandler, "The PolicyHandler cannot be null.");
@@ -155,11 +176,26 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
 
                     try {
                         if (canProvisionData) {
+                            // Read the optional byte range and timeout
+                            final var payload = readPayload(messagePayload);
+                            final var deadline = RequestDeadline.after(getTimeout(payload));
+                            final ByteRange range;
+                            try {
+                                range = extractRange(payload);
+                            } catch (RequestFormatException exception) {
+                                LOGGER.info(String.format("The range requested by %s is not " +
+                                    "valid.", requestMessage.getId()), exception);
+                                return ErrorResponse.withDefaultHeader(
+                                    RejectionReason.BAD_PARAMETERS,
+                                    "The requested range is not valid.", connector.getId(),
+                                    connector.getOutboundModelVersion());
+                            }
+
                             // Get the data from source
                             String data = null;
                             try {
-                                data = resourceService
-                                    .getDataByRepresentation(resourceId, artifactId);
+                                data = resourceService.getDataByRepresentation(resourceId,
+                                    artifactId, range, deadline);
                             } catch (ResourceNotFoundException exception) {
                                 LOGGER.info(String.format("Representation %s of resource %s " +
                                         "requested by %s could not be found.", artifactId,
@@ -175,6 +211,22 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
                                 return ErrorResponse.withDefaultHeader(RejectionReason.NOT_FOUND,
                                     "Resource not found.", connector.getId(),
                                     connector.getOutboundModelVersion());
+                            } catch (DeadlineExceededException exception) {
+                                LOGGER.info(String.format("The deadline of the request %s " +
+                                    "passed before representation %s of resource %s was " +
+                                    "received.", requestMessage.getId(), artifactId, resourceId));
+                                return ErrorResponse.withDefaultHeader(
+                                    RejectionReason.TEMPORARILY_NOT_AVAILABLE,
+                                    "The data could not be received in time.", connector.getId(),
+                                    connector.getOutboundModelVersion());
+                            } catch (RangeNotSatisfiableException exception) {
+                                LOGGER.info(String.format("The range %s of representation %s " +
+                                    "requested by %s is not satisfiable.", range, artifactId,
+                                    requestMessage.getId()));
+                                return ErrorResponse.withDefaultHeader(
+                                    RejectionReason.BAD_PARAMETERS,
+                                    "The requested range lies outside of the data.",
+                                    connector.getId(), connector.getOutboundModelVersion());
                             } catch (ResourceException exception) {
                                 LOGGER.warn(String.format("Representation %s of resource %s " +
                                         "requested by %s could not be received.",
@@ -188,14 +240,25 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
 
                             Assert.notNull(data, "The data string should not be empty.");
 
+                            if (deadline.isExpired()) {
+                                // The requester does not wait for the response anymore.
+                                LOGGER.info(String.format("The deadline of the request %s " +
+                                    "passed, the response is not built.", requestMessage.getId()));
+                                return ErrorResponse.withDefaultHeader(
+                                    RejectionReason.TEMPORARILY_NOT_AVAILABLE,
+                                    "The data could not be received in time.", connector.getId(),
+                                    connector.getOutboundModelVersion());
+                            }
+
                             // Build and send the response
+                            final var envelope = envelopeFactory.create(connector);
                             final var responseMessage = new ArtifactResponseMessageBuilder()
-                                ._securityToken_(provider.getTokenJWS())
+                                ._securityToken_(envelope.getSecurityToken())
                                 ._correlationMessage_(requestMessage.getId())
-                                ._issued_(getGregorianNow())
-                                ._issuerConnector_(connector.getId())
-                                ._modelVersion_(connector.getOutboundModelVersion())
-                                ._senderAgent_(connector.getId())
+                                ._issued_(envelope.getIssued())
+                                ._issuerConnector_(envelope.getIssuerConnector())
+                                ._modelVersion_(envelope.getModelVersion())
+                                ._senderAgent_(envelope.getSenderAgent())
                                 ._recipientConnector_(
                                     Util.asList(requestMessage.getIssuerConnector()))
                                 .build();
@@ -295,6 +358,73 @@ public class ArtifactMessageHandler implements MessageHandler<ArtifactRequestMes
         return null;
     }
 
+    /**
+     * Reads the request payload as JSON. Payloads that are no JSON object, e.g. those of other
+     * connector implementations, are ignored.
+     *
+     * @return The payload or null if it is empty or no JSON object.
+     */
+    private JsonNode readPayload(MessagePayload messagePayload) {
+        if (messagePayload == null || messagePayload.getUnderlyingInputStream() == null) {
+            return null;
+        }
+
+        try {
+            final var bytes = messagePayload.getUnderlyingInputStream()
+                .readNBytes(MAX_PAYLOAD_SIZE + 1);
+            if (bytes.length == 0 || bytes.length > MAX_PAYLOAD_SIZE) {
+                return null;
+            }
+
+            final var json = objectMapper.readTree(new String(bytes, StandardCharsets.UTF_8));
+            return json != null && json.isObject() ? json : null;
+        } catch (IOException exception) {
+            // The payload is no JSON.
+            return null;
+        }
+    }
+
+    /**
+     * Reads the optional byte range from the request payload.
+     *
+     * @return The range or null if the payload selects none.
+     * @throws RequestFormatException - if the payload contains an invalid range.
+     */
+    private ByteRange extractRange(JsonNode payload) throws RequestFormatException {
+        if (payload == null || !payload.has("offset")) {
+            return null;
+        }
+
+        final var offset = payload.get("offset");
+        final var length = payload.get("length");
+        if (!offset.canConvertToLong()
+            || (length != null && !length.isNull() && !length.canConvertToLong())) {
+            throw new RequestFormatException("The offset and length have to be numbers.", null);
+        }
+
+        try {
+            return ByteRange.of(offset.asLong(),
+                length == null || length.isNull() ? null : length.asLong());
+        } catch (IllegalArgumentException exception) {
+            throw new RequestFormatException("The payload is no valid byte range.", exception);
+        }
+    }
+
+    /**
+     * Returns the time the requester waits for the response: the timeout of the request payload,
+     * at most the configured deadline. Null if neither is set, so there is no deadline.
+     */
+    private Duration getTimeout(JsonNode payload) {
+        if (payload != null && payload.has("timeout") && payload.get("timeout").canConvertToLong()
+            && payload.get("timeout").asLong() > 0) {
+            final var timeout = Duration.ofMillis(payload.get("timeout").asLong());
+            return maxDeadline == null || timeout.compareTo(maxDeadline) < 0 ? timeout
+                : maxDeadline;
+        }
+
+        return maxDeadline;
+    }
+
     private UUID extractArtifactIdFromRequest(ArtifactRequestMessage requestMessage)
         throws RequestFormatException {
         try {
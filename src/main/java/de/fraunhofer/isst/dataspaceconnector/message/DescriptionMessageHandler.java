@@ -1,19 +1,18 @@
 package de.fraunhofer.isst.dataspaceconnector.message;
 
-import static de.fraunhofer.isst.ids.framework.messaging.core.handler.api.util.Util.getGregorianNow;
-
-import de.fraunhofer.iais.eis.BaseConnectorImpl;
 import de.fraunhofer.iais.eis.DescriptionRequestMessageImpl;
 import de.fraunhofer.iais.eis.DescriptionResponseMessageBuilder;
 import de.fraunhofer.iais.eis.RejectionReason;
-import de.fraunhofer.iais.eis.ResourceCatalogBuilder;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.UUIDFormatException;
+import de.fraunhofer.isst.dataspaceconnector.services.ConnectorSnapshotService;
 import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.UUIDUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.MessageEnvelopeFactory;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCatalogService;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.MessageHandler;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.SupportedMessageType;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.BodyResponse;
@@ -21,10 +20,8 @@ import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.ErrorRe
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.MessagePayload;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.MessageResponse;
 import de.fraunhofer.isst.ids.framework.spring.starter.SerializerProvider;
-import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
 import java.io.IOException;
 import java.net.URI;
-import java.util.ArrayList;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,9 +45,11 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
     public static final Logger LOGGER = LoggerFactory.getLogger(DescriptionMessageHandler.class);
 
     private final OfferedResourceService offeredResourceService;
-    private final TokenProvider tokenProvider;
+    private final MessageEnvelopeFactory envelopeFactory;
     private final SerializerProvider serializerProvider;
     private final IdsUtils idsUtils;
+    private final ResourceCatalogService resourceCatalogService;
+    private final ConnectorSnapshotService connectorSnapshotService;
 
     /**
      * Constructor for DescriptionMessageHandler.
@@ -59,15 +58,18 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
      */
     @Autowired
     public DescriptionMessageHandler(@NotNull OfferedResourceService offeredResourceService,
-        @NotNull TokenProvider tokenProvider,
+        @NotNull MessageEnvelopeFactory envelopeFactory,
         @NotNull SerializerProvider serializerProvider,
-        @NotNull IdsUtils idsUtils) throws IllegalArgumentException {
+        @NotNull IdsUtils idsUtils,
+        @NotNull ResourceCatalogService resourceCatalogService,
+        @NotNull ConnectorSnapshotService connectorSnapshotService)
+        throws IllegalArgumentException {
         if (offeredResourceService == null) {
             throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
         }
 
-        if (tokenProvider == null) {
-            throw new IllegalArgumentException("The TokenProvider cannot be null.");
+        if (envelopeFactory == null) {
+            throw new IllegalArgumentException("The MessageEnvelopeFactory cannot be null.");
         }
 
         if (serializerProvider == null) {
@@ -78,10 +80,20 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
             throw new IllegalArgumentException("The IdsUtils cannot be null.");
         }
 
+        if (resourceCatalogService == null) {
+            throw new IllegalArgumentException("The ResourceCatalogService cannot be null.");
+        }
+
+        if (connectorSnapshotService == null) {
+            throw new IllegalArgumentException("The ConnectorSnapshotService cannot be null.");
+        }
+
         this.offeredResourceService = offeredResourceService;
-        this.tokenProvider = tokenProvider;
+        this.envelopeFactory = envelopeFactory;
         this.serializerProvider = serializerProvider;
         this.idsUtils = idsUtils;
+        this.resourceCatalogService = resourceCatalogService;
+        this.connectorSnapshotService = connectorSnapshotService;
     }
 
     /**
@@ -99,6 +111,19 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
             throw new IllegalArgumentException("The requestMessage cannot be null.");
         }
 
+        // Check if a page of the resource catalog has been requested
+        final var page = ResourceCatalogService.getPageNumber(requestMessage.getRequestedElement());
+        if (page != null) {
+            try {
+                return constructCatalogPage(requestMessage, page);
+            } catch (RuntimeException exception) {
+                // Something went wrong (e.g invalid connector config), try to fix it at a higher
+                // level
+                throw new RuntimeException("Failed to construct a resource catalog page.",
+                    exception);
+            }
+        }
+
         // Check if a concrete resource has been requested
         if (requestMessage.getRequestedElement() != null) {
             // A specific resource has been requested
@@ -141,13 +166,14 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
 
             try {
                 // Create the response header
+                final var envelope = envelopeFactory.create(connector);
                 final var responseMessageHeader = new DescriptionResponseMessageBuilder()
-                    ._securityToken_(tokenProvider.getTokenJWS())
+                    ._securityToken_(envelope.getSecurityToken())
                     ._correlationMessage_(requestMessage.getId())
-                    ._issued_(getGregorianNow())
-                    ._issuerConnector_(connector.getId())
-                    ._modelVersion_(connector.getOutboundModelVersion())
-                    ._senderAgent_(connector.getId())
+                    ._issued_(envelope.getIssued())
+                    ._issuerConnector_(envelope.getIssuerConnector())
+                    ._modelVersion_(envelope.getModelVersion())
+                    ._senderAgent_(envelope.getSenderAgent())
                     ._recipientConnector_(Util.asList(requestMessage.getIssuerConnector()))
                     .build();
 
@@ -190,6 +216,64 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
         }
     }
 
+    /**
+     * Constructs the response message for a page of the resource catalog.
+     *
+     * @param requestMessage The message containing the page request.
+     * @param page           The requested page.
+     * @return The response message containing the page or a rejection.
+     * @throws ConnectorConfigurationException - if the connector is not configurated.
+     * @throws RuntimeException                - if the response message could not be constructed or
+     *                                         the page could not be serialized.
+     */
+    private MessageResponse constructCatalogPage(DescriptionRequestMessageImpl requestMessage,
+        int page) throws RuntimeException {
+        Assert.notNull(serializerProvider, "The SerializerProvider should not be null.");
+        Assert.notNull(resourceCatalogService, "The ResourceCatalogService should not be null.");
+
+        try {
+            final var connector = idsUtils.getConnector();
+            final var catalog = resourceCatalogService.getPage(page);
+            if (catalog == null) {
+                // The page does not exist, inform and reject.
+                LOGGER.info(String.format("Catalog page %d requested by %s could not be found.",
+                    page, requestMessage.getId()));
+
+                return ErrorResponse.withDefaultHeader(RejectionReason.NOT_FOUND, String.format(
+                    "The catalog page %d could not be found.", page), connector.getId(),
+                    connector.getOutboundModelVersion());
+            }
+
+            // Create the response header
+            final var envelope = envelopeFactory.create(connector);
+            final var responseMessageHeader = new DescriptionResponseMessageBuilder()
+                ._securityToken_(envelope.getSecurityToken())
+                ._correlationMessage_(requestMessage.getId())
+                ._issued_(envelope.getIssued())
+                ._issuerConnector_(envelope.getIssuerConnector())
+                ._modelVersion_(envelope.getModelVersion())
+                ._senderAgent_(envelope.getSenderAgent())
+                ._recipientConnector_(Util.asList(requestMessage.getIssuerConnector()))
+                .build();
+
+            Assert
+                .notNull(responseMessageHeader, "The responseMessageHeader object cannot be null");
+
+            // Answer with the catalog page
+            return BodyResponse.create(responseMessageHeader,
+                serializerProvider.getSerializer().serialize(catalog));
+        } catch (ConnectorConfigurationException exception) {
+            // The connector must be set.
+            throw exception;
+        } catch (ConstraintViolationException exception) {
+            // The response could not be constructed.
+            throw new RuntimeException("Failed to construct the response message.", exception);
+        } catch (IOException exception) {
+            // The page could not be serialized.
+            throw new RuntimeException("Failed to serialize the catalog page.", exception);
+        }
+    }
+
     /**
      * Constructs a resource catalog description message for the connector.
      *
@@ -202,25 +286,24 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
      */
     private MessageResponse constructConnectorSelfDescription(URI requestId, URI issuerConnector)
         throws RuntimeException {
-        Assert.notNull(serializerProvider, "The SerializerProvider should not be null.");
-        Assert.notNull(offeredResourceService, "The OfferedResourceService should not be null.");
-        Assert.notNull(tokenProvider, "The TokenProvider should not be null.");
+        Assert.notNull(connectorSnapshotService,
+            "The ConnectorSnapshotService should not be null.");
+        Assert.notNull(envelopeFactory, "The MessageEnvelopeFactory should not be null.");
 
         try {
-            // Create a connector with a list of currently offered resources
-            var connector = (BaseConnectorImpl) idsUtils.getConnector();
-            connector.setResourceCatalog(Util.asList(new ResourceCatalogBuilder()
-                ._offeredResource_(new ArrayList<>(offeredResourceService.getResourceList()))
-                .build()));
+            // The snapshot holds the connector with the currently offered resources, or the
+            // first page of them
+            final var snapshot = connectorSnapshotService.getSnapshot();
 
             // Create the response header
+            final var envelope = envelopeFactory.create(snapshot.getConnector());
             final var responseMessageHeader = new DescriptionResponseMessageBuilder()
-                ._securityToken_(tokenProvider.getTokenJWS())
+                ._securityToken_(envelope.getSecurityToken())
                 ._correlationMessage_(requestId)
-                ._issued_(getGregorianNow())
-                ._issuerConnector_(connector.getId())
-                ._modelVersion_(connector.getOutboundModelVersion())
-                ._senderAgent_(connector.getId())
+                ._issued_(envelope.getIssued())
+                ._issuerConnector_(envelope.getIssuerConnector())
+                ._modelVersion_(envelope.getModelVersion())
+                ._senderAgent_(envelope.getSenderAgent())
                 ._recipientConnector_(Util.asList(issuerConnector))
                 .build();
 
@@ -228,8 +311,7 @@ public class DescriptionMessageHandler implements MessageHandler<DescriptionRequ
                 .notNull(responseMessageHeader, "The responseMessageHeader object cannot be null");
 
             // Answer with the resource description
-            return BodyResponse.create(responseMessageHeader,
-                serializerProvider.getSerializer().serialize(connector));
+            return BodyResponse.create(responseMessageHeader, snapshot.getSelfDescription());
         } catch (ConnectorConfigurationException exception) {
             // The connector must be set.
             throw exception;
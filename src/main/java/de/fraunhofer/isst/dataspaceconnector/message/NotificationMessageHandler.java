@@ -1,19 +1,17 @@
 package de.fraunhofer.isst.dataspaceconnector.message;
 
-import static de.fraunhofer.isst.ids.framework.messaging.core.handler.api.util.Util.getGregorianNow;
-
 import de.fraunhofer.iais.eis.MessageProcessedNotificationMessageBuilder;
 import de.fraunhofer.iais.eis.NotificationMessageImpl;
 import de.fraunhofer.iais.eis.util.ConstraintViolationException;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
 import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.MessageEnvelopeFactory;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.MessageHandler;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.SupportedMessageType;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.BodyResponse;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.MessagePayload;
 import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.model.MessageResponse;
-import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,7 +33,7 @@ public class NotificationMessageHandler implements MessageHandler<NotificationMe
 
     public static final Logger LOGGER = LoggerFactory.getLogger(NotificationMessageHandler.class);
 
-    private final TokenProvider tokenProvider;
+    private final MessageEnvelopeFactory envelopeFactory;
     private final IdsUtils idsUtils;
 
     /**
@@ -45,16 +43,16 @@ public class NotificationMessageHandler implements MessageHandler<NotificationMe
      */
     @Autowired
     public NotificationMessageHandler(@NotNull IdsUtils idsUtils,
-        @NotNull TokenProvider tokenProvider) throws IllegalArgumentException {
-        if (tokenProvider == null) {
-            throw new IllegalArgumentException("The TokenProvider cannot be null.");
+        @NotNull MessageEnvelopeFactory envelopeFactory) throws IllegalArgumentException {
+        if (envelopeFactory == null) {
+            throw new IllegalArgumentException("The MessageEnvelopeFactory cannot be null.");
         }
 
         if (idsUtils == null) {
             throw new IllegalArgumentException("The IdsUtils cannot be null.");
         }
 
-        this.tokenProvider = tokenProvider;
+        this.envelopeFactory = envelopeFactory;
         this.idsUtils = idsUtils;
     }
 
@@ -74,13 +72,15 @@ public class NotificationMessageHandler implements MessageHandler<NotificationMe
         try {
             final var connector = idsUtils.getConnector();
 
+            final var envelope = envelopeFactory.create(connector);
+
             final var responseMsgHeader = new MessageProcessedNotificationMessageBuilder()
-                ._securityToken_(tokenProvider.getTokenJWS())
+                ._securityToken_(envelope.getSecurityToken())
                 ._correlationMessage_(message.getId())
-                ._issued_(getGregorianNow())
-                ._issuerConnector_(connector.getId())
-                ._modelVersion_(connector.getOutboundModelVersion())
-                ._senderAgent_(connector.getId())
+                ._issued_(envelope.getIssued())
+                ._issuerConnector_(envelope.getIssuerConnector())
+                ._modelVersion_(envelope.getModelVersion())
+                ._senderAgent_(envelope.getSenderAgent())
                 ._recipientConnector_(Util.asList(message.getIssuerConnector()))
                 .build();
 
@@ -0,0 +1,72 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * This class provides a model for a single entry of a bulk artifact request.
+ */
+@Schema(
+    name = "ArtifactRequestItem",
+    description = "An artifact to be requested from another connector and the key of the "
+        + "requested resource its data is saved to.",
+    oneOf = ArtifactRequestItem.class,
+    example = "{\"recipient\":\"https://localhost:8080/api/ids/data\",\"requestedArtifact\":\"https://w3id.org/idsa/autogen/artifact/a4212311-86e4-40b3-ace3-ef29cd687cf9\",\"key\":\"a4212311-86e4-40b3-ace3-ef29cd687cf9\"}"
+)
+@JsonInclude(Include.NON_NULL)
+public class ArtifactRequestItem {
+
+    @JsonProperty("recipient")
+    private URI recipient;
+
+    @JsonProperty("requestedArtifact")
+    private URI requestedArtifact;
+
+    @JsonProperty("key")
+    private UUID key;
+
+    /**
+     * Constructor for ArtifactRequestItem.
+     */
+    public ArtifactRequestItem() {
+
+    }
+
+    /**
+     * Constructor with parameters for ArtifactRequestItem.
+     */
+    public ArtifactRequestItem(URI recipient, URI requestedArtifact, UUID key) {
+        this.recipient = recipient;
+        this.requestedArtifact = requestedArtifact;
+        this.key = key;
+    }
+
+    public URI getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(URI recipient) {
+        this.recipient = recipient;
+    }
+
+    public URI getRequestedArtifact() {
+        return requestedArtifact;
+    }
+
+    public void setRequestedArtifact(URI requestedArtifact) {
+        this.requestedArtifact = requestedArtifact;
+    }
+
+    public UUID getKey() {
+        return key;
+    }
+
+    public void setKey(UUID key) {
+        this.key = key;
+    }
+}
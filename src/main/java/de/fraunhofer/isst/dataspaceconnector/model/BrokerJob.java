@@ -0,0 +1,159 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class provides a model for a broker operation running in the background. It is written by
+ * the job only and may be read while it runs.
+ */
+@Schema(
+    name = "BrokerJob",
+    description = "A broker operation running in the background.",
+    oneOf = BrokerJob.class
+)
+@Data
+@JsonInclude(Include.NON_NULL)
+public class BrokerJob {
+
+    @JsonProperty("id")
+    private UUID id;
+
+    @JsonProperty("operation")
+    private String operation;
+
+    @JsonProperty("broker")
+    private String broker;
+
+    @JsonProperty("state")
+    private volatile State state;
+
+    @JsonProperty("submitted")
+    private Date submitted;
+
+    @JsonProperty("finished")
+    private volatile Date finished;
+
+    @JsonProperty("responseCode")
+    private volatile Integer responseCode;
+
+    @JsonProperty("response")
+    private volatile String response;
+
+    @JsonProperty("message")
+    private volatile String message;
+
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final CompletableFuture<BrokerJob> completion = new CompletableFuture<>();
+
+    /**
+     * Constructor for BrokerJob.
+     */
+    public BrokerJob() {
+
+    }
+
+    /**
+     * Constructor with parameters for BrokerJob.
+     */
+    public BrokerJob(UUID id, String operation, String broker) {
+        this.id = id;
+        this.operation = operation;
+        this.broker = broker;
+        this.state = State.PENDING;
+        this.submitted = new Date();
+    }
+
+    /**
+     * Marks the job as running, unless it is already completed.
+     *
+     * @return True if the job may run.
+     */
+    public synchronized boolean start() {
+        if (completion.isDone()) {
+            return false;
+        }
+
+        this.state = State.RUNNING;
+        return true;
+    }
+
+    /**
+     * Completes the job, unless it is already completed.
+     *
+     * @param state   The final state.
+     * @param message The message describing the outcome, may be null.
+     * @return True if this call completed the job.
+     */
+    public synchronized boolean complete(State state, String message) {
+        if (completion.isDone()) {
+            return false;
+        }
+
+        this.message = message;
+        this.finished = new Date();
+        this.state = state;
+        return completion.complete(this);
+    }
+
+    /**
+     * Completes the job as succeeded with the broker response, unless it is already completed,
+     * e.g. by a timeout. A completed job keeps its fields.
+     *
+     * @param responseCode The status code of the broker response.
+     * @param response     The body of the broker response, may be null.
+     * @return True if this call completed the job.
+     */
+    public synchronized boolean succeed(int responseCode, String response) {
+        if (completion.isDone()) {
+            return false;
+        }
+
+        this.responseCode = responseCode;
+        this.response = response;
+        return complete(State.SUCCEEDED, null);
+    }
+
+    @Schema(
+        name = "State",
+        description = "The state of the job.",
+        oneOf = State.class
+    )
+    public enum State {
+        @JsonProperty("pending")
+        PENDING("pending"),
+        @JsonProperty("running")
+        RUNNING("running"),
+        @JsonProperty("succeeded")
+        SUCCEEDED("succeeded"),
+        @JsonProperty("failed")
+        FAILED("failed"),
+        @JsonProperty("timeout")
+        TIMEOUT("timeout"),
+        @JsonProperty("rejected")
+        REJECTED("rejected");
+
+        private final String state;
+
+        State(String string) {
+            state = string;
+        }
+
+        @Override
+        public String toString() {
+            return state;
+        }
+    }
+}
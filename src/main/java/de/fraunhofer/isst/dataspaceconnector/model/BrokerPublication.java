@@ -0,0 +1,44 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import lombok.Data;
+
+import javax.persistence.*;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * This class records which state of an offered resource was last published at a broker. The
+ * broker synchronization compares it with the modification date of the resource.
+ */
+@Data
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"broker", "resourceId"}))
+public class BrokerPublication {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Column(length = 2048)
+    private String broker;
+
+    private UUID resourceId;
+
+    private Date modified;
+
+    /**
+     * Constructor for BrokerPublication.
+     */
+    public BrokerPublication() {
+
+    }
+
+    /**
+     * Constructor with parameters for BrokerPublication.
+     */
+    public BrokerPublication(String broker, UUID resourceId, Date modified) {
+        this.broker = broker;
+        this.resourceId = resourceId;
+        this.modified = modified;
+    }
+}
@@ -0,0 +1,109 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * This class provides a model for the progress of a broker synchronization. It is written by the
+ * synchronization only and may be read while it runs.
+ */
+@Schema(
+    name = "BrokerSyncStatus",
+    description = "The progress of a broker synchronization.",
+    oneOf = BrokerSyncStatus.class
+)
+@Data
+@JsonInclude(Include.NON_NULL)
+public class BrokerSyncStatus {
+
+    @JsonProperty("broker")
+    private volatile String broker;
+
+    @JsonProperty("state")
+    private volatile State state;
+
+    @JsonProperty("started")
+    private volatile Date started;
+
+    @JsonProperty("finished")
+    private volatile Date finished;
+
+    @JsonProperty("total")
+    private volatile int total;
+
+    @JsonProperty("updated")
+    private volatile int updated;
+
+    @JsonProperty("removed")
+    private volatile int removed;
+
+    @JsonProperty("failed")
+    private volatile int failed;
+
+    @JsonProperty("message")
+    private volatile String message;
+
+    /**
+     * Constructor for BrokerSyncStatus.
+     */
+    public BrokerSyncStatus() {
+
+    }
+
+    /**
+     * Constructor with parameters for BrokerSyncStatus.
+     */
+    public BrokerSyncStatus(String broker) {
+        this.broker = broker;
+        this.state = State.PENDING;
+    }
+
+    /**
+     * @return The number of resources processed so far.
+     */
+    @JsonProperty("processed")
+    public int getProcessed() {
+        return updated + removed + failed;
+    }
+
+    /**
+     * @return True if the synchronization is waiting or running.
+     */
+    @JsonIgnore
+    public boolean isActive() {
+        return state == State.PENDING || state == State.RUNNING;
+    }
+
+    @Schema(
+        name = "State",
+        description = "The state of the synchronization.",
+        oneOf = State.class
+    )
+    public enum State {
+        @JsonProperty("pending")
+        PENDING("pending"),
+        @JsonProperty("running")
+        RUNNING("running"),
+        @JsonProperty("completed")
+        COMPLETED("completed"),
+        @JsonProperty("failed")
+        FAILED("failed");
+
+        private final String state;
+
+        State(String string) {
+            state = string;
+        }
+
+        @Override
+        public String toString() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import java.util.regex.Pattern;
+
+/**
+ * This class provides a single byte range of resource data, as used by the HTTP Range header. A
+ * range is either bounded (first-last), open (first-) or a suffix (-length). Ranges are resolved
+ * against the size of the data they are applied to.
+ */
+public final class ByteRange {
+
+    private static final Pattern RANGE_PATTERN =
+        Pattern.compile("^\\s*bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
+    private final long first;
+    private final long last;
+    private final long suffixLength;
+
+    private ByteRange(long first, long last, long suffixLength) {
+        this.first = first;
+        this.last = last;
+        this.suffixLength = suffixLength;
+    }
+
+    /**
+     * Parses a Range header with a single byte range. Headers with several ranges or other units
+     * are not supported and, as allowed by RFC 7233, ignored.
+     *
+     * @param header The header value, may be null.
+     * @return The range or null if the header is absent, invalid or not supported.
+     */
+    public static ByteRange parse(String header) {
+        if (header == null) {
+            return null;
+        }
+
+        final var matcher = RANGE_PATTERN.matcher(header);
+        if (!matcher.matches()) {
+            return null;
+        }
+
+        try {
+            final var start = matcher.group(1);
+            final var end = matcher.group(2);
+            if (start.isEmpty()) {
+                return end.isEmpty() ? null : new ByteRange(-1, -1, Long.parseLong(end));
+            }
+
+            final var firstByte = Long.parseLong(start);
+            if (end.isEmpty()) {
+                return new ByteRange(firstByte, -1, -1);
+            }
+
+            final var lastByte = Long.parseLong(end);
+            return lastByte < firstByte ? null : new ByteRange(firstByte, lastByte, -1);
+        } catch (NumberFormatException exception) {
+            // The numbers do not fit into a long.
+            return null;
+        }
+    }
+
+    /**
+     * Creates a range from an offset and an optional length.
+     *
+     * @param offset The first byte.
+     * @param length The number of bytes or null for the rest of the data.
+     * @return The range.
+     * @throws IllegalArgumentException - if the offset is negative or the length is not positive.
+     */
+    public static ByteRange of(long offset, Long length) throws IllegalArgumentException {
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset cannot be negative.");
+        }
+
+        if (length == null) {
+            return new ByteRange(offset, -1, -1);
+        }
+
+        if (length < 1) {
+            throw new IllegalArgumentException("The length has to be positive.");
+        }
+
+        return new ByteRange(offset, offset + length - 1, -1);
+    }
+
+    /**
+     * Creates a range ending a number of bytes later. Open and suffix ranges stay as they are.
+     *
+     * @param bytes The additional bytes.
+     * @return The extended range.
+     */
+    public ByteRange extend(long bytes) {
+        if (suffixLength >= 0 || last < 0) {
+            return this;
+        }
+
+        return new ByteRange(first, last + bytes, -1);
+    }
+
+    /**
+     * @return true if the range selects the last bytes of the data, whatever its size.
+     */
+    public boolean isSuffix() {
+        return suffixLength >= 0;
+    }
+
+    /**
+     * Checks whether the range selects at least one byte of data with the given size.
+     *
+     * @param size The size of the data.
+     * @return true if the range can be served.
+     */
+    public boolean isSatisfiable(long size) {
+        if (suffixLength >= 0) {
+            return suffixLength > 0 && size > 0;
+        }
+
+        return first < size;
+    }
+
+    /**
+     * @param size The size of the data.
+     * @return The index of the first selected byte.
+     */
+    public long getFirst(long size) {
+        if (suffixLength >= 0) {
+            return Math.max(0, size - suffixLength);
+        }
+
+        return first;
+    }
+
+    /**
+     * @param size The size of the data.
+     * @return The index of the last selected byte.
+     */
+    public long getLast(long size) {
+        if (suffixLength >= 0 || last < 0) {
+            return size - 1;
+        }
+
+        return Math.min(last, size - 1);
+    }
+
+    /**
+     * Selects the range from data.
+     *
+     * @param data The whole data.
+     * @return The selected bytes.
+     */
+    public byte[] slice(byte[] data) {
+        final var from = (int) getFirst(data.length);
+        final var to = (int) getLast(data.length) + 1;
+        final var result = new byte[Math.max(0, to - from)];
+        System.arraycopy(data, from, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * @return The range as Range header value.
+     */
+    public String toHeaderValue() {
+        if (suffixLength >= 0) {
+            return "bytes=-" + suffixLength;
+        }
+
+        return "bytes=" + first + "-" + (last < 0 ? "" : String.valueOf(last));
+    }
+
+    /**
+     * Builds the value of a Content-Range header.
+     *
+     * @param first The first sent byte.
+     * @param last  The last sent byte.
+     * @param size  The size of the data or -1 if it is unknown.
+     * @return The header value.
+     */
+    public static String toContentRange(long first, long last, long size) {
+        return "bytes " + first + "-" + last + "/" + (size < 0 ? "*" : String.valueOf(size));
+    }
+
+    @Override
+    public String toString() {
+        return toHeaderValue();
+    }
+}
@@ -27,4 +27,8 @@ public interface ConnectorResource {
     String getData();
 
     void setData(String data);
+
+    Payload getPayload();
+
+    void setPayload(Payload payload);
 }
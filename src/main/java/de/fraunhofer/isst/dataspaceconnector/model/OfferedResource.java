@@ -1,7 +1,13 @@
 package de.fraunhofer.isst.dataspaceconnector.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCacheInvalidator;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceChangeListener;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceSearchIndexListener;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -15,6 +21,8 @@ import java.util.UUID;
 @Data
 @Entity
 @Table
+@EntityListeners({ResourceCacheInvalidator.class, ResourceSearchIndexListener.class,
+    ResourceChangeListener.class})
 public class OfferedResource implements ConnectorResource {
 
     @Id
@@ -36,6 +44,13 @@ public class OfferedResource implements ConnectorResource {
     @JsonProperty("data")
     private String data;
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payload_hash")
+    private Payload payload;
+
     /**
      * Constructor for OfferedResource.
      */
@@ -97,14 +112,40 @@ public class OfferedResource implements ConnectorResource {
         this.resourceMetadata = resourceMetadata;
     }
 
+    /**
+     * Returns the data. Data stored as payload is decoded, older resources keep their data in
+     * the data column.
+     */
     @Override
     public String getData() {
-        return data;
+        return payload != null ? payload.getContentAsString() : data;
     }
 
+    /**
+     * Sets the data of a resource without payload. A stored payload is shared and reference
+     * counted, it is only replaced by the resource service, which releases it.
+     *
+     * @throws IllegalStateException - if the resource has a payload.
+     */
     @Override
-    public void setData(String data) {
+    public void setData(String data) throws IllegalStateException {
+        if (payload != null) {
+            throw new IllegalStateException("The data is stored as payload.");
+        }
+
         this.setModified(new Date());
         this.data = data;
     }
+
+    @Override
+    public Payload getPayload() {
+        return payload;
+    }
+
+    @Override
+    public void setPayload(Payload payload) {
+        this.setModified(new Date());
+        this.payload = payload;
+        this.data = null;
+    }
 }
@@ -0,0 +1,90 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import lombok.Data;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class provides the stored data of connector resources. Payloads are addressed by the
+ * SHA-256 hash of their decoded content, so identical data is stored once and shared by all
+ * resources referencing it. The content is kept in the recorded encoding and is only decoded
+ * while it is read.
+ */
+@Data
+@Entity
+@Table
+public class Payload {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    @Enumerated(EnumType.STRING)
+    private PayloadEncoding encoding;
+
+    @ToString.Exclude
+    @Lob
+    private byte[] content;
+
+    private Long size;
+
+    private Long referenceCount;
+
+    /**
+     * Constructor for Payload.
+     */
+    public Payload() {
+
+    }
+
+    /**
+     * Constructor with parameters for Payload.
+     */
+    public Payload(String hash, PayloadEncoding encoding, byte[] content, Long size) {
+        this.hash = hash;
+        this.encoding = encoding;
+        this.content = content;
+        this.size = size;
+        this.referenceCount = 0L;
+    }
+
+    /**
+     * Compares the content of two payloads by their hashes.
+     *
+     * @param other The other payload, may be null.
+     * @return True if both payloads have the same content.
+     */
+    public boolean hasSameContent(Payload other) {
+        return other != null && hash != null && hash.equals(other.getHash());
+    }
+
+    /**
+     * Opens a stream of the decoded content.
+     *
+     * @return The decoded content.
+     * @throws IOException - if the content could not be decoded.
+     */
+    public InputStream openStream() throws IOException {
+        return encoding.decode(new ByteArrayInputStream(content));
+    }
+
+    /**
+     * Decodes the content as UTF-8 string.
+     *
+     * @return The decoded content.
+     * @throws UncheckedIOException - if the content could not be decoded.
+     */
+    public String getContentAsString() throws UncheckedIOException {
+        try (var inputStream = openStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("The payload could not be decoded.", exception);
+        }
+    }
+}
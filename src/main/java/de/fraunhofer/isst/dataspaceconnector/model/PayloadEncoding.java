@@ -0,0 +1,117 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The encodings of stored payloads. The names match the HTTP content codings, so a stored payload
+ * can be sent to clients accepting its encoding without decoding it first.
+ */
+public enum PayloadEncoding {
+    @JsonProperty("identity")
+    IDENTITY("identity"),
+    @JsonProperty("gzip")
+    GZIP("gzip"),
+    @JsonProperty("deflate")
+    DEFLATE("deflate");
+
+    private final String encoding;
+
+    PayloadEncoding(String string) {
+        encoding = string;
+    }
+
+    /**
+     * Wraps a stream, so that the written bytes are encoded.
+     *
+     * @param outputStream The target stream.
+     * @return The encoding stream.
+     * @throws IOException - if the stream could not be created.
+     */
+    public OutputStream encode(OutputStream outputStream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPOutputStream(outputStream);
+            case DEFLATE:
+                return new DeflaterOutputStream(outputStream);
+            default:
+                return outputStream;
+        }
+    }
+
+    /**
+     * Wraps a stream, so that the read bytes are decoded.
+     *
+     * @param inputStream The source stream.
+     * @return The decoding stream.
+     * @throws IOException - if the stream could not be created.
+     */
+    public InputStream decode(InputStream inputStream) throws IOException {
+        switch (this) {
+            case GZIP:
+                return new GZIPInputStream(inputStream);
+            case DEFLATE:
+                return new InflaterInputStream(inputStream);
+            default:
+                return inputStream;
+        }
+    }
+
+    /**
+     * Checks whether an Accept-Encoding header allows this encoding.
+     *
+     * @param acceptEncoding The header value, may be null.
+     * @return True if the encoding is listed without a quality of zero.
+     */
+    public boolean isAccepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (final var token : acceptEncoding.split(",")) {
+            final var parts = token.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase(encoding)) {
+                // A quality of zero explicitly rejects the encoding.
+                for (var i = 1; i < parts.length; i++) {
+                    final var parameter = parts[i].trim().replace(" ", "");
+                    if (parameter.matches("q=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the encoding with the given name.
+     *
+     * @param name The name of the encoding, e.g. gzip.
+     * @return The encoding.
+     * @throws IllegalArgumentException - if the encoding is not supported.
+     */
+    public static PayloadEncoding fromString(String name) throws IllegalArgumentException {
+        for (final var value : values()) {
+            if (value.encoding.equalsIgnoreCase(name.trim())) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException(String.format("The encoding %s is not supported.",
+            name));
+    }
+
+    @Override
+    public String toString() {
+        return encoding;
+    }
+}
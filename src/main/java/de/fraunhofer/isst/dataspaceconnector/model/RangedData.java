@@ -0,0 +1,81 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class provides a part of resource data together with its position in the whole data.
+ */
+public final class RangedData {
+
+    private final byte[] data;
+    private final long first;
+    private final long size;
+
+    /**
+     * Constructor with parameters for RangedData.
+     *
+     * @param data  The selected bytes.
+     * @param first The index of the first selected byte in the whole data.
+     * @param size  The size of the whole data or -1 if it is unknown.
+     */
+    public RangedData(byte[] data, long first, long size) {
+        this.data = data;
+        this.first = first;
+        this.size = size;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public long getFirst() {
+        return first;
+    }
+
+    /**
+     * @return The index of the last selected byte in the whole data.
+     */
+    public long getLast() {
+        return first + data.length - 1;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Decodes a range of the data as UTF-8. The data has to reach up to three bytes behind the
+     * range. A character split by the start of the range is left to the preceding range, a
+     * character split by the end is completed. The served characters thus start at the first
+     * character at or behind the start of the range, where the consumer has to write them.
+     *
+     * @param range The range, which starts at the first byte of this data.
+     * @return The characters of the range.
+     */
+    public String toUtf8String(ByteRange range) {
+        final var knownSize = size >= 0 ? size : Long.MAX_VALUE;
+
+        var end = (int) Math.min(data.length, range.getLast(knownSize) - first + 1);
+        var start = 0;
+        if (first > 0) {
+            while (start < end && isContinuationByte(data[start])) {
+                start++;
+            }
+        }
+
+        if (start >= end) {
+            // The range lies within a character of the preceding range.
+            return "";
+        }
+
+        while (end < data.length && isContinuationByte(data[end])) {
+            end++;
+        }
+
+        return new String(data, start, Math.max(0, end - start), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isContinuationByte(byte value) {
+        return (value & 0xC0) == 0x80;
+    }
+}
@@ -0,0 +1,145 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import de.fraunhofer.isst.dataspaceconnector.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class provides the point in time by which a request has to be answered. It is passed from
+ * the message handler down to the backend calls, which stop waiting once it has passed. A
+ * deadline may be unbounded, e.g. for requests of the admin API. A cancellable deadline also ends
+ * the calls registered with it as soon as it is cancelled, e.g. a request that lost a race.
+ */
+public final class RequestDeadline {
+
+    private static final RequestDeadline NONE = new RequestDeadline(0, false, false);
+
+    private final long expiresAt;
+    private final boolean bounded;
+    private final Queue<Runnable> cancelActions;
+    private volatile boolean cancelled;
+
+    private RequestDeadline(long expiresAt, boolean bounded, boolean cancellable) {
+        this.expiresAt = expiresAt;
+        this.bounded = bounded;
+        this.cancelActions = cancellable ? new ConcurrentLinkedQueue<>() : null;
+    }
+
+    /**
+     * @return A deadline that never passes.
+     */
+    public static RequestDeadline none() {
+        return NONE;
+    }
+
+    /**
+     * Creates a deadline passing after a timeout, measured from now.
+     *
+     * @param timeout The timeout, null for no deadline.
+     * @return The deadline.
+     */
+    public static RequestDeadline after(Duration timeout) {
+        if (timeout == null) {
+            return NONE;
+        }
+
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos(), true, false);
+    }
+
+    /**
+     * @return A deadline passing at the same time as this one, which can be cancelled as well.
+     */
+    public RequestDeadline cancellable() {
+        return new RequestDeadline(expiresAt, bounded, true);
+    }
+
+    /**
+     * Registers an action ending a call, e.g. by closing its connection, which is run when the
+     * deadline is cancelled. If it is already cancelled, the action is run at once. Deadlines that
+     * cannot be cancelled ignore the action.
+     *
+     * @param action The action.
+     */
+    public void onCancel(Runnable action) {
+        if (cancelActions == null) {
+            return;
+        }
+
+        cancelActions.add(action);
+        if (cancelled && cancelActions.remove(action)) {
+            action.run();
+        }
+    }
+
+    /**
+     * Cancels the deadline and runs the registered actions.
+     *
+     * @throws IllegalStateException - if the deadline cannot be cancelled.
+     */
+    public void cancel() throws IllegalStateException {
+        if (cancelActions == null) {
+            throw new IllegalStateException("The deadline cannot be cancelled.");
+        }
+
+        cancelled = true;
+        Runnable action;
+        while ((action = cancelActions.poll()) != null) {
+            action.run();
+        }
+    }
+
+    /**
+     * @return true if the deadline was cancelled.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true if the deadline passes at some point.
+     */
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * @return true if the deadline has passed.
+     */
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - expiresAt >= 0;
+    }
+
+    /**
+     * @return The time left in milliseconds, 0 if the deadline has passed and Long.MAX_VALUE if it
+     * is unbounded.
+     */
+    public long getRemainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+
+        return Math.max(0, Duration.ofNanos(expiresAt - System.nanoTime()).toMillis());
+    }
+
+    /**
+     * Checks that the deadline has not passed yet, e.g. before starting expensive work.
+     *
+     * @throws DeadlineExceededException - if the deadline has passed or was cancelled.
+     */
+    public void check() throws DeadlineExceededException {
+        if (cancelled) {
+            throw new DeadlineExceededException("The request was cancelled.");
+        }
+
+        if (isExpired()) {
+            throw new DeadlineExceededException("The request deadline has passed.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? getRemainingMillis() + "ms" : "none";
+    }
+}
@@ -0,0 +1,123 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.net.URI;
+
+/**
+ * This class provides a model for the outcome of a single request of a multi-recipient request.
+ */
+@Schema(
+    name = "RequestResult",
+    description = "The outcome of a request to a single connector.",
+    oneOf = RequestResult.class
+)
+@JsonInclude(Include.NON_NULL)
+public class RequestResult {
+
+    @JsonProperty("recipient")
+    private URI recipient;
+
+    @JsonProperty("requestedElement")
+    private URI requestedElement;
+
+    @JsonProperty("status")
+    private Status status;
+
+    @JsonProperty("message")
+    private String message;
+
+    @JsonProperty("response")
+    private String response;
+
+    /**
+     * Constructor for RequestResult.
+     */
+    public RequestResult() {
+
+    }
+
+    /**
+     * Constructor with parameters for RequestResult.
+     */
+    public RequestResult(URI recipient, URI requestedElement, Status status, String message,
+        String response) {
+        this.recipient = recipient;
+        this.requestedElement = requestedElement;
+        this.status = status;
+        this.message = message;
+        this.response = response;
+    }
+
+    public URI getRecipient() {
+        return recipient;
+    }
+
+    public void setRecipient(URI recipient) {
+        this.recipient = recipient;
+    }
+
+    public URI getRequestedElement() {
+        return requestedElement;
+    }
+
+    public void setRequestedElement(URI requestedElement) {
+        this.requestedElement = requestedElement;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    @Schema(
+        name = "Status",
+        description = "The outcome of the request.",
+        oneOf = Status.class
+    )
+    public enum Status {
+        @JsonProperty("success")
+        SUCCESS("success"),
+        @JsonProperty("invalid")
+        INVALID("invalid"),
+        @JsonProperty("failed")
+        FAILED("failed"),
+        @JsonProperty("timeout")
+        TIMEOUT("timeout"),
+        @JsonProperty("rejected")
+        REJECTED("rejected");
+
+        private final String status;
+
+        Status(String string) {
+            status = string;
+        }
+
+        @Override
+        public String toString() {
+            return status;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package de.fraunhofer.isst.dataspaceconnector.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCacheInvalidator;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import javax.persistence.*;
 import javax.validation.constraints.NotNull;
@@ -15,10 +19,10 @@ import java.util.UUID;
 @Data
 @Entity
 @Table
+@EntityListeners(ResourceCacheInvalidator.class)
 public class RequestedResource implements ConnectorResource {
 
     @Id
-    @GeneratedValue
     @JsonProperty("uuid")
     private UUID uuid;
 
@@ -37,6 +41,13 @@ public class RequestedResource implements ConnectorResource {
     @JsonProperty("data")
     private String data;
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payload_hash")
+    private Payload payload;
+
     @JsonProperty("accessed")
     private Integer accessed;
 
@@ -99,21 +110,60 @@ public class RequestedResource implements ConnectorResource {
         this.resourceMetadata = resourceMetadata;
     }
 
+    /**
+     * Returns the data and counts the access. Data stored as payload is decoded, older resources
+     * keep their data in the data column.
+     */
     @Override
     public String getData() {
         incrementDataAccess();
-        return data;
+        return payload != null ? payload.getContentAsString() : data;
     }
 
+    /**
+     * Sets the data of a resource without payload. A stored payload is shared and reference
+     * counted, it is only replaced by the resource service, which releases it.
+     *
+     * @throws IllegalStateException - if the resource has a payload.
+     */
     @Override
-    public void setData(String data) {
+    public void setData(String data) throws IllegalStateException {
+        if (payload != null) {
+            throw new IllegalStateException("The data is stored as payload.");
+        }
+
         this.data = data;
     }
 
+    @Override
+    public Payload getPayload() {
+        return payload;
+    }
+
+    @Override
+    public void setPayload(Payload payload) {
+        this.payload = payload;
+        this.data = null;
+    }
+
     public Integer getAccessed() {
         return accessed;
     }
 
+    public void setAccessed(Integer accessed) {
+        this.accessed = accessed;
+    }
+
+    /**
+     * Assigns a random uuid to new resources. Restored resources keep their uuid.
+     */
+    @PrePersist
+    private void assignUuid() {
+        if (uuid == null) {
+            uuid = UUID.randomUUID();
+        }
+    }
+
     private void incrementDataAccess() {
         this.accessed++;
     }
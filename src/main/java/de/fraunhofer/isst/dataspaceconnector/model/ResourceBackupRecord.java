@@ -0,0 +1,143 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * This class provides a model for a single line of a resource backup. Every offered or requested
+ * resource is written as one record.
+ */
+@Schema(
+    name = "ResourceBackupRecord",
+    description = "A backed up offered or requested resource.",
+    oneOf = ResourceBackupRecord.class
+)
+@JsonInclude(Include.NON_NULL)
+public class ResourceBackupRecord {
+
+    @JsonProperty("type")
+    private Type type;
+
+    @JsonProperty("uuid")
+    private UUID uuid;
+
+    @JsonProperty("created")
+    private Date created;
+
+    @JsonProperty("modified")
+    private Date modified;
+
+    @JsonProperty("metadata")
+    private ResourceMetadata metadata;
+
+    @JsonProperty("data")
+    private String data;
+
+    @JsonProperty("accessed")
+    private Integer accessed;
+
+    /**
+     * Constructor for ResourceBackupRecord.
+     */
+    public ResourceBackupRecord() {
+
+    }
+
+    /**
+     * Constructor with parameters for ResourceBackupRecord.
+     */
+    public ResourceBackupRecord(Type type, UUID uuid, Date created, Date modified,
+        ResourceMetadata metadata, String data, Integer accessed) {
+        this.type = type;
+        this.uuid = uuid;
+        this.created = created;
+        this.modified = modified;
+        this.metadata = metadata;
+        this.data = data;
+        this.accessed = accessed;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    public Date getModified() {
+        return modified;
+    }
+
+    public void setModified(Date modified) {
+        this.modified = modified;
+    }
+
+    public ResourceMetadata getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(ResourceMetadata metadata) {
+        this.metadata = metadata;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(String data) {
+        this.data = data;
+    }
+
+    public Integer getAccessed() {
+        return accessed;
+    }
+
+    public void setAccessed(Integer accessed) {
+        this.accessed = accessed;
+    }
+
+    @Schema(
+        name = "Type",
+        description = "The kind of the backed up resource.",
+        oneOf = Type.class
+    )
+    public enum Type {
+        @JsonProperty("offered")
+        OFFERED("offered"),
+        @JsonProperty("requested")
+        REQUESTED("requested");
+
+        private final String type;
+
+        Type(String string) {
+            type = string;
+        }
+
+        @Override
+        public String toString() {
+            return type;
+        }
+    }
+}
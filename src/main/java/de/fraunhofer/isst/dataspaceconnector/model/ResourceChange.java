@@ -0,0 +1,81 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.persistence.*;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * This class provides a model for an entry of the change log of the offered resources. The
+ * sequence numbers increase in the order the changes were recorded.
+ */
+@Schema(
+    name = "ResourceChange",
+    description = "A change of an offered resource.",
+    oneOf = ResourceChange.class
+)
+@Data
+@Entity
+@Table(indexes = @Index(columnList = "timestamp"))
+public class ResourceChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "resource_change_sequence")
+    @SequenceGenerator(name = "resource_change_sequence",
+        sequenceName = "resource_change_sequence", allocationSize = 1)
+    @JsonProperty("sequence")
+    private Long sequence;
+
+    @JsonProperty("resource")
+    private UUID resourceId;
+
+    @JsonProperty("type")
+    private Type type;
+
+    @JsonProperty("timestamp")
+    private Date timestamp;
+
+    /**
+     * Constructor for ResourceChange.
+     */
+    public ResourceChange() {
+
+    }
+
+    /**
+     * Constructor with parameters for ResourceChange.
+     */
+    public ResourceChange(UUID resourceId, Type type, Date timestamp) {
+        this.resourceId = resourceId;
+        this.type = type;
+        this.timestamp = timestamp;
+    }
+
+    @Schema(
+        name = "Type",
+        description = "The type of a resource change.",
+        oneOf = Type.class
+    )
+    public enum Type {
+        @JsonProperty("created")
+        CREATED("created"),
+        @JsonProperty("updated")
+        UPDATED("updated"),
+        @JsonProperty("deleted")
+        DELETED("deleted");
+
+        private final String type;
+
+        Type(String string) {
+            type = string;
+        }
+
+        @Override
+        public String toString() {
+            return type;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * This class provides a model for a single entry of a bulk resource import.
+ */
+@Schema(
+    name = "ResourceImportItem",
+    description = "A resource to be imported with its metadata, representations and data.",
+    oneOf = ResourceImportItem.class,
+    example = "{\"metadata\":{\"title\":\"ExampleResource\",\"description\":\"ExampleResourceDescription\",\"representations\":[{\"type\":\"XML\",\"byteSize\":101,\"name\":\"Example Representation\",\"source\":{\"type\":\"local\"}}]},\"data\":\"Data String\"}"
+)
+@JsonInclude(Include.NON_NULL)
+public class ResourceImportItem implements Serializable {
+
+    @JsonProperty("uuid")
+    private UUID uuid;
+
+    @JsonProperty("metadata")
+    private ResourceMetadata metadata;
+
+    @JsonProperty("data")
+    private String data;
+
+    /**
+     * Constructor for ResourceImportItem.
+     */
+    public ResourceImportItem() {
+
+    }
+
+    /**
+     * Constructor with parameters for ResourceImportItem.
+     */
+    public ResourceImportItem(UUID uuid, ResourceMetadata metadata, String data) {
+        this.uuid = uuid;
+        this.metadata = metadata;
+        this.data = data;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public ResourceMetadata getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(ResourceMetadata metadata) {
+        this.metadata = metadata;
+    }
+
+    public String getData() {
+        return data;
+    }
+
+    public void setData(String data) {
+        this.data = data;
+    }
+}
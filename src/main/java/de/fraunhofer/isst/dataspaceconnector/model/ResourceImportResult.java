@@ -0,0 +1,108 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+/**
+ * This class provides a model for the outcome of a single entry of a bulk resource import.
+ */
+@Schema(
+    name = "ResourceImportResult",
+    description = "The import result of a single resource.",
+    oneOf = ResourceImportResult.class
+)
+@JsonInclude(Include.NON_NULL)
+public class ResourceImportResult {
+
+    @JsonProperty("index")
+    private int index;
+
+    @JsonProperty("uuid")
+    private UUID uuid;
+
+    @JsonProperty("status")
+    private Status status;
+
+    @JsonProperty("message")
+    private String message;
+
+    /**
+     * Constructor for ResourceImportResult.
+     */
+    public ResourceImportResult() {
+
+    }
+
+    /**
+     * Constructor with parameters for ResourceImportResult.
+     */
+    public ResourceImportResult(int index, UUID uuid, Status status, String message) {
+        this.index = index;
+        this.uuid = uuid;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Schema(
+        name = "Status",
+        description = "The import status of a resource.",
+        oneOf = Status.class
+    )
+    public enum Status {
+        @JsonProperty("created")
+        CREATED("created"),
+        @JsonProperty("invalid")
+        INVALID("invalid"),
+        @JsonProperty("already-exists")
+        ALREADY_EXISTS("already-exists"),
+        @JsonProperty("failed")
+        FAILED("failed");
+
+        private final String status;
+
+        Status(String string) {
+            status = string;
+        }
+
+        @Override
+        public String toString() {
+            return status;
+        }
+    }
+}
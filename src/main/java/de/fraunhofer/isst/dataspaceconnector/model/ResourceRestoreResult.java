@@ -0,0 +1,82 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides a model for the outcome of a resource restore.
+ */
+@Schema(
+    name = "ResourceRestoreResult",
+    description = "The outcome of a resource restore.",
+    oneOf = ResourceRestoreResult.class
+)
+@JsonInclude(Include.NON_NULL)
+public class ResourceRestoreResult {
+
+    @JsonProperty("offered")
+    private long offered;
+
+    @JsonProperty("requested")
+    private long requested;
+
+    @JsonProperty("failed")
+    private long failed;
+
+    @JsonProperty("errors")
+    private List<String> errors = new ArrayList<>();
+
+    /**
+     * Constructor for ResourceRestoreResult.
+     */
+    public ResourceRestoreResult() {
+
+    }
+
+    /**
+     * Constructor with parameters for ResourceRestoreResult.
+     */
+    public ResourceRestoreResult(long offered, long requested, long failed, List<String> errors) {
+        this.offered = offered;
+        this.requested = requested;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public long getOffered() {
+        return offered;
+    }
+
+    public void setOffered(long offered) {
+        this.offered = offered;
+    }
+
+    public long getRequested() {
+        return requested;
+    }
+
+    public void setRequested(long requested) {
+        this.requested = requested;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,63 @@
+package de.fraunhofer.isst.dataspaceconnector.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * This class provides a model for a page of ranked resource search results.
+ */
+@Schema(
+    name = "ResourceSearchResult",
+    description = "A page of resources matching a search.",
+    oneOf = ResourceSearchResult.class
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(Include.NON_NULL)
+public class ResourceSearchResult {
+
+    @JsonProperty("total")
+    private int total;
+
+    @JsonProperty("offset")
+    private int offset;
+
+    @JsonProperty("limit")
+    private int limit;
+
+    @JsonProperty("hits")
+    private List<Hit> hits;
+
+    /**
+     * A resource matching the search.
+     */
+    @Schema(
+        name = "Hit",
+        description = "A resource matching the search.",
+        oneOf = Hit.class
+    )
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(Include.NON_NULL)
+    public static class Hit {
+
+        @JsonProperty("uuid")
+        private UUID uuid;
+
+        @JsonProperty("title")
+        private String title;
+
+        @JsonProperty("score")
+        private double score;
+    }
+}
@@ -0,0 +1,271 @@
+package de.fraunhofer.isst.dataspaceconnector.services;
+
+import de.fraunhofer.iais.eis.BaseConnectorImpl;
+import de.fraunhofer.iais.eis.Connector;
+import de.fraunhofer.iais.eis.ResourceCatalog;
+import de.fraunhofer.iais.eis.util.ConstraintViolationException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCatalogService;
+import de.fraunhofer.isst.ids.framework.spring.starter.SerializerProvider;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class publishes immutable snapshots of the connector self-description. The configured
+ * connector is shared by all requests and must not be modified, so every self-description is
+ * built from a copy of it and kept as serialized string. A snapshot is rebuilt on the next
+ * request once the configuration was replaced or an offered resource was written, and is
+ * published by replacing the reference at once; readers never see a half built one and do not
+ * lock. The public self-description only depends on the configuration, so it is built on its own
+ * and encoded once per configuration, without reading the resource catalog.
+ */
+@Service
+public class ConnectorSnapshotService {
+
+    private final IdsUtils idsUtils;
+    private final SerializerProvider serializerProvider;
+    private final ResourceCatalogService resourceCatalogService;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Object publicDescriptionLock = new Object();
+    private volatile Snapshot snapshot;
+    private volatile PublicDescription publicDescription;
+
+    /**
+     * Constructor for ConnectorSnapshotService.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ConnectorSnapshotService(@NotNull IdsUtils idsUtils,
+        @NotNull SerializerProvider serializerProvider,
+        @NotNull ResourceCatalogService resourceCatalogService) throws IllegalArgumentException {
+        if (idsUtils == null) {
+            throw new IllegalArgumentException("The IdsUtils cannot be null.");
+        }
+
+        if (serializerProvider == null) {
+            throw new IllegalArgumentException("The SerializerProvider cannot be null.");
+        }
+
+        if (resourceCatalogService == null) {
+            throw new IllegalArgumentException("The ResourceCatalogService cannot be null.");
+        }
+
+        this.idsUtils = idsUtils;
+        this.serializerProvider = serializerProvider;
+        this.resourceCatalogService = resourceCatalogService;
+    }
+
+    /**
+     * Returns the self-description of the current connector without catalog and public key.
+     *
+     * @return The encoded self-description.
+     * @throws ConnectorConfigurationException - if no connector is configured.
+     * @throws IOException                     - if the connector could not be serialized.
+     */
+    public EncodedDescription getPublicDescription() throws ConnectorConfigurationException,
+        IOException {
+        final var connector = idsUtils.getConnector();
+        var current = publicDescription;
+        if (current != null && current.connector == connector) {
+            return current.description;
+        }
+
+        synchronized (publicDescriptionLock) {
+            current = publicDescription;
+            if (current == null || current.connector != connector) {
+                // The reduced self-description has neither catalog nor public key.
+                final var reduced = copy(connector);
+                reduced.setResourceCatalog(null);
+                reduced.setPublicKey(null);
+
+                current = new PublicDescription(connector, EncodedDescription.of(
+                    serializerProvider.getSerializer().serialize(reduced)));
+                publicDescription = current;
+            }
+
+            return current.description;
+        }
+    }
+
+    /**
+     * Returns the snapshot of the current connector and offered resources.
+     *
+     * @return The snapshot.
+     * @throws ConnectorConfigurationException - if no connector is configured.
+     * @throws IOException                     - if the connector could not be serialized.
+     * @throws ConstraintViolationException    - if the resource catalog could not be built.
+     */
+    public Snapshot getSnapshot() throws ConnectorConfigurationException, IOException,
+        ConstraintViolationException {
+        final var connector = idsUtils.getConnector();
+        final var current = snapshot;
+        if (current != null && current.connector == connector
+            && current.catalogVersion == catalogVersion.get()) {
+            return current;
+        }
+
+        return rebuild(connector);
+    }
+
+    /**
+     * Serializes a copy of the connector with the given catalogs, leaving the configured
+     * connector untouched.
+     *
+     * @param connector The connector.
+     * @param catalogs  The resource catalogs, may be null.
+     * @return The serialized copy.
+     * @throws IOException - if the connector could not be serialized.
+     */
+    public String serializeWithCatalogs(Connector connector,
+        ArrayList<ResourceCatalog> catalogs) throws IOException {
+        final var copy = copy(connector);
+        copy.setResourceCatalog(catalogs);
+        return serializerProvider.getSerializer().serialize(copy);
+    }
+
+    /**
+     * Marks the snapshot outdated, as an offered resource is written. It is called before and
+     * after the write was committed, so a snapshot built in between is not kept.
+     */
+    public void invalidate() {
+        catalogVersion.incrementAndGet();
+    }
+
+    /**
+     * Builds a new snapshot, unless another thread did so while this one waited.
+     */
+    private synchronized Snapshot rebuild(Connector connector) throws IOException,
+        ConstraintViolationException {
+        final var version = catalogVersion.get();
+        final var current = snapshot;
+        if (current != null && current.connector == connector
+            && current.catalogVersion == version) {
+            return current;
+        }
+
+        final var built = new Snapshot(connector, version,
+            serializeWithCatalogs(connector, resourceCatalogService.getCatalogs()));
+        snapshot = built;
+        return built;
+    }
+
+    private BaseConnectorImpl copy(Connector connector) throws IOException {
+        final var serializer = serializerProvider.getSerializer();
+        return serializer.deserialize(serializer.serialize(connector), BaseConnectorImpl.class);
+    }
+
+    /**
+     * An immutable self-description of the connector.
+     */
+    public static final class Snapshot {
+
+        private final Connector connector;
+        private final long catalogVersion;
+        private final String selfDescription;
+
+        private Snapshot(Connector connector, long catalogVersion, String selfDescription) {
+            this.connector = connector;
+            this.catalogVersion = catalogVersion;
+            this.selfDescription = selfDescription;
+        }
+
+        /**
+         * @return The configured connector the snapshot was built from. It is shared and must
+         * not be modified.
+         */
+        public Connector getConnector() {
+            return connector;
+        }
+
+        /**
+         * @return The self-description with the catalog of offered resources, or its first
+         * page.
+         */
+        public String getSelfDescription() {
+            return selfDescription;
+        }
+    }
+
+    /**
+     * The public self-description of a configured connector.
+     */
+    private static final class PublicDescription {
+
+        private final Connector connector;
+        private final EncodedDescription description;
+
+        private PublicDescription(Connector connector, EncodedDescription description) {
+            this.connector = connector;
+            this.description = description;
+        }
+    }
+
+    /**
+     * A serialized self-description with its UTF-8 and gzip encoded bytes and an entity tag
+     * derived from its content. The byte arrays are shared and must not be modified.
+     */
+    public static final class EncodedDescription {
+
+        private final byte[] bytes;
+        private final byte[] gzip;
+        private final String tag;
+
+        private EncodedDescription(byte[] bytes, byte[] gzip, String tag) {
+            this.bytes = bytes;
+            this.gzip = gzip;
+            this.tag = tag;
+        }
+
+        private static EncodedDescription of(String text) throws IOException {
+            final var bytes = text.getBytes(StandardCharsets.UTF_8);
+
+            final var compressed = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (var out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+
+            try {
+                final var digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+                return new EncodedDescription(bytes, compressed.toByteArray(),
+                    Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+            } catch (NoSuchAlgorithmException exception) {
+                // Every Java platform supports SHA-256.
+                throw new IllegalStateException(exception);
+            }
+        }
+
+        /**
+         * @return The UTF-8 encoded self-description.
+         */
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        /**
+         * @return The gzip compressed self-description.
+         */
+        public byte[] getGzip() {
+            return gzip;
+        }
+
+        /**
+         * @return The entity tag of the content, without quotes and encoding.
+         */
+        public String getTag() {
+            return tag;
+        }
+    }
+}
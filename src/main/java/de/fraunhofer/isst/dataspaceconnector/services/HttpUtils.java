@@ -1,12 +1,14 @@
 package de.fraunhofer.isst.dataspaceconnector.services;
 
-import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
-import de.fraunhofer.isst.ids.framework.util.ClientProvider;
-import io.jsonwebtoken.lang.Assert;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.DeadlineExceededException;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.RangeNotSatisfiableException;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
+import de.fraunhofer.isst.dataspaceconnector.model.RangedData;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.HttpClientRegistry;
 import okhttp3.Request;
 import okhttp3.Response;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.lang3.NotImplementedException;
 import org.apache.http.HttpHeaders;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,37 +17,41 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
 
 import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 /**
- * This class builds up http or https endpoint connections.
+ * This class builds up http or https endpoint connections. Requests with a deadline stop waiting
+ * for the endpoint once it has passed.
  */
 @Service
 public class HttpUtils {
 
-    private final ClientProvider clientProvider;
+    private static final Pattern CONTENT_RANGE_PATTERN =
+        Pattern.compile("^\\s*bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)\\s*$");
+    private static final Pattern UNSATISFIED_RANGE_PATTERN =
+        Pattern.compile("^\\s*bytes\\s+\\*/(\\d+)\\s*$");
+
+    private final HttpClientRegistry httpClientRegistry;
 
     /**
      * Constructor for HttpUtils.
      *
      * @throws IllegalArgumentException - if any of the parameters is null.
-     * @throws GeneralSecurityException - if the framework has an error.
      */
     @Autowired
-    public HttpUtils(@NotNull ConfigurationContainer configurationContainer)
-        throws IllegalArgumentException, GeneralSecurityException {
-        if (configurationContainer == null) {
-            throw new IllegalArgumentException("The ConfigurationContainer cannot be null");
+    public HttpUtils(@NotNull HttpClientRegistry httpClientRegistry)
+        throws IllegalArgumentException {
+        if (httpClientRegistry == null) {
+            throw new IllegalArgumentException("The HttpClientRegistry cannot be null.");
         }
 
-        this.clientProvider = new ClientProvider(configurationContainer);
-
-        Assert.notNull(clientProvider, "The clientProvider cannot be null.");
+        this.httpClientRegistry = httpClientRegistry;
     }
 
     /**
@@ -59,21 +65,36 @@ public class HttpUtils {
      */
     public String sendHttpGetRequest(String address) throws MalformedURLException,
         RuntimeException {
-        try {
-            final var url = new URL(address);
-
-            var con = (HttpURLConnection) url.openConnection();
-            con.setRequestMethod("GET");
+        return sendHttpGetRequest(address, RequestDeadline.none());
+    }
 
-            final var responseCodeOk = 200;
-            final var responseCodeUnauthorized = 401;
-            final var responseMalformed = -1;
+    /**
+     * Sends a get request to an external http endpoint within a deadline.
+     *
+     * @param address  The url.
+     * @param deadline The request deadline.
+     * @return The http response when http code is ok (200).
+     * @throws MalformedURLException     - if the input address is not a valid url.
+     * @throws DeadlineExceededException - if the deadline passed before the response was read.
+     * @throws RuntimeException          - if an error occurred when connecting or processing the
+     *                                   http request.
+     */
+    public String sendHttpGetRequest(String address, RequestDeadline deadline)
+        throws MalformedURLException, DeadlineExceededException, RuntimeException {
+        try {
+            final var request = new Request.Builder().url(new URL(address)).get().build();
 
-            final var responseCode = con.getResponseCode();
+            try (var response = execute(request, deadline)) {
+                if (response.code() == HttpStatus.UNAUTHORIZED.value()) {
+                    // The request is not authorized
+                    throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+                } else if (response.code() != HttpStatus.OK.value()) {
+                    // Not the expected response code
+                    throw new HttpClientErrorException(HttpStatus.EXPECTATION_FAILED);
+                }
 
-            if (responseCode == responseCodeOk) {
                 // Request was ok, read the response
-                try (var in = new BufferedReader(new InputStreamReader(con.getInputStream()))) {
+                try (var in = new BufferedReader(response.body().charStream())) {
                     var content = new StringBuilder();
                     var inputLine = "";
                     while ((inputLine = in.readLine()) != null) {
@@ -82,24 +103,13 @@ public class HttpUtils {
 
                     return content.toString();
                 }
-            } else if (responseCode == responseCodeUnauthorized) {
-                // The request is not authorized
-                throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
-            } else if (responseCode == responseMalformed) {
-                // The response code could not be read
-                throw new HttpClientErrorException(HttpStatus.EXPECTATION_FAILED);
-            } else {
-                // This function should never be thrown
-                throw new NotImplementedException("Unsupported return value " +
-                    "from getResponseCode.");
             }
-
-        } catch (MalformedURLException exception) {
-            // The parameter address is not an url.
+        } catch (MalformedURLException | DeadlineExceededException exception) {
+            // The parameter address is not an url or the deadline passed.
             throw exception;
         } catch (Exception exception) {
             // Catch all the HTTP, IOExceptions
-            throw new RuntimeException("Failed to send the http get request.", exception);
+            throw toRequestException(exception, deadline);
         }
     }
 
@@ -114,11 +124,26 @@ public class HttpUtils {
      */
     public String sendHttpsGetRequest(String address)
         throws MalformedURLException, RuntimeException {
+        return sendHttpsGetRequest(address, RequestDeadline.none());
+    }
+
+    /**
+     * Sends a get request to an external https endpoint within a deadline.
+     *
+     * @param address  The url.
+     * @param deadline The request deadline.
+     * @return The http body of the response when http code is ok (200).
+     * @throws MalformedURLException     - if the input address is not a valid url.
+     * @throws DeadlineExceededException - if the deadline passed before the response was read.
+     * @throws RuntimeException          - if an error occurred when connecting or processing the
+     *                                   http request.
+     */
+    public String sendHttpsGetRequest(String address, RequestDeadline deadline)
+        throws MalformedURLException, DeadlineExceededException, RuntimeException {
         try {
             final var request = new Request.Builder().url(address).get().build();
 
-            var client = clientProvider.getClient();
-            Response response = client.newCall(request).execute();
+            Response response = execute(request, deadline);
 
             if (response.code() < 200 || response.code() >= 300) {
                 response.close();
@@ -132,12 +157,12 @@ public class HttpUtils {
 
                 return rawResponseString;
             }
-        } catch (MalformedURLException exception) {
-            // The parameter address is not an url.
+        } catch (MalformedURLException | DeadlineExceededException exception) {
+            // The parameter address is not an url or the deadline passed.
             throw exception;
         } catch (Exception exception) {
             // Catch all the HTTP, IOExceptions
-            throw new RuntimeException("Failed to send the http get request.", exception);
+            throw toRequestException(exception, deadline);
         }
     }
 
@@ -154,6 +179,27 @@ public class HttpUtils {
      */
     public String sendHttpsGetRequestWithBasicAuth(String address, String username,
         String password) throws MalformedURLException, RuntimeException {
+        return sendHttpsGetRequestWithBasicAuth(address, username, password,
+            RequestDeadline.none());
+    }
+
+    /**
+     * Sends a get request with basic authentication to an external https endpoint within a
+     * deadline.
+     *
+     * @param address  The url.
+     * @param username The username.
+     * @param password The password.
+     * @param deadline The request deadline.
+     * @return The http response when http code is ok (200).
+     * @throws MalformedURLException     - if the input address is not a valid url.
+     * @throws DeadlineExceededException - if the deadline passed before the response was read.
+     * @throws RuntimeException          - if an error occurred when connecting or processing the
+     *                                   http request.
+     */
+    public String sendHttpsGetRequestWithBasicAuth(String address, String username,
+        String password, RequestDeadline deadline)
+        throws MalformedURLException, DeadlineExceededException, RuntimeException {
         final var auth = username + ":" + password;
         final var encodedAuth = Base64.encodeBase64(auth.getBytes(StandardCharsets.ISO_8859_1));
         final var authHeader = "Basic " + new String(encodedAuth);
@@ -162,8 +208,7 @@ public class HttpUtils {
             final var request = new Request.Builder().url(address)
                 .header(HttpHeaders.AUTHORIZATION, authHeader).get().build();
 
-            final var client = clientProvider.getClient();
-            final var response = client.newCall(request).execute();
+            final var response = execute(request, deadline);
 
             if (response.code() < 200 || response.code() >= 300) {
                 response.close();
@@ -175,12 +220,236 @@ public class HttpUtils {
 
                 return rawResponseString;
             }
-        } catch (MalformedURLException exception) {
-            // The parameter address is not an url.
+        } catch (MalformedURLException | DeadlineExceededException exception) {
+            // The parameter address is not an url or the deadline passed.
+            throw exception;
+        } catch (Exception exception) {
+            // Catch all the HTTP, IOExceptions
+            throw toRequestException(exception, deadline);
+        }
+    }
+
+    /**
+     * Sends a get request for a byte range to an external http endpoint. Endpoints that do not
+     * support ranges answer with the whole data, the range is then selected locally.
+     *
+     * @param address  The url.
+     * @param range    The requested byte range.
+     * @param deadline The request deadline.
+     * @return The selected bytes and their position.
+     * @throws MalformedURLException        - if the input address is not a valid url.
+     * @throws RangeNotSatisfiableException - if the range lies outside of the data.
+     * @throws DeadlineExceededException    - if the deadline passed before the response was read.
+     * @throws RuntimeException             - if an error occurred when connecting or processing
+     *                                      the http request.
+     */
+    public RangedData sendHttpGetRequest(String address, ByteRange range,
+        RequestDeadline deadline) throws MalformedURLException, RangeNotSatisfiableException,
+        DeadlineExceededException, RuntimeException {
+        final var request = new Request.Builder().url(new URL(address))
+            .header(HttpHeaders.RANGE, range.toHeaderValue()).get().build();
+        return sendRangeRequest(request, range, deadline);
+    }
+
+    /**
+     * Sends a get request for a byte range to an external https endpoint.
+     *
+     * @param address  The url.
+     * @param range    The requested byte range.
+     * @param deadline The request deadline.
+     * @return The selected bytes and their position.
+     * @throws MalformedURLException        - if the input address is not a valid url.
+     * @throws RangeNotSatisfiableException - if the range lies outside of the data.
+     * @throws DeadlineExceededException    - if the deadline passed before the response was read.
+     * @throws RuntimeException             - if an error occurred when connecting or processing
+     *                                      the http request.
+     */
+    public RangedData sendHttpsGetRequest(String address, ByteRange range,
+        RequestDeadline deadline) throws MalformedURLException, RangeNotSatisfiableException,
+        DeadlineExceededException, RuntimeException {
+        final var request = new Request.Builder().url(address)
+            .header(HttpHeaders.RANGE, range.toHeaderValue()).get().build();
+        return sendRangeRequest(request, range, deadline);
+    }
+
+    /**
+     * Sends a get request for a byte range with basic authentication to an external https
+     * endpoint.
+     *
+     * @param address  The url.
+     * @param username The username.
+     * @param password The password.
+     * @param range    The requested byte range.
+     * @param deadline The request deadline.
+     * @return The selected bytes and their position.
+     * @throws MalformedURLException        - if the input address is not a valid url.
+     * @throws RangeNotSatisfiableException - if the range lies outside of the data.
+     * @throws DeadlineExceededException    - if the deadline passed before the response was read.
+     * @throws RuntimeException             - if an error occurred when connecting or processing
+     *                                      the http request.
+     */
+    public RangedData sendHttpsGetRequestWithBasicAuth(String address, String username,
+        String password, ByteRange range, RequestDeadline deadline)
+        throws MalformedURLException, RangeNotSatisfiableException, DeadlineExceededException,
+        RuntimeException {
+        final var auth = username + ":" + password;
+        final var encodedAuth = Base64.encodeBase64(auth.getBytes(StandardCharsets.ISO_8859_1));
+        final var authHeader = "Basic " + new String(encodedAuth);
+
+        final var request = new Request.Builder().url(address)
+            .header(HttpHeaders.AUTHORIZATION, authHeader)
+            .header(HttpHeaders.RANGE, range.toHeaderValue()).get().build();
+        return sendRangeRequest(request, range, deadline);
+    }
+
+    private RangedData sendRangeRequest(Request request, ByteRange range,
+        RequestDeadline deadline) throws RangeNotSatisfiableException, RuntimeException {
+        try (var response = execute(request, deadline)) {
+            if (response.code() == HttpStatus.UNAUTHORIZED.value()) {
+                // The request is not authorized
+                throw new HttpClientErrorException(HttpStatus.UNAUTHORIZED);
+            }
+
+            final var contentRange = response.header(HttpHeaders.CONTENT_RANGE);
+            if (response.code() == HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value()) {
+                throw new RangeNotSatisfiableException("The range lies outside of the data.",
+                    getUnsatisfiedSize(contentRange));
+            }
+
+            if (response.code() != HttpStatus.OK.value()
+                && response.code() != HttpStatus.PARTIAL_CONTENT.value()) {
+                // Not the expected response code
+                throw new HttpClientErrorException(HttpStatus.EXPECTATION_FAILED);
+            }
+
+            return toRangedData(response.code(), contentRange, response.body().contentLength(),
+                response.body().byteStream(), range);
+        } catch (RangeNotSatisfiableException | DeadlineExceededException exception) {
+            // The range cannot be served or the deadline passed.
             throw exception;
         } catch (Exception exception) {
             // Catch all the HTTP, IOExceptions
-            throw new RuntimeException("Failed to send the http get request.", exception);
+            throw toRequestException(exception, deadline);
+        }
+    }
+
+    /**
+     * Executes a request with the backend client. The call is cancelled when the deadline passes
+     * or is cancelled, including the time spent reading the response body.
+     */
+    private Response execute(Request request, RequestDeadline deadline) throws IOException,
+        DeadlineExceededException {
+        deadline.check();
+        final var call = httpClientRegistry.getClient(HttpClientRegistry.Profile.BACKEND)
+            .newCall(request);
+        if (deadline.isBounded()) {
+            call.timeout().timeout(Math.max(1, deadline.getRemainingMillis()),
+                TimeUnit.MILLISECONDS);
         }
+
+        deadline.onCancel(call::cancel);
+        return call.execute();
+    }
+
+    /**
+     * Wraps a failed request. A failure after the deadline passed or was cancelled, e.g. a
+     * cancelled call, is reported as such.
+     */
+    private static RuntimeException toRequestException(Exception exception,
+        RequestDeadline deadline) {
+        if (deadline.isCancelled()) {
+            return new DeadlineExceededException("The request was cancelled.", exception);
+        }
+
+        if (deadline.isExpired()) {
+            return new DeadlineExceededException("The request deadline has passed.", exception);
+        }
+
+        return new RuntimeException("Failed to send the http get request.", exception);
+    }
+
+    /**
+     * Reads a response to a range request. A partial response is taken as it is. From a complete
+     * response, the bytes in front of the range are skipped and only the range is read. Only a
+     * suffix range of a response of unknown length requires reading the whole response.
+     */
+    private static RangedData toRangedData(int responseCode, String contentRange,
+        long contentLength, InputStream body, ByteRange range)
+        throws IOException, RangeNotSatisfiableException {
+        if (responseCode == HttpStatus.PARTIAL_CONTENT.value() && contentRange != null) {
+            final var matcher = CONTENT_RANGE_PATTERN.matcher(contentRange);
+            if (matcher.matches()) {
+                final var size = "*".equals(matcher.group(3)) ? -1
+                    : Long.parseLong(matcher.group(3));
+                return new RangedData(body.readAllBytes(), Long.parseLong(matcher.group(1)),
+                    size);
+            }
+        }
+
+        if (contentLength < 0 && range.isSuffix()) {
+            final var data = body.readAllBytes();
+            if (!range.isSatisfiable(data.length)) {
+                throw new RangeNotSatisfiableException("The range lies outside of the data.",
+                    data.length);
+            }
+
+            return new RangedData(range.slice(data), range.getFirst(data.length), data.length);
+        }
+
+        if (contentLength >= 0 && !range.isSatisfiable(contentLength)) {
+            throw new RangeNotSatisfiableException("The range lies outside of the data.",
+                contentLength);
+        }
+
+        final var knownSize = contentLength >= 0 ? contentLength : Long.MAX_VALUE;
+        final var first = range.getFirst(knownSize);
+        final var length = range.getLast(knownSize) - first + 1;
+        final var skipped = skipFully(body, first);
+        final var data = skipped < first ? new byte[0]
+            : body.readNBytes((int) Math.min(length, Integer.MAX_VALUE));
+        if (data.length == 0) {
+            throw new RangeNotSatisfiableException("The range lies outside of the data.",
+                skipped);
+        }
+
+        // Without Content-Length, the size is only known if the data ended within the range.
+        final var size = contentLength >= 0 ? contentLength
+            : data.length < length ? first + data.length : -1;
+        return new RangedData(data, first, size);
+    }
+
+    /**
+     * Skips bytes of a stream, also if its skip method skips less than requested.
+     *
+     * @param inputStream The stream.
+     * @param bytes       The number of bytes to skip.
+     * @return The number of skipped bytes, less than requested if the stream ended.
+     * @throws IOException - if the stream could not be read.
+     */
+    public static long skipFully(InputStream inputStream, long bytes) throws IOException {
+        var remaining = bytes;
+        while (remaining > 0) {
+            final var skipped = inputStream.skip(remaining);
+            if (skipped > 0) {
+                remaining -= skipped;
+            } else if (inputStream.read() != -1) {
+                remaining--;
+            } else {
+                break;
+            }
+        }
+
+        return bytes - remaining;
+    }
+
+    private static long getUnsatisfiedSize(String contentRange) {
+        if (contentRange != null) {
+            final var matcher = UNSATISFIED_RANGE_PATTERN.matcher(contentRange);
+            if (matcher.matches()) {
+                return Long.parseLong(matcher.group(1));
+            }
+        }
+
+        return -1;
     }
 }
@@ -0,0 +1,230 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ArtifactRequestItem;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestResult;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * This class requests many artifacts from other connectors at once. The requests run in parallel
+ * up to a global limit and a limit per recipient. Recipients take turns, so a recipient with many
+ * artifacts does not delay the others. The payload of every response is streamed into the
+ * requested resource.
+ */
+@Service
+public class ArtifactBatchRequestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactBatchRequestService.class);
+
+    private final ConnectorRequestService connectorRequestService;
+    private final ConnectorRequestServiceUtils connectorRequestServiceUtils;
+    private final int maxParallelism;
+    private final int maxPerRecipient;
+
+    /**
+     * Constructor for ArtifactBatchRequestService.
+     *
+     * @param maxParallelism  The maximum number of concurrent requests of a batch.
+     * @param maxPerRecipient The maximum number of concurrent requests to a single recipient.
+     * @throws IllegalArgumentException - if any of the parameters is null or a limit is not
+     *                                  positive.
+     */
+    @Autowired
+    public ArtifactBatchRequestService(@NotNull ConnectorRequestService connectorRequestService,
+        @NotNull ConnectorRequestServiceUtils connectorRequestServiceUtils,
+        @Value("${request.batch.max-parallelism:8}") int maxParallelism,
+        @Value("${request.batch.max-per-recipient:2}") int maxPerRecipient)
+        throws IllegalArgumentException {
+        if (connectorRequestService == null) {
+            throw new IllegalArgumentException("The ConnectorRequestService cannot be null.");
+        }
+
+        if (connectorRequestServiceUtils == null) {
+            throw new IllegalArgumentException("The ConnectorRequestServiceUtils cannot be null.");
+        }
+
+        if (maxParallelism < 1 || maxPerRecipient < 1) {
+            throw new IllegalArgumentException("The request limits have to be positive.");
+        }
+
+        this.connectorRequestService = connectorRequestService;
+        this.connectorRequestServiceUtils = connectorRequestServiceUtils;
+        this.maxParallelism = maxParallelism;
+        this.maxPerRecipient = maxPerRecipient;
+    }
+
+    /**
+     * Requests the artifacts and saves their data. The requests are started when the method is
+     * called and whenever one of them is finished, no thread waits for the batch. Cancelling the
+     * returned future, e.g. when the client is gone, cancels the running requests and starts no
+     * more.
+     *
+     * @param items The artifacts to request.
+     * @return The future outcome of every request, in the order of the passed items.
+     */
+    public CompletableFuture<List<RequestResult>> requestArtifacts(
+        List<ArtifactRequestItem> items) {
+        final var batch = new Batch(items);
+        batch.result.whenComplete((results, throwable) -> {
+            if (throwable instanceof CancellationException) {
+                batch.deadline.cancel();
+            }
+        });
+
+        batch.startRequests();
+        return batch.result;
+    }
+
+    /**
+     * The state of a single batch. Recipients with pending requests are kept in the order of their
+     * turns, a recipient moves to the end after a request to it was started.
+     */
+    private final class Batch {
+
+        private final List<ArtifactRequestItem> items;
+        private final RequestResult[] results;
+        private final LinkedHashMap<URI, ArrayDeque<Integer>> pending = new LinkedHashMap<>();
+        private final Map<URI, Integer> running = new HashMap<>();
+        private final CompletableFuture<List<RequestResult>> result = new CompletableFuture<>();
+        private final RequestDeadline deadline = RequestDeadline.none().cancellable();
+        private int runningTotal;
+
+        private Batch(List<ArtifactRequestItem> items) {
+            this.items = items;
+            this.results = new RequestResult[items.size()];
+
+            // Queue the valid items per recipient, in the order they were passed.
+            for (var i = 0; i < items.size(); i++) {
+                final var item = items.get(i);
+                if (item == null || item.getRecipient() == null
+                    || item.getRequestedArtifact() == null || item.getKey() == null) {
+                    results[i] = new RequestResult(item == null ? null : item.getRecipient(),
+                        item == null ? null : item.getRequestedArtifact(),
+                        RequestResult.Status.INVALID,
+                        "Recipient, requested artifact and key are required.", null);
+                } else if (!connectorRequestServiceUtils.resourceExists(item.getKey())) {
+                    results[i] = new RequestResult(item.getRecipient(),
+                        item.getRequestedArtifact(), RequestResult.Status.INVALID,
+                        "Your key is not valid. Please request metadata first.", null);
+                } else {
+                    pending.computeIfAbsent(item.getRecipient(), x -> new ArrayDeque<>()).add(i);
+                }
+            }
+        }
+
+        /**
+         * Starts as many requests as the limits allow, or completes the batch if nothing is left.
+         * The requests are started outside the lock, as a rejected request finishes at once.
+         */
+        private void startRequests() {
+            final var startable = new ArrayList<Integer>();
+            final boolean completed;
+            synchronized (this) {
+                while (runningTotal < maxParallelism && !deadline.isCancelled()) {
+                    final var next = nextStartable();
+                    if (next == null) {
+                        break;
+                    }
+
+                    final var recipient = items.get(next).getRecipient();
+                    running.merge(recipient, 1, Integer::sum);
+                    runningTotal++;
+                    startable.add(next);
+                }
+
+                completed = pending.isEmpty() && runningTotal == 0;
+            }
+
+            startable.forEach(this::start);
+            if (completed) {
+                result.complete(new ArrayList<>(Arrays.asList(results)));
+            }
+        }
+
+        /**
+         * Takes the next item of the first recipient below its limit and moves that recipient to
+         * the end of the turns.
+         */
+        private Integer nextStartable() {
+            for (final var entry : pending.entrySet()) {
+                final var recipient = entry.getKey();
+                if (running.getOrDefault(recipient, 0) >= maxPerRecipient) {
+                    continue;
+                }
+
+                final var queue = entry.getValue();
+                final var index = queue.poll();
+                pending.remove(recipient);
+                if (!queue.isEmpty()) {
+                    pending.put(recipient, queue);
+                }
+
+                return index;
+            }
+
+            return null;
+        }
+
+        private void finished(int index, RequestResult requestResult) {
+            synchronized (this) {
+                results[index] = requestResult;
+                running.merge(items.get(index).getRecipient(), -1, Integer::sum);
+                runningTotal--;
+            }
+
+            startRequests();
+        }
+
+        private void start(int index) {
+            final var item = items.get(index);
+            final var recipient = item.getRecipient();
+            final var artifact = item.getRequestedArtifact();
+
+            final var request =
+                connectorRequestService.sendArtifactRequestMessageAsync(recipient, artifact);
+            deadline.onCancel(() -> request.cancel(true));
+            request
+                .thenApply(response -> {
+                    try (response) {
+                        return connectorRequestServiceUtils.saveData(response, item.getKey());
+                    } catch (Exception exception) {
+                        throw new CompletionException(exception);
+                    }
+                })
+                .whenComplete((header, throwable) -> {
+                    if (throwable == null) {
+                        finished(index, new RequestResult(recipient, artifact,
+                            RequestResult.Status.SUCCESS, "Saved at: " + item.getKey(), header));
+                        return;
+                    }
+
+                    final var cause = throwable instanceof CompletionException
+                        && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    final var status = cause instanceof RejectedExecutionException
+                        ? RequestResult.Status.REJECTED : RequestResult.Status.FAILED;
+                    LOGGER.info(String.format("Artifact request of %s from %s failed: %s",
+                        artifact, recipient, cause.getMessage()));
+                    finished(index, new RequestResult(recipient, artifact, status,
+                        cause.getMessage(), null));
+                });
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerJob;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class runs broker operations as jobs on the bounded broker request executor. Every job has
+ * an id under which its state and the broker response can be read until it expires. A job not
+ * finished within the timeout is marked as timed out and its request is cancelled.
+ */
+@Service
+public class BrokerJobService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrokerJobService.class);
+
+    private final ExecutorService executor;
+    private final Cache<UUID, BrokerJob> jobs;
+    private final Duration timeout;
+
+    /**
+     * Constructor for BrokerJobService.
+     *
+     * @param timeout   The time after which a job is cancelled.
+     * @param retention How long finished jobs can be read.
+     * @param maxJobs   The maximum number of kept jobs.
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public BrokerJobService(@NotNull @Qualifier("brokerRequestExecutor") ExecutorService executor,
+        @Value("${broker.async.timeout:PT60S}") Duration timeout,
+        @Value("${broker.async.job-retention:PT1H}") Duration retention,
+        @Value("${broker.async.max-jobs:10000}") long maxJobs)
+        throws IllegalArgumentException {
+        if (executor == null) {
+            throw new IllegalArgumentException("The ExecutorService cannot be null.");
+        }
+
+        if (timeout == null || retention == null) {
+            throw new IllegalArgumentException("The job durations cannot be null.");
+        }
+
+        this.executor = executor;
+        this.timeout = timeout;
+        this.jobs = Caffeine.newBuilder()
+            .maximumSize(maxJobs)
+            .expireAfterWrite(retention)
+            .build();
+    }
+
+    /**
+     * Submits a broker operation. The returned job completes once the broker answered, the
+     * request failed or the timeout passed.
+     *
+     * @param operation The name of the operation.
+     * @param broker    The broker url.
+     * @param request   Sends the request to the broker.
+     * @return The job.
+     */
+    public BrokerJob submit(String operation, String broker, BrokerRequest request) {
+        final var job = new BrokerJob(UUID.randomUUID(), operation, broker);
+        jobs.put(job.getId(), job);
+
+        final Future<?> future;
+        try {
+            future = executor.submit(() -> run(job, request));
+        } catch (RejectedExecutionException exception) {
+            job.complete(BrokerJob.State.REJECTED, "Too many pending broker requests.");
+            return job;
+        }
+
+        // The broker client has a call timeout as well, so the thread is freed even if the
+        // interrupt does not abort the blocking call.
+        CompletableFuture.runAsync(() -> {
+            if (job.complete(BrokerJob.State.TIMEOUT, String.format(
+                "The broker did not answer within %d ms.", timeout.toMillis()))) {
+                future.cancel(true);
+            }
+        }, CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        return job;
+    }
+
+    /**
+     * Sends a broker request without tracking it as job, for responses that are streamed to the
+     * caller instead of being kept. The response has to be closed by the caller. A response
+     * arriving after the timeout is closed right away.
+     *
+     * @param request Sends the request to the broker.
+     * @return The future of the broker response, completed exceptionally with a
+     * TimeoutException or RejectedExecutionException.
+     */
+    public CompletableFuture<Response> send(BrokerRequest request) {
+        final var result = new CompletableFuture<Response>();
+        final Future<?> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    final var response = request.send();
+                    if (!result.complete(response)) {
+                        response.close();
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    result.completeExceptionally(exception);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            return CompletableFuture.failedFuture(exception);
+        }
+
+        CompletableFuture.runAsync(() -> {
+            if (result.completeExceptionally(new TimeoutException(String.format(
+                "The broker did not answer within %d ms.", timeout.toMillis())))) {
+                future.cancel(true);
+            }
+        }, CompletableFuture.delayedExecutor(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        return result;
+    }
+
+    /**
+     * @param id The job id.
+     * @return The job or null if it does not exist or expired.
+     */
+    public BrokerJob getJob(UUID id) {
+        return jobs.getIfPresent(id);
+    }
+
+    private void run(BrokerJob job, BrokerRequest request) {
+        if (!job.start()) {
+            return;
+        }
+
+        try (Response response = request.send()) {
+            // The job may have timed out meanwhile, it is only updated if it did not.
+            final var body = response.body() == null ? null : response.body().string();
+            if (!job.succeed(response.code(), body)) {
+                LOGGER.debug(String.format("Broker operation %s at %s answered after the job "
+                    + "was completed.", job.getOperation(), job.getBroker()));
+            }
+        } catch (IOException | RuntimeException exception) {
+            LOGGER.info(String.format("Broker operation %s at %s failed: %s", job.getOperation(),
+                job.getBroker(), exception.getMessage()));
+            job.complete(BrokerJob.State.FAILED, "The communication with the broker failed.");
+        }
+    }
+
+    /**
+     * A request to a broker.
+     */
+    @FunctionalInterface
+    public interface BrokerRequest {
+        Response send() throws IOException;
+    }
+}
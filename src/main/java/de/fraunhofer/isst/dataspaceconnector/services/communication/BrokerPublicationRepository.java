@@ -0,0 +1,22 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerPublication;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * BrokerPublicationRepository interface.
+ */
+@Repository
+public interface BrokerPublicationRepository extends JpaRepository<BrokerPublication, Long> {
+
+    /**
+     * Returns the resources published at a broker.
+     *
+     * @param broker The broker url.
+     * @return The publications.
+     */
+    List<BrokerPublication> findByBroker(String broker);
+}
@@ -0,0 +1,179 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * This class builds the SPARQL queries sent to brokers. A query is either passed by the caller or
+ * built from a filter on keyword, publisher and type. Every query is limited to one page, so the
+ * broker never returns its whole graph.
+ */
+public final class BrokerQueryBuilder {
+
+    private static final String IDS_NAMESPACE = "https://w3id.org/idsa/core/";
+    private static final String DEFAULT_TYPE = "ids:Resource";
+
+    private static final Pattern PROLOGUE_PATTERN = Pattern.compile(
+        "(?is)^((?:\\s*(?:PREFIX\\s+[^\\s:]*:\\s*<[^>]*>|BASE\\s+<[^>]*>))*)\\s*(.*)$");
+    private static final Pattern SELECT_PATTERN =
+        Pattern.compile("(?i)^SELECT\\b");
+    private static final Pattern DATASET_CLAUSE_PATTERN =
+        Pattern.compile("(?i)\\s*\\bFROM\\s+(?:NAMED\\s+)?<[^>]*>");
+    private static final Pattern PREFIXED_NAME_PATTERN =
+        Pattern.compile("^ids:[A-Za-z][A-Za-z0-9]*$");
+    private static final Pattern IRI_FORBIDDEN_PATTERN =
+        Pattern.compile("[\\s<>\"{}|^`\\\\]");
+
+    private BrokerQueryBuilder() {
+
+    }
+
+    /**
+     * Limits a SELECT query passed by the caller to a page. The query becomes a subquery of a
+     * query that applies the page, so a LIMIT or OFFSET of the caller only narrows the results
+     * further. Its prefix declarations and dataset clauses are moved to the outer query, where
+     * SPARQL expects them.
+     *
+     * @param query    The SPARQL query.
+     * @param limit    The page size.
+     * @param offset   The index of the first result.
+     * @param maxLimit The maximum page size.
+     * @return The paged query.
+     * @throws IllegalArgumentException - if the query is empty or no SELECT query.
+     */
+    public static String page(String query, int limit, long offset, int maxLimit)
+        throws IllegalArgumentException {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("The query cannot be empty.");
+        }
+
+        // Trailing semicolons are no valid SPARQL and would end up within the subquery.
+        final var matcher = PROLOGUE_PATTERN.matcher(query.strip().replaceAll(";+$", "").strip());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("The query is no valid SPARQL query.");
+        }
+
+        final var prologue = matcher.group(1).strip();
+        final var body = matcher.group(2);
+        if (!SELECT_PATTERN.matcher(body).find()) {
+            throw new IllegalArgumentException("Only SELECT queries can be limited to a page.");
+        }
+
+        // The dataset clauses are the only IRIs preceded by FROM in front of the WHERE clause.
+        final var where = body.indexOf('{');
+        final var clauses = DATASET_CLAUSE_PATTERN.matcher(where < 0 ? body
+            : body.substring(0, where));
+        final var datasets = new StringBuilder();
+        while (clauses.find()) {
+            datasets.append(clauses.group().strip()).append("\n");
+        }
+        final var subquery = clauses.replaceAll("") + (where < 0 ? "" : body.substring(where));
+
+        final var paged = new StringBuilder();
+        if (!prologue.isEmpty()) {
+            paged.append(prologue).append("\n");
+        }
+
+        paged.append("SELECT *\n")
+            .append(datasets)
+            .append("WHERE {\n{\n")
+            .append(subquery.strip())
+            .append("\n}\n}\n")
+            .append("LIMIT ").append(Math.min(limit, maxLimit));
+        if (offset > 0) {
+            paged.append("\nOFFSET ").append(offset);
+        }
+
+        return paged.toString();
+    }
+
+    /**
+     * Builds a query selecting the resources matching a filter, ordered by their id.
+     *
+     * @param keyword   A part of a keyword of the resources, may be null.
+     * @param publisher The publisher of the resources, may be null.
+     * @param type      The type of the resources, an IRI or an ids prefixed name. Defaults to
+     *                  ids:Resource.
+     * @param limit     The page size.
+     * @param offset    The index of the first result.
+     * @return The query.
+     * @throws IllegalArgumentException - if the publisher or type is no valid IRI.
+     */
+    public static String filter(String keyword, String publisher, String type, int limit,
+        long offset) throws IllegalArgumentException {
+        final var query = new StringBuilder()
+            .append("PREFIX ids: <").append(IDS_NAMESPACE).append(">\n")
+            .append("SELECT DISTINCT ?resource ?title ?publisher\n")
+            .append("FROM <urn:x-arq:UnionGraph>\n")
+            .append("WHERE {\n")
+            .append("  ?resource a ").append(toTypeTerm(type)).append(" .\n")
+            .append("  OPTIONAL { ?resource ids:title ?title . }\n");
+
+        if (publisher != null && !publisher.isBlank()) {
+            query.append("  ?resource ids:publisher ").append(toIri(publisher, "publisher"))
+                .append(" .\n")
+                .append("  BIND(").append(toIri(publisher, "publisher"))
+                .append(" AS ?publisher)\n");
+        } else {
+            query.append("  OPTIONAL { ?resource ids:publisher ?publisher . }\n");
+        }
+
+        if (keyword != null && !keyword.isBlank()) {
+            query.append("  ?resource ids:keyword ?keyword .\n")
+                .append("  FILTER(CONTAINS(LCASE(STR(?keyword)), ")
+                .append(toLiteral(keyword.strip().toLowerCase(Locale.ROOT))).append("))\n");
+        }
+
+        query.append("}\n")
+            .append("ORDER BY ?resource\n")
+            .append("LIMIT ").append(limit);
+        if (offset > 0) {
+            query.append("\nOFFSET ").append(offset);
+        }
+
+        return query.toString();
+    }
+
+    private static String toTypeTerm(String type) throws IllegalArgumentException {
+        if (type == null || type.isBlank()) {
+            return DEFAULT_TYPE;
+        }
+
+        final var trimmed = type.strip();
+        if (PREFIXED_NAME_PATTERN.matcher(trimmed).matches()) {
+            return trimmed;
+        }
+
+        return toIri(trimmed, "type");
+    }
+
+    private static String toIri(String value, String name) throws IllegalArgumentException {
+        final var trimmed = value.strip();
+        if (IRI_FORBIDDEN_PATTERN.matcher(trimmed).find()) {
+            throw new IllegalArgumentException(String.format("The %s is no valid IRI.", name));
+        }
+
+        try {
+            if (!new URI(trimmed).isAbsolute()) {
+                throw new IllegalArgumentException(String.format("The %s has to be an absolute "
+                    + "IRI.", name));
+            }
+        } catch (URISyntaxException exception) {
+            throw new IllegalArgumentException(String.format("The %s is no valid IRI.", name),
+                exception);
+        }
+
+        return "<" + trimmed + ">";
+    }
+
+    private static String toLiteral(String value) {
+        final var escaped = value
+            .replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n")
+            .replace("\r", "\\r");
+        return "\"" + escaped + "\"";
+    }
+}
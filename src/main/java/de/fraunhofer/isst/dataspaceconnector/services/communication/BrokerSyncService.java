@@ -0,0 +1,324 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import de.fraunhofer.iais.eis.ResourceBuilder;
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerPublication;
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerSyncStatus;
+import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import de.fraunhofer.isst.ids.framework.spring.starter.BrokerService;
+import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class keeps the resources published at brokers in sync with the offered resources. For
+ * every broker it records the modification date of each published resource. A synchronization
+ * only sends the resources that were added or modified since, and removes the deleted ones. The
+ * resources are sent in batches, the publications of a batch are saved once it is done, so an
+ * interrupted synchronization continues where it stopped. Failed requests are retried with
+ * exponential backoff. Synchronizations run one after another on a background thread, either on
+ * request or periodically for the configured brokers.
+ */
+@Service
+public class BrokerSyncService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrokerSyncService.class);
+
+    private static final String RESOURCE_PREFIX = "https://w3id.org/idsa/autogen/resource/";
+
+    private final BrokerService brokerService;
+    private final DatTokenCache tokenCache;
+    private final IdsUtils idsUtils;
+    private final OfferedResourceService offeredResourceService;
+    private final OfferedResourceRepository offeredResourceRepository;
+    private final BrokerPublicationRepository publicationRepository;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, BrokerSyncStatus> statuses = new ConcurrentHashMap<>();
+
+    @Value("${broker.sync.batch-size:100}")
+    private int batchSize;
+
+    @Value("${broker.sync.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${broker.sync.initial-backoff:PT1S}")
+    private Duration initialBackoff;
+
+    @Value("${broker.sync.max-backoff:PT1M}")
+    private Duration maxBackoff;
+
+    /**
+     * Constructor for BrokerSyncService.
+     *
+     * @param brokers  The brokers synchronized periodically.
+     * @param interval The delay between periodic synchronizations, zero disables them.
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     * @throws GeneralSecurityException - if the framework has an error.
+     */
+    @Autowired
+    public BrokerSyncService(@NotNull DatTokenCache tokenCache,
+        @NotNull TokenProvider dapsTokenProvider,
+        @NotNull ConfigurationContainer configurationContainer,
+        @NotNull HttpClientRegistry httpClientRegistry, @NotNull IdsUtils idsUtils,
+        @NotNull OfferedResourceService offeredResourceService,
+        @NotNull OfferedResourceRepository offeredResourceRepository,
+        @NotNull BrokerPublicationRepository publicationRepository,
+        @Value("${broker.sync.brokers:}") String[] brokers,
+        @Value("${broker.sync.interval:PT0S}") Duration interval)
+        throws IllegalArgumentException, GeneralSecurityException {
+        if (tokenCache == null) {
+            throw new IllegalArgumentException("The DatTokenCache cannot be null.");
+        }
+
+        if (dapsTokenProvider == null) {
+            throw new IllegalArgumentException("The TokenProvider cannot be null.");
+        }
+
+        if (configurationContainer == null) {
+            throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
+        }
+
+        if (httpClientRegistry == null) {
+            throw new IllegalArgumentException("The HttpClientRegistry cannot be null.");
+        }
+
+        if (idsUtils == null) {
+            throw new IllegalArgumentException("The IdsUtils cannot be null.");
+        }
+
+        if (offeredResourceService == null) {
+            throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
+        }
+
+        if (offeredResourceRepository == null || publicationRepository == null) {
+            throw new IllegalArgumentException("The repositories cannot be null.");
+        }
+
+        this.tokenCache = tokenCache;
+        this.idsUtils = idsUtils;
+        this.offeredResourceService = offeredResourceService;
+        this.offeredResourceRepository = offeredResourceRepository;
+        this.publicationRepository = publicationRepository;
+        this.brokerService = new BrokerService(configurationContainer,
+            httpClientRegistry.getClientProvider(HttpClientRegistry.Profile.BROKER),
+            dapsTokenProvider);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "broker-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (brokers != null && brokers.length > 0 && interval != null
+            && !interval.isNegative() && !interval.isZero()) {
+            final var millis = interval.toMillis();
+            scheduler.scheduleWithFixedDelay(() -> {
+                for (final var broker : brokers) {
+                    if (!broker.isBlank()) {
+                        startSync(broker.trim());
+                    }
+                }
+            }, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts a synchronization with a broker, unless one is already waiting or running.
+     *
+     * @param broker The broker url.
+     * @return The status of the started or already active synchronization.
+     */
+    public synchronized BrokerSyncStatus startSync(String broker) {
+        final var status = statuses.compute(broker, (key, current) ->
+            current != null && current.isActive() ? current : new BrokerSyncStatus(key));
+        if (status.getState() == BrokerSyncStatus.State.PENDING && status.getStarted() == null) {
+            status.setStarted(new Date());
+            scheduler.execute(() -> synchronize(status));
+        }
+
+        return status;
+    }
+
+    /**
+     * @param broker The broker url.
+     * @return The status of the last synchronization with the broker or null if there was none.
+     */
+    public BrokerSyncStatus getStatus(String broker) {
+        return statuses.get(broker);
+    }
+
+    /**
+     * Stops the synchronizations.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void synchronize(BrokerSyncStatus status) {
+        final var broker = status.getBroker();
+        status.setState(BrokerSyncStatus.State.RUNNING);
+        try {
+            if (tokenCache.getTokenJWS() == null) {
+                finish(status, BrokerSyncStatus.State.FAILED, "No DAT available.");
+                return;
+            }
+
+            final var published = new HashMap<UUID, BrokerPublication>();
+            for (final var publication : publicationRepository.findByBroker(broker)) {
+                published.put(publication.getResourceId(), publication);
+            }
+
+            // Compare the modification dates with the published ones.
+            final var changed = new ArrayList<BrokerPublication>();
+            for (final var modification : offeredResourceRepository.findAllModifications()) {
+                final var publication = published.remove(modification.getUuid());
+                if (publication == null) {
+                    changed.add(new BrokerPublication(broker, modification.getUuid(),
+                        modification.getModified()));
+                } else if (!isSameDate(publication.getModified(), modification.getModified())) {
+                    publication.setModified(modification.getModified());
+                    changed.add(publication);
+                }
+            }
+
+            // The remaining publications belong to deleted resources.
+            final var removed = new ArrayList<>(published.values());
+            status.setTotal(changed.size() + removed.size());
+            LOGGER.info(String.format("Synchronizing broker %s: %d changed, %d removed "
+                + "resources.", broker, changed.size(), removed.size()));
+
+            for (var i = 0; i < changed.size(); i += batchSize) {
+                final var batch = changed.subList(i, Math.min(i + batchSize, changed.size()));
+                final var done = new ArrayList<BrokerPublication>();
+                for (final var publication : batch) {
+                    if (sendWithRetry(() -> update(broker, publication.getResourceId()))) {
+                        done.add(publication);
+                        status.setUpdated(status.getUpdated() + 1);
+                    } else {
+                        status.setFailed(status.getFailed() + 1);
+                    }
+                }
+
+                publicationRepository.saveAll(done);
+                if (done.isEmpty()) {
+                    finish(status, BrokerSyncStatus.State.FAILED,
+                        "The broker accepted no resource of a batch.");
+                    return;
+                }
+            }
+
+            for (var i = 0; i < removed.size(); i += batchSize) {
+                final var batch = removed.subList(i, Math.min(i + batchSize, removed.size()));
+                final var done = new ArrayList<BrokerPublication>();
+                for (final var publication : batch) {
+                    if (sendWithRetry(() -> remove(broker, publication.getResourceId()))) {
+                        done.add(publication);
+                        status.setRemoved(status.getRemoved() + 1);
+                    } else {
+                        status.setFailed(status.getFailed() + 1);
+                    }
+                }
+
+                publicationRepository.deleteAll(done);
+                if (done.isEmpty()) {
+                    finish(status, BrokerSyncStatus.State.FAILED,
+                        "The broker accepted no removal of a batch.");
+                    return;
+                }
+            }
+
+            finish(status, BrokerSyncStatus.State.COMPLETED, null);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            finish(status, BrokerSyncStatus.State.FAILED, "The synchronization was interrupted.");
+        } catch (RuntimeException exception) {
+            LOGGER.warn(String.format("Failed to synchronize broker %s. %s", broker,
+                exception.getMessage()));
+            finish(status, BrokerSyncStatus.State.FAILED, exception.getMessage());
+        }
+    }
+
+    private void finish(BrokerSyncStatus status, BrokerSyncStatus.State state, String message) {
+        status.setMessage(message);
+        status.setFinished(new Date());
+        status.setState(state);
+        LOGGER.info(String.format("Synchronization of broker %s %s: %d updated, %d removed, %d "
+            + "failed.", status.getBroker(), state, status.getUpdated(), status.getRemoved(),
+            status.getFailed()));
+    }
+
+    /**
+     * Sends a request until it succeeds or the attempts are used up, waiting between the attempts
+     * with exponential backoff.
+     *
+     * @return true if the request succeeded.
+     */
+    private boolean sendWithRetry(BrokerRequest request) throws InterruptedException {
+        var backoff = initialBackoff.toMillis();
+        for (var attempt = 1; ; attempt++) {
+            try {
+                if (request.send()) {
+                    return true;
+                }
+            } catch (IOException | RuntimeException exception) {
+                LOGGER.debug("Broker request failed: " + exception.getMessage());
+            }
+
+            if (attempt >= maxAttempts) {
+                return false;
+            }
+
+            Thread.sleep(backoff);
+            backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+        }
+    }
+
+    private boolean update(String broker, UUID resourceId) throws IOException {
+        final var resource = idsUtils.getAsResource(offeredResourceService.getResource(resourceId));
+        try (Response response = brokerService.updateResourceAtBroker(broker, resource)) {
+            return response.isSuccessful();
+        }
+    }
+
+    private boolean remove(String broker, UUID resourceId) throws IOException {
+        // The resource is deleted, so the broker is told its id only.
+        final var resource = new ResourceBuilder(URI.create(RESOURCE_PREFIX + resourceId))
+            .build();
+        try (Response response = brokerService.removeResourceFromBroker(broker, resource)) {
+            return response.isSuccessful();
+        }
+    }
+
+    private static boolean isSameDate(Date first, Date second) {
+        return first == null ? second == null : second != null
+            && first.getTime() == second.getTime();
+    }
+
+    @FunctionalInterface
+    private interface BrokerRequest {
+        boolean send() throws IOException;
+    }
+}
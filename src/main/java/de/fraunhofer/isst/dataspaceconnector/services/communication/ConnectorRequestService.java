@@ -4,6 +4,7 @@ import okhttp3.Response;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * ConnectorRequestService interface.
@@ -18,6 +19,18 @@ public interface ConnectorRequestService {
      */
     Response sendArtifactRequestMessage(URI recipient, URI artifact) throws IOException;
 
+    /**
+     * Sends artifact request message for a byte range of the data. The recipient moves the range
+     * to character boundaries, so consecutive ranges add up to the whole data.
+     *
+     * @param offset the first requested byte.
+     * @param length the number of requested bytes or null for the rest of the data.
+     * @return the http response.
+     * @throws java.io.IOException if any.
+     */
+    Response sendArtifactRequestMessage(URI recipient, URI artifact, long offset, Long length)
+        throws IOException;
+
     /**
      * Sends description request message.
      *
@@ -26,6 +39,22 @@ public interface ConnectorRequestService {
      */
     Response sendDescriptionRequestMessage(URI recipient, URI artifact) throws IOException;
 
+    /**
+     * Sends artifact request message without blocking the caller.
+     *
+     * @return the future http response, completed exceptionally if the message could not be sent.
+     * Cancelling it cancels the request, also while the response body is read.
+     */
+    CompletableFuture<Response> sendArtifactRequestMessageAsync(URI recipient, URI artifact);
+
+    /**
+     * Sends description request message without blocking the caller.
+     *
+     * @return the future http response, completed exceptionally if the message could not be sent.
+     * Cancelling it cancels the request, also while the response body is read.
+     */
+    CompletableFuture<Response> sendDescriptionRequestMessageAsync(URI recipient, URI artifact);
+
     /**
      * Sends contract request message.
      *
@@ -1,24 +1,29 @@
 package de.fraunhofer.isst.dataspaceconnector.services.communication;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.fraunhofer.iais.eis.*;
-import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
-import de.fraunhofer.isst.ids.framework.exceptions.HttpClientException;
 import de.fraunhofer.isst.ids.framework.messages.InfomodelMessageBuilder;
-import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.util.Util;
-import de.fraunhofer.isst.ids.framework.spring.starter.IDSHttpService;
-import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
-import de.fraunhofer.isst.ids.framework.util.ClientProvider;
+import okhttp3.Call;
 import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
 import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
 import java.net.URI;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class implements all methods of {@link de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestService}.
@@ -30,26 +35,27 @@ public class ConnectorRequestServiceImpl implements ConnectorRequestService {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(ConnectorRequestServiceImpl.class);
 
-    private Connector connector;
-    private TokenProvider tokenProvider;
-    private IDSHttpService idsHttpService;
+    private MessageEnvelopeFactory envelopeFactory;
+    private OkHttpClient client;
+    private PeerConnectionWarmer peerConnectionWarmer;
+    private ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${request.artifact.timeout:PT5M}")
+    private Duration artifactTimeout;
 
     @Autowired
     /**
      * Constructor for ConnectorRequestServiceImpl.
-     *
-     * @throws de.fraunhofer.isst.ids.framework.exceptions.HttpClientException if any.
-     * @throws java.security.KeyManagementException if any.
-     * @throws java.security.NoSuchAlgorithmException if any.
      */
-    public ConnectorRequestServiceImpl(ConfigurationContainer configurationContainer,
-        TokenProvider tokenProvider)
-        throws HttpClientException, KeyManagementException, NoSuchAlgorithmException {
-        this.connector = configurationContainer.getConnector();
-        this.tokenProvider = tokenProvider;
-
-        ClientProvider clientProvider = new ClientProvider(configurationContainer);
-        this.idsHttpService = new IDSHttpService(clientProvider);
+    public ConnectorRequestServiceImpl(HttpClientRegistry httpClientRegistry,
+        PeerConnectionWarmer peerConnectionWarmer, MessageEnvelopeFactory envelopeFactory,
+        @Qualifier("connectorRequestExecutor") ExecutorService executor) {
+        this.envelopeFactory = envelopeFactory;
+        this.peerConnectionWarmer = peerConnectionWarmer;
+        this.executor = executor;
+
+        this.client = httpClientRegistry.getClient(HttpClientRegistry.Profile.CONNECTOR);
     }
 
     /**
@@ -57,18 +63,64 @@ public class ConnectorRequestServiceImpl implements ConnectorRequestService {
      */
     @Override
     public Response sendArtifactRequestMessage(URI recipient, URI artifact) throws IOException {
+        return newArtifactRequestCall(recipient, artifact, new LinkedHashMap<>()).execute();
+    }
+
+    /**
+     * Builds and sends an ArtifactRequestMessage with the byte range as payload.
+     */
+    @Override
+    public Response sendArtifactRequestMessage(URI recipient, URI artifact, long offset,
+        Long length) throws IOException {
+        final var range = new LinkedHashMap<String, Long>();
+        range.put("offset", offset);
+        if (length != null) {
+            range.put("length", length);
+        }
+
+        return newArtifactRequestCall(recipient, artifact, range).execute();
+    }
+
+    /**
+     * Builds the call of an ArtifactRequestMessage. If a timeout is configured, the call is
+     * cancelled once it passes and the timeout is added to the payload, so the recipient can stop
+     * working on the request as well.
+     */
+    private Call newArtifactRequestCall(URI recipient, URI artifact, Map<String, Long> fields)
+        throws IOException {
+        if (artifactTimeout != null) {
+            fields.put("timeout", artifactTimeout.toMillis());
+        }
+
+        // Without a range or timeout, the payload stays empty as recipients expect it.
+        var payload = "";
+        if (!fields.isEmpty()) {
+            try {
+                payload = objectMapper.writeValueAsString(fields);
+            } catch (JsonProcessingException exception) {
+                throw new IOException("The request payload could not be serialized.", exception);
+            }
+        }
+
+        final var envelope = envelopeFactory.create();
         ArtifactRequestMessage requestMessage = new ArtifactRequestMessageBuilder()
-            ._issued_(Util.getGregorianNow())
-            ._modelVersion_(connector.getOutboundModelVersion())
-            ._issuerConnector_(connector.getId())
-            ._senderAgent_(connector.getId())
+            ._issued_(envelope.getIssued())
+            ._modelVersion_(envelope.getModelVersion())
+            ._issuerConnector_(envelope.getIssuerConnector())
+            ._senderAgent_(envelope.getSenderAgent())
             ._requestedArtifact_(artifact)
-            ._securityToken_(tokenProvider.getTokenJWS())
+            ._securityToken_(envelope.getSecurityToken())
             ._recipientConnector_(de.fraunhofer.iais.eis.util.Util.asList(recipient))
             .build();
 
-        MultipartBody body = InfomodelMessageBuilder.messageWithString(requestMessage, "");
-        return idsHttpService.send(body, recipient);
+        MultipartBody body = InfomodelMessageBuilder.messageWithString(requestMessage, payload);
+        final var call = newCall(body, recipient);
+        if (artifactTimeout != null) {
+            // Covers the whole call, up to reading the response body.
+            call.timeout().timeout(artifactTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return call;
     }
 
     /**
@@ -76,31 +128,51 @@ public class ConnectorRequestServiceImpl implements ConnectorRequestService {
      */
     @Override
     public Response sendDescriptionRequestMessage(URI recipient, URI artifact) throws IOException {
-        DescriptionRequestMessage requestMessage;
-
-        if (artifact == null) {
-            requestMessage = new DescriptionRequestMessageBuilder()
-                ._issued_(Util.getGregorianNow())
-                ._modelVersion_(connector.getOutboundModelVersion())
-                ._issuerConnector_(connector.getId())
-                ._senderAgent_(connector.getId())
-                ._securityToken_(tokenProvider.getTokenJWS())
-                ._recipientConnector_(de.fraunhofer.iais.eis.util.Util.asList(recipient))
-                .build();
-        } else {
-            requestMessage = new DescriptionRequestMessageBuilder()
-                ._issued_(Util.getGregorianNow())
-                ._modelVersion_(connector.getOutboundModelVersion())
-                ._issuerConnector_(connector.getId())
-                ._senderAgent_(connector.getId())
-                ._requestedElement_(artifact)
-                ._securityToken_(tokenProvider.getTokenJWS())
-                ._recipientConnector_(de.fraunhofer.iais.eis.util.Util.asList(recipient))
-                .build();
+        return newDescriptionRequestCall(recipient, artifact).execute();
+    }
+
+    /**
+     * Builds the call of a DescriptionRequestMessage.
+     */
+    private Call newDescriptionRequestCall(URI recipient, URI artifact) throws IOException {
+        final var envelope = envelopeFactory.create();
+        final var builder = new DescriptionRequestMessageBuilder()
+            ._issued_(envelope.getIssued())
+            ._modelVersion_(envelope.getModelVersion())
+            ._issuerConnector_(envelope.getIssuerConnector())
+            ._senderAgent_(envelope.getSenderAgent())
+            ._securityToken_(envelope.getSecurityToken())
+            ._recipientConnector_(de.fraunhofer.iais.eis.util.Util.asList(recipient));
+
+        if (artifact != null) {
+            builder._requestedElement_(artifact);
         }
 
+        DescriptionRequestMessage requestMessage = builder.build();
         MultipartBody body = InfomodelMessageBuilder.messageWithString(requestMessage, "");
-        return idsHttpService.send(body, recipient);
+        return newCall(body, recipient);
+    }
+
+    /**
+     * Sends an ArtifactRequestMessage on the connector request executor. Cancelling the future
+     * cancels the call.
+     */
+    @Override
+    public CompletableFuture<Response> sendArtifactRequestMessageAsync(URI recipient,
+        URI artifact) {
+        return HttpClientRegistry.executeAsync(
+            () -> newArtifactRequestCall(recipient, artifact, new LinkedHashMap<>()), executor);
+    }
+
+    /**
+     * Sends a DescriptionRequestMessage on the connector request executor. Cancelling the future
+     * cancels the call.
+     */
+    @Override
+    public CompletableFuture<Response> sendDescriptionRequestMessageAsync(URI recipient,
+        URI artifact) {
+        return HttpClientRegistry.executeAsync(
+            () -> newDescriptionRequestCall(recipient, artifact), executor);
     }
 
     /**
@@ -110,4 +182,16 @@ public class ConnectorRequestServiceImpl implements ConnectorRequestService {
     public Response sendContractRequestMessage() {
         return null;
     }
+
+    /**
+     * Builds the call of a message and counts the request, so connections to frequent recipients
+     * are kept warm.
+     */
+    private Call newCall(MultipartBody body, URI recipient) {
+        peerConnectionWarmer.recordRequest(recipient);
+        return client.newCall(new Request.Builder()
+            .url(recipient.toString())
+            .post(body)
+            .build());
+    }
 }
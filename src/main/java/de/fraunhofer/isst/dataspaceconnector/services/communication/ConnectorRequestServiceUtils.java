@@ -10,6 +10,7 @@ import de.fraunhofer.isst.dataspaceconnector.services.UUIDUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceService;
 import de.fraunhofer.isst.ids.framework.spring.starter.SerializerProvider;
 import de.fraunhofer.isst.ids.framework.util.MultipartStringParser;
+import okhttp3.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,6 +27,8 @@ public class ConnectorRequestServiceUtils {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(ConnectorRequestServiceUtils.class);
 
+    private static final int MAX_HEADER_SIZE = 1024 * 1024;
+
     private RequestedResourceService requestedResourceService;
     private SerializerProvider serializerProvider;
 
@@ -90,6 +93,82 @@ public class ConnectorRequestServiceUtils {
         }
     }
 
+    /**
+     * Saves the data of an artifact response to the internal database. The response is read as
+     * stream: the header part is parsed into memory, the payload part is passed on to the storage
+     * without being buffered as a whole.
+     *
+     * @param response   The artifact response.
+     * @param resourceId The resource uuid.
+     * @return The header of the response.
+     * @throws java.lang.Exception if any.
+     */
+    public String saveData(Response response, UUID resourceId) throws Exception {
+        return saveData(response, resourceId, 0);
+    }
+
+    /**
+     * Saves the data of an artifact response to the internal database. With an offset, the
+     * payload is written behind the first bytes of the data stored before, which resumes a
+     * transfer range by range.
+     *
+     * @param response   The artifact response.
+     * @param resourceId The resource uuid.
+     * @param offset     The position of the payload in the data, 0 to replace the stored data.
+     * @return The header of the response.
+     * @throws java.lang.Exception if any, e.g. if the offset lies behind the stored data.
+     */
+    public String saveData(Response response, UUID resourceId, long offset) throws Exception {
+        final var body = response.body();
+        if (body == null) {
+            throw new Exception("Received no response body.");
+        }
+
+        final var contentType = body.contentType();
+        final var boundary =
+            MultipartStreamReader.getBoundary(contentType == null ? null : contentType.toString());
+        if (boundary == null) {
+            throw new Exception("The response is not a multipart message.");
+        }
+
+        try (var reader = new MultipartStreamReader(body.byteStream(), boundary)) {
+            String header = null;
+            while (reader.nextPart()) {
+                final var name = reader.getPartName();
+                if ("header".equals(name)) {
+                    header = reader.readPartAsString(MAX_HEADER_SIZE);
+                } else if ("payload".equals(name)) {
+                    if (header == null) {
+                        throw new Exception("The header part has to precede the payload part.");
+                    }
+
+                    try {
+                        serializerProvider.getSerializer()
+                            .deserialize(header, ArtifactResponseMessage.class);
+                    } catch (Exception e) {
+                        throw new Exception("Rejection Message received: "
+                            + reader.readPartAsString(MAX_HEADER_SIZE));
+                    }
+
+                    try {
+                        if (offset > 0) {
+                            requestedResourceService.appendData(resourceId, offset,
+                                reader.getPartStream());
+                        } else {
+                            requestedResourceService.addData(resourceId, reader.getPartStream());
+                        }
+                    } catch (Exception e) {
+                        throw new Exception("Data could not be saved: " + e.getMessage());
+                    }
+
+                    return header;
+                }
+            }
+
+            throw new Exception("The response contains no payload.");
+        }
+    }
+
     /**
      * Checks if a resource exists.
      *
@@ -0,0 +1,208 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.iais.eis.DynamicAttributeToken;
+import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class caches the dynamic attribute token (DAT) of the connector. The expiry of the token is
+ * taken from the exp claim of the JWT, the token is refreshed in the background before it
+ * expires. Reads never wait for the DAPS as long as a valid token is cached, a failed refresh is
+ * retried while the current token stays in use until it expires. A token that is already expired
+ * when it is fetched counts as a failed refresh.
+ */
+@Service
+public class DatTokenCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatTokenCache.class);
+
+    private final TokenProvider tokenProvider;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+
+    private final Duration refreshBeforeExpiry;
+    private final Duration retryInterval;
+    private final Duration fallbackLifetime;
+
+    private volatile CachedToken current;
+    private ScheduledFuture<?> scheduledRefresh;
+
+    /**
+     * Constructor for DatTokenCache.
+     *
+     * @param refreshBeforeExpiry How long before its expiry a token is refreshed.
+     * @param retryInterval       The delay between failed refresh attempts.
+     * @param fallbackLifetime    The lifetime of tokens without exp claim.
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public DatTokenCache(@NotNull TokenProvider tokenProvider,
+        @Value("${daps.token.refresh-before-expiry:PT1M}") Duration refreshBeforeExpiry,
+        @Value("${daps.token.retry-interval:PT10S}") Duration retryInterval,
+        @Value("${daps.token.fallback-lifetime:PT5M}") Duration fallbackLifetime)
+        throws IllegalArgumentException {
+        if (tokenProvider == null) {
+            throw new IllegalArgumentException("The TokenProvider cannot be null.");
+        }
+
+        if (refreshBeforeExpiry == null || retryInterval == null || fallbackLifetime == null) {
+            throw new IllegalArgumentException("The token durations cannot be null.");
+        }
+
+        this.tokenProvider = tokenProvider;
+        this.refreshBeforeExpiry = refreshBeforeExpiry;
+        this.retryInterval = retryInterval;
+        this.fallbackLifetime = fallbackLifetime;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "dat-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the cached token. Only if no valid token is cached, e.g. before the first request or
+     * after the DAPS was unreachable for longer than the token lifetime, the token is requested
+     * synchronously.
+     *
+     * @return The token or null if no valid token could be obtained.
+     */
+    public DynamicAttributeToken getTokenJWS() {
+        final var token = current;
+        if (token != null && token.isValid(Instant.now())) {
+            return token.getToken();
+        }
+
+        return refreshIfInvalid();
+    }
+
+    /**
+     * Requests the first token as soon as the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        scheduler.execute(this::refreshIfInvalid);
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private synchronized DynamicAttributeToken refreshIfInvalid() {
+        // Another thread may have fetched a token while this one was waiting.
+        final var token = current;
+        if (token != null && token.isValid(Instant.now())) {
+            return token.getToken();
+        }
+
+        refresh();
+        return current != null && current.isValid(Instant.now()) ? current.getToken() : null;
+    }
+
+    private synchronized void refresh() {
+        try {
+            final var token = tokenProvider.getTokenJWS();
+            if (token == null || token.getTokenValue() == null) {
+                throw new IllegalStateException("The DAPS returned no token.");
+            }
+
+            final var now = Instant.now();
+            final var expiry = getExpiry(token.getTokenValue());
+            if (!expiry.isAfter(now)) {
+                throw new IllegalStateException(String.format(
+                    "The DAPS returned a token that expired at %s.", expiry));
+            }
+
+            current = new CachedToken(token, expiry);
+            scheduleRefresh(Duration.between(now, expiry).minus(refreshBeforeExpiry));
+        } catch (RuntimeException exception) {
+            final var token = current;
+            if (token != null && token.isValid(Instant.now())) {
+                LOGGER.warn(String.format("Failed to refresh the DAT, keeping the current token "
+                    + "valid until %s. %s", token.getExpiry(), exception.getMessage()));
+            } else {
+                LOGGER.error("Failed to obtain a DAT. " + exception.getMessage());
+            }
+
+            scheduleRefresh(retryInterval);
+        }
+    }
+
+    private synchronized void scheduleRefresh(Duration delay) {
+        if (scheduler.isShutdown()) {
+            return;
+        }
+
+        if (scheduledRefresh != null) {
+            scheduledRefresh.cancel(false);
+        }
+
+        final var millis = Math.max(delay.toMillis(), retryInterval.toMillis());
+        scheduledRefresh = scheduler.schedule(this::refresh, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Reads the expiry from the exp claim of a JWT. Tokens that are no JWT or have no exp claim
+     * expire after the fallback lifetime.
+     */
+    private Instant getExpiry(String jwt) {
+        final var parts = jwt.split("\\.");
+        if (parts.length >= 2) {
+            try {
+                final var claims = objectMapper.readTree(Base64.getUrlDecoder().decode(parts[1]));
+                final var exp = claims.get("exp");
+                if (exp != null && exp.canConvertToLong()) {
+                    return Instant.ofEpochSecond(exp.asLong());
+                }
+            } catch (Exception exception) {
+                LOGGER.debug("Could not read the exp claim of the DAT.", exception);
+            }
+        }
+
+        return Instant.now().plus(fallbackLifetime);
+    }
+
+    private static final class CachedToken {
+
+        private final DynamicAttributeToken token;
+        private final Instant expiry;
+
+        private CachedToken(DynamicAttributeToken token, Instant expiry) {
+            this.token = token;
+            this.expiry = expiry;
+        }
+
+        private boolean isValid(Instant now) {
+            return now.isBefore(expiry);
+        }
+
+        private DynamicAttributeToken getToken() {
+            return token;
+        }
+
+        private Instant getExpiry() {
+            return expiry;
+        }
+    }
+}
@@ -0,0 +1,584 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import de.fraunhofer.isst.ids.framework.util.ClientProvider;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.security.GeneralSecurityException;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class provides the outbound http clients of the connector, one per profile. Every profile
+ * is derived from the client its IDS framework client provider builds, so it uses the key and
+ * trust stores of the framework and keeps one TLS session cache, which lets handshakes to known
+ * hosts be resumed. Every profile has its own connection pool, dispatcher, timeouts and
+ * protocols, configured by the properties
+ * http.client.[profile].*, and records connection and latency metrics. Connections are pooled per
+ * host, over HTTP/2 all requests to a host are multiplexed on one connection. The number of
+ * concurrent requests per host, i.e. of streams on such a connection, can be limited.
+ */
+@Service
+public class HttpClientRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpClientRegistry.class);
+
+    private static final String PREFIX = "http.client.";
+    private static final int LATENCY_WINDOW = 1000;
+
+    private final Map<Profile, OkHttpClient> clients = new EnumMap<>(Profile.class);
+    private final Map<Profile, ClientProvider> clientProviders = new EnumMap<>(Profile.class);
+    private final Map<Profile, ClientMetrics> metrics = new EnumMap<>(Profile.class);
+
+    /**
+     * Constructor for HttpClientRegistry.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     * @throws GeneralSecurityException - if the framework has an error.
+     */
+    @Autowired
+    public HttpClientRegistry(@NotNull ConfigurationContainer configurationContainer,
+        @NotNull Environment environment)
+        throws IllegalArgumentException, GeneralSecurityException {
+        if (configurationContainer == null) {
+            throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
+        }
+
+        if (environment == null) {
+            throw new IllegalArgumentException("The Environment cannot be null.");
+        }
+
+        for (final var profile : Profile.values()) {
+            final var profileMetrics = new ClientMetrics();
+            final var clientProvider = new ProfileClientProvider(configurationContainer,
+                base -> buildClient(base, profile, environment, profileMetrics));
+
+            metrics.put(profile, profileMetrics);
+            clients.put(profile, clientProvider.getClient());
+            clientProviders.put(profile, clientProvider);
+        }
+    }
+
+    /**
+     * @param profile The profile.
+     * @return The http client of the profile.
+     */
+    public OkHttpClient getClient(Profile profile) {
+        return clients.get(profile);
+    }
+
+    /**
+     * Returns a client provider handing out the client of a profile, for services of the IDS
+     * framework that expect one.
+     *
+     * @param profile The profile.
+     * @return The client provider of the profile.
+     */
+    public ClientProvider getClientProvider(Profile profile) {
+        return clientProviders.get(profile);
+    }
+
+    /**
+     * Summarizes the connection and latency metrics of every profile.
+     *
+     * @return The metrics by profile name.
+     */
+    public Map<String, Object> statistics() {
+        final var statistics = new LinkedHashMap<String, Object>();
+        for (final var profile : Profile.values()) {
+            final var pool = clients.get(profile).connectionPool();
+            final var profileStatistics = metrics.get(profile).statistics();
+            profileStatistics.put("connections", pool.connectionCount());
+            profileStatistics.put("idleConnections", pool.idleConnectionCount());
+            profileStatistics.put("queuedCalls",
+                clients.get(profile).dispatcher().queuedCallsCount());
+            statistics.put(profile.toString(), profileStatistics);
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Closes the pooled connections and stops the dispatcher threads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (final var client : clients.values()) {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+
+    /**
+     * Creates and executes a call on an executor. Cancelling the returned future cancels the
+     * call, also while the response body is read, which frees the executor thread and the
+     * connection. The call is cancelled as well if the future completes exceptionally first, e.g.
+     * by a timeout. A call whose future completed while it was queued is not started, and a
+     * response arriving after that is closed.
+     *
+     * @param newCall Creates the call on the executor.
+     * @param executor The executor running the call.
+     * @return The future response, completed exceptionally if the call failed or was rejected by
+     * the executor.
+     */
+    public static CompletableFuture<Response> executeAsync(CallSupplier newCall,
+        Executor executor) {
+        final var future = new CallFuture();
+        future.whenComplete((response, throwable) -> {
+            if (throwable != null) {
+                future.cancelCall();
+            }
+        });
+
+        try {
+            executor.execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+
+                try {
+                    final var call = newCall.get();
+                    future.call = call;
+                    if (future.isDone()) {
+                        call.cancel();
+                        return;
+                    }
+
+                    final var response = call.execute();
+                    if (!future.complete(response)) {
+                        response.close();
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    future.completeExceptionally(exception);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            future.completeExceptionally(exception);
+        }
+
+        return future;
+    }
+
+    private static OkHttpClient buildClient(OkHttpClient base, Profile profile,
+        Environment environment, ClientMetrics metrics) {
+        final var prefix = PREFIX + profile + ".";
+
+        final var dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(
+            environment.getProperty(prefix + "max-requests", Integer.class, 64));
+        dispatcher.setMaxRequestsPerHost(
+            environment.getProperty(prefix + "max-requests-per-host", Integer.class, 8));
+
+        final var keepAlive = environment.getProperty(prefix + "keep-alive", Duration.class,
+            Duration.ofMinutes(5));
+        final var pool = new ConnectionPool(
+            environment.getProperty(prefix + "max-idle-connections", Integer.class, 5),
+            keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+
+        final var http2 = environment.getProperty(prefix + "http2", Boolean.class, true);
+        final List<Protocol> protocols = http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+            : List.of(Protocol.HTTP_1_1);
+
+        final var builder = base.newBuilder();
+        final var maxStreams = environment.getProperty(prefix + "max-streams-per-host",
+            Integer.class, 0);
+        if (maxStreams > 0) {
+            builder.addInterceptor(new HostConcurrencyLimiter(maxStreams));
+        }
+
+        final var client = builder
+            .dispatcher(dispatcher)
+            .connectionPool(pool)
+            .protocols(protocols)
+            .connectTimeout(getTimeout(environment, prefix + "connect-timeout",
+                Duration.ofSeconds(10)))
+            .readTimeout(getTimeout(environment, prefix + "read-timeout",
+                Duration.ofSeconds(30)))
+            .writeTimeout(getTimeout(environment, prefix + "write-timeout",
+                Duration.ofSeconds(30)))
+            .callTimeout(getTimeout(environment, prefix + "call-timeout", Duration.ZERO))
+            .eventListener(metrics)
+            .build();
+
+        LOGGER.info(String.format("Created http client %s (http2: %s, max requests per host: "
+            + "%d, max streams per host: %d).", profile, http2,
+            dispatcher.getMaxRequestsPerHost(), maxStreams));
+        return client;
+    }
+
+    private static Duration getTimeout(Environment environment, String key,
+        Duration defaultValue) {
+        return environment.getProperty(key, Duration.class, defaultValue);
+    }
+
+    /**
+     * The profiles of outbound http clients. The DAT is requested by the token provider of the IDS
+     * framework, which uses a client of its own.
+     */
+    public enum Profile {
+        /**
+         * Requests to the backends of offered resources.
+         */
+        BACKEND("backend"),
+
+        /**
+         * IDS messages to other connectors.
+         */
+        CONNECTOR("connector"),
+
+        /**
+         * IDS messages to brokers.
+         */
+        BROKER("broker");
+
+        private final String name;
+
+        Profile(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * A client provider of the IDS framework that hands out the client of a profile. The profile
+     * client is derived from the client the framework builds for the provider, so no client is
+     * built in vain.
+     */
+    private static final class ProfileClientProvider extends ClientProvider {
+
+        private final OkHttpClient client;
+
+        private ProfileClientProvider(ConfigurationContainer configurationContainer,
+            UnaryOperator<OkHttpClient> profile)
+            throws NoSuchAlgorithmException, KeyManagementException {
+            super(configurationContainer);
+            this.client = profile.apply(super.getClient());
+        }
+
+        @Override
+        public OkHttpClient getClient() {
+            return client;
+        }
+    }
+
+    /**
+     * Creates a call.
+     */
+    @FunctionalInterface
+    public interface CallSupplier {
+        /**
+         * @return The call.
+         * @throws IOException - if the request could not be built.
+         */
+        Call get() throws IOException;
+    }
+
+    /**
+     * A future of a response that cancels its call when it is cancelled. Dependent stages are
+     * plain futures, so cancelling them does not reach the call.
+     */
+    private static final class CallFuture extends CompletableFuture<Response> {
+
+        private volatile Call call;
+
+        private void cancelCall() {
+            final var current = call;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final var cancelled = super.cancel(mayInterruptIfRunning);
+            cancelCall();
+            return cancelled;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Limits the concurrent requests per host, including synchronous ones, which the dispatcher
+     * does not limit. A permit is held until the response body is closed or read completely, so
+     * a stream stays counted while its body is read. A call waits for a permit at most as long as
+     * its call timeout, or its read timeout if it has none, and fails afterwards. A cancelled call
+     * stops waiting.
+     */
+    private static final class HostConcurrencyLimiter implements Interceptor {
+
+        private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+        private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+        private final int maxStreams;
+
+        private HostConcurrencyLimiter(int maxStreams) {
+            this.maxStreams = maxStreams;
+        }
+
+        @NotNull
+        @Override
+        public Response intercept(@NotNull Chain chain) throws IOException {
+            final var url = chain.request().url();
+            final var semaphore = permits.computeIfAbsent(url.host() + ":" + url.port(),
+                x -> new Semaphore(maxStreams, true));
+
+            acquire(semaphore, chain);
+
+            final var released = new AtomicBoolean();
+            final Runnable release = () -> {
+                if (released.compareAndSet(false, true)) {
+                    semaphore.release();
+                }
+            };
+
+            try {
+                final var response = chain.proceed(chain.request());
+                if (response.body() == null) {
+                    release.run();
+                    return response;
+                }
+
+                return response.newBuilder()
+                    .body(new ReleasingResponseBody(response.body(), release))
+                    .build();
+            } catch (IOException | RuntimeException exception) {
+                release.run();
+                throw exception;
+            }
+        }
+
+        private static void acquire(Semaphore semaphore, Chain chain) throws IOException {
+            final var call = chain.call();
+            final var maxWait = call.timeout().timeoutNanos() > 0
+                ? call.timeout().timeoutNanos()
+                : TimeUnit.MILLISECONDS.toNanos(chain.readTimeoutMillis());
+            final var start = System.nanoTime();
+
+            try {
+                while (true) {
+                    final var waited = System.nanoTime() - start;
+                    final var slice = maxWait > 0 ? Math.min(WAIT_SLICE_NANOS, maxWait - waited)
+                        : WAIT_SLICE_NANOS;
+                    if (semaphore.tryAcquire(Math.max(0, slice), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+
+                    if (call.isCanceled()) {
+                        throw new IOException("Canceled");
+                    }
+
+                    if (maxWait > 0 && System.nanoTime() - start >= maxWait) {
+                        throw new InterruptedIOException(String.format("No stream to %s "
+                            + "became free within %d ms.", chain.request().url().host(),
+                            TimeUnit.NANOSECONDS.toMillis(maxWait)));
+                    }
+                }
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a stream to "
+                    + chain.request().url().host());
+            }
+        }
+    }
+
+    /**
+     * A response body running a callback once it is closed or read completely. Closing the body
+     * closes its source, which is wrapped here.
+     */
+    private static final class ReleasingResponseBody extends ResponseBody {
+
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        private ReleasingResponseBody(ResponseBody delegate, Runnable release) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                @Override
+                public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+                    final var read = super.read(sink, byteCount);
+                    if (read == -1) {
+                        release.run();
+                    }
+
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        release.run();
+                    }
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @NotNull
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * Counts the calls and connections of a client and records the latencies of its calls, from
+     * the start of a call until its response body is read.
+     */
+    private static final class ClientMetrics extends EventListener {
+
+        private final Map<Call, Long> startTimes = new ConcurrentHashMap<>();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong connects = new AtomicLong();
+        private final AtomicLong tlsHandshakes = new AtomicLong();
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong http2Acquired = new AtomicLong();
+
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int latencyCount;
+        private int latencyIndex;
+
+        @Override
+        public void callStart(@NotNull Call call) {
+            started.incrementAndGet();
+            startTimes.put(call, System.nanoTime());
+        }
+
+        @Override
+        public void connectStart(@NotNull Call call, @NotNull InetSocketAddress address,
+            @NotNull Proxy proxy) {
+            connects.incrementAndGet();
+        }
+
+        @Override
+        public void secureConnectStart(@NotNull Call call) {
+            tlsHandshakes.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(@NotNull Call call, @NotNull Connection connection) {
+            acquired.incrementAndGet();
+            if (connection.protocol() == Protocol.HTTP_2) {
+                http2Acquired.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void callEnd(@NotNull Call call) {
+            succeeded.incrementAndGet();
+            final var start = startTimes.remove(call);
+            if (start != null) {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void callFailed(@NotNull Call call, @NotNull IOException exception) {
+            failed.incrementAndGet();
+            startTimes.remove(call);
+        }
+
+        private synchronized void record(long nanos) {
+            latencies[latencyIndex] = nanos;
+            latencyIndex = (latencyIndex + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+        }
+
+        private Map<String, Object> statistics() {
+            final long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(latencies, latencyCount);
+            }
+            Arrays.sort(sorted);
+
+            final var statistics = new LinkedHashMap<String, Object>();
+            statistics.put("callsStarted", started.get());
+            statistics.put("callsSucceeded", succeeded.get());
+            statistics.put("callsFailed", failed.get());
+            statistics.put("callsInFlight", startTimes.size());
+            statistics.put("connectionsOpened", connects.get());
+            statistics.put("tlsHandshakes", tlsHandshakes.get());
+            statistics.put("connectionsAcquired", acquired.get());
+            statistics.put("http2ConnectionsAcquired", http2Acquired.get());
+            statistics.put("latencyP50Ms", toMillis(percentile(sorted, 0.5)));
+            statistics.put("latencyP95Ms", toMillis(percentile(sorted, 0.95)));
+            statistics.put("latencyP99Ms", toMillis(percentile(sorted, 0.99)));
+            statistics.put("latencyMaxMs",
+                toMillis(sorted.length == 0 ? 0 : sorted[sorted.length - 1]));
+            return statistics;
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            final var index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000d;
+        }
+    }
+}
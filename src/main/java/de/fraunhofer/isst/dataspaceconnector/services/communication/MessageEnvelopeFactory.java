@@ -0,0 +1,161 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import de.fraunhofer.iais.eis.Connector;
+import de.fraunhofer.iais.eis.DynamicAttributeToken;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.ConnectorConfigurationException;
+import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.net.URI;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * This class provides the fields every IDS message header shares: issue date, model version,
+ * issuer connector, sender agent and security token. The connector dependent fields are computed
+ * once per connector instance, the issue date is created by a shared DatatypeFactory instead of
+ * looking one up for every message.
+ */
+@Service
+public class MessageEnvelopeFactory {
+
+    private static final DatatypeFactory DATATYPE_FACTORY = newDatatypeFactory();
+
+    private final ConfigurationContainer configurationContainer;
+    private final DatTokenCache tokenCache;
+
+    private volatile Invariants invariants;
+
+    /**
+     * Constructor for MessageEnvelopeFactory.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public MessageEnvelopeFactory(@NotNull ConfigurationContainer configurationContainer,
+        @NotNull DatTokenCache tokenCache) throws IllegalArgumentException {
+        if (configurationContainer == null) {
+            throw new IllegalArgumentException("The ConfigurationContainer cannot be null.");
+        }
+
+        if (tokenCache == null) {
+            throw new IllegalArgumentException("The DatTokenCache cannot be null.");
+        }
+
+        this.configurationContainer = configurationContainer;
+        this.tokenCache = tokenCache;
+    }
+
+    /**
+     * Creates the envelope of a message sent by the configured connector.
+     *
+     * @return The envelope.
+     * @throws ConnectorConfigurationException - if no connector is configured.
+     */
+    public MessageEnvelope create() throws ConnectorConfigurationException {
+        final var connector = configurationContainer.getConnector();
+        if (connector == null) {
+            throw new ConnectorConfigurationException("No connector configurated.");
+        }
+
+        return create(connector);
+    }
+
+    /**
+     * Creates the envelope of a message sent by a connector the caller already resolved.
+     *
+     * @param connector The sending connector.
+     * @return The envelope.
+     */
+    public MessageEnvelope create(Connector connector) {
+        var current = invariants;
+        if (current == null || current.connector != connector) {
+            current = new Invariants(connector);
+            invariants = current;
+        }
+
+        return new MessageEnvelope(now(), current.modelVersion, current.connectorId,
+            tokenCache.getTokenJWS());
+    }
+
+    /**
+     * Creates the current time as XMLGregorianCalendar in UTC.
+     *
+     * @return The current time.
+     */
+    public static XMLGregorianCalendar now() {
+        final var now = ZonedDateTime.now(ZoneOffset.UTC);
+        // The JDK DatatypeFactory keeps no state, so the instance can be shared between threads.
+        return DATATYPE_FACTORY.newXMLGregorianCalendar(now.getYear(), now.getMonthValue(),
+            now.getDayOfMonth(), now.getHour(), now.getMinute(), now.getSecond(),
+            now.getNano() / 1_000_000, 0);
+    }
+
+    private static DatatypeFactory newDatatypeFactory() {
+        try {
+            return DatatypeFactory.newInstance();
+        } catch (DatatypeConfigurationException exception) {
+            throw new IllegalStateException("No DatatypeFactory available.", exception);
+        }
+    }
+
+    /**
+     * The fields of a message header that only depend on the connector.
+     */
+    private static final class Invariants {
+
+        private final Connector connector;
+        private final URI connectorId;
+        private final String modelVersion;
+
+        private Invariants(Connector connector) {
+            this.connector = connector;
+            this.connectorId = connector.getId();
+            this.modelVersion = connector.getOutboundModelVersion();
+        }
+    }
+
+    /**
+     * The shared fields of a single message header.
+     */
+    public static final class MessageEnvelope {
+
+        private final XMLGregorianCalendar issued;
+        private final String modelVersion;
+        private final URI connectorId;
+        private final DynamicAttributeToken securityToken;
+
+        private MessageEnvelope(XMLGregorianCalendar issued, String modelVersion,
+            URI connectorId, DynamicAttributeToken securityToken) {
+            this.issued = issued;
+            this.modelVersion = modelVersion;
+            this.connectorId = connectorId;
+            this.securityToken = securityToken;
+        }
+
+        public XMLGregorianCalendar getIssued() {
+            return issued;
+        }
+
+        public String getModelVersion() {
+            return modelVersion;
+        }
+
+        public URI getIssuerConnector() {
+            return connectorId;
+        }
+
+        public URI getSenderAgent() {
+            return connectorId;
+        }
+
+        public DynamicAttributeToken getSecurityToken() {
+            return securityToken;
+        }
+    }
+}
@@ -1,11 +1,8 @@
 package de.fraunhofer.isst.dataspaceconnector.services.communication;
 
 import de.fraunhofer.iais.eis.*;
-import de.fraunhofer.isst.ids.framework.configuration.ConfigurationContainer;
 import de.fraunhofer.isst.ids.framework.messages.InfomodelMessageBuilder;
-import de.fraunhofer.isst.ids.framework.messaging.core.handler.api.util.Util;
 import de.fraunhofer.isst.ids.framework.spring.starter.IDSHttpService;
-import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
 import okhttp3.MultipartBody;
 import okhttp3.Response;
 import org.slf4j.Logger;
@@ -24,20 +21,18 @@ public class MessageServiceImpl implements MessageService {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(MessageServiceImpl.class);
 
-    private Connector connector;
-    private TokenProvider tokenProvider;
+    private MessageEnvelopeFactory envelopeFactory;
     private IDSHttpService idsHttpService;
 
     @Autowired
     /**
      * Constructor for MessageServiceImpl.
      */
-    public MessageServiceImpl(ConfigurationContainer configurationContainer,
-        TokenProvider tokenProvider,
-        IDSHttpService idsHttpService) {
-        this.connector = configurationContainer.getConnector();
-        this.tokenProvider = tokenProvider;
-        this.idsHttpService = idsHttpService;
+    public MessageServiceImpl(MessageEnvelopeFactory envelopeFactory,
+        HttpClientRegistry httpClientRegistry) {
+        this.envelopeFactory = envelopeFactory;
+        this.idsHttpService = new IDSHttpService(
+            httpClientRegistry.getClientProvider(HttpClientRegistry.Profile.CONNECTOR));
     }
 
     /**
@@ -45,12 +40,13 @@ public class MessageServiceImpl implements MessageService {
      */
     @Override
     public Response sendLogMessage() throws IOException {
+        final var envelope = envelopeFactory.create();
         LogMessage message = new LogMessageBuilder()
-            ._issued_(Util.getGregorianNow())
-            ._modelVersion_(connector.getOutboundModelVersion())
-            ._issuerConnector_(connector.getId())
-            ._senderAgent_(connector.getId())
-            ._securityToken_(tokenProvider.getTokenJWS())
+            ._issued_(envelope.getIssued())
+            ._modelVersion_(envelope.getModelVersion())
+            ._issuerConnector_(envelope.getIssuerConnector())
+            ._senderAgent_(envelope.getSenderAgent())
+            ._securityToken_(envelope.getSecurityToken())
             .build();
 
         MultipartBody body = InfomodelMessageBuilder.messageWithString(message, "");
@@ -64,12 +60,13 @@ public class MessageServiceImpl implements MessageService {
      */
     @Override
     public Response sendNotificationMessage(String recipient) throws IOException {
+        final var envelope = envelopeFactory.create();
         NotificationMessage message = new NotificationMessageBuilder()
-            ._issued_(Util.getGregorianNow())
-            ._modelVersion_(connector.getOutboundModelVersion())
-            ._issuerConnector_(connector.getId())
-            ._senderAgent_(connector.getId())
-            ._securityToken_(tokenProvider.getTokenJWS())
+            ._issued_(envelope.getIssued())
+            ._modelVersion_(envelope.getModelVersion())
+            ._issuerConnector_(envelope.getIssuerConnector())
+            ._senderAgent_(envelope.getSenderAgent())
+            ._securityToken_(envelope.getSecurityToken())
             ._recipientConnector_(de.fraunhofer.iais.eis.util.Util.asList(URI.create(recipient)))
             .build();
 
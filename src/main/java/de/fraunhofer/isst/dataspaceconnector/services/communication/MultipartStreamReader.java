@@ -0,0 +1,356 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * This class reads a multipart body part by part without buffering it. The headers of each part
+ * are parsed into memory, the content of the current part is exposed as a stream that ends at the
+ * next boundary. Parts have to be read in order, moving to the next part skips the rest of the
+ * current one.
+ */
+public class MultipartStreamReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_HEADER_LINE_LENGTH = 8 * 1024;
+    private static final int MAX_HEADER_LINES = 100;
+
+    private static final Pattern BOUNDARY_PATTERN =
+        Pattern.compile("(?i)(?:^|;)\\s*boundary=(?:\"([^\"]+)\"|([^;\\s]+))");
+    private static final Pattern NAME_PATTERN =
+        Pattern.compile("(?i)(?:^|;)\\s*name=(?:\"([^\"]*)\"|([^;\\s]+))");
+    private static final Pattern CHARSET_PATTERN =
+        Pattern.compile("(?i)(?:^|;)\\s*charset=\"?([^;\\s\"]+)\"?");
+
+    private final InputStream inputStream;
+    private final byte[] delimiter;
+    private final byte[] buffer;
+    private int head;
+    private int tail;
+
+    private PartInputStream currentPart;
+    private Map<String, String> currentHeaders;
+    private boolean finished;
+
+    /**
+     * Constructor for MultipartStreamReader.
+     *
+     * @param inputStream The multipart body.
+     * @param boundary    The boundary of the multipart body.
+     * @throws IllegalArgumentException - if any of the parameters is null or the boundary is
+     *                                  empty.
+     */
+    public MultipartStreamReader(InputStream inputStream, String boundary)
+        throws IllegalArgumentException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("The InputStream cannot be null.");
+        }
+
+        if (boundary == null || boundary.isEmpty()) {
+            throw new IllegalArgumentException("The boundary cannot be empty.");
+        }
+
+        this.inputStream = inputStream;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        this.buffer = new byte[Math.max(BUFFER_SIZE, 2 * delimiter.length)];
+
+        // The first boundary is not preceded by a line break, a virtual one is added instead.
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        this.tail = 2;
+    }
+
+    /**
+     * Extracts the boundary from a multipart content type.
+     *
+     * @param contentType The content type, e.g. multipart/form-data; boundary=abc.
+     * @return The boundary or null if the content type has none.
+     */
+    public static String getBoundary(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+
+        final var matcher = BOUNDARY_PATTERN.matcher(contentType);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    /**
+     * Moves to the next part and reads its headers. The rest of the current part is skipped.
+     *
+     * @return true if there is a next part, false if the end of the multipart body is reached.
+     * @throws IOException - if the body could not be read or is malformed.
+     */
+    public boolean nextPart() throws IOException {
+        if (finished) {
+            return false;
+        }
+
+        // Skip the preamble or the rest of the current part.
+        final var previous = currentPart != null ? currentPart : new PartInputStream();
+        previous.skipAll();
+
+        final var first = readByte();
+        final var second = readByte();
+        if (first == '-' && second == '-') {
+            finished = true;
+            currentPart = null;
+            currentHeaders = null;
+            return false;
+        }
+
+        if (first != '\r' || second != '\n') {
+            throw new IOException("Malformed multipart body: missing line break after boundary.");
+        }
+
+        currentHeaders = readHeaders();
+        currentPart = new PartInputStream();
+        return true;
+    }
+
+    /**
+     * @return The headers of the current part with lower case names.
+     */
+    public Map<String, String> getHeaders() {
+        return currentHeaders;
+    }
+
+    /**
+     * @return The name of the current part taken from its Content-Disposition header or null.
+     */
+    public String getPartName() {
+        final var disposition = currentHeaders == null ? null
+            : currentHeaders.get("content-disposition");
+        if (disposition == null) {
+            return null;
+        }
+
+        final var matcher = NAME_PATTERN.matcher(disposition);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        return matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+    }
+
+    /**
+     * Returns the content of the current part as stream. The stream ends at the next boundary,
+     * closing it skips the rest of the part.
+     *
+     * @return The content of the current part.
+     * @throws IllegalStateException - if there is no current part.
+     */
+    public InputStream getPartStream() throws IllegalStateException {
+        if (currentPart == null) {
+            throw new IllegalStateException("There is no current part.");
+        }
+
+        return currentPart;
+    }
+
+    /**
+     * Reads the content of the current part into a string, using the charset of its Content-Type
+     * header or UTF-8.
+     *
+     * @param maxBytes The maximum size of the content.
+     * @return The content of the current part.
+     * @throws IOException - if the part could not be read or is larger than the maximum size.
+     */
+    public String readPartAsString(int maxBytes) throws IOException {
+        final var partStream = getPartStream();
+        final var output = new ByteArrayOutputStream();
+        final var chunk = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = partStream.read(chunk)) != -1) {
+            if (output.size() + read > maxBytes) {
+                throw new IOException(String.format("The part %s exceeds %d bytes.",
+                    getPartName(), maxBytes));
+            }
+
+            output.write(chunk, 0, read);
+        }
+
+        return output.toString(getPartCharset());
+    }
+
+    /**
+     * Closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+    }
+
+    private Charset getPartCharset() {
+        final var contentType = currentHeaders == null ? null
+            : currentHeaders.get("content-type");
+        if (contentType != null) {
+            final var matcher = CHARSET_PATTERN.matcher(contentType);
+            try {
+                if (matcher.find() && Charset.isSupported(matcher.group(1))) {
+                    return Charset.forName(matcher.group(1));
+                }
+            } catch (IllegalCharsetNameException exception) {
+                // Fall back to the default charset.
+            }
+        }
+
+        return StandardCharsets.UTF_8;
+    }
+
+    private Map<String, String> readHeaders() throws IOException {
+        final var headers = new HashMap<String, String>();
+        for (var lines = 0; lines < MAX_HEADER_LINES; lines++) {
+            final var line = readLine();
+            if (line.isEmpty()) {
+                return headers;
+            }
+
+            final var separator = line.indexOf(':');
+            if (separator > 0) {
+                headers.put(line.substring(0, separator).trim().toLowerCase(),
+                    line.substring(separator + 1).trim());
+            }
+        }
+
+        throw new IOException("Malformed multipart body: too many part headers.");
+    }
+
+    private String readLine() throws IOException {
+        final var line = new ByteArrayOutputStream();
+        while (true) {
+            final var value = readByte();
+            if (value == '\r') {
+                if (readByte() != '\n') {
+                    throw new IOException("Malformed multipart body: invalid line break.");
+                }
+
+                return line.toString(StandardCharsets.UTF_8);
+            }
+
+            if (line.size() >= MAX_HEADER_LINE_LENGTH) {
+                throw new IOException("Malformed multipart body: part header too long.");
+            }
+
+            line.write(value);
+        }
+    }
+
+    private int readByte() throws IOException {
+        if (head == tail && fill() == -1) {
+            throw new EOFException("Unexpected end of multipart body.");
+        }
+
+        return buffer[head++] & 0xFF;
+    }
+
+    /**
+     * Moves the unread bytes to the start of the buffer and reads more data behind them.
+     *
+     * @return The number of bytes read or -1 at the end of the stream.
+     */
+    private int fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+
+        final var read = inputStream.read(buffer, tail, buffer.length - tail);
+        if (read > 0) {
+            tail += read;
+        }
+
+        return read;
+    }
+
+    private int indexOfDelimiter() {
+        final var last = tail - delimiter.length;
+        outer:
+        for (var i = head; i <= last; i++) {
+            for (var j = 0; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+
+            return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * The content of a single part, ending in front of the next delimiter. Only bytes that cannot
+     * be the start of a delimiter are passed on, so the buffer never holds more than one chunk.
+     */
+    private class PartInputStream extends InputStream {
+
+        private boolean done;
+
+        @Override
+        public int read() throws IOException {
+            final var single = new byte[1];
+            final var read = read(single, 0, 1);
+            return read == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (done) {
+                return -1;
+            }
+
+            if (length == 0) {
+                return 0;
+            }
+
+            while (true) {
+                final var index = indexOfDelimiter();
+                if (index == head) {
+                    head += delimiter.length;
+                    done = true;
+                    return -1;
+                }
+
+                final var available = index != -1 ? index - head
+                    : tail - head - (delimiter.length - 1);
+                if (available > 0) {
+                    final var count = Math.min(length, available);
+                    System.arraycopy(buffer, head, bytes, offset, count);
+                    head += count;
+                    return count;
+                }
+
+                if (fill() == -1) {
+                    throw new EOFException("Unexpected end of multipart body.");
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            skipAll();
+        }
+
+        private void skipAll() throws IOException {
+            final var chunk = new byte[BUFFER_SIZE];
+            while (read(chunk, 0, chunk.length) != -1) {
+                // Discard the rest of the part.
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * This class keeps the connections to frequently contacted connectors warm. The requests to every
+ * connector are counted per interval. After each interval, the connectors contacted most often
+ * receive a HEAD request, which opens a pooled connection if there is none and renews the TLS
+ * session, so the next IDS message to them does not wait for a handshake.
+ */
+@Service
+public class PeerConnectionWarmer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PeerConnectionWarmer.class);
+
+    private static final int MAX_TRACKED_PEERS = 1000;
+
+    private final HttpClientRegistry httpClientRegistry;
+    private final Map<HttpUrl, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    private final int minRequests;
+    private final int maxPeers;
+
+    /**
+     * Constructor for PeerConnectionWarmer.
+     *
+     * @param enabled     Whether connections are warmed up.
+     * @param interval    The interval of counting requests and warming up connections.
+     * @param minRequests The number of requests per interval making a connector a frequent one.
+     * @param maxPeers    The maximum number of connectors warmed up per interval.
+     * @throws IllegalArgumentException - if any of the parameters is null or out of range.
+     */
+    @Autowired
+    public PeerConnectionWarmer(@NotNull HttpClientRegistry httpClientRegistry,
+        @Value("${http.client.connector.prewarm.enabled:true}") boolean enabled,
+        @Value("${http.client.connector.prewarm.interval:PT1M}") Duration interval,
+        @Value("${http.client.connector.prewarm.min-requests:5}") int minRequests,
+        @Value("${http.client.connector.prewarm.max-peers:10}") int maxPeers)
+        throws IllegalArgumentException {
+        if (httpClientRegistry == null) {
+            throw new IllegalArgumentException("The HttpClientRegistry cannot be null.");
+        }
+
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("The prewarm interval has to be positive.");
+        }
+
+        if (minRequests < 1 || maxPeers < 0) {
+            throw new IllegalArgumentException("The prewarm limits are out of range.");
+        }
+
+        this.httpClientRegistry = httpClientRegistry;
+        this.minRequests = minRequests;
+        this.maxPeers = maxPeers;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "peer-connection-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (enabled && maxPeers > 0) {
+            final var millis = interval.toMillis();
+            scheduler.scheduleAtFixedRate(this::warmUp, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Counts a request to a connector.
+     *
+     * @param recipient The url of the connector.
+     */
+    public void recordRequest(URI recipient) {
+        final var origin = getOrigin(recipient);
+        if (origin == null) {
+            return;
+        }
+
+        final var count = requestCounts.get(origin);
+        if (count != null) {
+            count.incrementAndGet();
+        } else if (requestCounts.size() < MAX_TRACKED_PEERS) {
+            requestCounts.computeIfAbsent(origin, x -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Stops warming up connections.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Sends a HEAD request to the connectors contacted most often in the last interval and starts
+     * a new interval.
+     */
+    private void warmUp() {
+        final var snapshot = requestCounts.entrySet().stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+        requestCounts.clear();
+
+        final var client = httpClientRegistry.getClient(HttpClientRegistry.Profile.CONNECTOR);
+        try {
+            snapshot.entrySet().stream()
+                .filter(entry -> entry.getValue() >= minRequests)
+                .sorted(Map.Entry.<HttpUrl, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(maxPeers)
+                .forEach(entry -> {
+                    final var request = new Request.Builder().url(entry.getKey()).head().build();
+                    client.newCall(request).enqueue(new Callback() {
+                        @Override
+                        public void onResponse(@NotNull Call call, @NotNull Response response) {
+                            response.close();
+                        }
+
+                        @Override
+                        public void onFailure(@NotNull Call call, @NotNull IOException exception) {
+                            LOGGER.debug(String.format("Failed to warm up the connection to %s. %s",
+                                entry.getKey(), exception.getMessage()));
+                        }
+                    });
+                });
+        } catch (RuntimeException exception) {
+            // A failed round must not stop the scheduled warm-ups.
+            LOGGER.warn("Failed to warm up connections. " + exception.getMessage());
+        }
+    }
+
+    private static HttpUrl getOrigin(URI recipient) {
+        if (recipient == null) {
+            return null;
+        }
+
+        final var url = HttpUrl.get(recipient);
+        return url == null ? null : new HttpUrl.Builder()
+            .scheme(url.scheme())
+            .host(url.host())
+            .port(url.port())
+            .build();
+    }
+}
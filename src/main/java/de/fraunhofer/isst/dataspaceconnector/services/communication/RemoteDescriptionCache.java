@@ -0,0 +1,229 @@
+package de.fraunhofer.isst.dataspaceconnector.services.communication;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.fraunhofer.iais.eis.DescriptionResponseMessage;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceRepository;
+import de.fraunhofer.isst.ids.framework.spring.starter.SerializerProvider;
+import de.fraunhofer.isst.ids.framework.util.MultipartStringParser;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class caches the descriptions received from other connectors, by recipient and requested
+ * element. A cached description is used as it is until it is older than the refresh age, and is
+ * evicted after the time to live or when the cache exceeds its size. When a description is
+ * fetched again and its payload did not change, the requested resource saved for it before is
+ * reused instead of saving a new one. Only description responses are cached, rejections are not.
+ */
+@Service
+public class RemoteDescriptionCache {
+
+    private final SerializerProvider serializerProvider;
+    private final RequestedResourceRepository requestedResourceRepository;
+    private final boolean enabled;
+    private final Duration refreshAfter;
+    private final Cache<String, Description> descriptions;
+
+    /**
+     * Constructor for RemoteDescriptionCache.
+     *
+     * @param enabled       False disables caching.
+     * @param timeToLive    The time after which a description is evicted.
+     * @param refreshAfter  The age after which a description is fetched again.
+     * @param maximumWeight The maximum total length of the cached responses in characters.
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public RemoteDescriptionCache(@NotNull SerializerProvider serializerProvider,
+        @NotNull RequestedResourceRepository requestedResourceRepository,
+        @Value("${description.cache.enabled:true}") boolean enabled,
+        @Value("${description.cache.time-to-live:PT30M}") Duration timeToLive,
+        @Value("${description.cache.refresh-after:PT5M}") Duration refreshAfter,
+        @Value("${description.cache.maximum-weight:33554432}") long maximumWeight)
+        throws IllegalArgumentException {
+        if (serializerProvider == null) {
+            throw new IllegalArgumentException("The SerializerProvider cannot be null.");
+        }
+
+        if (requestedResourceRepository == null) {
+            throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
+        }
+
+        if (timeToLive == null || refreshAfter == null) {
+            throw new IllegalArgumentException("The cache durations cannot be null.");
+        }
+
+        this.serializerProvider = serializerProvider;
+        this.requestedResourceRepository = requestedResourceRepository;
+        this.enabled = enabled;
+        this.refreshAfter = refreshAfter;
+        this.descriptions = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .<String, Description>weigher((key, description) -> description.response.length())
+            .expireAfterWrite(timeToLive)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns a cached description. The validation key of a cached resource description is only
+     * returned while the requested resource exists.
+     *
+     * @param recipient The connector the description was requested from.
+     * @param element   The requested element, null for the self-description.
+     * @return The description or null if none is cached.
+     */
+    public Description get(URI recipient, URI element) {
+        if (!enabled) {
+            return null;
+        }
+
+        final var description = descriptions.getIfPresent(getKey(recipient, element));
+        if (description != null && description.validationKey != null
+            && !requestedResourceRepository.existsById(description.validationKey)) {
+            descriptions.invalidate(getKey(recipient, element));
+            return null;
+        }
+
+        return description;
+    }
+
+    /**
+     * Returns the validation key of a previous description, if its payload equals the one of a
+     * newly received response.
+     *
+     * @param previous The previous description, may be null.
+     * @param response The new response.
+     * @return The validation key or null if the payload changed.
+     */
+    public UUID getUnchangedValidationKey(Description previous, String response) {
+        if (previous == null || previous.validationKey == null) {
+            return null;
+        }
+
+        return Arrays.equals(previous.digest, digest(response)) ? previous.validationKey : null;
+    }
+
+    /**
+     * Caches a response if it is a description response.
+     *
+     * @param recipient     The connector the description was requested from.
+     * @param element       The requested element, null for the self-description.
+     * @param response      The response.
+     * @param validationKey The id of the requested resource saved for it, may be null.
+     */
+    public void put(URI recipient, URI element, String response, UUID validationKey) {
+        if (!enabled || !isDescriptionResponse(response)) {
+            return;
+        }
+
+        descriptions.put(getKey(recipient, element),
+            new Description(response, validationKey, digest(response),
+                System.nanoTime() + refreshAfter.toNanos()));
+    }
+
+    /**
+     * Summarizes the cache state and the hit and miss counts.
+     *
+     * @return The statistics by name.
+     */
+    public Map<String, Object> statistics() {
+        final var stats = descriptions.stats();
+
+        final var statistics = new LinkedHashMap<String, Object>();
+        statistics.put("enabled", enabled);
+        statistics.put("size", descriptions.estimatedSize());
+        statistics.put("hitCount", stats.hitCount());
+        statistics.put("missCount", stats.missCount());
+        statistics.put("hitRate", stats.hitRate());
+        statistics.put("evictionCount", stats.evictionCount());
+        return statistics;
+    }
+
+    private boolean isDescriptionResponse(String response) {
+        try {
+            final var header = MultipartStringParser.stringToMultipart(response).get("header");
+            serializerProvider.getSerializer().deserialize(header,
+                DescriptionResponseMessage.class);
+            return true;
+        } catch (Exception exception) {
+            return false;
+        }
+    }
+
+    /**
+     * Hashes the payload of a response, the header differs with every response.
+     */
+    private static byte[] digest(String response) {
+        String payload;
+        try {
+            payload = MultipartStringParser.stringToMultipart(response).get("payload");
+        } catch (Exception exception) {
+            payload = null;
+        }
+
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(
+                (payload == null ? response : payload).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform supports SHA-256.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    private static String getKey(URI recipient, URI element) {
+        return recipient + "\n" + (element == null ? "" : element.toString());
+    }
+
+    /**
+     * A cached description.
+     */
+    public static final class Description {
+
+        private final String response;
+        private final UUID validationKey;
+        private final byte[] digest;
+        private final long refreshAt;
+
+        private Description(String response, UUID validationKey, byte[] digest, long refreshAt) {
+            this.response = response;
+            this.validationKey = validationKey;
+            this.digest = digest;
+            this.refreshAt = refreshAt;
+        }
+
+        /**
+         * @return The response of the connector.
+         */
+        public String getResponse() {
+            return response;
+        }
+
+        /**
+         * @return The id of the requested resource saved for the description, may be null.
+         */
+        public UUID getValidationKey() {
+            return validationKey;
+        }
+
+        /**
+         * @return True if the description is older than the refresh age.
+         */
+        public boolean needsRefresh() {
+            return System.nanoTime() - refreshAt > 0;
+        }
+    }
+}
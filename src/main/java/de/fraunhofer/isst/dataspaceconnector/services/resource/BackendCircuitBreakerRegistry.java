@@ -0,0 +1,260 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class keeps a circuit breaker per resource backend. A backend is identified by the scheme
+ * and authority of its url, so all resources served by the same host share one breaker. After a
+ * number of consecutive failures the breaker opens and requests to the backend are skipped. When
+ * the open duration has passed, a single trial request is let through: its success closes the
+ * breaker, its failure opens it again. A trial request without outcome is replaced after another
+ * open duration. The latencies of successful requests are recorded to derive the delay after
+ * which a request is hedged.
+ */
+@Service
+public class BackendCircuitBreakerRegistry {
+
+    private static final Logger LOGGER =
+        LoggerFactory.getLogger(BackendCircuitBreakerRegistry.class);
+
+    private static final int LATENCY_WINDOW = 100;
+
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final double percentile;
+    private final long defaultDelayNanos;
+    private final long minDelayNanos;
+
+    /**
+     * Constructor for BackendCircuitBreakerRegistry.
+     *
+     * @param failureThreshold The number of consecutive failures opening a breaker.
+     * @param openDuration     How long a breaker stays open before a trial request.
+     * @param percentile       The latency percentile after which a request is hedged.
+     * @param defaultDelay     The hedge delay of backends without recorded latencies.
+     * @param minDelay         The lower bound of the hedge delay.
+     * @throws IllegalArgumentException - if any of the parameters is null or out of range.
+     */
+    @Autowired
+    public BackendCircuitBreakerRegistry(
+        @Value("${resource.backend.circuit-breaker.failure-threshold:5}") int failureThreshold,
+        @Value("${resource.backend.circuit-breaker.open-duration:PT30S}") Duration openDuration,
+        @Value("${resource.backend.hedging.percentile:0.95}") double percentile,
+        @Value("${resource.backend.hedging.default-delay:PT1S}") Duration defaultDelay,
+        @Value("${resource.backend.hedging.min-delay:PT0.05S}") Duration minDelay)
+        throws IllegalArgumentException {
+        if (openDuration == null || defaultDelay == null || minDelay == null) {
+            throw new IllegalArgumentException("The backend durations cannot be null.");
+        }
+
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("The failure threshold has to be positive.");
+        }
+
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("The hedging percentile has to be in (0, 1].");
+        }
+
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.percentile = percentile;
+        this.defaultDelayNanos = defaultDelay.toNanos();
+        this.minDelayNanos = minDelay.toNanos();
+    }
+
+    /**
+     * Builds the key of the backend of a data source. Local sources have no backend.
+     *
+     * @param source The data source, may be null.
+     * @return The key or null if the source has no remote backend.
+     */
+    public static String getBackendKey(BackendSource source) {
+        if (source == null || source.getType() == BackendSource.Type.LOCAL
+            || source.getUrl() == null) {
+            return null;
+        }
+
+        final var url = source.getUrl();
+        if (url.getScheme() == null || url.getRawAuthority() == null) {
+            return url.toString();
+        }
+
+        return url.getScheme() + "://" + url.getRawAuthority();
+    }
+
+    /**
+     * Checks whether a request to a backend may be sent. If the open duration of an open breaker
+     * has passed, this call lets the trial request through.
+     *
+     * @param backend The backend key, null for local sources.
+     * @return true if the request may be sent.
+     */
+    public boolean allowRequest(String backend) {
+        return backend == null || getBreaker(backend).allowRequest(System.nanoTime());
+    }
+
+    /**
+     * Records a successful request.
+     *
+     * @param backend The backend key, null for local sources.
+     * @param nanos   The latency of the request.
+     */
+    public void onSuccess(String backend, long nanos) {
+        if (backend != null) {
+            getBreaker(backend).onSuccess(nanos);
+        }
+    }
+
+    /**
+     * Records a failed request.
+     *
+     * @param backend The backend key, null for local sources.
+     */
+    public void onFailure(String backend) {
+        if (backend != null && getBreaker(backend).onFailure(System.nanoTime())) {
+            LOGGER.warn(String.format("The circuit breaker of backend %s is open.", backend));
+        }
+    }
+
+    /**
+     * Records a request whose outcome says nothing about the backend, e.g. a cancelled one. A
+     * trial request of a half-open breaker is given back, so the next request becomes the trial.
+     *
+     * @param backend The backend key, null for local sources.
+     */
+    public void onIgnored(String backend) {
+        if (backend != null) {
+            getBreaker(backend).onIgnored(System.nanoTime());
+        }
+    }
+
+    /**
+     * Returns the delay after which a request to a backend is hedged, i.e. the configured
+     * latency percentile of its recent successful requests.
+     *
+     * @param backend The backend key, null for local sources.
+     * @return The delay in nanoseconds.
+     */
+    public long getHedgeDelay(String backend) {
+        if (backend == null) {
+            return minDelayNanos;
+        }
+
+        return Math.max(minDelayNanos, getBreaker(backend).getLatencyPercentile(percentile,
+            defaultDelayNanos));
+    }
+
+    /**
+     * @param backend The backend key.
+     * @return The state of the breaker of the backend.
+     */
+    public State getState(String backend) {
+        final var breaker = breakers.get(backend);
+        return breaker == null ? State.CLOSED : breaker.getState();
+    }
+
+    private CircuitBreaker getBreaker(String backend) {
+        return breakers.computeIfAbsent(backend, x -> new CircuitBreaker());
+    }
+
+    /**
+     * The states of a circuit breaker.
+     */
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final class CircuitBreaker {
+
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private int latencyCount;
+        private int latencyIndex;
+
+        private State state = State.CLOSED;
+        private int failures;
+        private long openedAt;
+
+        private synchronized boolean allowRequest(long now) {
+            switch (state) {
+                case CLOSED:
+                    return true;
+                case OPEN:
+                    if (now - openedAt < openNanos) {
+                        return false;
+                    }
+
+                    // Let a single trial request through.
+                    state = State.HALF_OPEN;
+                    openedAt = now;
+                    return true;
+                default:
+                    // The trial request is still running, unless it got lost.
+                    if (now - openedAt < openNanos) {
+                        return false;
+                    }
+
+                    openedAt = now;
+                    return true;
+            }
+        }
+
+        private synchronized void onSuccess(long nanos) {
+            state = State.CLOSED;
+            failures = 0;
+
+            latencies[latencyIndex] = nanos;
+            latencyIndex = (latencyIndex + 1) % latencies.length;
+            latencyCount = Math.min(latencyCount + 1, latencies.length);
+        }
+
+        /**
+         * @return true if the breaker was opened by this failure.
+         */
+        private synchronized boolean onFailure(long now) {
+            failures++;
+            if (state == State.HALF_OPEN
+                || (state == State.CLOSED && failures >= failureThreshold)) {
+                state = State.OPEN;
+                openedAt = now;
+                return true;
+            }
+
+            return false;
+        }
+
+        private synchronized void onIgnored(long now) {
+            if (state == State.HALF_OPEN) {
+                state = State.OPEN;
+                openedAt = now - openNanos;
+            }
+        }
+
+        private synchronized long getLatencyPercentile(double percentile, long defaultValue) {
+            if (latencyCount == 0) {
+                return defaultValue;
+            }
+
+            final var sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            final var index = (int) Math.ceil(percentile * latencyCount) - 1;
+            return sorted[Math.max(0, index)];
+        }
+
+        private synchronized State getState() {
+            return state;
+        }
+    }
+}
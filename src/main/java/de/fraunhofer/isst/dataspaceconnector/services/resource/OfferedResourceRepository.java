@@ -1,9 +1,17 @@
 package de.fraunhofer.isst.dataspaceconnector.services.resource;
 
 import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.LockModeType;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -12,4 +20,56 @@ import java.util.UUID;
 @Repository
 public interface OfferedResourceRepository extends JpaRepository<OfferedResource, UUID> {
 
+    /**
+     * Returns a resource and locks it until the end of the transaction, so concurrent writes of
+     * its payload are serialized.
+     *
+     * @param uuid The resource uuid.
+     * @return The resource.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<OfferedResource> findLockedByUuid(UUID uuid);
+
+    /**
+     * Returns a resource together with its stored data, which is otherwise loaded on access.
+     *
+     * @param uuid The resource uuid.
+     * @return The resource.
+     */
+    @EntityGraph(attributePaths = "payload")
+    Optional<OfferedResource> findWithPayloadByUuid(UUID uuid);
+
+    /**
+     * Returns the first resources ordered by uuid.
+     *
+     * @param pageable The page size.
+     * @return The resources.
+     */
+    List<OfferedResource> findAllByOrderByUuidAsc(Pageable pageable);
+
+    /**
+     * Returns the resources following the given uuid, ordered by uuid. Used for keyset paging.
+     *
+     * @param uuid     The last uuid of the previous page.
+     * @param pageable The page size.
+     * @return The resources.
+     */
+    List<OfferedResource> findByUuidGreaterThanOrderByUuidAsc(UUID uuid, Pageable pageable);
+
+    /**
+     * Returns the uuid and modification date of all resources, without loading their metadata.
+     *
+     * @return The modification dates.
+     */
+    @Query("SELECT r.uuid AS uuid, r.modified AS modified FROM OfferedResource r")
+    List<Modification> findAllModifications();
+
+    /**
+     * The modification date of a resource.
+     */
+    interface Modification {
+        UUID getUuid();
+
+        Date getModified();
+    }
 }
@@ -2,7 +2,13 @@ package de.fraunhofer.isst.dataspaceconnector.services.resource;
 
 import de.fraunhofer.iais.eis.Resource;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.*;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
 import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
+import de.fraunhofer.isst.dataspaceconnector.model.RangedData;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportItem;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportResult;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
 
@@ -44,6 +50,13 @@ public interface OfferedResourceService {
      */
     void addResourceWithId(ResourceMetadata resourceMetadata, UUID uuid) throws ResourceException;
 
+    /**
+     * Adds resources in bulk.
+     *
+     * @return the import result of every item, in the order of the passed items.
+     */
+    List<ResourceImportResult> importResources(List<ResourceImportItem> items);
+
     /**
      * Adds data.
      *
@@ -97,6 +110,15 @@ public interface OfferedResourceService {
      */
     String getData(UUID resourceId) throws ResourceException;
 
+    /**
+     * Returns the stored payload, if the resource data is served from it.
+     *
+     * @return the payload or null if the data comes from another source or is not stored as
+     * payload.
+     * @throws ResourceException - if the resource could not be received.
+     */
+    Payload getStoredPayload(UUID resourceId) throws ResourceException;
+
     /**
      * Returns data by representation.
      *
@@ -105,6 +127,41 @@ public interface OfferedResourceService {
      */
     String getDataByRepresentation(UUID resourceId, UUID representationId) throws ResourceException;
 
+    /**
+     * Returns a byte range of the data.
+     *
+     * @param representationId the representation or null to use the first available one.
+     * @return the selected bytes with their position in the data.
+     * @throws RangeNotSatisfiableException - if the range lies outside of the data.
+     * @throws ResourceException - if the resource data could not be received.
+     */
+    RangedData getDataRange(UUID resourceId, UUID representationId, ByteRange range)
+        throws ResourceException;
+
+    /**
+     * Returns a byte range of the data by representation, moved to character boundaries.
+     *
+     * @return a {@link java.lang.String} object.
+     * @throws RangeNotSatisfiableException - if the range lies outside of the data.
+     * @throws ResourceException - if the resource data could not be received.
+     */
+    String getDataByRepresentation(UUID resourceId, UUID representationId, ByteRange range)
+        throws ResourceException;
+
+    /**
+     * Returns the data or a byte range of it by representation, waiting for the backend at most
+     * until the deadline.
+     *
+     * @param range    the byte range or null for the whole data.
+     * @param deadline the request deadline.
+     * @return a {@link java.lang.String} object.
+     * @throws DeadlineExceededException - if the deadline passed before the data was received.
+     * @throws RangeNotSatisfiableException - if the range lies outside of the data.
+     * @throws ResourceException - if the resource data could not be received.
+     */
+    String getDataByRepresentation(UUID resourceId, UUID representationId, ByteRange range,
+        RequestDeadline deadline) throws ResourceException;
+
     /**
      * Adds representation.
      *
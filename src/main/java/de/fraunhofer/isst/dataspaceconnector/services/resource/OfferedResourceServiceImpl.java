@@ -4,22 +4,44 @@ import de.fraunhofer.iais.eis.*;
 import de.fraunhofer.iais.eis.util.TypedLiteral;
 import de.fraunhofer.iais.eis.util.Util;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.*;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
 import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
+import de.fraunhofer.isst.dataspaceconnector.model.RangedData;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportItem;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportResult;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
 import de.fraunhofer.isst.dataspaceconnector.services.HttpUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.UUIDUtils;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
 import org.apache.commons.lang3.NotImplementedException;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class implements all methods of {@link OfferedResourceService}. It provides database
@@ -33,17 +55,46 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
     private final OfferedResourceRepository offeredResourceRepository;
     private final HttpUtils httpUtils;
     private final IdsUtils idsUtils;
+    private final ResourceMetadataCache<OfferedResource> offeredResourceCache;
+    private final PayloadService payloadService;
+    private final BackendCircuitBreakerRegistry circuitBreakers;
+    private final ExecutorService backendExecutor;
     private final ContractOffer contractOffer;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int importBatchSize;
+
+    @Value("${resource.backend.hedging.enabled:false}")
+    private boolean hedgingEnabled;
+
     /**
      * Constructor for OfferedResourceServiceImpl.
+     *
+     * @throws IllegalArgumentException - if the import batch size is not positive.
      */
     @Autowired
     public OfferedResourceServiceImpl(@NotNull OfferedResourceRepository offeredResourceRepository,
-        @NotNull HttpUtils httpUtils, @NotNull IdsUtils idsUtils) {
+        @NotNull HttpUtils httpUtils, @NotNull IdsUtils idsUtils,
+        @NotNull ResourceMetadataCache<OfferedResource> offeredResourceCache,
+        @NotNull PayloadService payloadService,
+        @NotNull BackendCircuitBreakerRegistry circuitBreakers,
+        @NotNull @Qualifier("backendRequestExecutor") ExecutorService backendExecutor,
+        @Value("${resource.import.batch-size:100}") int importBatchSize)
+        throws IllegalArgumentException {
+        if (importBatchSize < 1) {
+            throw new IllegalArgumentException("The import batch size has to be positive.");
+        }
+
         this.offeredResourceRepository = offeredResourceRepository;
         this.httpUtils = httpUtils;
         this.idsUtils = idsUtils;
+        this.importBatchSize = importBatchSize;
+        this.offeredResourceCache = offeredResourceCache;
+        this.payloadService = payloadService;
+        this.circuitBreakers = circuitBreakers;
+        this.backendExecutor = backendExecutor;
 
         contractOffer = new ContractOfferBuilder()
             ._permission_(Util.asList(new PermissionBuilder()
@@ -59,7 +110,8 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
      */
     @Override
     public List<Resource> getResourceList() {
-        return getAllResources().parallelStream().map(idsUtils::getAsResource)
+        return offeredResourceCache.getAll(this::getAllResources).parallelStream()
+            .map(idsUtils::getAsResource)
             .collect(Collectors.toList());
     }
 
@@ -68,8 +120,8 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
      */
     @Override
     public Map<UUID, Resource> getOfferedResources() {
-        return getAllResources().parallelStream().collect(Collectors
-            .toMap(OfferedResource::getUuid, idsUtils::getAsResource));
+        return offeredResourceCache.getAll(this::getAllResources).parallelStream()
+            .collect(Collectors.toMap(OfferedResource::getUuid, idsUtils::getAsResource));
     }
 
     /**
@@ -115,19 +167,121 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
         storeResource(resource);
     }
 
+    /**
+     * Imports a list of resources. The items are validated in parallel, new uuids are generated
+     * without probing the database and the resources are inserted in chunks of
+     * {@code resource.import.batch-size}, each chunk in its own transaction. A failing chunk is
+     * retried item by item, so that a single broken item does not reject its neighbours.
+     */
+    @Override
+    public List<ResourceImportResult> importResources(List<ResourceImportItem> items) {
+        final var results = new ResourceImportResult[items.size()];
+        final var resources = new OfferedResource[items.size()];
+        final var payloads = new Payload[items.size()];
+        final var policy = contractOffer.toRdf();
+
+        // Validate, hash and compress the items independently of each other
+        IntStream.range(0, items.size()).parallel().forEach(index -> {
+            final var resource = toOfferedResource(items.get(index), policy);
+            final var error = isValidOfferedResource(resource);
+            if (error.isPresent()) {
+                results[index] = new ResourceImportResult(index,
+                    resource != null ? resource.getUuid() : null,
+                    ResourceImportResult.Status.INVALID, error.get());
+            } else {
+                resources[index] = resource;
+                payloads[index] = payloadService.prepare(items.get(index).getData());
+            }
+        });
+
+        // Only uuids passed by the client may collide. Check them with a single query.
+        final var clientUuids = IntStream.range(0, items.size())
+            .filter(index -> resources[index] != null && items.get(index).getUuid() != null)
+            .mapToObj(index -> resources[index].getUuid())
+            .collect(Collectors.toList());
+        final var existingUuids = new HashSet<UUID>();
+        if (!clientUuids.isEmpty()) {
+            offeredResourceRepository.findAllById(clientUuids)
+                .forEach(resource -> existingUuids.add(resource.getUuid()));
+        }
+
+        final var pending = new ArrayList<Integer>();
+        final var seenUuids = new HashSet<UUID>();
+        for (var index = 0; index < resources.length; index++) {
+            if (resources[index] == null) {
+                continue;
+            }
+
+            final var uuid = resources[index].getUuid();
+            if (existingUuids.contains(uuid) || !seenUuids.add(uuid)) {
+                results[index] = new ResourceImportResult(index, uuid,
+                    ResourceImportResult.Status.ALREADY_EXISTS,
+                    "The resource does already exist.");
+            } else {
+                pending.add(index);
+            }
+        }
+
+        // Insert the valid resources chunk by chunk
+        for (var from = 0; from < pending.size(); from += importBatchSize) {
+            final var to = Math.min(from + importBatchSize, pending.size());
+            final var chunk = pending.subList(from, to);
+            try {
+                persistResources(chunk, resources, payloads);
+                for (final var index : chunk) {
+                    results[index] = new ResourceImportResult(index, resources[index].getUuid(),
+                        ResourceImportResult.Status.CREATED, null);
+                }
+            } catch (DataAccessException | PersistenceException chunkException) {
+                LOGGER.warn(String.format("Failed to import a chunk of %d resources. Retrying " +
+                    "one by one.", chunk.size()), chunkException);
+
+                for (final var index : chunk) {
+                    try {
+                        persistResources(List.of(index), resources, payloads);
+                        results[index] = new ResourceImportResult(index,
+                            resources[index].getUuid(), ResourceImportResult.Status.CREATED,
+                            null);
+                    } catch (DataAccessException | PersistenceException exception) {
+                        results[index] = new ResourceImportResult(index,
+                            resources[index].getUuid(), ResourceImportResult.Status.FAILED,
+                            "The resource could not be stored.");
+                    }
+                }
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
     /**
      * Publishes the resource data.
      */
     @Override
     public void addData(UUID resourceId, String data) throws InvalidResourceException,
         ResourceNotFoundException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
-        }
+        final var prepared = payloadService.prepare(data);
+        payloadService.execute(status -> {
+            // The lock keeps concurrent writes from releasing the same previous payload.
+            final var resource = offeredResourceRepository.findLockedByUuid(resourceId)
+                .orElse(null);
+            if (resource == null) {
+                throw new ResourceNotFoundException("The resource does not exist.");
+            }
 
-        resource.setData(data);
-        storeResource(resource);
+            invalidResourceGuard(resource);
+
+            final var previous = resource.getPayload();
+            if (prepared != null && prepared.hasSameContent(previous)) {
+                // The data did not change.
+                return null;
+            }
+
+            resource.setPayload(payloadService.acquire(prepared));
+            storeResource(resource);
+            payloadService.release(previous);
+            return null;
+        });
     }
 
     /**
@@ -163,16 +317,22 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
      */
     @Override
     public boolean deleteResource(UUID resourceId) {
-        offeredResourceRepository.deleteById(resourceId);
+        payloadService.execute(status -> {
+            final var resource = offeredResourceRepository.findById(resourceId);
+            offeredResourceRepository.deleteById(resourceId);
+            resource.ifPresent(value -> payloadService.release(value.getPayload()));
+            return null;
+        });
+        offeredResourceCache.invalidate(resourceId);
         return true;
     }
 
     /**
-     * Gets a resource by id.
+     * Gets a resource by id, together with its stored data.
      */
     @Override
     public OfferedResource getResource(UUID resourceId) throws InvalidResourceException {
-        final var resource = offeredResourceRepository.findById(resourceId);
+        final var resource = offeredResourceRepository.findWithPayloadByUuid(resourceId);
 
         if (resource.isEmpty()) {
             return null;
@@ -187,15 +347,15 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
     }
 
     /**
-     * Gets resource metadata by id.
+     * Gets resource metadata by id. The metadata is served from the metadata cache.
      */
     @Override
     public ResourceMetadata getMetadata(UUID resourceId) throws ResourceNotFoundException,
         InvalidResourceException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
-        }
+        final var resource = offeredResourceCache
+            .get(resourceId, offeredResourceRepository::findById)
+            .orElseThrow(() -> new ResourceNotFoundException("The resource does not exist."));
+        invalidResourceGuard(resource);
 
         return resource.getResourceMetadata();
     }
@@ -215,15 +375,30 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
     }
 
     /**
-     * Gets data from local database.
+     * Gets data from the first representation that delivers it. Backends with an open circuit
+     * breaker are skipped. With hedging enabled, the next representation is requested in parallel
+     * as soon as the current one takes longer than usual.
      */
     @Override
     public String getData(UUID resourceId) throws ResourceNotFoundException,
         InvalidResourceException, ResourceException {
         final var representations = getAllRepresentations(resourceId);
-        for (var representationId : representations.keySet()) {
+        if (hedgingEnabled && representations.size() > 1) {
+            return getDataHedged(resourceId, representations);
+        }
+
+        for (var entry : representations.entrySet()) {
+            final var backend =
+                BackendCircuitBreakerRegistry.getBackendKey(entry.getValue().getSource());
+            if (!circuitBreakers.allowRequest(backend)) {
+                LOGGER.debug(String.format("Skipped backend %s, its circuit breaker is open.",
+                    backend));
+                continue;
+            }
+
             try {
-                return getDataByRepresentation(resourceId, representationId);
+                return getDataFromBackend(resourceId, entry.getKey(), backend,
+                    RequestDeadline.none());
             } catch (ResourceException exception) {
                 // The resource is incomplete or wrong.
                 LOGGER.warn("Resource exception.");
@@ -233,11 +408,24 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
             }
         }
 
-        // This code should never be reached since the representation should have at least one
-        // representation.
-        invalidResourceGuard(getResource(resourceId));
-        // Add a runtime exception in case the resource valid logic changed.
-        throw new RuntimeException("This code should not have been reached.");
+        throw noDataReceived(resourceId);
+    }
+
+    /**
+     * Returns the stored payload if {@link #getData(UUID)} would serve the data from it.
+     */
+    @Override
+    public Payload getStoredPayload(UUID resourceId) throws ResourceNotFoundException,
+        InvalidResourceException {
+        final var representation = getAllRepresentations(resourceId).values().stream()
+            .findFirst();
+        if (representation.isEmpty() || representation.get().getSource() == null
+            || representation.get().getSource().getType() != BackendSource.Type.LOCAL) {
+            return null;
+        }
+
+        final var resource = getResource(resourceId);
+        return resource != null ? resource.getPayload() : null;
     }
 
     /**
@@ -256,7 +444,103 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
             throw new ResourceNotFoundException("The resource representation does not exist.");
         }
 
-        return getDataString(resource, representation);
+        return getDataString(resource, representation, RequestDeadline.none());
+    }
+
+    /**
+     * Gets a byte range of the data. Without representation id, the representations are tried
+     * one after another like in {@link #getData(UUID)}.
+     */
+    @Override
+    public RangedData getDataRange(UUID resourceId, UUID representationId, ByteRange range)
+        throws InvalidResourceException, ResourceNotFoundException,
+        RangeNotSatisfiableException, ResourceException {
+        return getDataRange(resourceId, representationId, range, RequestDeadline.none());
+    }
+
+    private RangedData getDataRange(UUID resourceId, UUID representationId, ByteRange range,
+        RequestDeadline deadline) throws InvalidResourceException, ResourceNotFoundException,
+        RangeNotSatisfiableException, ResourceException {
+        if (representationId != null) {
+            return getDataRange(getResource(resourceId), resourceId, representationId, range,
+                deadline);
+        }
+
+        for (var entry : getAllRepresentations(resourceId).entrySet()) {
+            deadline.check();
+            final var backend =
+                BackendCircuitBreakerRegistry.getBackendKey(entry.getValue().getSource());
+            if (!circuitBreakers.allowRequest(backend)) {
+                continue;
+            }
+
+            final var start = System.nanoTime();
+            try {
+                final var data = getDataRange(getResource(resourceId), resourceId,
+                    entry.getKey(), range, deadline);
+                circuitBreakers.onSuccess(backend, System.nanoTime() - start);
+                return data;
+            } catch (RangeNotSatisfiableException exception) {
+                // The data is there, the range does not fit.
+                circuitBreakers.onSuccess(backend, System.nanoTime() - start);
+                throw exception;
+            } catch (DeadlineExceededException exception) {
+                // The requester gave up, this says nothing about the backend.
+                circuitBreakers.onIgnored(backend);
+                throw exception;
+            } catch (RuntimeException exception) {
+                // The resource is incomplete or the data could not be received.
+                circuitBreakers.onFailure(backend);
+                LOGGER.warn("Failed to get resource data range.");
+            }
+        }
+
+        throw noDataReceived(resourceId);
+    }
+
+    /**
+     * Gets a byte range of the data as string. A character split by the start of the range is
+     * left to the preceding range, a character split by the end is completed. Consecutive ranges
+     * thus add up to the whole data.
+     */
+    @Override
+    public String getDataByRepresentation(UUID resourceId, UUID representationId,
+        ByteRange range) throws InvalidResourceException, ResourceNotFoundException,
+        RangeNotSatisfiableException, ResourceException {
+        return getDataByRepresentation(resourceId, representationId, range,
+            RequestDeadline.none());
+    }
+
+    /**
+     * Gets the data or a byte range of it as string within a deadline. Backend calls are
+     * cancelled when the deadline passes.
+     */
+    @Override
+    public String getDataByRepresentation(UUID resourceId, UUID representationId,
+        ByteRange range, RequestDeadline deadline) throws InvalidResourceException,
+        ResourceNotFoundException, RangeNotSatisfiableException, DeadlineExceededException,
+        ResourceException {
+        deadline.check();
+        if (range == null) {
+            final var resource = getResource(resourceId);
+            if (resource == null) {
+                throw new ResourceNotFoundException("The resource does not exist.");
+            }
+
+            final var representation = getRepresentation(resourceId, representationId);
+            if (representation == null) {
+                throw new ResourceNotFoundException("The resource representation does not exist.");
+            }
+
+            return getDataString(resource, representation, deadline);
+        }
+
+        // A UTF-8 character has at most three bytes after its first one.
+        final var ranged = representationId == null
+            ? getDataRange(resourceId, null, range.extend(3), deadline)
+            : getDataRange(getResource(resourceId), resourceId, representationId,
+            range.extend(3), deadline);
+        return ranged.toUtf8String(range);
     }
 
     /**
@@ -374,6 +658,58 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
         }
     }
 
+    /**
+     * Builds a new offered resource from an import item. Representations without an id get a new
+     * random one.
+     *
+     * @param item   The import item.
+     * @param policy The default usage policy.
+     * @return The resource or null if the item has no metadata.
+     */
+    private OfferedResource toOfferedResource(ResourceImportItem item, String policy) {
+        if (item == null || item.getMetadata() == null) {
+            return null;
+        }
+
+        final var metadata = item.getMetadata();
+        if (metadata.getRepresentations() != null) {
+            final var representations = new HashMap<UUID, ResourceRepresentation>();
+            for (final var representation : metadata.getRepresentations().values()) {
+                if (representation.getUuid() == null) {
+                    representation.setUuid(UUID.randomUUID());
+                }
+                representations.put(representation.getUuid(), representation);
+            }
+            metadata.setRepresentations(representations);
+        }
+        metadata.setPolicy(policy);
+
+        final var uuid = item.getUuid() != null ? item.getUuid() : UUID.randomUUID();
+        return new OfferedResource(uuid, new Date(), new Date(), metadata, "");
+    }
+
+    /**
+     * Inserts resources in one transaction. The inserts are sent as JDBC batches. If a concurrent
+     * write stored one of the payloads first, the transaction is repeated.
+     *
+     * @param indices   The indices of the resources to be inserted.
+     * @param resources The resources.
+     * @param payloads  The prepared payloads of the resources.
+     */
+    private void persistResources(List<Integer> indices, OfferedResource[] resources,
+        Payload[] payloads) {
+        payloadService.execute(status -> {
+            for (final var index : indices) {
+                if (payloads[index] != null) {
+                    resources[index].setPayload(payloadService.acquire(payloads[index]));
+                }
+                entityManager.persist(resources[index]);
+            }
+
+            return null;
+        });
+    }
+
     /**
      * @param resource
      * @throws InvalidResourceException - if the resource is not valid.
@@ -385,6 +721,208 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
         }
 
         offeredResourceRepository.save(resource);
+        offeredResourceCache.invalidate(resource.getUuid());
+    }
+
+    /**
+     * Requests the representations in order, but waits for a representation only as long as its
+     * backend usually takes, i.e. the configured latency percentile. Then the next representation
+     * is requested in parallel. A failure starts the next representation immediately. The first
+     * data received is returned. The requests still running are cancelled, which closes their
+     * connections, as interrupting their threads does not stop blocking socket reads.
+     */
+    private String getDataHedged(UUID resourceId,
+        Map<UUID, ResourceRepresentation> representations) throws ResourceException {
+        final var completion = new ExecutorCompletionService<String>(backendExecutor);
+        final var requests = new HashMap<Future<String>, RequestDeadline>();
+        final var pending = new ArrayDeque<>(representations.entrySet());
+        var running = 0;
+        String lastBackend = null;
+
+        try {
+            while (true) {
+                // Start the next representation whose backend is available.
+                while (!pending.isEmpty()) {
+                    final var entry = pending.poll();
+                    final var backend =
+                        BackendCircuitBreakerRegistry.getBackendKey(entry.getValue().getSource());
+                    if (!circuitBreakers.allowRequest(backend)) {
+                        continue;
+                    }
+
+                    final var deadline = RequestDeadline.none().cancellable();
+                    try {
+                        requests.put(completion.submit(() -> getDataFromBackend(resourceId,
+                            entry.getKey(), backend, deadline)), deadline);
+                        running++;
+                        lastBackend = backend;
+                        break;
+                    } catch (RejectedExecutionException exception) {
+                        // No thread is free for a hedge, request the representation directly.
+                        try {
+                            return getDataFromBackend(resourceId, entry.getKey(), backend,
+                                RequestDeadline.none());
+                        } catch (RuntimeException failure) {
+                            LOGGER.warn("Failed to get resource data.");
+                        }
+                    }
+                }
+
+                if (running == 0) {
+                    break;
+                }
+
+                final var future = pending.isEmpty() ? completion.take()
+                    : completion.poll(circuitBreakers.getHedgeDelay(lastBackend),
+                    TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    // The request is slow, hedge it with the next representation.
+                    LOGGER.debug(String.format("Hedging the data request of resource %s.",
+                        resourceId));
+                    continue;
+                }
+
+                running--;
+                requests.remove(future);
+                try {
+                    return future.get();
+                } catch (ExecutionException exception) {
+                    // The resource could not be received, try the next representation.
+                    LOGGER.warn("Failed to get resource data.");
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            throw new ResourceException("Interrupted while waiting for the resource data.",
+                exception);
+        } finally {
+            requests.forEach((future, deadline) -> {
+                deadline.cancel();
+                future.cancel(true);
+            });
+        }
+
+        throw noDataReceived(resourceId);
+    }
+
+    /**
+     * Gets the data of a representation and reports the outcome to the circuit breaker of its
+     * backend. Errors of the resource itself and cancelled requests do not count as failures.
+     */
+    private String getDataFromBackend(UUID resourceId, UUID representationId, String backend,
+        RequestDeadline deadline) throws ResourceException {
+        final var start = System.nanoTime();
+        try {
+            final var data = getDataByRepresentation(resourceId, representationId, null,
+                deadline);
+            circuitBreakers.onSuccess(backend, System.nanoTime() - start);
+            return data;
+        } catch (ResourceNotFoundException | InvalidResourceException exception) {
+            circuitBreakers.onIgnored(backend);
+            throw exception;
+        } catch (RuntimeException exception) {
+            if (deadline.isCancelled() || Thread.currentThread().isInterrupted()) {
+                circuitBreakers.onIgnored(backend);
+            } else {
+                circuitBreakers.onFailure(backend);
+            }
+
+            throw exception;
+        }
+    }
+
+    /**
+     * Builds the exception thrown when no representation delivered the data.
+     *
+     * @throws InvalidResourceException - if the resource is not valid.
+     */
+    private ResourceException noDataReceived(UUID resourceId) throws InvalidResourceException {
+        invalidResourceGuard(getResource(resourceId));
+        return new ResourceException("The data could not be received from any representation.");
+    }
+
+    private RangedData getDataRange(OfferedResource resource, UUID resourceId,
+        UUID representationId, ByteRange range, RequestDeadline deadline)
+        throws ResourceNotFoundException, RangeNotSatisfiableException, ResourceException {
+        if (resource == null) {
+            throw new ResourceNotFoundException("The resource does not exist.");
+        }
+
+        final var representation = getRepresentation(resourceId, representationId);
+        if (representation == null) {
+            throw new ResourceNotFoundException("The resource representation does not exist.");
+        }
+
+        if (representation.getSource() == null) {
+            throw new ResourceException("The resource has no defined backend.");
+        }
+
+        try {
+            final var address = representation.getSource().getUrl();
+            final var username = representation.getSource().getUsername();
+            final var password = representation.getSource().getPassword();
+
+            switch (representation.getSource().getType()) {
+                case LOCAL:
+                    return getLocalDataRange(resource, range);
+                case HTTP_GET:
+                    return httpUtils.sendHttpGetRequest(address.toString(), range, deadline);
+                case HTTPS_GET:
+                    return httpUtils.sendHttpsGetRequest(address.toString(), range, deadline);
+                case HTTPS_GET_BASICAUTH:
+                    return httpUtils.sendHttpsGetRequestWithBasicAuth(address.toString(),
+                        username, password, range, deadline);
+                default:
+                    // This exception is only thrown when BackendSource.Type is expanded but this
+                    // switch is not
+                    throw new NotImplementedException("This type is not supported");
+            }
+        } catch (MalformedURLException exception) {
+            // One of the http requests received a non url as address
+            LOGGER.error("The resource representation is not an url.", exception);
+            throw new ResourceException("The resource source representation is not an url.",
+                exception);
+        } catch (RangeNotSatisfiableException | DeadlineExceededException exception) {
+            // The range lies outside of the data or the deadline passed.
+            throw exception;
+        } catch (RuntimeException exception) {
+            // One of the http calls encountered problems.
+            throw new ResourceException("The resource could not be found.", exception);
+        }
+    }
+
+    /**
+     * Reads a byte range of the stored data. Only the bytes up to the end of the range are
+     * decoded.
+     */
+    private RangedData getLocalDataRange(OfferedResource resource, ByteRange range)
+        throws RangeNotSatisfiableException, ResourceException {
+        final var payload = resource.getPayload();
+        if (payload == null) {
+            final var data = resource.getData() == null ? new byte[0]
+                : resource.getData().getBytes(StandardCharsets.UTF_8);
+            if (!range.isSatisfiable(data.length)) {
+                throw new RangeNotSatisfiableException("The range lies outside of the data.",
+                    data.length);
+            }
+
+            return new RangedData(range.slice(data), range.getFirst(data.length), data.length);
+        }
+
+        final long size = payload.getSize();
+        if (!range.isSatisfiable(size)) {
+            throw new RangeNotSatisfiableException("The range lies outside of the data.", size);
+        }
+
+        final var first = range.getFirst(size);
+        final var length = range.getLast(size) - first + 1;
+        try (var inputStream = payload.openStream()) {
+            HttpUtils.skipFully(inputStream, first);
+            return new RangedData(inputStream.readNBytes((int) Math.min(length, Integer.MAX_VALUE)),
+                first, size);
+        } catch (IOException exception) {
+            throw new ResourceException("The stored data could not be read.", exception);
+        }
     }
 
     /**
@@ -396,8 +934,8 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
      * @throws ResourceException - if the resource source is not defined or source url is
      *                           ill-formatted.
      */
-    private String getDataString(OfferedResource resource, ResourceRepresentation representation)
-        throws ResourceException {
+    private String getDataString(OfferedResource resource, ResourceRepresentation representation,
+        RequestDeadline deadline) throws ResourceException {
         if (representation.getSource() != null) {
             try {
                 final var address = representation.getSource().getUrl();
@@ -408,13 +946,13 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
                     case LOCAL:
                         return resource.getData();
                     case HTTP_GET:
-                        return httpUtils.sendHttpGetRequest(address.toString());
+                        return httpUtils.sendHttpGetRequest(address.toString(), deadline);
                     case HTTPS_GET:
-                        return httpUtils.sendHttpsGetRequest(address.toString());
+                        return httpUtils.sendHttpsGetRequest(address.toString(), deadline);
                     case HTTPS_GET_BASICAUTH:
                         return httpUtils
                             .sendHttpsGetRequestWithBasicAuth(address.toString(), username,
-                                password);
+                                password, deadline);
                     default:
                         // This exception is only thrown when BackendSource.Type is expanded but this
                         // switch is not
@@ -425,6 +963,9 @@ public class OfferedResourceServiceImpl implements OfferedResourceService {
                 LOGGER.error("The resource representation is not an url.", exception);
                 throw new ResourceException("The resource source representation is not an url.",
                     exception);
+            } catch (DeadlineExceededException exception) {
+                // The request deadline passed.
+                throw exception;
             } catch (RuntimeException exception) {
                 // One of the http calls encountered problems.
                 throw new ResourceException("The resource could not be found.", exception);
@@ -0,0 +1,45 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * PayloadRepository interface.
+ */
+@Repository
+public interface PayloadRepository extends JpaRepository<Payload, String> {
+
+    /**
+     * Increments the reference count of a payload.
+     *
+     * @param hash The payload hash.
+     * @return The number of updated payloads.
+     */
+    @Modifying
+    @Query("UPDATE Payload p SET p.referenceCount = p.referenceCount + 1 WHERE p.hash = :hash")
+    int incrementReferenceCount(@Param("hash") String hash);
+
+    /**
+     * Decrements the reference count of a payload.
+     *
+     * @param hash The payload hash.
+     * @return The number of updated payloads.
+     */
+    @Modifying
+    @Query("UPDATE Payload p SET p.referenceCount = p.referenceCount - 1 WHERE p.hash = :hash")
+    int decrementReferenceCount(@Param("hash") String hash);
+
+    /**
+     * Deletes a payload if it is not referenced anymore.
+     *
+     * @param hash The payload hash.
+     * @return The number of deleted payloads.
+     */
+    @Modifying
+    @Query("DELETE FROM Payload p WHERE p.hash = :hash AND p.referenceCount <= 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+}
@@ -0,0 +1,233 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
+import de.fraunhofer.isst.dataspaceconnector.model.PayloadEncoding;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * This class manages the stored payloads of connector resources. Payloads are content-addressed
+ * by the SHA-256 hash of their data and reference counted: identical data is stored once, and a
+ * payload is deleted as soon as no resource references it anymore. The data is encoded with the
+ * configured compression while it is read, payloads that do not get smaller are stored as they
+ * are.
+ */
+@Service
+public class PayloadService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadService.class);
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final PayloadRepository payloadRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PayloadEncoding encoding;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructor for PayloadService.
+     *
+     * @param compression The name of the payload compression, e.g. gzip.
+     * @throws IllegalArgumentException - if any of the parameters is null or the compression is
+     *                                  not supported.
+     */
+    @Autowired
+    public PayloadService(@NotNull PayloadRepository payloadRepository,
+        @NotNull PlatformTransactionManager transactionManager,
+        @Value("${resource.payload.compression:gzip}") String compression)
+        throws IllegalArgumentException {
+        if (payloadRepository == null) {
+            throw new IllegalArgumentException("The PayloadRepository cannot be null.");
+        }
+
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("The PlatformTransactionManager cannot be null.");
+        }
+
+        this.payloadRepository = payloadRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.encoding = PayloadEncoding.fromString(compression);
+    }
+
+    /**
+     * Hashes and encodes data. The returned payload is not stored yet, see
+     * {@link #acquire(Payload)}.
+     *
+     * @param data The data.
+     * @return The payload or null if the data is null.
+     * @throws UncheckedIOException - if the data could not be encoded.
+     */
+    public Payload prepare(String data) throws UncheckedIOException {
+        if (data == null) {
+            return null;
+        }
+
+        final var bytes = data.getBytes(StandardCharsets.UTF_8);
+        final var hash = toHex(newDigest().digest(bytes));
+        try {
+            final var encoded = encode(bytes);
+            if (encoding == PayloadEncoding.IDENTITY || encoded.length >= bytes.length) {
+                return new Payload(hash, PayloadEncoding.IDENTITY, bytes, (long) bytes.length);
+            }
+
+            return new Payload(hash, encoding, encoded, (long) bytes.length);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("The payload could not be encoded.", exception);
+        }
+    }
+
+    /**
+     * Hashes and encodes a stream while it is read, so only the encoded data is kept in memory.
+     * If the data does not get smaller, it is decoded again and stored as it is, like in
+     * {@link #prepare(String)}. The stream is closed afterwards. The returned payload is not
+     * stored yet, see {@link #acquire(Payload)}.
+     *
+     * @param inputStream The data.
+     * @return The payload.
+     * @throws IOException - if the stream could not be read.
+     */
+    public Payload prepare(InputStream inputStream) throws IOException {
+        final var digest = newDigest();
+        final var buffer = new ByteArrayOutputStream();
+        var size = 0L;
+        try (var digestStream = new DigestInputStream(inputStream, digest);
+             var encodingStream = encoding.encode(buffer)) {
+            final var chunk = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = digestStream.read(chunk)) != -1) {
+                encodingStream.write(chunk, 0, read);
+                size += read;
+            }
+        }
+
+        final var hash = toHex(digest.digest());
+        final var encoded = buffer.toByteArray();
+        if (encoding != PayloadEncoding.IDENTITY && encoded.length >= size) {
+            try (var decodingStream = encoding.decode(new ByteArrayInputStream(encoded))) {
+                return new Payload(hash, PayloadEncoding.IDENTITY, decodingStream.readAllBytes(),
+                    size);
+            }
+        }
+
+        return new Payload(hash, encoding, encoded, size);
+    }
+
+    /**
+     * Adds a reference to a payload. If a payload with the same hash is stored already, its
+     * reference count is incremented and the stored payload is returned. Otherwise the prepared
+     * payload is stored. Must be called within a transaction.
+     *
+     * @param prepared The prepared payload, may be null.
+     * @return The stored payload or null.
+     */
+    public Payload acquire(Payload prepared) {
+        if (prepared == null) {
+            return null;
+        }
+
+        if (payloadRepository.incrementReferenceCount(prepared.getHash()) > 0) {
+            return payloadRepository.findById(prepared.getHash()).orElseThrow();
+        }
+
+        prepared.setReferenceCount(1L);
+        entityManager.persist(prepared);
+        return prepared;
+    }
+
+    /**
+     * Removes a reference from a payload and deletes it if it is not referenced anymore. Pending
+     * changes are flushed first, so resources do no longer point to a deleted payload. Must be
+     * called within a transaction.
+     *
+     * @param payload The payload, may be null.
+     */
+    public void release(Payload payload) {
+        if (payload == null) {
+            return;
+        }
+
+        entityManager.flush();
+        payloadRepository.decrementReferenceCount(payload.getHash());
+        payloadRepository.deleteIfUnreferenced(payload.getHash());
+    }
+
+    /**
+     * Runs a write in a transaction. If a concurrent write stored a payload with the same hash
+     * first, the write is repeated and then references the stored payload.
+     *
+     * @param action The write.
+     * @param <T>    The type of the result.
+     * @return The result of the write.
+     */
+    public <T> T execute(TransactionCallback<T> action) {
+        for (var attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (DataIntegrityViolationException exception) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw exception;
+                }
+
+                LOGGER.info("Concurrent payload write detected. Retrying.", exception);
+            }
+        }
+    }
+
+    /**
+     * @return The encoding of new payloads.
+     */
+    public PayloadEncoding getEncoding() {
+        return encoding;
+    }
+
+    private byte[] encode(byte[] bytes) throws IOException {
+        final var buffer = new ByteArrayOutputStream();
+        try (var encodingStream = encoding.encode(buffer)) {
+            encodingStream.write(bytes);
+        }
+
+        return buffer.toByteArray();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            // Every Java platform has to support SHA-256.
+            throw new IllegalStateException("SHA-256 is not available.", exception);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        final var builder = new StringBuilder(bytes.length * 2);
+        for (final var value : bytes) {
+            builder.append(Character.forDigit((value >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(value & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+}
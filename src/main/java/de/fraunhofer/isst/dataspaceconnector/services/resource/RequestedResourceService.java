@@ -5,6 +5,8 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -27,6 +29,25 @@ public interface RequestedResourceService {
      */
     void addData(UUID id, String data) throws ResourceException;
 
+    /**
+     * Adds data read from a stream.
+     *
+     * @throws ResourceException - if the data could not be added.
+     * @throws IOException - if the stream could not be read.
+     */
+    void addData(UUID id, InputStream data) throws ResourceException, IOException;
+
+    /**
+     * Writes data read from a stream at an offset of the stored data, replacing the stored bytes
+     * behind the offset. Like a provider serving a range, the data is written at the first
+     * character starting at or behind the offset.
+     *
+     * @throws ResourceException - if the data could not be added or the offset lies behind the
+     * end of the stored data.
+     * @throws IOException - if the stream could not be read.
+     */
+    void appendData(UUID id, long offset, InputStream data) throws ResourceException, IOException;
+
     /**
      * Deletes resource.
      *
@@ -5,6 +5,7 @@ import de.fraunhofer.isst.dataspaceconnector.exceptions.InvalidResourceException
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceException;
 import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceNotFoundException;
 import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
 import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
 import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
 import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
@@ -16,7 +17,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.util.*;
 
 /**
@@ -31,6 +35,8 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
     private final RequestedResourceRepository requestedResourceRepository;
     private final IdsUtils idsUtils;
     private final PolicyHandler policyHandler;
+    private final ResourceMetadataCache<RequestedResource> requestedResourceCache;
+    private final PayloadService payloadService;
 
     /**
      * Constructor for RequestedResourceServiceImpl.
@@ -39,7 +45,9 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
     public RequestedResourceServiceImpl(
         @NotNull RequestedResourceRepository requestedResourceRepository,
         @NotNull IdsUtils idsUtils,
-        @NotNull PolicyHandler policyHandler) throws IllegalArgumentException {
+        @NotNull PolicyHandler policyHandler,
+        @NotNull ResourceMetadataCache<RequestedResource> requestedResourceCache,
+        @NotNull PayloadService payloadService) throws IllegalArgumentException {
         if (requestedResourceRepository == null) {
             throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
         }
@@ -52,9 +60,19 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
             throw new IllegalArgumentException("The PolicyHandler cannot be null.");
         }
 
+        if (requestedResourceCache == null) {
+            throw new IllegalArgumentException("The requested resource cache cannot be null.");
+        }
+
+        if (payloadService == null) {
+            throw new IllegalArgumentException("The PayloadService cannot be null.");
+        }
+
         this.requestedResourceRepository = requestedResourceRepository;
         this.idsUtils = idsUtils;
         this.policyHandler = policyHandler;
+        this.requestedResourceCache = requestedResourceCache;
+        this.payloadService = payloadService;
     }
 
     /**
@@ -75,14 +93,102 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
     @Override
     public void addData(UUID resourceId, String data) throws ResourceNotFoundException,
         InvalidResourceException {
+        storePayload(resourceId, payloadService.prepare(data));
+    }
+
+    /**
+     * Publishes the resource data read from a stream. The stream is encoded while it is read and
+     * closed afterwards.
+     */
+    @Override
+    public void addData(UUID resourceId, InputStream data) throws ResourceNotFoundException,
+        InvalidResourceException, IOException {
+        storePayload(resourceId, payloadService.prepare(data));
+    }
+
+    /**
+     * Writes data read from a stream at an offset of the stored data, e.g. the next range of a
+     * resumed transfer. Stored bytes behind the offset are replaced, so a repeated range is not
+     * appended twice. The stream is closed afterwards.
+     */
+    @Override
+    public void appendData(UUID resourceId, long offset, InputStream data)
+        throws ResourceNotFoundException, InvalidResourceException, IOException {
         final var resource = getResource(resourceId);
         if (resource == null) {
             throw new ResourceNotFoundException("The resource does not exist.");
         }
 
-        resource.setData(data);
+        final var previous = resource.getPayload();
+        final long size = previous == null || previous.getSize() == null ? 0 : previous.getSize();
+        if (offset < 0 || offset > size) {
+            data.close();
+            throw new ResourceException(String.format("The offset %d does not continue the "
+                + "stored data of %d bytes.", offset, size));
+        }
 
-        storeResource(resource);
+        // The provider serves a range from the first character at or behind the offset, so the
+        // stored bytes of a character split by the offset are kept.
+        final var stored = previous == null ? InputStream.nullInputStream()
+            : new LimitedInputStream(previous.openStream(), getCharacterStart(previous, offset));
+        storePayload(resourceId, payloadService.prepare(new SequenceInputStream(stored, data)));
+    }
+
+    /**
+     * Returns the position of the first character starting at or behind an offset of stored data.
+     * The stored data ends with a complete character, so a character split by the offset ends
+     * inside of it.
+     *
+     * @param payload The stored data.
+     * @param offset The offset in bytes.
+     * @return The position of the character in bytes.
+     * @throws IOException If the data could not be read.
+     */
+    private static long getCharacterStart(Payload payload, long offset) throws IOException {
+        try (var stream = payload.openStream()) {
+            var skipped = 0L;
+            while (skipped < offset) {
+                final var count = stream.skip(offset - skipped);
+                if (count <= 0) {
+                    return offset;
+                }
+
+                skipped += count;
+            }
+
+            var position = offset;
+            // UTF-8 continuation bytes have the form 10xxxxxx, a character has at most three.
+            for (var i = 0; i < 3 && (stream.read() & 0xC0) == 0x80; i++) {
+                position++;
+            }
+
+            return position;
+        }
+    }
+
+    private void storePayload(UUID resourceId, Payload prepared)
+        throws ResourceNotFoundException, InvalidResourceException {
+        payloadService.execute(status -> {
+            // The lock keeps concurrent writes from releasing the same previous payload.
+            final var resource = requestedResourceRepository.findLockedByUuid(resourceId)
+                .orElse(null);
+            if (resource == null) {
+                throw new ResourceNotFoundException("The resource does not exist.");
+            }
+
+            invalidResourceGuard(resource);
+
+            final var previous = resource.getPayload();
+            if (prepared != null && prepared.hasSameContent(previous)) {
+                // The data did not change.
+                return null;
+            }
+
+            resource.setPayload(payloadService.acquire(prepared));
+            storeResource(resource);
+            payloadService.release(previous);
+            return null;
+        });
     }
 
     /**
@@ -90,16 +196,22 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
      */
     @Override
     public boolean deleteResource(UUID resourceId) {
-        requestedResourceRepository.deleteById(resourceId);
+        payloadService.execute(status -> {
+            final var resource = requestedResourceRepository.findById(resourceId);
+            requestedResourceRepository.deleteById(resourceId);
+            resource.ifPresent(value -> payloadService.release(value.getPayload()));
+            return null;
+        });
+        requestedResourceCache.invalidate(resourceId);
         return true;
     }
 
     /**
-     * Gets a resource by id.
+     * Gets a resource by id, together with its stored data.
      */
     @Override
     public RequestedResource getResource(UUID resourceId) throws InvalidResourceException {
-        final var resource = requestedResourceRepository.findById(resourceId);
+        final var resource = requestedResourceRepository.findWithPayloadByUuid(resourceId);
 
         if (resource.isEmpty()) {
             return null;
@@ -114,15 +226,15 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
     }
 
     /**
-     * Gets resource metadata by id.
+     * Gets resource metadata by id. The metadata is served from the metadata cache.
      */
     @Override
     public ResourceMetadata getMetadata(UUID resourceId) throws ResourceNotFoundException,
         InvalidResourceException {
-        final var resource = getResource(resourceId);
-        if (resource == null) {
-            throw new ResourceNotFoundException("The resource does not exist.");
-        }
+        final var resource = requestedResourceCache
+            .get(resourceId, requestedResourceRepository::findById)
+            .orElseThrow(() -> new ResourceNotFoundException("The resource does not exist."));
+        invalidResourceGuard(resource);
 
         return resource.getResourceMetadata();
     }
@@ -156,7 +268,8 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
      */
     @Override
     public List<Resource> getRequestedResources() {
-        return getAllResources().parallelStream().map(idsUtils::getAsResource)
+        return requestedResourceCache.getAll(this::getAllResources).parallelStream()
+            .map(idsUtils::getAsResource)
             .collect(Collectors.toList());
     }
 
@@ -198,5 +311,47 @@ public class RequestedResourceServiceImpl implements RequestedResourceService {
         }
 
         requestedResourceRepository.save(resource);
+        requestedResourceCache.invalidate(resource.getUuid());
+    }
+
+    /**
+     * A stream ending after a number of bytes of another stream.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private LimitedInputStream(InputStream inputStream, long limit) {
+            super(inputStream);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            final var value = super.read();
+            if (value != -1) {
+                remaining--;
+            }
+
+            return value;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            final var read = super.read(bytes, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+
+            return read;
+        }
     }
 }
@@ -0,0 +1,103 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class provides the command line mode of the resource backup. Starting the connector with
+ * {@code --backup.export=<file>} writes all resources to the file, starting it with
+ * {@code --backup.restore=<file>} restores them. The connector shuts down afterwards, with the exit
+ * code of the backup. Combine with {@code --spring.main.web-application-type=none} to skip starting
+ * the web server.
+ */
+@Component
+public class ResourceBackupRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceBackupRunner.class);
+
+    private static final String EXPORT_OPTION = "backup.export";
+    private static final String RESTORE_OPTION = "backup.restore";
+
+    private final ResourceBackupService resourceBackupService;
+
+    private volatile boolean completed;
+    private volatile int exitCode;
+
+    /**
+     * Constructor for ResourceBackupRunner.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceBackupRunner(@NotNull ResourceBackupService resourceBackupService)
+        throws IllegalArgumentException {
+        if (resourceBackupService == null) {
+            throw new IllegalArgumentException("The ResourceBackupService cannot be null.");
+        }
+
+        this.resourceBackupService = resourceBackupService;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        final var export = args.getOptionValues(EXPORT_OPTION);
+        final var restore = args.getOptionValues(RESTORE_OPTION);
+        if (export == null && restore == null) {
+            return;
+        }
+
+        var code = 0;
+        try {
+            if (restore != null && !restore.isEmpty()) {
+                try (var inputStream = Files.newInputStream(Path.of(restore.get(0)))) {
+                    final var result = resourceBackupService.restoreResources(inputStream);
+                    if (result.getFailed() > 0) {
+                        result.getErrors().forEach(LOGGER::warn);
+                        code = 1;
+                    }
+                }
+            }
+
+            if (export != null && !export.isEmpty()) {
+                try (var outputStream = new BufferedOutputStream(
+                    Files.newOutputStream(Path.of(export.get(0))))) {
+                    resourceBackupService.exportResources(outputStream);
+                }
+            }
+        } catch (Exception exception) {
+            LOGGER.error("The backup could not be processed.", exception);
+            code = 1;
+        }
+
+        exitCode = code;
+        completed = true;
+    }
+
+    /**
+     * @return True if a backup was processed and the connector should shut down.
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
@@ -0,0 +1,359 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.Payload;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceBackupRecord;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRestoreResult;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class exports all offered and requested resources as a gzip compressed stream of newline
+ * delimited json and restores them from such a stream. Both directions work on pages of
+ * resources, so the memory usage does not grow with the number of resources.
+ */
+@Service
+public class ResourceBackupService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceBackupService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final OfferedResourceRepository offeredResourceRepository;
+    private final RequestedResourceRepository requestedResourceRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final PayloadService payloadService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Value("${backup.page-size:100}")
+    private int pageSize;
+
+    @Value("${backup.restore.threads:0}")
+    private int restoreThreads;
+
+    @Value("${backup.restore.timeout:PT1H}")
+    private Duration restoreTimeout;
+
+    /**
+     * Constructor for ResourceBackupService.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceBackupService(@NotNull OfferedResourceRepository offeredResourceRepository,
+        @NotNull RequestedResourceRepository requestedResourceRepository,
+        @NotNull PlatformTransactionManager transactionManager,
+        @NotNull PayloadService payloadService) throws IllegalArgumentException {
+        if (offeredResourceRepository == null) {
+            throw new IllegalArgumentException("The OfferedResourceRepository cannot be null.");
+        }
+
+        if (requestedResourceRepository == null) {
+            throw new IllegalArgumentException("The RequestedResourceRepository cannot be null.");
+        }
+
+        if (transactionManager == null) {
+            throw new IllegalArgumentException("The PlatformTransactionManager cannot be null.");
+        }
+
+        if (payloadService == null) {
+            throw new IllegalArgumentException("The PayloadService cannot be null.");
+        }
+
+        this.offeredResourceRepository = offeredResourceRepository;
+        this.requestedResourceRepository = requestedResourceRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.payloadService = payloadService;
+    }
+
+    /**
+     * Writes all offered and requested resources to the output stream. The stream is gzip
+     * compressed and contains one {@link ResourceBackupRecord} per line. The output stream is not
+     * closed.
+     *
+     * @param outputStream The target stream.
+     * @return The number of exported resources.
+     * @throws IOException - if the stream could not be written.
+     */
+    public long exportResources(OutputStream outputStream) throws IOException {
+        final var gzipStream = new GZIPOutputStream(outputStream, BUFFER_SIZE);
+
+        final var offered = exportPages(gzipStream,
+            last -> last == null
+                ? offeredResourceRepository.findAllByOrderByUuidAsc(PageRequest.of(0, pageSize))
+                : offeredResourceRepository
+                    .findByUuidGreaterThanOrderByUuidAsc(last, PageRequest.of(0, pageSize)),
+            this::toRecord);
+        final var requested = exportPages(gzipStream,
+            last -> last == null
+                ? requestedResourceRepository.findAllByOrderByUuidAsc(PageRequest.of(0, pageSize))
+                : requestedResourceRepository
+                    .findByUuidGreaterThanOrderByUuidAsc(last, PageRequest.of(0, pageSize)),
+            this::toRecord);
+
+        gzipStream.finish();
+        gzipStream.flush();
+
+        LOGGER.info(String.format("Exported %d offered and %d requested resources.", offered,
+            requested));
+        return offered + requested;
+    }
+
+    /**
+     * Restores resources from a stream written by {@link #exportResources(OutputStream)}. Plain
+     * newline delimited json is accepted as well. The lines are read in chunks and the chunks are
+     * stored in parallel. Existing resources with the same uuid are overwritten.
+     *
+     * @param inputStream The source stream.
+     * @return The outcome of the restore.
+     * @throws IOException - if the stream could not be read.
+     */
+    public ResourceRestoreResult restoreResources(InputStream inputStream) throws IOException {
+        final var threads = restoreThreads > 0
+            ? restoreThreads : Runtime.getRuntime().availableProcessors();
+        // The bounded queue and the caller runs policy keep the number of chunks in memory small.
+        final var executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        final var offered = new AtomicLong();
+        final var requested = new AtomicLong();
+        final var failed = new AtomicLong();
+        final var errors = Collections.synchronizedList(new ArrayList<String>());
+
+        try (var reader = new BufferedReader(
+            new InputStreamReader(decode(inputStream), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            var chunk = new ArrayList<ResourceBackupRecord>(pageSize);
+            var lineNumber = 0L;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(objectMapper.readValue(line, ResourceBackupRecord.class));
+                } catch (JsonProcessingException exception) {
+                    failed.incrementAndGet();
+                    addError(errors, String.format("Line %d could not be parsed.", lineNumber));
+                }
+
+                if (chunk.size() >= pageSize) {
+                    final var records = chunk;
+                    executor.execute(() -> restoreChunk(records, offered, requested, failed,
+                        errors));
+                    chunk = new ArrayList<>(pageSize);
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                final var records = chunk;
+                executor.execute(() -> restoreChunk(records, offered, requested, failed, errors));
+            }
+        } finally {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(restoreTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    // Chunks still waiting are dropped, running ones finish their transaction.
+                    executor.shutdownNow();
+                    LOGGER.warn(String.format("The restore did not finish within %s.",
+                        restoreTimeout));
+                    addError(errors, String.format("The restore did not finish within %s, the "
+                        + "remaining resources were not restored.", restoreTimeout));
+                }
+            } catch (InterruptedException exception) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        LOGGER.info(String.format("Restored %d offered and %d requested resources. %d failed.",
+            offered.get(), requested.get(), failed.get()));
+        return new ResourceRestoreResult(offered.get(), requested.get(), failed.get(),
+            new ArrayList<>(errors));
+    }
+
+    /**
+     * Writes the resources page by page. Every page is loaded in its own read-only transaction,
+     * so no entity is kept after it has been written.
+     */
+    private <T> long exportPages(OutputStream outputStream, Function<UUID, List<T>> pageLoader,
+        Function<T, ResourceBackupRecord> mapper) throws IOException {
+        var count = 0L;
+        UUID last = null;
+        while (true) {
+            final var lastUuid = last;
+            final var records = readOnlyTransactionTemplate.execute(status ->
+                pageLoader.apply(lastUuid).stream().map(mapper).collect(Collectors.toList()));
+            if (records == null || records.isEmpty()) {
+                return count;
+            }
+
+            for (final var record : records) {
+                outputStream.write(objectMapper.writeValueAsBytes(record));
+                outputStream.write('\n');
+            }
+
+            count += records.size();
+            last = records.get(records.size() - 1).getUuid();
+        }
+    }
+
+    private void restoreChunk(List<ResourceBackupRecord> records, AtomicLong offered,
+        AtomicLong requested, AtomicLong failed, List<String> errors) {
+        try {
+            storeRecords(records);
+            count(records, offered, requested);
+        } catch (RuntimeException chunkException) {
+            LOGGER.warn(String.format("Failed to restore a chunk of %d resources. Retrying one " +
+                "by one.", records.size()), chunkException);
+
+            for (final var record : records) {
+                try {
+                    storeRecords(List.of(record));
+                    count(List.of(record), offered, requested);
+                } catch (RuntimeException exception) {
+                    // Any failure, e.g. of the payload storage, only affects this resource.
+                    failed.incrementAndGet();
+                    addError(errors, String.format("The resource %s could not be restored.",
+                        record.getUuid()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Stores records in one transaction. Payloads of overwritten resources are released.
+     */
+    private void storeRecords(List<ResourceBackupRecord> records) {
+        final var payloads = new HashMap<UUID, Payload>();
+        for (final var record : records) {
+            if (record.getType() == null || record.getUuid() == null
+                || record.getMetadata() == null) {
+                throw new IllegalArgumentException("The backup record is incomplete.");
+            }
+
+            payloads.put(record.getUuid(), payloadService.prepare(record.getData()));
+        }
+
+        payloadService.execute(status -> {
+            final var offeredResources = new ArrayList<OfferedResource>();
+            final var requestedResources = new ArrayList<RequestedResource>();
+            final var offeredIds = new ArrayList<UUID>();
+            final var requestedIds = new ArrayList<UUID>();
+            for (final var record : records) {
+                final var payload = payloadService.acquire(payloads.get(record.getUuid()));
+                if (record.getType() == ResourceBackupRecord.Type.OFFERED) {
+                    final var resource = new OfferedResource(record.getUuid(),
+                        record.getCreated(), record.getModified(), record.getMetadata(), null);
+                    resource.setPayload(payload);
+                    resource.setModified(record.getModified());
+                    offeredResources.add(resource);
+                    offeredIds.add(record.getUuid());
+                } else {
+                    final var resource = new RequestedResource(record.getCreated(),
+                        record.getModified(), record.getMetadata(), null,
+                        record.getAccessed() != null ? record.getAccessed() : 0);
+                    resource.setUuid(record.getUuid());
+                    resource.setPayload(payload);
+                    requestedResources.add(resource);
+                    requestedIds.add(record.getUuid());
+                }
+            }
+
+            // Remember the payloads of the resources that are overwritten.
+            final var previousPayloads = new ArrayList<Payload>();
+            offeredResourceRepository.findAllById(offeredIds)
+                .forEach(resource -> previousPayloads.add(resource.getPayload()));
+            requestedResourceRepository.findAllById(requestedIds)
+                .forEach(resource -> previousPayloads.add(resource.getPayload()));
+
+            offeredResourceRepository.saveAll(offeredResources);
+            requestedResourceRepository.saveAll(requestedResources);
+            previousPayloads.forEach(payloadService::release);
+            return null;
+        });
+    }
+
+    private ResourceBackupRecord toRecord(OfferedResource resource) {
+        return new ResourceBackupRecord(ResourceBackupRecord.Type.OFFERED, resource.getUuid(),
+            resource.getCreated(), resource.getModified(), resource.getResourceMetadata(),
+            resource.getData(), null);
+    }
+
+    private ResourceBackupRecord toRecord(RequestedResource resource) {
+        // Read the access counter first, reading the data increments it.
+        final var accessed = resource.getAccessed();
+        return new ResourceBackupRecord(ResourceBackupRecord.Type.REQUESTED, resource.getUuid(),
+            resource.getCreated(), resource.getModified(), resource.getResourceMetadata(),
+            resource.getData(), accessed);
+    }
+
+    private static void count(List<ResourceBackupRecord> records, AtomicLong offered,
+        AtomicLong requested) {
+        for (final var record : records) {
+            if (record.getType() == ResourceBackupRecord.Type.OFFERED) {
+                offered.incrementAndGet();
+            } else {
+                requested.incrementAndGet();
+            }
+        }
+    }
+
+    private static void addError(List<String> errors, String error) {
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    /**
+     * Detects gzip compressed input by its magic bytes.
+     */
+    private static InputStream decode(InputStream inputStream) throws IOException {
+        final var bufferedStream = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        bufferedStream.mark(2);
+        final var first = bufferedStream.read();
+        final var second = bufferedStream.read();
+        bufferedStream.reset();
+
+        if (first == 0x1f && second == 0x8b) {
+            return new GZIPInputStream(bufferedStream, BUFFER_SIZE);
+        } else {
+            return bufferedStream;
+        }
+    }
+}
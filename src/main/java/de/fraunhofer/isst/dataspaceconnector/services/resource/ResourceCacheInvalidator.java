@@ -0,0 +1,99 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ConnectorResource;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestedResource;
+import de.fraunhofer.isst.dataspaceconnector.services.ConnectorSnapshotService;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreRemove;
+import javax.persistence.PreUpdate;
+
+/**
+ * This class is registered as entity listener of the connector resources and removes written
+ * resources from the {@link ResourceMetadataCache}. The entry is removed before and after the
+ * statement is executed and once more after the transaction completed, so a concurrent read
+ * cannot put the old state back. Writes of offered resources mark the self-description snapshot
+ * of the {@link ConnectorSnapshotService} outdated at the same points.
+ */
+@Component
+public class ResourceCacheInvalidator {
+
+    private final ResourceMetadataCache<OfferedResource> offeredResourceCache;
+    private final ResourceMetadataCache<RequestedResource> requestedResourceCache;
+    private final ConnectorSnapshotService connectorSnapshotService;
+
+    /**
+     * Constructor for ResourceCacheInvalidator. The snapshot service is resolved lazily, since it
+     * reads the resources through the persistence unit this listener is created along with.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceCacheInvalidator(
+        @NotNull ResourceMetadataCache<OfferedResource> offeredResourceCache,
+        @NotNull ResourceMetadataCache<RequestedResource> requestedResourceCache,
+        @NotNull @Lazy ConnectorSnapshotService connectorSnapshotService)
+        throws IllegalArgumentException {
+        if (offeredResourceCache == null) {
+            throw new IllegalArgumentException("The offered resource cache cannot be null.");
+        }
+
+        if (requestedResourceCache == null) {
+            throw new IllegalArgumentException("The requested resource cache cannot be null.");
+        }
+
+        if (connectorSnapshotService == null) {
+            throw new IllegalArgumentException("The ConnectorSnapshotService cannot be null.");
+        }
+
+        this.offeredResourceCache = offeredResourceCache;
+        this.requestedResourceCache = requestedResourceCache;
+        this.connectorSnapshotService = connectorSnapshotService;
+    }
+
+    /**
+     * Invalidates the cache entry of a written resource and, for an offered resource, the
+     * self-description snapshot.
+     *
+     * @param resource The written resource.
+     */
+    @PrePersist
+    @PreUpdate
+    @PreRemove
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(ConnectorResource resource) {
+        final var offered = resource instanceof OfferedResource;
+        final var cache = offered ? offeredResourceCache : requestedResourceCache;
+        final var uuid = resource.getUuid();
+
+        cache.invalidate(uuid);
+        if (offered) {
+            connectorSnapshotService.invalidate();
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        cache.invalidate(uuid);
+                        if (offered) {
+                            connectorSnapshotService.invalidate();
+                        }
+                    }
+                });
+        }
+    }
+}
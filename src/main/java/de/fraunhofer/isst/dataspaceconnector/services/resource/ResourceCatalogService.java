@@ -0,0 +1,145 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.iais.eis.ResourceCatalog;
+import de.fraunhofer.iais.eis.ResourceCatalogBuilder;
+import de.fraunhofer.iais.eis.util.ConstraintViolationException;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * This class splits the catalog of offered resources into pages. If paging is enabled and there
+ * are more resources than fit on a page, the self-description embeds the first page and
+ * references the others by id. A referenced page is requested with its id as requested element of
+ * a DescriptionRequestMessage. A page id only holds the page number, so it stays valid while
+ * resources are added or removed; the page then holds the resources at its position at the time
+ * it is requested. Ids with a query, as issued by former versions, are accepted as well.
+ */
+@Service
+public class ResourceCatalogService {
+
+    /**
+     * The prefix of the catalog page ids.
+     */
+    public static final String PAGE_PREFIX = "https://w3id.org/idsa/autogen/resourceCatalog/page/";
+
+    private static final Pattern PAGE_PATTERN =
+        Pattern.compile("^" + Pattern.quote(PAGE_PREFIX) + "(\\d{1,9})(\\?.*)?$");
+
+    private final OfferedResourceRepository offeredResourceRepository;
+    private final OfferedResourceService offeredResourceService;
+    private final IdsUtils idsUtils;
+
+    @Value("${ids.catalog.page-size:0}")
+    private int pageSize;
+
+    /**
+     * Constructor for ResourceCatalogService.
+     *
+     * @throws IllegalArgumentException - if one of the parameters is null.
+     */
+    @Autowired
+    public ResourceCatalogService(@NotNull OfferedResourceRepository offeredResourceRepository,
+        @NotNull OfferedResourceService offeredResourceService, @NotNull IdsUtils idsUtils)
+        throws IllegalArgumentException {
+        if (offeredResourceRepository == null) {
+            throw new IllegalArgumentException("The OfferedResourceRepository cannot be null.");
+        }
+
+        if (offeredResourceService == null) {
+            throw new IllegalArgumentException("The OfferedResourceService cannot be null.");
+        }
+
+        if (idsUtils == null) {
+            throw new IllegalArgumentException("The IdsUtils cannot be null.");
+        }
+
+        this.offeredResourceRepository = offeredResourceRepository;
+        this.offeredResourceService = offeredResourceService;
+        this.idsUtils = idsUtils;
+    }
+
+    /**
+     * Builds the catalogs of the self-description. Without paging, this is a single catalog of
+     * all offered resources, taken from the resource cache. Otherwise, the first page is embedded
+     * and every further page is an empty catalog whose id references it.
+     *
+     * @return The catalogs.
+     * @throws ConstraintViolationException - if a catalog could not be built.
+     */
+    public ArrayList<ResourceCatalog> getCatalogs() throws ConstraintViolationException {
+        final var catalogs = new ArrayList<ResourceCatalog>();
+        final var total = pageSize <= 0 ? 0 : offeredResourceRepository.count();
+        if (pageSize <= 0 || total <= pageSize) {
+            catalogs.add(new ResourceCatalogBuilder()
+                ._offeredResource_(new ArrayList<>(offeredResourceService.getResourceList()))
+                .build());
+            return catalogs;
+        }
+
+        catalogs.add(getPage(0));
+        final var pages = getPageCount(total);
+        for (var page = 1; page < pages; page++) {
+            catalogs.add(new ResourceCatalogBuilder(getPageId(page)).build());
+        }
+
+        return catalogs;
+    }
+
+    /**
+     * Builds a page of the catalog. The resources are ordered by their id, so the pages do not
+     * overlap while the resources stay the same.
+     *
+     * @param page The page number, starting at 0.
+     * @return The page or null if it does not exist.
+     * @throws ConstraintViolationException - if the catalog could not be built.
+     */
+    public ResourceCatalog getPage(int page) throws ConstraintViolationException {
+        final var total = offeredResourceRepository.count();
+        if (pageSize <= 0 || page < 0 || page >= getPageCount(total)) {
+            return null;
+        }
+
+        final List<OfferedResource> resources = offeredResourceRepository
+            .findAll(PageRequest.of(page, pageSize, Sort.by("uuid"))).getContent();
+        return new ResourceCatalogBuilder(getPageId(page))
+            ._offeredResource_(new ArrayList<>(resources.stream()
+                .map(idsUtils::getAsResource)
+                .collect(Collectors.toList())))
+            .build();
+    }
+
+    /**
+     * Reads the page number from a catalog page id.
+     *
+     * @param uri The requested element.
+     * @return The page number or null if the uri is no catalog page id.
+     */
+    public static Integer getPageNumber(URI uri) {
+        if (uri == null) {
+            return null;
+        }
+
+        final var matcher = PAGE_PATTERN.matcher(uri.toString());
+        return matcher.matches() ? Integer.valueOf(matcher.group(1)) : null;
+    }
+
+    private int getPageCount(long total) {
+        return (int) ((total + pageSize - 1) / pageSize);
+    }
+
+    private static URI getPageId(int page) {
+        return URI.create(PAGE_PREFIX + page);
+    }
+}
@@ -0,0 +1,68 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * This class is registered as entity listener of the offered resources and reports written
+ * resources to the change log of the {@link ResourceChangeService}. Hibernate may create its own
+ * instances of entity listeners, so the listener holds no state. The change log is resolved
+ * lazily, since its repository needs the persistence unit this listener is created along with.
+ */
+@Component
+public class ResourceChangeListener {
+
+    private final ResourceChangeService resourceChangeService;
+
+    /**
+     * Constructor for ResourceChangeListener.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceChangeListener(@NotNull @Lazy ResourceChangeService resourceChangeService)
+        throws IllegalArgumentException {
+        if (resourceChangeService == null) {
+            throw new IllegalArgumentException("The ResourceChangeService cannot be null.");
+        }
+
+        this.resourceChangeService = resourceChangeService;
+    }
+
+    /**
+     * Records a created resource once its transaction committed.
+     *
+     * @param resource The created resource.
+     */
+    @PostPersist
+    public void onCreate(OfferedResource resource) {
+        resourceChangeService.onCreate(resource);
+    }
+
+    /**
+     * Records an updated resource once its transaction committed.
+     *
+     * @param resource The updated resource.
+     */
+    @PostUpdate
+    public void onUpdate(OfferedResource resource) {
+        resourceChangeService.onUpdate(resource);
+    }
+
+    /**
+     * Records a deleted resource once its transaction committed.
+     *
+     * @param resource The deleted resource.
+     */
+    @PostRemove
+    public void onDelete(OfferedResource resource) {
+        resourceChangeService.onDelete(resource);
+    }
+}
@@ -0,0 +1,52 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * ResourceChangeRepository interface.
+ */
+@Repository
+public interface ResourceChangeRepository extends JpaRepository<ResourceChange, Long> {
+
+    /**
+     * Returns the changes following a sequence number, oldest first.
+     *
+     * @param sequence The last sequence number known to the caller.
+     * @param pageable The page size.
+     * @return The changes.
+     */
+    List<ResourceChange> findBySequenceGreaterThanOrderBySequenceAsc(long sequence,
+        Pageable pageable);
+
+    /**
+     * @return The oldest kept change or null if there is none.
+     */
+    ResourceChange findFirstByOrderBySequenceAsc();
+
+    /**
+     * @return The latest change or null if there is none.
+     */
+    ResourceChange findFirstByOrderBySequenceDesc();
+
+    /**
+     * Removes the changes recorded before a date. The latest change is kept, so readers behind
+     * the removed changes can still be detected.
+     *
+     * @param date The date.
+     * @return The number of removed changes.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ResourceChange c WHERE c.timestamp < ?1 "
+        + "AND c.sequence < (SELECT MAX(l.sequence) FROM ResourceChange l)")
+    int deleteRecordedBefore(Date date);
+}
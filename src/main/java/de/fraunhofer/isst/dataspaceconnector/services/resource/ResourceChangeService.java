@@ -0,0 +1,265 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceChange;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class keeps the change log of the offered resources. It records every committed create,
+ * update and delete, reported by the {@link ResourceChangeListener}. The changes are
+ * saved one after another on a single thread, so their sequence numbers increase in the order
+ * they are recorded and a reader never misses a change by asking for the ones after the last
+ * sequence number it knows. The same thread sends the changes to the subscribed event streams.
+ * Changes older than the retention are removed; readers behind them are told to resynchronize.
+ */
+@Service
+public class ResourceChangeService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceChangeService.class);
+
+    private final ResourceChangeRepository changeRepository;
+    private final ScheduledExecutorService executor;
+    private final Set<SseEmitter> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Value("${resource.changes.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${resource.changes.max-backlog:1000}")
+    private int maxBacklog;
+
+    @Value("${resource.changes.stream-timeout:PT30M}")
+    private Duration streamTimeout;
+
+    /**
+     * Constructor for ResourceChangeService.
+     *
+     * @param retention How long changes are kept, zero keeps them forever.
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceChangeService(@NotNull ResourceChangeRepository changeRepository,
+        @Value("${resource.changes.retention:P30D}") Duration retention)
+        throws IllegalArgumentException {
+        if (changeRepository == null) {
+            throw new IllegalArgumentException("The ResourceChangeRepository cannot be null.");
+        }
+
+        if (retention == null) {
+            throw new IllegalArgumentException("The retention cannot be null.");
+        }
+
+        this.changeRepository = changeRepository;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "resource-change-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (!retention.isNegative() && !retention.isZero()) {
+            executor.scheduleWithFixedDelay(() -> prune(retention), 1, 1, TimeUnit.HOURS);
+        }
+    }
+
+    /**
+     * Records a created resource once its transaction committed.
+     *
+     * @param resource The created resource.
+     */
+    public void onCreate(OfferedResource resource) {
+        record(resource.getUuid(), ResourceChange.Type.CREATED);
+    }
+
+    /**
+     * Records an updated resource once its transaction committed.
+     *
+     * @param resource The updated resource.
+     */
+    public void onUpdate(OfferedResource resource) {
+        record(resource.getUuid(), ResourceChange.Type.UPDATED);
+    }
+
+    /**
+     * Records a deleted resource once its transaction committed.
+     *
+     * @param resource The deleted resource.
+     */
+    public void onDelete(OfferedResource resource) {
+        record(resource.getUuid(), ResourceChange.Type.DELETED);
+    }
+
+    /**
+     * Returns the changes following a sequence number.
+     *
+     * @param since The last sequence number known to the caller, 0 for all changes.
+     * @param limit The maximum number of changes.
+     * @return The changes, the sequence number to continue with, whether there are more changes
+     * and whether the caller has to resynchronize, as changes it did not see were removed.
+     */
+    public Map<String, Object> getChanges(long since, int limit) {
+        final var changes = changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(since,
+            PageRequest.of(0, limit + 1));
+        final var more = changes.size() > limit;
+        final var page = more ? changes.subList(0, limit) : changes;
+
+        final var feed = new LinkedHashMap<String, Object>();
+        feed.put("changes", page);
+        feed.put("last", page.isEmpty() ? since : page.get(page.size() - 1).getSequence());
+        feed.put("more", more);
+        feed.put("reset", isRemoved(since));
+        return feed;
+    }
+
+    /**
+     * Opens an event stream of the changes following a sequence number. The missed changes are
+     * sent first, followed by every new change. If more changes were missed than are sent at
+     * once, or some were removed, a reset event tells the caller to resynchronize.
+     *
+     * @param since The last sequence number known to the caller.
+     * @return The event stream.
+     * @throws IllegalStateException - if there are too many subscribers.
+     */
+    public SseEmitter subscribe(long since) throws IllegalStateException {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many change subscribers.");
+        }
+
+        final var emitter = new SseEmitter(streamTimeout.toMillis());
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(exception -> subscribers.remove(emitter));
+
+        try {
+            // Changes are saved on the same thread, so none is lost between the missed and the
+            // new ones.
+            executor.execute(() -> {
+                try {
+                    final var missed = changeRepository.findBySequenceGreaterThanOrderBySequenceAsc(
+                        since, PageRequest.of(0, maxBacklog + 1));
+                    if (missed.size() > maxBacklog || isRemoved(since)) {
+                        emitter.send(SseEmitter.event().name("reset").data(since));
+                    } else {
+                        send(emitter, missed);
+                    }
+
+                    subscribers.add(emitter);
+                } catch (IOException | RuntimeException exception) {
+                    emitter.completeWithError(exception);
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            throw new IllegalStateException("The change log is shut down.", exception);
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Stops recording changes and closes the event streams.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        subscribers.forEach(SseEmitter::complete);
+    }
+
+    private void record(UUID resourceId, ResourceChange.Type type) {
+        final var change = new ResourceChange(resourceId, type, new Date());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            submit(change);
+                        }
+                    }
+                });
+        } else {
+            submit(change);
+        }
+    }
+
+    private void submit(ResourceChange change) {
+        try {
+            executor.execute(() -> save(change));
+        } catch (RejectedExecutionException exception) {
+            LOGGER.warn(String.format("Could not record the change of resource %s.",
+                change.getResourceId()));
+        }
+    }
+
+    private void save(ResourceChange change) {
+        try {
+            final var saved = changeRepository.save(change);
+            for (final var emitter : subscribers) {
+                try {
+                    send(emitter, List.of(saved));
+                } catch (IOException | RuntimeException exception) {
+                    subscribers.remove(emitter);
+                    emitter.completeWithError(exception);
+                }
+            }
+        } catch (RuntimeException exception) {
+            LOGGER.warn(String.format("Could not record the change of resource %s. %s",
+                change.getResourceId(), exception.getMessage()));
+        }
+    }
+
+    private void prune(Duration retention) {
+        try {
+            final var removed = changeRepository.deleteRecordedBefore(
+                new Date(System.currentTimeMillis() - retention.toMillis()));
+            if (removed > 0) {
+                LOGGER.info(String.format("Removed %d expired resource changes.", removed));
+            }
+        } catch (RuntimeException exception) {
+            // A failed run must not stop the scheduled ones.
+            LOGGER.warn("Failed to remove expired resource changes. " + exception.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether changes following a sequence number were removed. The sequence numbers are
+     * allocated one by one, so a gap to the oldest kept change means the ones between were
+     * removed.
+     */
+    private boolean isRemoved(long since) {
+        final var oldest = changeRepository.findFirstByOrderBySequenceAsc();
+        return oldest != null && since < oldest.getSequence() - 1;
+    }
+
+    private static void send(SseEmitter emitter, List<ResourceChange> changes)
+        throws IOException {
+        for (final var change : changes) {
+            emitter.send(SseEmitter.event()
+                .id(String.valueOf(change.getSequence()))
+                .name("change")
+                .data(change, MediaType.APPLICATION_JSON));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import de.fraunhofer.isst.dataspaceconnector.model.ConnectorResource;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class caches connector resources without their data. Only copies created by the snapshot
+ * function are stored, so the payload is never kept in memory. Entries are evicted by size and
+ * age and are invalidated on every write by the {@link ResourceCacheInvalidator}. Every
+ * invalidation starts a new generation; a value loaded in an older generation may be outdated
+ * and is not kept.
+ *
+ * @param <T> The type of the cached resources.
+ */
+public class ResourceMetadataCache<T extends ConnectorResource> {
+
+    private static final String ALL_RESOURCES = "all";
+
+    private final boolean enabled;
+    private final UnaryOperator<T> snapshot;
+    private final Cache<UUID, Optional<T>> resources;
+    private final Cache<String, List<T>> resourceLists;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor for ResourceMetadataCache.
+     *
+     * @param enabled          False disables caching, every call goes to the loader.
+     * @param maximumSize      The maximum number of cached resources.
+     * @param expireAfterWrite The time after which an entry is evicted.
+     * @param snapshot         Creates an independent copy of a resource without its data.
+     */
+    public ResourceMetadataCache(boolean enabled, long maximumSize, Duration expireAfterWrite,
+        UnaryOperator<T> snapshot) {
+        this.enabled = enabled;
+        this.snapshot = snapshot;
+        this.resources = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        this.resourceLists = Caffeine.newBuilder()
+            .maximumSize(1)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Returns a resource without its data. The returned object is a copy and may be modified.
+     *
+     * @param uuid   The resource uuid.
+     * @param loader Loads the resource on a cache miss.
+     * @return The resource or an empty optional if it does not exist.
+     */
+    public Optional<T> get(UUID uuid, Function<UUID, Optional<T>> loader) {
+        if (!enabled) {
+            return loader.apply(uuid).map(snapshot);
+        }
+
+        final var cached = resources.getIfPresent(uuid);
+        if (cached != null) {
+            return cached.map(snapshot);
+        }
+
+        final var loadedIn = generation.get();
+        final var loaded = loader.apply(uuid).map(snapshot);
+        resources.put(uuid, loaded);
+        if (generation.get() != loadedIn) {
+            resources.asMap().remove(uuid, loaded);
+        }
+
+        return loaded.map(snapshot);
+    }
+
+    /**
+     * Returns all resources without their data. The list and its elements are shared and must not
+     * be modified.
+     *
+     * @param loader Loads all resources on a cache miss.
+     * @return The resources.
+     */
+    public List<T> getAll(Supplier<List<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        final var cached = resourceLists.getIfPresent(ALL_RESOURCES);
+        if (cached != null) {
+            return cached;
+        }
+
+        final var loadedIn = generation.get();
+        final var list = loader.get();
+        list.replaceAll(snapshot);
+        final var loaded = Collections.unmodifiableList(list);
+        resourceLists.put(ALL_RESOURCES, loaded);
+
+        // An invalidation during the load may have run before the put, remove the list again.
+        if (generation.get() != loadedIn) {
+            resourceLists.asMap().remove(ALL_RESOURCES, loaded);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Removes a resource from the cache.
+     *
+     * @param uuid The resource uuid.
+     */
+    public void invalidate(UUID uuid) {
+        generation.incrementAndGet();
+        if (uuid != null) {
+            resources.invalidate(uuid);
+        }
+        resourceLists.invalidateAll();
+    }
+
+    /**
+     * Removes all resources from the cache.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        resources.invalidateAll();
+        resourceLists.invalidateAll();
+    }
+
+    /**
+     * @return True if the cache is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return The number of cached resources.
+     */
+    public long size() {
+        return resources.estimatedSize();
+    }
+
+    /**
+     * Summarizes the cache state and the hit and miss counts.
+     *
+     * @return The statistics by name.
+     */
+    public Map<String, Object> statistics() {
+        final var resourceStats = resources.stats();
+        final var listStats = resourceLists.stats();
+
+        final var statistics = new LinkedHashMap<String, Object>();
+        statistics.put("enabled", enabled);
+        statistics.put("size", size());
+        statistics.put("hitCount", resourceStats.hitCount());
+        statistics.put("missCount", resourceStats.missCount());
+        statistics.put("hitRate", resourceStats.hitRate());
+        statistics.put("evictionCount", resourceStats.evictionCount());
+        statistics.put("listHitCount", listStats.hitCount());
+        statistics.put("listMissCount", listStats.missCount());
+        return statistics;
+    }
+
+    /**
+     * @return The hit and miss statistics of single resource lookups.
+     */
+    public CacheStats resourceStats() {
+        return resources.stats();
+    }
+
+    /**
+     * @return The hit and miss statistics of resource list lookups.
+     */
+    public CacheStats listStats() {
+        return resourceLists.stats();
+    }
+}
@@ -0,0 +1,421 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceSearchResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * This class keeps an inverted index over the title, description, keywords, owner and license of
+ * the offered resources. Every committed write updates the index of that resource, reported by
+ * the {@link ResourceSearchIndexListener}. The index is filled from the database once at startup
+ * by the {@link ResourceSearchService}. Searches are ranked by the weighted frequency
+ * of the query terms in the fields, their rarity and the share of query terms matched.
+ */
+@Component
+public class ResourceSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float KEYWORD_WEIGHT = 2f;
+    private static final float REFERENCE_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Every indexed resource has an ordinal, the postings refer to the ordinals.
+     */
+    private final Map<UUID, Integer> ordinals = new HashMap<>();
+    private final List<Document> documents = new ArrayList<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * The resources written while the index is loaded, the loader does not overwrite them.
+     */
+    private Set<UUID> writtenDuringLoad;
+
+    /**
+     * Indexes a saved resource once its transaction committed.
+     *
+     * @param resource The saved resource.
+     */
+    public void onSave(OfferedResource resource) {
+        final var document = Document.of(resource);
+        afterCommit(() -> put(document, false));
+    }
+
+    /**
+     * Removes a deleted resource from the index once its transaction committed.
+     *
+     * @param resource The deleted resource.
+     */
+    public void onRemove(OfferedResource resource) {
+        final var uuid = resource.getUuid();
+        afterCommit(() -> remove(uuid));
+    }
+
+    /**
+     * Searches the resources matching any of the terms of a query.
+     *
+     * @param query  The query.
+     * @param offset The number of skipped results.
+     * @param limit  The maximum number of results.
+     * @return The page of results, ordered by descending score.
+     */
+    public ResourceSearchResult search(String query, int offset, int limit) {
+        final var terms = new LinkedHashSet<>(tokenize(query));
+        final var result = new ResourceSearchResult(0, offset, limit, new ArrayList<>());
+        if (terms.isEmpty()) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            final var size = documents.size();
+            final var scores = new float[size];
+            final var matches = new int[size];
+            var matched = new int[16];
+            var total = 0;
+            final var count = ordinals.size();
+
+            for (final var term : terms) {
+                final var list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+
+                final var idf = (float) Math.log(1 + (double) count / list.size);
+                for (var i = 0; i < list.size; i++) {
+                    final var ordinal = list.ordinals[i];
+                    if (matches[ordinal]++ == 0) {
+                        if (total == matched.length) {
+                            matched = Arrays.copyOf(matched, total * 2);
+                        }
+
+                        matched[total++] = ordinal;
+                    }
+
+                    scores[ordinal] += list.weights[i] * idf;
+                }
+            }
+
+            // Weigh the scores by the share of matched terms.
+            for (var i = 0; i < total; i++) {
+                final var ordinal = matched[i];
+                scores[ordinal] = scores[ordinal] * matches[ordinal] / terms.size();
+            }
+
+            // Keep the best results up to the requested page in a min-heap.
+            final var window = (int) Math.min(Math.min((long) offset + limit, total),
+                Integer.MAX_VALUE);
+            final var heap = new int[window];
+            var heapSize = 0;
+            for (var i = 0; i < total && window > 0; i++) {
+                final var ordinal = matched[i];
+                if (heapSize < window) {
+                    heap[heapSize] = ordinal;
+                    siftUp(heap, heapSize++, scores);
+                } else if (isBetter(ordinal, heap[0], scores)) {
+                    heap[0] = ordinal;
+                    siftDown(heap, heapSize, scores);
+                }
+            }
+
+            // Take the results from the heap, worst first.
+            final var ranked = new int[heapSize];
+            for (var i = heapSize - 1; i >= 0; i--) {
+                ranked[i] = heap[0];
+                heap[0] = heap[--heapSize];
+                siftDown(heap, heapSize, scores);
+            }
+
+            result.setTotal(total);
+            for (var i = offset; i < ranked.length; i++) {
+                final var document = documents.get(ranked[i]);
+                result.getHits().add(new ResourceSearchResult.Hit(document.uuid, document.title,
+                    scores[ranked[i]]));
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts loading the index. Resources written from now on are not overwritten by the loader.
+     */
+    void startLoad() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes a resource read by the loader.
+     *
+     * @param resource The resource.
+     */
+    void load(OfferedResource resource) {
+        put(Document.of(resource), true);
+    }
+
+    /**
+     * Finishes loading the index.
+     */
+    void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            writtenDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Document document, boolean loaded) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) {
+                if (loaded && writtenDuringLoad.contains(document.uuid)) {
+                    return;
+                } else if (!loaded) {
+                    writtenDuringLoad.add(document.uuid);
+                }
+            }
+
+            var ordinal = ordinals.get(document.uuid);
+            if (ordinal != null) {
+                removePostings(ordinal);
+                documents.set(ordinal, document);
+            } else if (!freeOrdinals.isEmpty()) {
+                ordinal = freeOrdinals.pop();
+                documents.set(ordinal, document);
+            } else {
+                ordinal = documents.size();
+                documents.add(document);
+            }
+
+            ordinals.put(document.uuid, ordinal);
+            for (final var entry : document.terms.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), x -> new Postings())
+                    .add(ordinal, 1 + (float) Math.log(entry.getValue()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(UUID uuid) {
+        lock.writeLock().lock();
+        try {
+            if (writtenDuringLoad != null) {
+                writtenDuringLoad.add(uuid);
+            }
+
+            final var ordinal = ordinals.remove(uuid);
+            if (ordinal != null) {
+                removePostings(ordinal);
+                documents.set(ordinal, null);
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removePostings(int ordinal) {
+        for (final var term : documents.get(ordinal).terms.keySet()) {
+            final var list = postings.get(term);
+            if (list != null && list.remove(ordinal) && list.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Orders the results by descending score and ascending id for equal scores.
+     */
+    private boolean isBetter(int ordinal, int other, float[] scores) {
+        if (scores[ordinal] != scores[other]) {
+            return scores[ordinal] > scores[other];
+        }
+
+        return documents.get(ordinal).uuid.compareTo(documents.get(other).uuid) < 0;
+    }
+
+    private void siftUp(int[] heap, int index, float[] scores) {
+        final var ordinal = heap[index];
+        while (index > 0) {
+            final var parent = (index - 1) / 2;
+            if (!isBetter(heap[parent], ordinal, scores)) {
+                break;
+            }
+
+            heap[index] = heap[parent];
+            index = parent;
+        }
+
+        heap[index] = ordinal;
+    }
+
+    private void siftDown(int[] heap, int size, float[] scores) {
+        if (size == 0) {
+            return;
+        }
+
+        final var ordinal = heap[0];
+        var index = 0;
+        while (2 * index + 1 < size) {
+            var child = 2 * index + 1;
+            if (child + 1 < size && isBetter(heap[child], heap[child + 1], scores)) {
+                child++;
+            }
+
+            if (!isBetter(ordinal, heap[child], scores)) {
+                break;
+            }
+
+            heap[index] = heap[child];
+            index = child;
+        }
+
+        heap[index] = ordinal;
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED) {
+                            runnable.run();
+                        }
+                    }
+                });
+        } else {
+            runnable.run();
+        }
+    }
+
+    private static List<String> tokenize(String text) {
+        final var tokens = new ArrayList<String>();
+        if (text == null) {
+            return tokens;
+        }
+
+        for (final var token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * The indexed terms of a resource with their weighted frequency.
+     */
+    private static final class Document {
+
+        private final UUID uuid;
+        private final String title;
+        private final Map<String, Float> terms = new HashMap<>();
+
+        private Document(UUID uuid, String title) {
+            this.uuid = uuid;
+            this.title = title;
+        }
+
+        private static Document of(OfferedResource resource) {
+            final var metadata = resource.getResourceMetadata();
+            if (metadata == null) {
+                return new Document(resource.getUuid(), null);
+            }
+
+            final var document = new Document(resource.getUuid(), metadata.getTitle());
+            document.add(metadata.getTitle(), TITLE_WEIGHT);
+            document.add(metadata.getDescription(), DESCRIPTION_WEIGHT);
+            if (metadata.getKeywords() != null) {
+                for (final var keyword : metadata.getKeywords()) {
+                    document.add(keyword, KEYWORD_WEIGHT);
+                }
+            }
+
+            if (metadata.getOwner() != null) {
+                document.add(metadata.getOwner().toString(), REFERENCE_WEIGHT);
+            }
+
+            if (metadata.getLicense() != null) {
+                document.add(metadata.getLicense().toString(), REFERENCE_WEIGHT);
+            }
+
+            return document;
+        }
+
+        private void add(String text, float weight) {
+            for (final var token : tokenize(text)) {
+                terms.merge(token, weight, Float::sum);
+            }
+        }
+    }
+
+    /**
+     * The ordinals of the resources containing a term, with the dampened weight of the term in
+     * each. Primitive arrays keep the index small for many resources.
+     */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        private void add(int ordinal, float weight) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+
+            ordinals[size] = ordinal;
+            weights[size] = weight;
+            size++;
+        }
+
+        private boolean remove(int ordinal) {
+            for (var i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    weights[i] = weights[size];
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * This class is registered as entity listener of the offered resources and reports written
+ * resources to the {@link ResourceSearchIndex}. Hibernate may create its own instances of entity
+ * listeners, so the listener holds no state and the index stays the single application bean.
+ */
+@Component
+public class ResourceSearchIndexListener {
+
+    private final ResourceSearchIndex searchIndex;
+
+    /**
+     * Constructor for ResourceSearchIndexListener.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceSearchIndexListener(@NotNull ResourceSearchIndex searchIndex)
+        throws IllegalArgumentException {
+        if (searchIndex == null) {
+            throw new IllegalArgumentException("The ResourceSearchIndex cannot be null.");
+        }
+
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Indexes a saved resource once its transaction committed.
+     *
+     * @param resource The saved resource.
+     */
+    @PostPersist
+    @PostUpdate
+    public void onSave(OfferedResource resource) {
+        searchIndex.onSave(resource);
+    }
+
+    /**
+     * Removes a deleted resource from the index once its transaction committed.
+     *
+     * @param resource The deleted resource.
+     */
+    @PostRemove
+    public void onRemove(OfferedResource resource) {
+        searchIndex.onRemove(resource);
+    }
+}
@@ -0,0 +1,111 @@
+package de.fraunhofer.isst.dataspaceconnector.services.resource;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceSearchResult;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class searches the offered resources in the {@link ResourceSearchIndex}, without touching
+ * the database. The index is loaded in the background once the application is ready, reading the
+ * resources page by page; searches during the load see the resources read so far.
+ */
+@Service
+public class ResourceSearchService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResourceSearchService.class);
+
+    private final ResourceSearchIndex searchIndex;
+    private final OfferedResourceRepository offeredResourceRepository;
+    private final ExecutorService loader;
+
+    @Value("${resource.search.load-page-size:500}")
+    private int pageSize;
+
+    /**
+     * Constructor for ResourceSearchService.
+     *
+     * @throws IllegalArgumentException - if any of the parameters is null.
+     */
+    @Autowired
+    public ResourceSearchService(@NotNull ResourceSearchIndex searchIndex,
+        @NotNull OfferedResourceRepository offeredResourceRepository)
+        throws IllegalArgumentException {
+        if (searchIndex == null) {
+            throw new IllegalArgumentException("The ResourceSearchIndex cannot be null.");
+        }
+
+        if (offeredResourceRepository == null) {
+            throw new IllegalArgumentException("The OfferedResourceRepository cannot be null.");
+        }
+
+        this.searchIndex = searchIndex;
+        this.offeredResourceRepository = offeredResourceRepository;
+        this.loader = Executors.newSingleThreadExecutor(runnable -> {
+            final var thread = new Thread(runnable, "resource-search-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Loads the index as soon as the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loader.execute(this::loadIndex);
+    }
+
+    /**
+     * Searches the offered resources.
+     *
+     * @param query  The search terms.
+     * @param offset The number of skipped results.
+     * @param limit  The maximum number of results.
+     * @return The page of results, best matches first.
+     */
+    public ResourceSearchResult search(String query, int offset, int limit) {
+        return searchIndex.search(query, offset, limit);
+    }
+
+    /**
+     * Stops loading the index.
+     */
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
+    }
+
+    private void loadIndex() {
+        searchIndex.startLoad();
+        try {
+            var page = offeredResourceRepository.findAllByOrderByUuidAsc(
+                PageRequest.of(0, pageSize));
+            var count = 0;
+            while (!page.isEmpty()) {
+                page.forEach(searchIndex::load);
+                count += page.size();
+
+                final var last = page.get(page.size() - 1).getUuid();
+                page = offeredResourceRepository.findByUuidGreaterThanOrderByUuidAsc(last,
+                    PageRequest.of(0, pageSize));
+            }
+
+            LOGGER.info(String.format("Indexed %d resources for search.", count));
+        } catch (RuntimeException exception) {
+            LOGGER.warn("Failed to load the resource search index. " + exception.getMessage());
+        } finally {
+            searchIndex.finishLoad();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ArtifactRequestItem;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestResult;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.ArtifactBatchRequestService;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestService;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestServiceUtils;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+public class ArtifactBatchRequestServiceTests {
+
+    private static final URI FIRST = URI.create("https://first.example/api/ids/data");
+    private static final URI SECOND = URI.create("https://second.example/api/ids/data");
+
+    private final List<URI> recipients = new ArrayList<>();
+    private final List<CompletableFuture<Response>> requests = new ArrayList<>();
+    private ConnectorRequestService connectorRequestService;
+    private ConnectorRequestServiceUtils connectorRequestServiceUtils;
+
+    @Before
+    public void mockServices() throws Exception {
+        connectorRequestService = Mockito.mock(ConnectorRequestService.class);
+        Mockito.when(connectorRequestService.sendArtifactRequestMessageAsync(
+            ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(invocation -> {
+                final var future = new CompletableFuture<Response>();
+                synchronized (requests) {
+                    recipients.add(invocation.getArgument(0));
+                    requests.add(future);
+                }
+                return future;
+            });
+
+        connectorRequestServiceUtils = Mockito.mock(ConnectorRequestServiceUtils.class);
+        Mockito.when(connectorRequestServiceUtils.resourceExists(ArgumentMatchers.any()))
+            .thenReturn(true);
+        Mockito.when(connectorRequestServiceUtils.saveData(ArgumentMatchers.any(Response.class),
+            ArgumentMatchers.any(UUID.class))).thenReturn("header");
+    }
+
+    private ArtifactBatchRequestService service(int maxParallelism, int maxPerRecipient) {
+        return new ArtifactBatchRequestService(connectorRequestService,
+            connectorRequestServiceUtils, maxParallelism, maxPerRecipient);
+    }
+
+    private static ArtifactRequestItem item(URI recipient) {
+        return new ArtifactRequestItem(recipient, URI.create("https://w3id.org/artifact/"
+            + UUID.randomUUID()), UUID.randomUUID());
+    }
+
+    private static Response response() {
+        return new Response.Builder()
+            .request(new Request.Builder().url("https://first.example/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .build();
+    }
+
+    private void answer(int request) {
+        requests.get(request).complete(response());
+    }
+
+    @Test
+    public void ArtifactBatchRequestService_requestArtifacts_Per_Recipient_Limit() {
+        final var result = service(8, 2).requestArtifacts(
+            List.of(item(FIRST), item(FIRST), item(FIRST), item(FIRST), item(FIRST)));
+
+        Assert.assertEquals(2, requests.size());
+        answer(0);
+        Assert.assertEquals(3, requests.size());
+        answer(1);
+        answer(2);
+        Assert.assertEquals(5, requests.size());
+        Assert.assertFalse(result.isDone());
+
+        answer(3);
+        answer(4);
+        Assert.assertTrue(result.isDone());
+        Assert.assertTrue(result.join().stream()
+            .allMatch(r -> r.getStatus() == RequestResult.Status.SUCCESS));
+    }
+
+    @Test
+    public void ArtifactBatchRequestService_requestArtifacts_Recipients_Take_Turns() {
+        service(2, 2).requestArtifacts(
+            List.of(item(FIRST), item(FIRST), item(FIRST), item(SECOND), item(SECOND)));
+
+        // Both slots are shared, although the first recipient alone could use them.
+        Assert.assertEquals(List.of(FIRST, SECOND), recipients);
+
+        // A free slot goes to the recipient whose turn it is.
+        answer(0);
+        Assert.assertEquals(List.of(FIRST, SECOND, FIRST), recipients);
+        answer(2);
+        Assert.assertEquals(List.of(FIRST, SECOND, FIRST, SECOND), recipients);
+        answer(1);
+        Assert.assertEquals(List.of(FIRST, SECOND, FIRST, SECOND, FIRST), recipients);
+    }
+
+    @Test
+    public void ArtifactBatchRequestService_requestArtifacts_Global_Limit() {
+        service(3, 2).requestArtifacts(List.of(item(FIRST), item(FIRST), item(FIRST),
+            item(SECOND), item(SECOND), item(SECOND)));
+
+        Assert.assertEquals(3, requests.size());
+        final var first = recipients.stream().filter(FIRST::equals).count();
+        final var second = recipients.stream().filter(SECOND::equals).count();
+        Assert.assertTrue(first <= 2 && second <= 2);
+    }
+
+    @Test
+    public void ArtifactBatchRequestService_requestArtifacts_Results_In_Item_Order() {
+        final var items = new ArrayList<ArtifactRequestItem>();
+        items.add(item(FIRST));
+        items.add(new ArtifactRequestItem(SECOND, null, UUID.randomUUID()));
+        items.add(item(SECOND));
+        final var result = service(8, 2).requestArtifacts(items);
+
+        Assert.assertEquals(2, requests.size());
+        requests.get(1).completeExceptionally(new RejectedExecutionException("Queue full."));
+        answer(0);
+
+        final var statuses = result.join().stream()
+            .map(RequestResult::getStatus)
+            .collect(Collectors.toList());
+        Assert.assertEquals(List.of(RequestResult.Status.SUCCESS, RequestResult.Status.INVALID,
+            RequestResult.Status.REJECTED), statuses);
+    }
+
+    @Test
+    public void ArtifactBatchRequestService_requestArtifacts_Cancelled_Stops_Requests() {
+        final var result = service(2, 2).requestArtifacts(
+            List.of(item(FIRST), item(FIRST), item(FIRST), item(FIRST)));
+        Assert.assertEquals(2, requests.size());
+
+        result.cancel(true);
+
+        // The running requests are cancelled and no further request is started.
+        Assert.assertTrue(requests.stream().allMatch(CompletableFuture::isCancelled));
+        Assert.assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void ArtifactBatchRequestService_requestArtifacts_No_Valid_Items_Completed() {
+        final var items = new ArrayList<ArtifactRequestItem>();
+        items.add(null);
+
+        final var result = service(8, 2).requestArtifacts(items);
+
+        Assert.assertTrue(result.isDone());
+        Assert.assertEquals(RequestResult.Status.INVALID, result.join().get(0).getStatus());
+        Assert.assertTrue(requests.isEmpty());
+    }
+}
@@ -0,0 +1,181 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.BackendCircuitBreakerRegistry;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.BackendCircuitBreakerRegistry.State;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class BackendCircuitBreakerRegistryTests {
+
+    private static final String BACKEND = "https://backend.example";
+    private static final long MILLIS = 1_000_000;
+
+    private static BackendCircuitBreakerRegistry registry(Duration openDuration) {
+        return new BackendCircuitBreakerRegistry(3, openDuration, 0.95, Duration.ofSeconds(1),
+            Duration.ofMillis(5));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_onFailure_Threshold_Open() {
+        final var registry = registry(Duration.ofMinutes(1));
+
+        registry.onFailure(BACKEND);
+        registry.onFailure(BACKEND);
+        Assert.assertEquals(State.CLOSED, registry.getState(BACKEND));
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+
+        registry.onFailure(BACKEND);
+        Assert.assertEquals(State.OPEN, registry.getState(BACKEND));
+        Assert.assertFalse(registry.allowRequest(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_onSuccess_Failures_Reset() {
+        final var registry = registry(Duration.ofMinutes(1));
+
+        registry.onFailure(BACKEND);
+        registry.onFailure(BACKEND);
+        registry.onSuccess(BACKEND, MILLIS);
+        registry.onFailure(BACKEND);
+        registry.onFailure(BACKEND);
+
+        Assert.assertEquals(State.CLOSED, registry.getState(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_allowRequest_Single_Trial_After_Open_Duration()
+        throws Exception {
+        final var registry = registry(Duration.ofMillis(100));
+        openBreaker(registry);
+
+        Thread.sleep(150);
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+        Assert.assertEquals(State.HALF_OPEN, registry.getState(BACKEND));
+        Assert.assertFalse(registry.allowRequest(BACKEND));
+
+        registry.onSuccess(BACKEND, MILLIS);
+        Assert.assertEquals(State.CLOSED, registry.getState(BACKEND));
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_onFailure_Trial_Failed_Open() throws Exception {
+        final var registry = registry(Duration.ofMillis(100));
+        openBreaker(registry);
+
+        Thread.sleep(150);
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+        registry.onFailure(BACKEND);
+
+        Assert.assertEquals(State.OPEN, registry.getState(BACKEND));
+        Assert.assertFalse(registry.allowRequest(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_onIgnored_Trial_Given_Back() throws Exception {
+        final var registry = registry(Duration.ofMillis(100));
+        openBreaker(registry);
+
+        Thread.sleep(150);
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+        registry.onIgnored(BACKEND);
+
+        // The next request becomes the trial without waiting another open duration.
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+        Assert.assertEquals(State.HALF_OPEN, registry.getState(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_allowRequest_Lost_Trial_Replaced() throws Exception {
+        final var registry = registry(Duration.ofMillis(100));
+        openBreaker(registry);
+
+        Thread.sleep(150);
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+        Thread.sleep(150);
+        Assert.assertTrue(registry.allowRequest(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_getHedgeDelay_Percentile_Out() {
+        final var registry = registry(Duration.ofMinutes(1));
+        Assert.assertEquals(Duration.ofSeconds(1).toNanos(), registry.getHedgeDelay(BACKEND));
+
+        for (var i = 100; i >= 1; i--) {
+            registry.onSuccess(BACKEND, i * MILLIS);
+        }
+
+        Assert.assertEquals(95 * MILLIS, registry.getHedgeDelay(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_getHedgeDelay_Old_Latencies_Dropped() {
+        final var registry = registry(Duration.ofMinutes(1));
+
+        for (var i = 0; i < 100; i++) {
+            registry.onSuccess(BACKEND, 1000 * MILLIS);
+        }
+
+        for (var i = 0; i < 100; i++) {
+            registry.onSuccess(BACKEND, 10 * MILLIS);
+        }
+
+        Assert.assertEquals(10 * MILLIS, registry.getHedgeDelay(BACKEND));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_getHedgeDelay_Min_Delay_Bound() {
+        final var registry = registry(Duration.ofMinutes(1));
+
+        registry.onSuccess(BACKEND, MILLIS);
+
+        Assert.assertEquals(5 * MILLIS, registry.getHedgeDelay(BACKEND));
+        Assert.assertEquals(5 * MILLIS, registry.getHedgeDelay(null));
+    }
+
+    @Test
+    public void BackendCircuitBreakerRegistry_getBackendKey_Scheme_And_Authority_Out() {
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.HTTPS_GET);
+        source.setUrl(URI.create("https://user@backend.example:8443/data?id=1"));
+        Assert.assertEquals("https://user@backend.example:8443",
+            BackendCircuitBreakerRegistry.getBackendKey(source));
+
+        source.setType(BackendSource.Type.LOCAL);
+        Assert.assertNull(BackendCircuitBreakerRegistry.getBackendKey(source));
+        Assert.assertNull(BackendCircuitBreakerRegistry.getBackendKey(null));
+    }
+
+    @Test
+    public void RequestDeadline_cancel_Registered_Actions_Run_Once() {
+        final var deadline = RequestDeadline.none().cancellable();
+        final var cancelled = new AtomicInteger();
+        deadline.onCancel(cancelled::incrementAndGet);
+
+        deadline.cancel();
+        deadline.cancel();
+        Assert.assertTrue(deadline.isCancelled());
+        Assert.assertEquals(1, cancelled.get());
+
+        // An action registered afterwards is run at once.
+        deadline.onCancel(cancelled::incrementAndGet);
+        Assert.assertEquals(2, cancelled.get());
+        Assert.assertFalse(RequestDeadline.none().isCancelled());
+    }
+
+    private static void openBreaker(BackendCircuitBreakerRegistry registry) {
+        for (var i = 0; i < 3; i++) {
+            registry.onFailure(BACKEND);
+        }
+
+        Assert.assertEquals(State.OPEN, registry.getState(BACKEND));
+    }
+}
@@ -0,0 +1,200 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerJob;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerJobService;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@SpringBootTest
+public class BrokerJobServiceTests {
+
+    private ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    private BrokerJobService service(Duration timeout) {
+        return new BrokerJobService(executor, timeout, Duration.ofMinutes(1), 100);
+    }
+
+    private static Response response(int code, String body) {
+        return response(code, ResponseBody.create(body, MediaType.parse("text/plain")));
+    }
+
+    private static Response response(int code, ResponseBody body) {
+        return new Response.Builder()
+            .request(new Request.Builder().url("https://broker.example/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(code)
+            .message("")
+            .body(body)
+            .build();
+    }
+
+    private static BrokerJob await(BrokerJob job) throws Exception {
+        return job.getCompletion().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void BrokerJobService_submit_Answer_Succeeded() throws Exception {
+        final var service = service(Duration.ofSeconds(5));
+        final var job = await(service.submit("update", "https://broker.example",
+            () -> response(200, "Updated")));
+
+        Assert.assertEquals(BrokerJob.State.SUCCEEDED, job.getState());
+        Assert.assertEquals(Integer.valueOf(200), job.getResponseCode());
+        Assert.assertEquals("Updated", job.getResponse());
+        Assert.assertSame(job, service.getJob(job.getId()));
+    }
+
+    @Test
+    public void BrokerJobService_submit_Exception_Failed() throws Exception {
+        final var job = await(service(Duration.ofSeconds(5)).submit("update",
+            "https://broker.example", () -> {
+                throw new IOException("Connection refused.");
+            }));
+
+        Assert.assertEquals(BrokerJob.State.FAILED, job.getState());
+        Assert.assertNull(job.getResponseCode());
+    }
+
+    @Test
+    public void BrokerJobService_submit_Late_Answer_Not_Written() throws Exception {
+        final var answer = new CountDownLatch(1);
+        final var job = await(service(Duration.ofMillis(100)).submit("update",
+            "https://broker.example", () -> {
+                awaitIgnoringInterrupts(answer);
+                return response(200, "Too late");
+            }));
+
+        Assert.assertEquals(BrokerJob.State.TIMEOUT, job.getState());
+        answer.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(BrokerJob.State.TIMEOUT, job.getState());
+        Assert.assertNull(job.getResponseCode());
+        Assert.assertNull(job.getResponse());
+    }
+
+    @Test
+    public void BrokerJobService_submit_Executor_Full_Rejected() throws Exception {
+        executor.shutdownNow();
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new SynchronousQueue<>());
+        final var service = service(Duration.ofSeconds(5));
+        final var blocked = new CountDownLatch(1);
+        service.submit("update", "https://broker.example", () -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            return response(200, "");
+        });
+
+        try {
+            final var job = service.submit("update", "https://broker.example",
+                () -> response(200, ""));
+            Assert.assertEquals(BrokerJob.State.REJECTED, await(job).getState());
+        } finally {
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    public void BrokerJobService_send_Timeout_Late_Response_Closed() throws Exception {
+        final var answer = new CountDownLatch(1);
+        final var closed = new AtomicBoolean();
+        final var result = service(Duration.ofMillis(100)).send(() -> {
+            awaitIgnoringInterrupts(answer);
+            return response(200, new TrackedBody(closed));
+        });
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            Assert.fail("The broker should not answer in time.");
+        } catch (ExecutionException exception) {
+            Assert.assertTrue(exception.getCause() instanceof TimeoutException);
+        }
+
+        answer.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertTrue("The late response should be closed.", closed.get());
+    }
+
+    /**
+     * Waits for the latch, ignoring interrupts like blocking socket io does.
+     */
+    private static void awaitIgnoringInterrupts(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException exception) {
+                // Keep waiting.
+            }
+        }
+    }
+
+    /**
+     * A response body recording whether it was closed.
+     */
+    private static final class TrackedBody extends ResponseBody {
+
+        private final BufferedSource source;
+
+        private TrackedBody(AtomicBoolean closed) {
+            source = Okio.buffer(new ForwardingSource(new Buffer().writeUtf8("Too late")) {
+                @Override
+                public void close() throws IOException {
+                    closed.set(true);
+                    super.close();
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return null;
+        }
+
+        @Override
+        public long contentLength() {
+            return -1;
+        }
+
+        @NotNull
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerQueryBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Locale;
+
+@SpringBootTest
+public class BrokerQueryBuilderTests {
+
+    @Test
+    public void BrokerQueryBuilder_page_Query_without_Limit_In_Paged_Out() {
+        final var query = "SELECT ?s ?p ?o WHERE { ?s ?p ?o . };";
+
+        final var result = BrokerQueryBuilder.page(query, 50, 100, 1000);
+
+        Assert.assertEquals("SELECT *\nWHERE {\n{\nSELECT ?s ?p ?o WHERE { ?s ?p ?o . }\n}\n}\n"
+            + "LIMIT 50\nOFFSET 100", result);
+    }
+
+    @Test
+    public void BrokerQueryBuilder_page_Query_with_Limit_In_Limited_Out() {
+        final var query = "SELECT ?s WHERE { ?s ?p ?o . } limit 100000";
+
+        final var result = BrokerQueryBuilder.page(query, 50, 0, 1000);
+
+        // The limit of the caller stays in the subquery, the page applies to its results.
+        Assert.assertEquals("SELECT *\nWHERE {\n{\n" + query + "\n}\n}\nLIMIT 50", result);
+    }
+
+    @Test
+    public void BrokerQueryBuilder_page_Limit_in_Subquery_Or_Literal_In_Limited_Out() {
+        final var query = "SELECT ?s WHERE { { SELECT ?s WHERE { ?s ?p ?o } LIMIT 5 } "
+            + "?s ?p \"LIMIT 1\" . }";
+
+        final var result = BrokerQueryBuilder.page(query, 2000, 0, 1000);
+
+        Assert.assertTrue(result.contains(query));
+        Assert.assertTrue(result.endsWith("\n}\n}\nLIMIT 1000"));
+    }
+
+    @Test
+    public void BrokerQueryBuilder_page_Prefixes_And_Datasets_In_Outer_Query_Out() {
+        final var query = "PREFIX ids: <https://w3id.org/idsa/core/>\n"
+            + "BASE <https://example.com/>\n"
+            + "SELECT ?resource FROM <urn:x-arq:UnionGraph> FROM NAMED <urn:graph>\n"
+            + "WHERE { ?resource a ids:Resource . }";
+
+        final var result = BrokerQueryBuilder.page(query, 10, 20, 1000);
+
+        Assert.assertEquals("PREFIX ids: <https://w3id.org/idsa/core/>\n"
+            + "BASE <https://example.com/>\n"
+            + "SELECT *\n"
+            + "FROM <urn:x-arq:UnionGraph>\n"
+            + "FROM NAMED <urn:graph>\n"
+            + "WHERE {\n{\n"
+            + "SELECT ?resource\nWHERE { ?resource a ids:Resource . }\n"
+            + "}\n}\n"
+            + "LIMIT 10\nOFFSET 20", result);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void BrokerQueryBuilder_page_Construct_Query_In() {
+        BrokerQueryBuilder.page("CONSTRUCT { ?s ?p ?o } WHERE { ?s ?p ?o }", 50, 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void BrokerQueryBuilder_page_Empty_Query_In() {
+        BrokerQueryBuilder.page(" ", 50, 0, 1000);
+    }
+
+    @Test
+    public void BrokerQueryBuilder_filter_No_Filter_In_Resources_Out() {
+        final var result = BrokerQueryBuilder.filter(null, null, null, 100, 0);
+
+        Assert.assertTrue(result.contains("?resource a ids:Resource ."));
+        Assert.assertTrue(result.endsWith("LIMIT 100"));
+    }
+
+    @Test
+    public void BrokerQueryBuilder_filter_Keyword_with_Quotes_In_Escaped_Out() {
+        final var result = BrokerQueryBuilder.filter("a\" } DROP", null, null, 100, 0);
+
+        Assert.assertTrue(result.contains("CONTAINS(LCASE(STR(?keyword)), \"a\\\" } drop\")"));
+    }
+
+    @Test
+    public void BrokerQueryBuilder_filter_Keyword_Lower_Case_Independent_Of_Locale() {
+        final var locale = Locale.getDefault();
+        try {
+            Locale.setDefault(new Locale("tr"));
+            final var result = BrokerQueryBuilder.filter("TITLE", null, null, 100, 0);
+
+            Assert.assertTrue(result.contains("\"title\""));
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void BrokerQueryBuilder_filter_Invalid_Publisher_In() {
+        BrokerQueryBuilder.filter(null, "https://example.com> } DROP <x", null, 100, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void BrokerQueryBuilder_filter_Relative_Type_In() {
+        BrokerQueryBuilder.filter(null, null, "Resource", 100, 0);
+    }
+}
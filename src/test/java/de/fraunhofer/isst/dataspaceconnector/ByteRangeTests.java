@@ -0,0 +1,122 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
+import de.fraunhofer.isst.dataspaceconnector.model.RangedData;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+@SpringBootTest
+public class ByteRangeTests {
+
+    private static final byte[] DATA = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void ByteRange_parse_Bounded_Range_Out() {
+        final var range = ByteRange.parse("bytes=2-4");
+
+        Assert.assertNotNull(range);
+        Assert.assertFalse(range.isSuffix());
+        Assert.assertEquals("234", new String(range.slice(DATA), StandardCharsets.UTF_8));
+        Assert.assertEquals(2, range.getFirst(DATA.length));
+        Assert.assertEquals(4, range.getLast(DATA.length));
+    }
+
+    @Test
+    public void ByteRange_parse_Open_Range_Out() {
+        final var range = ByteRange.parse(" bytes = 7 - ");
+
+        Assert.assertNotNull(range);
+        Assert.assertEquals("789", new String(range.slice(DATA), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void ByteRange_parse_Suffix_Range_Out() {
+        final var range = ByteRange.parse("bytes=-3");
+
+        Assert.assertNotNull(range);
+        Assert.assertTrue(range.isSuffix());
+        Assert.assertEquals("789", new String(range.slice(DATA), StandardCharsets.UTF_8));
+        Assert.assertEquals("0123456789",
+            new String(ByteRange.parse("bytes=-20").slice(DATA), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void ByteRange_parse_Last_Beyond_Size_Clamped() {
+        final var range = ByteRange.parse("bytes=8-100");
+
+        Assert.assertEquals("89", new String(range.slice(DATA), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void ByteRange_parse_Unsupported_Null() {
+        Assert.assertNull(ByteRange.parse(null));
+        Assert.assertNull(ByteRange.parse("bytes=5-2"));
+        Assert.assertNull(ByteRange.parse("bytes=-"));
+        Assert.assertNull(ByteRange.parse("bytes=0-1,3-4"));
+        Assert.assertNull(ByteRange.parse("items=0-1"));
+        Assert.assertNull(ByteRange.parse("bytes=99999999999999999999-"));
+    }
+
+    @Test
+    public void ByteRange_isSatisfiable_Outside_Data_False() {
+        Assert.assertFalse(ByteRange.parse("bytes=10-").isSatisfiable(DATA.length));
+        Assert.assertFalse(ByteRange.parse("bytes=-0").isSatisfiable(DATA.length));
+        Assert.assertFalse(ByteRange.parse("bytes=-5").isSatisfiable(0));
+        Assert.assertTrue(ByteRange.parse("bytes=9-").isSatisfiable(DATA.length));
+    }
+
+    @Test
+    public void ByteRange_of_Offset_And_Length_Out() {
+        Assert.assertEquals("bytes=3-7", ByteRange.of(3, 5L).toHeaderValue());
+        Assert.assertEquals("bytes=3-", ByteRange.of(3, null).toHeaderValue());
+        Assert.assertEquals("bytes=3-10", ByteRange.of(3, 5L).extend(3).toHeaderValue());
+        Assert.assertEquals("bytes 3-7/10", ByteRange.toContentRange(3, 7, 10));
+        Assert.assertEquals("bytes 3-7/*", ByteRange.toContentRange(3, 7, -1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ByteRange_of_Negative_Offset_Exception() {
+        ByteRange.of(-1, null);
+    }
+
+    @Test
+    public void RangedData_toUtf8String_Split_Characters_Assigned_Once() {
+        // Two, three and four byte characters between single byte ones.
+        final var text = "a\u00e4\u20acb\uD83D\uDE00c";
+        final var bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        for (var chunk = 1; chunk <= bytes.length; chunk++) {
+            final var joined = new StringBuilder();
+            for (var offset = 0; offset < bytes.length; offset += chunk) {
+                final var range = ByteRange.of(offset, (long) chunk);
+                joined.append(ranged(bytes, range).toUtf8String(range));
+            }
+
+            Assert.assertEquals("Chunk size " + chunk, text, joined.toString());
+        }
+    }
+
+    @Test
+    public void RangedData_toUtf8String_Unknown_Size_Out() {
+        final var bytes = "a\u00e4\u20ac".getBytes(StandardCharsets.UTF_8);
+        final var range = ByteRange.of(0, 2L);
+        final var ranged = new RangedData(range.extend(3).slice(bytes), 0, -1);
+
+        // The range ends within the second character, which is completed.
+        Assert.assertEquals("a\u00e4", ranged.toUtf8String(range));
+    }
+
+    /**
+     * Selects the range and the three bytes behind it, as the data service does.
+     */
+    private static RangedData ranged(byte[] bytes, ByteRange range) {
+        final var extended = range.extend(3);
+        final var first = (int) extended.getFirst(bytes.length);
+        final var last = (int) extended.getLast(bytes.length);
+        return new RangedData(Arrays.copyOfRange(bytes, first, last + 1), first, bytes.length);
+    }
+}
@@ -0,0 +1,115 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.DynamicAttributeToken;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.DatTokenCache;
+import de.fraunhofer.isst.ids.framework.spring.starter.TokenProvider;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+@SpringBootTest
+public class DatTokenCacheTests {
+
+    private static DynamicAttributeToken token(long expiresInSeconds) {
+        final var claims = String.format("{\"exp\":%d}",
+            Instant.now().getEpochSecond() + expiresInSeconds);
+        final var encoder = Base64.getUrlEncoder().withoutPadding();
+        final var jwt = encoder.encodeToString("{}".getBytes(StandardCharsets.UTF_8)) + "."
+            + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".signature";
+
+        final var token = Mockito.mock(DynamicAttributeToken.class);
+        Mockito.when(token.getTokenValue()).thenReturn(jwt);
+        return token;
+    }
+
+    private static DatTokenCache cache(TokenProvider tokenProvider,
+        Duration refreshBeforeExpiry) {
+        return new DatTokenCache(tokenProvider, refreshBeforeExpiry, Duration.ofMillis(100),
+            Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void DatTokenCache_getTokenJWS_Valid_Token_Cached() {
+        final var tokenProvider = Mockito.mock(TokenProvider.class);
+        final var token = token(3600);
+        Mockito.when(tokenProvider.getTokenJWS()).thenReturn(token);
+        final var cache = cache(tokenProvider, Duration.ofMinutes(1));
+
+        try {
+            Assert.assertSame(token, cache.getTokenJWS());
+            Assert.assertSame(token, cache.getTokenJWS());
+            Mockito.verify(tokenProvider, Mockito.times(1)).getTokenJWS();
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    public void DatTokenCache_getTokenJWS_Expired_Token_Null() {
+        final var tokenProvider = Mockito.mock(TokenProvider.class);
+        final var expired = token(-10);
+        Mockito.when(tokenProvider.getTokenJWS()).thenReturn(expired);
+        final var cache = cache(tokenProvider, Duration.ofMinutes(1));
+
+        try {
+            Assert.assertNull(cache.getTokenJWS());
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    public void DatTokenCache_refresh_Before_Expiry_New_Token() throws Exception {
+        final var tokenProvider = Mockito.mock(TokenProvider.class);
+        final var first = token(3);
+        final var second = token(3600);
+        Mockito.when(tokenProvider.getTokenJWS()).thenReturn(first, second);
+        final var cache = cache(tokenProvider, Duration.ofMillis(2500));
+
+        try {
+            Assert.assertSame(first, cache.getTokenJWS());
+
+            // The first token is replaced in the background before it expires.
+            final var deadline = Instant.now().plusSeconds(2);
+            while (cache.getTokenJWS() != second && Instant.now().isBefore(deadline)) {
+                Thread.sleep(50);
+            }
+
+            Assert.assertSame(second, cache.getTokenJWS());
+            Mockito.verify(tokenProvider, Mockito.times(2)).getTokenJWS();
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    public void DatTokenCache_refresh_Expired_Token_Keeps_Current_Until_Expiry()
+        throws Exception {
+        final var tokenProvider = Mockito.mock(TokenProvider.class);
+        final var first = token(3);
+        final var expired = token(-10);
+        Mockito.when(tokenProvider.getTokenJWS()).thenReturn(first, expired);
+        final var cache = cache(tokenProvider, Duration.ofMillis(2500));
+
+        try {
+            Assert.assertSame(first, cache.getTokenJWS());
+
+            // The refresh fails and is retried, the current token stays in use.
+            Mockito.verify(tokenProvider, Mockito.timeout(3000).atLeast(3)).getTokenJWS();
+            Assert.assertSame(first, cache.getTokenJWS());
+
+            // Once the current token expired, there is no valid token.
+            Thread.sleep(Duration.between(Instant.now(),
+                Instant.ofEpochSecond(Instant.now().getEpochSecond() + 4)).toMillis());
+            Assert.assertNull(cache.getTokenJWS());
+        } finally {
+            cache.shutdown();
+        }
+    }
+}
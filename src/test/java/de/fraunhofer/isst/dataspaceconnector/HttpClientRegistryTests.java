@@ -0,0 +1,110 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import com.sun.net.httpserver.HttpServer;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.HttpClientRegistry;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class HttpClientRegistryTests {
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private final OkHttpClient client = new OkHttpClient();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/slow", exchange -> {
+            requests.incrementAndGet();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.createContext("/fast", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void stopServer() {
+        executor.shutdownNow();
+        server.stop(0);
+    }
+
+    private Request request(String path) {
+        return new Request.Builder()
+            .url("http://localhost:" + server.getAddress().getPort() + path)
+            .build();
+    }
+
+    @Test
+    public void HttpClientRegistry_executeAsync_Timeout_Call_Cancelled() throws Exception {
+        final var slow = HttpClientRegistry.executeAsync(
+            () -> client.newCall(request("/slow")), executor)
+            .orTimeout(200, TimeUnit.MILLISECONDS);
+
+        try {
+            slow.get();
+            Assert.fail("The request should time out.");
+        } catch (ExecutionException exception) {
+            Assert.assertTrue(exception.getCause() instanceof TimeoutException);
+        }
+
+        // The single executor thread is free again long before the server would respond.
+        final var fast = HttpClientRegistry.executeAsync(
+            () -> client.newCall(request("/fast")), executor);
+        try (var response = fast.get(5, TimeUnit.SECONDS)) {
+            Assert.assertEquals(200, response.code());
+        }
+    }
+
+    @Test
+    public void HttpClientRegistry_executeAsync_Cancelled_While_Queued_Not_Started()
+        throws Exception {
+        final var blocker = new CompletableFuture<Void>();
+        executor.execute(blocker::join);
+
+        final var queued = HttpClientRegistry.executeAsync(
+            () -> client.newCall(request("/fast")), executor);
+        Assert.assertTrue(queued.cancel(true));
+        blocker.complete(null);
+
+        executor.submit(() -> { }).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(0, requests.get());
+    }
+
+    @Test
+    public void HttpClientRegistry_executeAsync_Rejected_Completed_Exceptionally() {
+        executor.shutdown();
+
+        final var rejected = HttpClientRegistry.executeAsync(
+            () -> client.newCall(request("/fast")), executor);
+
+        Assert.assertTrue(rejected.isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,146 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.services.communication.MultipartStreamReader;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+@SpringBootTest
+public class MultipartStreamReaderTests {
+
+    private static final String BOUNDARY = "boundary42";
+
+    private static String body(String preamble) {
+        return preamble
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"header\"\r\n"
+            + "Content-Type: application/json\r\n"
+            + "\r\n"
+            + "{\"a\":1}\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=payload\r\n"
+            + "\r\n"
+            + "line one\r\nline two\r\n-- not a boundary\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Hands out one byte per read, so every delimiter is split across reads.
+     */
+    private static InputStream trickle(String body) {
+        return new FilterInputStream(stream(body)) {
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                return super.read(bytes, offset, Math.min(length, 1));
+            }
+        };
+    }
+
+    private static void assertParts(MultipartStreamReader reader) throws IOException {
+        Assert.assertTrue(reader.nextPart());
+        Assert.assertEquals("header", reader.getPartName());
+        Assert.assertEquals("application/json", reader.getHeaders().get("content-type"));
+        Assert.assertEquals("{\"a\":1}", reader.readPartAsString(1024));
+
+        Assert.assertTrue(reader.nextPart());
+        Assert.assertEquals("payload", reader.getPartName());
+        Assert.assertEquals("line one\r\nline two\r\n-- not a boundary",
+            reader.readPartAsString(1024));
+
+        Assert.assertFalse(reader.nextPart());
+        Assert.assertFalse(reader.nextPart());
+    }
+
+    @Test
+    public void MultipartStreamReader_nextPart_Body_Parts_Out() throws Exception {
+        try (var reader = new MultipartStreamReader(stream(body("")), BOUNDARY)) {
+            assertParts(reader);
+        }
+    }
+
+    @Test
+    public void MultipartStreamReader_nextPart_Split_Boundaries_Parts_Out() throws Exception {
+        try (var reader = new MultipartStreamReader(trickle(body("")), BOUNDARY)) {
+            assertParts(reader);
+        }
+    }
+
+    @Test
+    public void MultipartStreamReader_nextPart_Preamble_Skipped() throws Exception {
+        final var preamble = "This is the preamble.\r\n-- with dashes --\r\n";
+        try (var reader = new MultipartStreamReader(trickle(body(preamble)), BOUNDARY)) {
+            assertParts(reader);
+        }
+    }
+
+    @Test
+    public void MultipartStreamReader_nextPart_Unread_Part_Skipped() throws Exception {
+        try (var reader = new MultipartStreamReader(stream(body("")), BOUNDARY)) {
+            Assert.assertTrue(reader.nextPart());
+            Assert.assertTrue(reader.nextPart());
+            Assert.assertEquals("payload", reader.getPartName());
+        }
+    }
+
+    @Test
+    public void MultipartStreamReader_readPartAsString_Large_Part_Out() throws Exception {
+        // Larger than the buffer, with line breaks around every chunk border.
+        final var content = "0123456789abcde\r".repeat(2048);
+        final var body = "--" + BOUNDARY + "\r\n\r\n" + content + "\r\n--" + BOUNDARY + "--";
+
+        try (var reader = new MultipartStreamReader(stream(body), BOUNDARY)) {
+            Assert.assertTrue(reader.nextPart());
+            Assert.assertEquals(content, reader.readPartAsString(content.length()));
+            Assert.assertFalse(reader.nextPart());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void MultipartStreamReader_readPartAsString_Too_Large_Exception() throws Exception {
+        try (var reader = new MultipartStreamReader(stream(body("")), BOUNDARY)) {
+            reader.nextPart();
+            reader.nextPart();
+            reader.readPartAsString(10);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void MultipartStreamReader_nextPart_Missing_Line_Break_Exception() throws Exception {
+        final var body = "--" + BOUNDARY + "Content-Type: text/plain\r\n\r\ndata\r\n--"
+            + BOUNDARY + "--";
+        try (var reader = new MultipartStreamReader(stream(body), BOUNDARY)) {
+            reader.nextPart();
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void MultipartStreamReader_readPartAsString_Truncated_Body_Exception()
+        throws Exception {
+        final var body = "--" + BOUNDARY + "\r\n\r\ndata without closing boundary";
+        try (var reader = new MultipartStreamReader(stream(body), BOUNDARY)) {
+            reader.nextPart();
+            reader.readPartAsString(1024);
+        }
+    }
+
+    @Test
+    public void MultipartStreamReader_getBoundary_Quoted_And_Plain_Out() {
+        Assert.assertEquals("abc",
+            MultipartStreamReader.getBoundary("multipart/form-data; boundary=abc"));
+        Assert.assertEquals("a b",
+            MultipartStreamReader.getBoundary("multipart/mixed; BOUNDARY=\"a b\"; x=y"));
+        Assert.assertNull(MultipartStreamReader.getBoundary("application/json"));
+        Assert.assertNull(MultipartStreamReader.getBoundary(null));
+    }
+}
@@ -0,0 +1,60 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.PayloadEncoding;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.PayloadRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.PayloadService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+@SpringBootTest
+public class PayloadServiceTests {
+
+    private static PayloadService service() {
+        return new PayloadService(Mockito.mock(PayloadRepository.class),
+            Mockito.mock(PlatformTransactionManager.class), "gzip");
+    }
+
+    @Test
+    public void PayloadService_prepare_Compressible_Stream_Gzip_Out() throws Exception {
+        final var data = "Compressible data. ".repeat(100);
+
+        final var payload = service().prepare(
+            new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(PayloadEncoding.GZIP, payload.getEncoding());
+        Assert.assertEquals(data, payload.getContentAsString());
+    }
+
+    @Test
+    public void PayloadService_prepare_Incompressible_Stream_Identity_Out() throws Exception {
+        final var bytes = new byte[4096];
+        new Random(42).nextBytes(bytes);
+
+        final var payload = service().prepare(new ByteArrayInputStream(bytes));
+
+        Assert.assertEquals(PayloadEncoding.IDENTITY, payload.getEncoding());
+        Assert.assertArrayEquals(bytes, payload.getContent());
+        Assert.assertEquals(Long.valueOf(bytes.length), payload.getSize());
+    }
+
+    @Test
+    public void PayloadService_prepare_String_And_Stream_Same_Payload() throws Exception {
+        final var service = service();
+        final var data = "a";
+
+        final var fromString = service.prepare(data);
+        final var fromStream = service.prepare(
+            new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+
+        Assert.assertEquals(fromString.getHash(), fromStream.getHash());
+        Assert.assertEquals(PayloadEncoding.IDENTITY, fromStream.getEncoding());
+        Assert.assertArrayEquals(fromString.getContent(), fromStream.getContent());
+    }
+}
@@ -0,0 +1,122 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.DescriptionResponseMessage;
+import de.fraunhofer.iais.eis.ids.jsonld.Serializer;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.RemoteDescriptionCache;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceRepository;
+import de.fraunhofer.isst.ids.framework.spring.starter.SerializerProvider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+@SpringBootTest
+public class RemoteDescriptionCacheTests {
+
+    private static final URI RECIPIENT = URI.create("https://connector.example/api/ids/data");
+    private static final URI ELEMENT = URI.create("https://w3id.org/idsa/autogen/resource/1");
+    private static final String BOUNDARY = "boundary42";
+
+    private SerializerProvider serializerProvider;
+    private RequestedResourceRepository requestedResourceRepository;
+
+    @Before
+    public void mockServices() throws Exception {
+        final var serializer = Mockito.mock(Serializer.class);
+        Mockito.when(serializer.deserialize(ArgumentMatchers.startsWith("rejection"),
+            ArgumentMatchers.eq(DescriptionResponseMessage.class)))
+            .thenThrow(new IOException("Not a description response."));
+
+        serializerProvider = Mockito.mock(SerializerProvider.class);
+        Mockito.when(serializerProvider.getSerializer()).thenReturn(serializer);
+
+        requestedResourceRepository = Mockito.mock(RequestedResourceRepository.class);
+    }
+
+    private RemoteDescriptionCache cache(boolean enabled, Duration refreshAfter) {
+        return new RemoteDescriptionCache(serializerProvider, requestedResourceRepository,
+            enabled, Duration.ofMinutes(30), refreshAfter, 1024 * 1024);
+    }
+
+    private static String response(String header, String payload) {
+        return "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"header\"\r\n"
+            + "Content-Type: text/plain;charset=UTF-8\r\n"
+            + "\r\n"
+            + header + "\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"payload\"\r\n"
+            + "Content-Type: text/plain;charset=UTF-8\r\n"
+            + "\r\n"
+            + payload + "\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+    }
+
+    @Test
+    public void RemoteDescriptionCache_get_Refresh_Age_Passed_Needs_Refresh() throws Exception {
+        final var cache = cache(true, Duration.ofMillis(100));
+        final var response = response("{\"@id\":\"first\"}", "{\"title\":\"Weather\"}");
+        cache.put(RECIPIENT, null, response, null);
+
+        final var fresh = cache.get(RECIPIENT, null);
+        Assert.assertEquals(response, fresh.getResponse());
+        Assert.assertFalse(fresh.needsRefresh());
+
+        Thread.sleep(150);
+
+        // The description is still served until it is fetched again.
+        final var stale = cache.get(RECIPIENT, null);
+        Assert.assertEquals(response, stale.getResponse());
+        Assert.assertTrue(stale.needsRefresh());
+        Assert.assertNull(cache.get(RECIPIENT, ELEMENT));
+    }
+
+    @Test
+    public void RemoteDescriptionCache_getUnchangedValidationKey_Same_Payload_Reused() {
+        final var cache = cache(true, Duration.ofMinutes(5));
+        final var key = UUID.randomUUID();
+        Mockito.when(requestedResourceRepository.existsById(key)).thenReturn(true);
+        cache.put(RECIPIENT, ELEMENT, response("{\"@id\":\"first\"}", "{\"title\":\"Weather\"}"),
+            key);
+        final var previous = cache.get(RECIPIENT, ELEMENT);
+
+        // Every response has a new header, only the payload is compared.
+        Assert.assertEquals(key, cache.getUnchangedValidationKey(previous,
+            response("{\"@id\":\"second\"}", "{\"title\":\"Weather\"}")));
+        Assert.assertNull(cache.getUnchangedValidationKey(previous,
+            response("{\"@id\":\"second\"}", "{\"title\":\"Traffic\"}")));
+        Assert.assertNull(cache.getUnchangedValidationKey(null,
+            response("{\"@id\":\"second\"}", "{\"title\":\"Weather\"}")));
+    }
+
+    @Test
+    public void RemoteDescriptionCache_get_Removed_Resource_Evicted() {
+        final var cache = cache(true, Duration.ofMinutes(5));
+        final var key = UUID.randomUUID();
+        Mockito.when(requestedResourceRepository.existsById(key)).thenReturn(true, false);
+        cache.put(RECIPIENT, ELEMENT, response("{\"@id\":\"first\"}", "{}"), key);
+
+        Assert.assertEquals(key, cache.get(RECIPIENT, ELEMENT).getValidationKey());
+        Assert.assertNull(cache.get(RECIPIENT, ELEMENT));
+        Assert.assertNull(cache.get(RECIPIENT, ELEMENT));
+        Mockito.verify(requestedResourceRepository, Mockito.times(2)).existsById(key);
+    }
+
+    @Test
+    public void RemoteDescriptionCache_put_Rejection_Or_Disabled_Not_Cached() {
+        final var cache = cache(true, Duration.ofMinutes(5));
+        cache.put(RECIPIENT, null, response("rejection", "{}"), null);
+        Assert.assertNull(cache.get(RECIPIENT, null));
+
+        final var disabled = cache(false, Duration.ofMinutes(5));
+        disabled.put(RECIPIENT, null, response("{\"@id\":\"first\"}", "{}"), null);
+        Assert.assertNull(disabled.get(RECIPIENT, null));
+    }
+}
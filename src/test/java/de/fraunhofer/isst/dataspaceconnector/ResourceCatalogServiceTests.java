@@ -0,0 +1,153 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.iais.eis.Resource;
+import de.fraunhofer.iais.eis.ResourceBuilder;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.services.IdsUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCatalogService;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+public class ResourceCatalogServiceTests {
+
+    private final List<OfferedResource> resources = new ArrayList<>();
+    private OfferedResourceRepository repository;
+    private OfferedResourceService offeredResourceService;
+    private IdsUtils idsUtils;
+
+    @Before
+    public void mockServices() {
+        for (var i = 0; i < 5; i++) {
+            resources.add(new OfferedResource(new UUID(0, i), new Date(), new Date(),
+                new ResourceMetadata(), null));
+        }
+
+        repository = Mockito.mock(OfferedResourceRepository.class);
+        Mockito.when(repository.count()).thenAnswer(invocation -> (long) resources.size());
+        Mockito.when(repository.findAll(ArgumentMatchers.any(Pageable.class)))
+            .thenAnswer(invocation -> {
+                final Pageable pageable = invocation.getArgument(0);
+                final var from = (int) Math.min(pageable.getOffset(), resources.size());
+                final var to = Math.min(from + pageable.getPageSize(), resources.size());
+                return new PageImpl<>(resources.subList(from, to), pageable, resources.size());
+            });
+
+        idsUtils = Mockito.mock(IdsUtils.class);
+        Mockito.when(idsUtils.getAsResource(ArgumentMatchers.any()))
+            .thenAnswer(invocation -> resource(invocation.getArgument(0)));
+
+        offeredResourceService = Mockito.mock(OfferedResourceService.class);
+        Mockito.when(offeredResourceService.getResourceList()).thenAnswer(invocation ->
+            resources.stream().map(ResourceCatalogServiceTests::resource)
+                .collect(Collectors.toList()));
+    }
+
+    private static Resource resource(OfferedResource resource) {
+        return new ResourceBuilder(URI.create("https://w3id.org/idsa/autogen/resource/"
+            + resource.getUuid())).build();
+    }
+
+    private ResourceCatalogService service(int pageSize) throws Exception {
+        final var service = new ResourceCatalogService(repository, offeredResourceService,
+            idsUtils);
+        Field pageSizeField = ResourceCatalogService.class.getDeclaredField("pageSize");
+        pageSizeField.setAccessible(true);
+        pageSizeField.set(service, pageSize);
+        return service;
+    }
+
+    @Test
+    public void ResourceCatalogService_getCatalogs_No_Paging_Cached_Resources() throws Exception {
+        final var catalogs = service(0).getCatalogs();
+
+        Assert.assertEquals(1, catalogs.size());
+        Assert.assertEquals(5, catalogs.get(0).getOfferedResource().size());
+        Mockito.verify(offeredResourceService).getResourceList();
+        Mockito.verify(repository, Mockito.never()).findAll();
+        Mockito.verify(repository, Mockito.never()).findAll(ArgumentMatchers.any(Pageable.class));
+    }
+
+    @Test
+    public void ResourceCatalogService_getCatalogs_Fitting_On_Page_Single_Catalog()
+        throws Exception {
+        final var catalogs = service(5).getCatalogs();
+
+        Assert.assertEquals(1, catalogs.size());
+        Assert.assertEquals(5, catalogs.get(0).getOfferedResource().size());
+    }
+
+    @Test
+    public void ResourceCatalogService_getCatalogs_Paging_First_Page_And_References()
+        throws Exception {
+        final var catalogs = service(2).getCatalogs();
+
+        Assert.assertEquals(3, catalogs.size());
+        Assert.assertEquals(2, catalogs.get(0).getOfferedResource().size());
+        Assert.assertEquals(URI.create(ResourceCatalogService.PAGE_PREFIX + "0"),
+            catalogs.get(0).getId());
+        Assert.assertEquals(URI.create(ResourceCatalogService.PAGE_PREFIX + "1"),
+            catalogs.get(1).getId());
+        Assert.assertEquals(URI.create(ResourceCatalogService.PAGE_PREFIX + "2"),
+            catalogs.get(2).getId());
+    }
+
+    @Test
+    public void ResourceCatalogService_getPage_Boundaries_Out() throws Exception {
+        final var service = service(2);
+
+        Assert.assertEquals(2, service.getPage(1).getOfferedResource().size());
+        Assert.assertEquals(1, service.getPage(2).getOfferedResource().size());
+        Assert.assertNull(service.getPage(3));
+        Assert.assertNull(service.getPage(-1));
+        Assert.assertNull(service(0).getPage(0));
+    }
+
+    @Test
+    public void ResourceCatalogService_getPage_Id_Valid_After_Resources_Changed()
+        throws Exception {
+        final var service = service(2);
+        final var id = service.getCatalogs().get(2).getId();
+
+        // The last page moves as resources are added and is still found by its id.
+        resources.add(new OfferedResource(new UUID(0, 5), new Date(), new Date(),
+            new ResourceMetadata(), null));
+        final var page = service.getPage(ResourceCatalogService.getPageNumber(id));
+
+        Assert.assertEquals(id, page.getId());
+        Assert.assertEquals(2, page.getOfferedResource().size());
+    }
+
+    @Test
+    public void ResourceCatalogService_getPageNumber_Page_Ids_Parsed() {
+        final var prefix = ResourceCatalogService.PAGE_PREFIX;
+
+        Assert.assertEquals(Integer.valueOf(3), ResourceCatalogService.getPageNumber(
+            URI.create(prefix + "3")));
+        Assert.assertEquals(Integer.valueOf(3), ResourceCatalogService.getPageNumber(
+            URI.create(prefix + "3?size=2&total=7")));
+        Assert.assertNull(ResourceCatalogService.getPageNumber(URI.create(prefix + "x")));
+        Assert.assertNull(ResourceCatalogService.getPageNumber(URI.create(prefix)));
+        Assert.assertNull(ResourceCatalogService.getPageNumber(URI.create(prefix + "1234567890")));
+        Assert.assertNull(ResourceCatalogService.getPageNumber(
+            URI.create("https://w3id.org/idsa/autogen/resource/3")));
+        Assert.assertNull(ResourceCatalogService.getPageNumber(null));
+    }
+}
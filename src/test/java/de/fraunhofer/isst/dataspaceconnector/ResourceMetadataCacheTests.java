@@ -0,0 +1,92 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceMetadataCache;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+public class ResourceMetadataCacheTests {
+
+    private static ResourceMetadataCache<OfferedResource> cache() {
+        return new ResourceMetadataCache<>(true, 100, Duration.ofMinutes(10),
+            resource -> new OfferedResource(resource.getUuid(), resource.getCreated(),
+                resource.getModified(), resource.getResourceMetadata(), null));
+    }
+
+    private static OfferedResource resource(UUID uuid, String title) {
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle(title);
+        return new OfferedResource(uuid, new Date(), new Date(), metadata, null);
+    }
+
+    @Test
+    public void ResourceMetadataCache_getAll_Cached_Loaded_Once() {
+        final var cache = cache();
+        final var loads = new AtomicInteger();
+
+        cache.getAll(() -> {
+            loads.incrementAndGet();
+            return new ArrayList<>(List.of(resource(UUID.randomUUID(), "Cached")));
+        });
+        final var list = cache.getAll(() -> {
+            loads.incrementAndGet();
+            return new ArrayList<>();
+        });
+
+        Assert.assertEquals(1, loads.get());
+        Assert.assertEquals("Cached", list.get(0).getResourceMetadata().getTitle());
+    }
+
+    @Test
+    public void ResourceMetadataCache_getAll_Invalidated_During_Load_Not_Kept() {
+        final var cache = cache();
+
+        final var stale = cache.getAll(() -> {
+            final var list = new ArrayList<>(List.of(resource(UUID.randomUUID(), "Stale")));
+            cache.invalidateAll();
+            return list;
+        });
+        final var fresh = cache.getAll(
+            () -> new ArrayList<>(List.of(resource(UUID.randomUUID(), "Fresh"))));
+
+        Assert.assertEquals("Stale", stale.get(0).getResourceMetadata().getTitle());
+        Assert.assertEquals("Fresh", fresh.get(0).getResourceMetadata().getTitle());
+    }
+
+    @Test
+    public void ResourceMetadataCache_get_Invalidated_During_Load_Not_Kept() {
+        final var cache = cache();
+        final var uuid = UUID.randomUUID();
+
+        cache.get(uuid, key -> {
+            cache.invalidate(key);
+            return Optional.of(resource(key, "Stale"));
+        });
+        final var fresh = cache.get(uuid, key -> Optional.of(resource(key, "Fresh")));
+
+        Assert.assertEquals("Fresh", fresh.orElseThrow().getResourceMetadata().getTitle());
+    }
+
+    @Test
+    public void ResourceMetadataCache_invalidate_Resource_Reloaded() {
+        final var cache = cache();
+        final var uuid = UUID.randomUUID();
+
+        cache.get(uuid, key -> Optional.of(resource(key, "Old")));
+        cache.invalidate(uuid);
+        final var reloaded = cache.get(uuid, key -> Optional.of(resource(key, "New")));
+
+        Assert.assertEquals("New", reloaded.orElseThrow().getResourceMetadata().getTitle());
+    }
+}
@@ -0,0 +1,73 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceSearchIndex;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+public class ResourceSearchIndexTests {
+
+    private static OfferedResource resource(UUID uuid, String title, String description,
+        List<String> keywords) {
+        final var metadata = new ResourceMetadata(title, description, keywords, null,
+            URI.create("https://example.com/owner"), null, "1.0", null);
+        return new OfferedResource(uuid, new Date(), new Date(), metadata, null);
+    }
+
+    @Test
+    public void ResourceSearchIndex_search_Title_Match_Ranked_First() {
+        final var index = new ResourceSearchIndex();
+        final var weather = UUID.randomUUID();
+        final var traffic = UUID.randomUUID();
+        index.onSave(resource(weather, "Weather Data", "Hourly measurements.", List.of("climate")));
+        index.onSave(resource(traffic, "Traffic", "Depends on the weather.", List.of("roads")));
+
+        final var result = index.search("weather", 0, 10);
+
+        Assert.assertEquals(2, result.getTotal());
+        Assert.assertEquals(weather, result.getHits().get(0).getUuid());
+        Assert.assertEquals(traffic, result.getHits().get(1).getUuid());
+    }
+
+    @Test
+    public void ResourceSearchIndex_search_Offset_and_Limit_In_Page_Out() {
+        final var index = new ResourceSearchIndex();
+        for (var i = 0; i < 5; i++) {
+            index.onSave(resource(UUID.randomUUID(), "Sensor " + i, null, List.of("sensor")));
+        }
+
+        final var result = index.search("sensor", 3, 10);
+
+        Assert.assertEquals(5, result.getTotal());
+        Assert.assertEquals(2, result.getHits().size());
+    }
+
+    @Test
+    public void ResourceSearchIndex_onSave_Updated_Resource_Reindexed() {
+        final var index = new ResourceSearchIndex();
+        final var uuid = UUID.randomUUID();
+        index.onSave(resource(uuid, "Old Title", null, null));
+        index.onSave(resource(uuid, "New Title", null, null));
+
+        Assert.assertEquals(0, index.search("old", 0, 10).getTotal());
+        Assert.assertEquals(1, index.search("new", 0, 10).getTotal());
+    }
+
+    @Test
+    public void ResourceSearchIndex_onRemove_Resource_Not_Found() {
+        final var index = new ResourceSearchIndex();
+        final var uuid = UUID.randomUUID();
+        index.onSave(resource(uuid, "Weather", null, null));
+        index.onRemove(resource(uuid, "Weather", null, null));
+
+        Assert.assertEquals(0, index.search("weather", 0, 10).getTotal());
+    }
+}
@@ -0,0 +1,183 @@
+package de.fraunhofer.isst.dataspaceconnector;
+
+import de.fraunhofer.isst.dataspaceconnector.config.ResponseCompressionFilter;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest
+public class ResponseCompressionFilterTests {
+
+    private static final String LARGE = "{\"data\":\"" + "compressible ".repeat(400) + "\"}";
+    private static final String CHUNK = "chunk of a streamed body ".repeat(100);
+
+    private TestController controller;
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        final var filter = new ResponseCompressionFilter(true, 2048,
+            new String[]{"application/json", "text/plain"});
+        controller = new TestController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request)
+        throws Exception {
+        return mockMvc.perform(request.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andReturn().getResponse();
+    }
+
+    private static String decompress(byte[] bytes) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Small_Response_Unchanged() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.get("/small"));
+
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals("small", response.getContentAsString());
+        Assert.assertEquals(5, response.getContentLength());
+        Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Large_Response_Compressed() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.get("/large"));
+
+        Assert.assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        Assert.assertTrue(response.getContentAsByteArray().length < LARGE.length());
+        Assert.assertEquals(LARGE, decompress(response.getContentAsByteArray()));
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Not_Accepted_Unchanged() throws Exception {
+        final var response = mockMvc.perform(MockMvcRequestBuilders.get("/large"))
+            .andReturn().getResponse();
+
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(LARGE, response.getContentAsString());
+        Assert.assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Partial_Response_Unchanged() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.get("/partial"));
+
+        Assert.assertEquals(HttpStatus.PARTIAL_CONTENT.value(), response.getStatus());
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(LARGE, response.getContentAsString());
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Not_Modified_Unchanged() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.get("/not-modified"));
+
+        Assert.assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Encoded_Response_Unchanged() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.get("/encoded"));
+
+        Assert.assertEquals("deflate", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(LARGE, response.getContentAsString());
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Head_Request_Not_Encoded() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.head("/large"));
+
+        Assert.assertEquals(HttpStatus.OK.value(), response.getStatus());
+        Assert.assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void ResponseCompressionFilter_doFilter_Streamed_Response_Flushed() throws Exception {
+        final var response = perform(MockMvcRequestBuilders.get("/stream"));
+
+        Assert.assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        Assert.assertEquals(CHUNK + CHUNK, decompress(response.getContentAsByteArray()));
+
+        // The first chunk reached the client before the second one was written.
+        Assert.assertTrue(controller.flushedBeforeSecondChunk > 0);
+    }
+
+    @RestController
+    public static class TestController {
+
+        private int flushedBeforeSecondChunk;
+
+        @GetMapping("/small")
+        public ResponseEntity<String> small() {
+            return ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN).body("small");
+        }
+
+        @GetMapping("/large")
+        public ResponseEntity<String> large() {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(LARGE);
+        }
+
+        @GetMapping("/partial")
+        public ResponseEntity<String> partial() {
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .header(HttpHeaders.CONTENT_RANGE,
+                    "bytes 0-" + (LARGE.length() - 1) + "/" + (LARGE.length() * 2))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(LARGE);
+        }
+
+        @GetMapping("/not-modified")
+        public ResponseEntity<Void> notModified() {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"tag\"").build();
+        }
+
+        @GetMapping("/encoded")
+        public ResponseEntity<byte[]> encoded() {
+            return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_ENCODING, "deflate")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(LARGE.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @GetMapping("/stream")
+        public void stream(HttpServletResponse response) throws IOException {
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            final var client = (MockHttpServletResponse)
+                ((HttpServletResponseWrapper) response).getResponse();
+
+            final var out = response.getOutputStream();
+            out.write(CHUNK.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            flushedBeforeSecondChunk = client.getContentAsByteArray().length;
+
+            out.write(CHUNK.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.iais.eis.DynamicAttributeToken;
+import de.fraunhofer.iais.eis.Resource;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerPublication;
+import de.fraunhofer.isst.dataspaceconnector.model.BrokerSyncStatus;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerPublicationRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.BrokerSyncService;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.DatTokenCache;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.ids.framework.spring.starter.BrokerService;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * This class tests that the broker synchronization sends only the changed resources, in batches,
+ * and retries failed requests with exponential backoff.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class BrokerSyncTest {
+
+    @Autowired
+    private BrokerSyncService brokerSyncService;
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Autowired
+    private OfferedResourceRepository offeredResourceRepository;
+
+    @Autowired
+    private BrokerPublicationRepository publicationRepository;
+
+    private BrokerService brokerService;
+
+    private final List<Instant> calls = Collections.synchronizedList(new ArrayList<>());
+
+    private Object originalBrokerService;
+
+    private Object originalTokenCache;
+
+    @Before
+    public void init() throws Exception {
+        // Start without the resources of other tests, so every resource is known.
+        for (final var resource : offeredResourceRepository.findAll()) {
+            offeredResourceService.deleteResource(resource.getUuid());
+        }
+
+        final var tokenCache = Mockito.mock(DatTokenCache.class);
+        Mockito.when(tokenCache.getTokenJWS())
+            .thenReturn(Mockito.mock(DynamicAttributeToken.class));
+        brokerService = Mockito.mock(BrokerService.class);
+
+        originalBrokerService = setField("brokerService", brokerService);
+        originalTokenCache = setField("tokenCache", tokenCache);
+        setField("batchSize", 100);
+        setField("maxAttempts", 1);
+        setField("initialBackoff", Duration.ofMillis(100));
+        setField("maxBackoff", Duration.ofMillis(150));
+    }
+
+    @After
+    public void restore() throws Exception {
+        setField("brokerService", originalBrokerService);
+        setField("tokenCache", originalTokenCache);
+    }
+
+    @Test
+    public void startSync_changedResources_onlyDifferenceSent() throws Exception {
+        final var broker = newBroker();
+        final var first = offeredResourceService.addResource(getResourceMetadata());
+        final var second = offeredResourceService.addResource(getResourceMetadata());
+        brokerAnswers(true);
+
+        var status = synchronize(broker);
+        Assert.assertEquals(BrokerSyncStatus.State.COMPLETED, status.getState());
+        Assert.assertEquals(2, status.getUpdated());
+        Assert.assertEquals(Set.of(first, second), publishedAt(broker));
+
+        // Nothing changed since the last synchronization.
+        Mockito.clearInvocations(brokerService);
+        status = synchronize(broker);
+        Assert.assertEquals(BrokerSyncStatus.State.COMPLETED, status.getState());
+        Assert.assertEquals(0, status.getTotal());
+        Mockito.verifyNoInteractions(brokerService);
+
+        Thread.sleep(10);
+        offeredResourceService.updateResource(first, getResourceMetadata());
+        offeredResourceService.deleteResource(second);
+        status = synchronize(broker);
+        Assert.assertEquals(1, status.getUpdated());
+        Assert.assertEquals(1, status.getRemoved());
+        Mockito.verify(brokerService).updateResourceAtBroker(ArgumentMatchers.eq(broker),
+            ArgumentMatchers.argThat(resource -> isResource(resource, first)));
+        Mockito.verify(brokerService).removeResourceFromBroker(ArgumentMatchers.eq(broker),
+            ArgumentMatchers.argThat(resource -> isResource(resource, second)));
+        Assert.assertEquals(Set.of(first), publishedAt(broker));
+
+        offeredResourceService.deleteResource(first);
+    }
+
+    @Test
+    public void startSync_rejectedBatch_earlierBatchesKept() throws Exception {
+        setField("batchSize", 2);
+        final var broker = newBroker();
+        for (var i = 0; i < 5; i++) {
+            offeredResourceService.addResource(getResourceMetadata());
+        }
+
+        // The broker accepts the first batch only.
+        Mockito.when(brokerService.updateResourceAtBroker(ArgumentMatchers.anyString(),
+            ArgumentMatchers.any())).thenAnswer(invocation -> {
+                calls.add(Instant.now());
+                return response(calls.size() <= 2);
+            });
+
+        var status = synchronize(broker);
+        Assert.assertEquals(BrokerSyncStatus.State.FAILED, status.getState());
+        Assert.assertEquals(2, status.getUpdated());
+        Assert.assertEquals(2, status.getFailed());
+        Assert.assertEquals(2, publishedAt(broker).size());
+        Mockito.verify(brokerService, Mockito.times(4)).updateResourceAtBroker(
+            ArgumentMatchers.anyString(), ArgumentMatchers.any());
+
+        // The next synchronization continues with the resources left.
+        brokerAnswers(true);
+        status = synchronize(broker);
+        Assert.assertEquals(BrokerSyncStatus.State.COMPLETED, status.getState());
+        Assert.assertEquals(3, status.getTotal());
+        Assert.assertEquals(5, publishedAt(broker).size());
+    }
+
+    @Test
+    public void startSync_failedRequests_retriedWithBackoff() throws Exception {
+        setField("maxAttempts", 4);
+        final var broker = newBroker();
+        offeredResourceService.addResource(getResourceMetadata());
+
+        // The broker accepts the fourth attempt.
+        Mockito.when(brokerService.updateResourceAtBroker(ArgumentMatchers.anyString(),
+            ArgumentMatchers.any())).thenAnswer(invocation -> {
+                calls.add(Instant.now());
+                return response(calls.size() == 4);
+            });
+
+        final var status = synchronize(broker);
+        Assert.assertEquals(BrokerSyncStatus.State.COMPLETED, status.getState());
+        Assert.assertEquals(1, status.getUpdated());
+        Assert.assertEquals(4, calls.size());
+
+        // The backoff doubles, up to its maximum.
+        Assert.assertTrue(gap(0) >= 100);
+        Assert.assertTrue(gap(1) >= 150);
+        Assert.assertTrue(gap(2) >= 150 && gap(2) < 300);
+    }
+
+    @Test
+    public void startSync_attemptsUsedUp_resourceFailed() throws Exception {
+        setField("maxAttempts", 3);
+        final var broker = newBroker();
+        offeredResourceService.addResource(getResourceMetadata());
+        Mockito.when(brokerService.updateResourceAtBroker(ArgumentMatchers.anyString(),
+            ArgumentMatchers.any())).thenThrow(new IOException("Broker unavailable."));
+
+        final var status = synchronize(broker);
+        Assert.assertEquals(BrokerSyncStatus.State.FAILED, status.getState());
+        Assert.assertEquals(1, status.getFailed());
+        Assert.assertTrue(publishedAt(broker).isEmpty());
+        Mockito.verify(brokerService, Mockito.times(3)).updateResourceAtBroker(
+            ArgumentMatchers.anyString(), ArgumentMatchers.any());
+    }
+
+    private BrokerSyncStatus synchronize(String broker) throws InterruptedException {
+        final var status = brokerSyncService.startSync(broker);
+        final var deadline = Instant.now().plusSeconds(10);
+        while (status.isActive() && Instant.now().isBefore(deadline)) {
+            Thread.sleep(20);
+        }
+
+        Assert.assertFalse("The synchronization did not finish.", status.isActive());
+        return status;
+    }
+
+    private void brokerAnswers(boolean successful) throws Exception {
+        Mockito.when(brokerService.updateResourceAtBroker(ArgumentMatchers.anyString(),
+            ArgumentMatchers.any())).thenAnswer(invocation -> response(successful));
+        Mockito.when(brokerService.removeResourceFromBroker(ArgumentMatchers.anyString(),
+            ArgumentMatchers.any())).thenAnswer(invocation -> response(successful));
+    }
+
+    private Set<UUID> publishedAt(String broker) {
+        return publicationRepository.findByBroker(broker).stream()
+            .map(BrokerPublication::getResourceId)
+            .collect(Collectors.toSet());
+    }
+
+    private long gap(int call) {
+        return Duration.between(calls.get(call), calls.get(call + 1)).toMillis();
+    }
+
+    private Object setField(String name, Object value) throws Exception {
+        Field field = BrokerSyncService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        final var original = field.get(brokerSyncService);
+        field.set(brokerSyncService, value);
+        return original;
+    }
+
+    private static boolean isResource(Resource resource, UUID resourceId) {
+        return resource != null && resource.getId().toString().endsWith(resourceId.toString());
+    }
+
+    private static String newBroker() {
+        return "https://broker-" + UUID.randomUUID() + ".example/infrastructure";
+    }
+
+    private static Response response(boolean successful) {
+        return new Response.Builder()
+            .request(new Request.Builder().url("https://broker.example/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(successful ? 200 : 500)
+            .message(successful ? "OK" : "Internal Server Error")
+            .build();
+    }
+
+    private ResourceMetadata getResourceMetadata() {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle("Test resource");
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}
@@ -0,0 +1,129 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.ConnectorSnapshotService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceCatalogService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * This class tests that the self-description snapshots follow the writes of offered resources
+ * and are only rebuilt when needed.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConnectorSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConnectorSnapshotService connectorSnapshotService;
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Test
+    public void getSnapshot_resourceWritten_rebuiltAtOnce() throws Exception {
+        final var before = connectorSnapshotService.getSnapshot();
+        Assert.assertSame(before, connectorSnapshotService.getSnapshot());
+
+        // The snapshot is outdated as soon as the write returned.
+        final var resource = offeredResourceService.addResource(getResourceMetadata());
+        final var added = connectorSnapshotService.getSnapshot();
+        Assert.assertNotSame(before, added);
+        Assert.assertTrue(added.getSelfDescription().contains(resource.toString()));
+
+        offeredResourceService.deleteResource(resource);
+        Assert.assertFalse(connectorSnapshotService.getSnapshot().getSelfDescription()
+            .contains(resource.toString()));
+    }
+
+    @Test
+    public void getPublicDescription_resourceWritten_reused() throws Exception {
+        final var description = connectorSnapshotService.getPublicDescription();
+        final var resource = offeredResourceService.addResource(getResourceMetadata());
+
+        Assert.assertSame(description, connectorSnapshotService.getPublicDescription());
+
+        offeredResourceService.deleteResource(resource);
+    }
+
+    @Test
+    public void getPublicSelfDescription_resourceWritten_catalogNotBuilt() throws Exception {
+        final var catalogField = getField("resourceCatalogService");
+        final var original = catalogField.get(connectorSnapshotService);
+        final var catalogService = Mockito.mock(ResourceCatalogService.class);
+        catalogField.set(connectorSnapshotService, catalogService);
+
+        try {
+            // Outdate the snapshot and drop the public self-description.
+            final var resource = offeredResourceService.addResource(getResourceMetadata());
+            getField("publicDescription").set(connectorSnapshotService, null);
+
+            final var response = mockMvc.perform(MockMvcRequestBuilders.get("/")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse();
+            Assert.assertEquals(200, response.getStatus());
+            Assert.assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+            final var tag = response.getHeader(HttpHeaders.ETAG);
+            Assert.assertNotNull(tag);
+
+            final var revalidated = mockMvc.perform(MockMvcRequestBuilders.get("/")
+                .header(HttpHeaders.IF_NONE_MATCH, tag))
+                .andReturn().getResponse();
+            Assert.assertEquals(304, revalidated.getStatus());
+            Assert.assertEquals(0, revalidated.getContentAsByteArray().length);
+
+            Mockito.verify(catalogService, Mockito.never()).getCatalogs();
+            offeredResourceService.deleteResource(resource);
+        } finally {
+            catalogField.set(connectorSnapshotService, original);
+        }
+    }
+
+    private Field getField(String name) throws NoSuchFieldException {
+        final var field = ConnectorSnapshotService.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    private ResourceMetadata getResourceMetadata() {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle("Test resource");
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}
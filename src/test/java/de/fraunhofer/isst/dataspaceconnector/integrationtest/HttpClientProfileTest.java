@@ -0,0 +1,204 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.services.HttpUtils;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.HttpClientRegistry;
+import de.fraunhofer.isst.dataspaceconnector.services.communication.HttpClientRegistry.Profile;
+import okhttp3.Call;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests that the http client profiles are configured by their properties and record
+ * their calls.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class HttpClientProfileTest {
+
+    @Autowired
+    private HttpClientRegistry httpClientRegistry;
+
+    @Autowired
+    private HttpUtils httpUtils;
+
+    private HttpServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/data", exchange -> {
+            final var data = "Hi, I'm data!".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        server.createContext("/fail", HttpExchange::close);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void getClient_profiles_configuredByProperties() {
+        final var backend = httpClientRegistry.getClient(Profile.BACKEND);
+        final var connector = httpClientRegistry.getClient(Profile.CONNECTOR);
+        final var broker = httpClientRegistry.getClient(Profile.BROKER);
+
+        Assert.assertNotSame(backend.connectionPool(), connector.connectionPool());
+        Assert.assertNotSame(connector.dispatcher(), broker.dispatcher());
+
+        Assert.assertEquals(16, backend.dispatcher().getMaxRequestsPerHost());
+        Assert.assertEquals(30_000, backend.readTimeoutMillis());
+        Assert.assertEquals(0, backend.callTimeoutMillis());
+        Assert.assertEquals(60_000, connector.readTimeoutMillis());
+        Assert.assertEquals(4, broker.dispatcher().getMaxRequestsPerHost());
+        Assert.assertEquals(60_000, broker.callTimeoutMillis());
+        Assert.assertEquals(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1), broker.protocols());
+
+        // Only the connector profile limits the streams per host.
+        Assert.assertEquals(backend.interceptors().size() + 1, connector.interceptors().size());
+    }
+
+    @Test
+    public void getClientProvider_profiles_handOutProfileClient() {
+        for (final var profile : Profile.values()) {
+            Assert.assertSame(httpClientRegistry.getClient(profile),
+                httpClientRegistry.getClientProvider(profile).getClient());
+        }
+    }
+
+    @Test
+    public void getClient_connectorStreamsPerHost_releasedOnCloseEndAndFailure()
+        throws Exception {
+        // The connector profile allows 16 concurrent streams per host.
+        final var responses = new ArrayList<Response>();
+        for (var i = 0; i < 16; i++) {
+            responses.add(executeConnectorCall("/data"));
+        }
+
+        try {
+            assertNoStreamFree();
+
+            // Closing a response frees its stream.
+            responses.remove(0).close();
+            responses.add(executeConnectorCall("/data"));
+            assertNoStreamFree();
+
+            // Reading a response to its end frees its stream as well.
+            Assert.assertEquals("Hi, I'm data!", responses.get(0).body().source().readUtf8());
+            responses.add(executeConnectorCall("/data"));
+            assertNoStreamFree();
+        } finally {
+            responses.forEach(Response::close);
+        }
+
+        // A failed call frees its stream, so more calls than streams can fail in a row.
+        for (var i = 0; i < 20; i++) {
+            try {
+                executeConnectorCall("/fail").close();
+                Assert.fail("The server closed the connection.");
+            } catch (IOException exception) {
+                Assert.assertFalse(exception.getMessage(),
+                    String.valueOf(exception.getMessage()).startsWith("No stream"));
+            }
+        }
+
+        executeConnectorCall("/data").close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void statistics_calls_recordedPerProfile() throws Exception {
+        final var before = (Map<String, Object>) httpClientRegistry.statistics()
+            .get(Profile.BACKEND.toString());
+
+        final var client = httpClientRegistry.getClient(Profile.BACKEND);
+        final var url = "http://localhost:" + server.getAddress().getPort();
+        try (var response = client.newCall(new Request.Builder().url(url + "/data").build())
+            .execute()) {
+            Assert.assertEquals("Hi, I'm data!", response.body().string());
+        }
+
+        server.stop(0);
+        try {
+            client.newCall(new Request.Builder().url(url + "/data").build()).execute();
+            Assert.fail("The server is stopped.");
+        } catch (IOException exception) {
+            // The call failed as expected.
+        }
+
+        final var after = (Map<String, Object>) httpClientRegistry.statistics()
+            .get(Profile.BACKEND.toString());
+        Assert.assertEquals((long) before.get("callsStarted") + 2, after.get("callsStarted"));
+        Assert.assertEquals((long) before.get("callsSucceeded") + 1, after.get("callsSucceeded"));
+        Assert.assertEquals((long) before.get("callsFailed") + 1, after.get("callsFailed"));
+        Assert.assertTrue((long) after.get("connectionsOpened")
+            > (long) before.get("connectionsOpened"));
+        Assert.assertTrue((double) after.get("latencyMaxMs") > 0);
+        Assert.assertEquals(0, after.get("callsInFlight"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void sendHttpGetRequest_plainHttp_sentByBackendClient() throws Exception {
+        final var before = (Map<String, Object>) httpClientRegistry.statistics()
+            .get(Profile.BACKEND.toString());
+
+        final var url = "http://localhost:" + server.getAddress().getPort() + "/data";
+        Assert.assertEquals("Hi, I'm data!", httpUtils.sendHttpGetRequest(url));
+        final var ranged = httpUtils.sendHttpGetRequest(url, ByteRange.of(4, 3L),
+            RequestDeadline.none());
+        Assert.assertEquals("I'm", new String(ranged.getData(), StandardCharsets.UTF_8));
+
+        final var after = (Map<String, Object>) httpClientRegistry.statistics()
+            .get(Profile.BACKEND.toString());
+        Assert.assertEquals((long) before.get("callsSucceeded") + 2, after.get("callsSucceeded"));
+    }
+
+    private Response executeConnectorCall(String path) throws IOException {
+        return newConnectorCall(path).execute();
+    }
+
+    private Call newConnectorCall(String path) {
+        return httpClientRegistry.getClient(Profile.CONNECTOR).newCall(new Request.Builder()
+            .url("http://localhost:" + server.getAddress().getPort() + path)
+            .build());
+    }
+
+    private void assertNoStreamFree() {
+        final var call = newConnectorCall("/data");
+        call.timeout().timeout(500, TimeUnit.MILLISECONDS);
+        try {
+            call.execute().close();
+            Assert.fail("All streams to the host are taken.");
+        } catch (IOException exception) {
+            // The call waited for a stream until its call timeout passed.
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.isst.dataspaceconnector.exceptions.ResourceException;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.PayloadRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests that identical resource data is stored once and removed with its last
+ * reference.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PayloadDeduplicationTest {
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Autowired
+    private RequestedResourceService requestedResourceService;
+
+    @Autowired
+    private PayloadRepository payloadRepository;
+
+    @Test
+    public void addData_identicalData_storedOnce() {
+        final var data = "Hi, I'm deduplicated data! ".repeat(100);
+        final var payloads = payloadRepository.count();
+        final var first = offeredResourceService.addResource(getResourceMetadata());
+        final var second = offeredResourceService.addResource(getResourceMetadata());
+        offeredResourceService.addData(first, data);
+        offeredResourceService.addData(second, data);
+
+        Assert.assertEquals(payloads + 1, payloadRepository.count());
+        final var payload = offeredResourceService.getResource(first).getPayload();
+        Assert.assertEquals(Long.valueOf(2),
+            payloadRepository.findById(payload.getHash()).orElseThrow().getReferenceCount());
+        Assert.assertTrue(payload.getContent().length < data.length());
+        Assert.assertEquals(data, offeredResourceService.getResource(second).getData());
+
+        offeredResourceService.addData(first, "Other data");
+        Assert.assertEquals(payloads + 2, payloadRepository.count());
+
+        offeredResourceService.deleteResource(second);
+        offeredResourceService.deleteResource(first);
+        Assert.assertEquals(payloads, payloadRepository.count());
+    }
+
+    @Test
+    public void addData_concurrentWrites_referencesConsistent() throws Exception {
+        final var payloads = payloadRepository.count();
+        final var resource = offeredResourceService.addResource(getResourceMetadata());
+
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var writes = new ArrayList<Future<?>>();
+            for (var i = 0; i < 40; i++) {
+                final var data = "Concurrent data " + (i % 3);
+                writes.add(executor.submit(() -> offeredResourceService.addData(resource, data)));
+            }
+
+            for (final var write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final var payload = offeredResourceService.getResource(resource).getPayload();
+        Assert.assertEquals(Long.valueOf(1),
+            payloadRepository.findById(payload.getHash()).orElseThrow().getReferenceCount());
+        Assert.assertEquals(payloads + 1, payloadRepository.count());
+
+        offeredResourceService.deleteResource(resource);
+        Assert.assertEquals(payloads, payloadRepository.count());
+    }
+
+    @Test
+    public void appendData_offset_continuesStoredData() throws Exception {
+        final var resource = requestedResourceService.addResource(getResourceMetadata());
+        requestedResourceService.addData(resource, "Hello");
+
+        requestedResourceService.appendData(resource, 5, stream(" World"));
+        Assert.assertEquals("Hello World", requestedResourceService.getData(resource));
+
+        // A repeated range replaces the bytes behind its offset.
+        requestedResourceService.appendData(resource, 5, stream(" There"));
+        Assert.assertEquals("Hello There", requestedResourceService.getData(resource));
+
+        try {
+            requestedResourceService.appendData(resource, 20, stream("Gap"));
+            Assert.fail("An offset behind the stored data should be rejected.");
+        } catch (ResourceException exception) {
+            Assert.assertEquals("Hello There", requestedResourceService.getData(resource));
+        }
+
+        requestedResourceService.deleteResource(resource);
+    }
+
+    private static InputStream stream(String data) {
+        return new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ResourceMetadata getResourceMetadata() {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle("Test resource");
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}
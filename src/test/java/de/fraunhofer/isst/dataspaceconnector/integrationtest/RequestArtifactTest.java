@@ -8,17 +8,17 @@ import de.fraunhofer.isst.dataspaceconnector.services.UUIDUtils;
 import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestService;
 import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceRepository;
-import de.fraunhofer.isst.ids.framework.spring.starter.IDSHttpService;
 import okhttp3.*;
+import okio.Timeout;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -47,8 +47,11 @@ public class RequestArtifactTest {
     @Autowired
     private MockMvc mockMvc;
 
-    @MockBean
-    private IDSHttpService idsHttpService;
+    @Mock
+    private OkHttpClient client;
+
+    @Mock
+    private Call call;
 
     @Autowired
     private RequestedResourceRepository requestedResourceRepository;
@@ -69,9 +72,11 @@ public class RequestArtifactTest {
 
         MockitoAnnotations.initMocks(this);
 
-        Field idsHttpServiceField = ConnectorRequestServiceImpl.class.getDeclaredField("idsHttpService");
-        idsHttpServiceField.setAccessible(true);
-        idsHttpServiceField.set(connectorRequestService, this.idsHttpService);
+        Field clientField = ConnectorRequestServiceImpl.class.getDeclaredField("client");
+        clientField.setAccessible(true);
+        clientField.set(connectorRequestService, this.client);
+        when(client.newCall(any(Request.class))).thenReturn(call);
+        when(call.timeout()).thenReturn(new Timeout());
     }
 
     @Test
@@ -82,7 +87,7 @@ public class RequestArtifactTest {
         UUID key = requestedResourceRepository.save(getRequestedResource()).getUuid();
         Assert.assertTrue(requestedResourceRepository.findAll().get(0).getData().isEmpty());
 
-        when(idsHttpService.send(any(RequestBody.class), any(URI.class)))
+        when(call.execute())
                 .thenReturn(getResponse(getArtifactResponseMultipart()));
 
         mockMvc.perform(MockMvcRequestBuilders
@@ -92,7 +97,8 @@ public class RequestArtifactTest {
                 .param("key", key.toString()));
 
         Assert.assertEquals(1, requestedResourceRepository.findAll().size());
-        Assert.assertEquals(data, requestedResourceRepository.findAll().get(0).getData());
+        Assert.assertEquals(data,
+                requestedResourceRepository.findWithPayloadByUuid(key).orElseThrow().getData());
     }
 
     private Response getResponse(String multipartPayload) {
@@ -0,0 +1,118 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import com.sun.net.httpserver.HttpServer;
+import de.fraunhofer.isst.dataspaceconnector.exceptions.DeadlineExceededException;
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ByteRange;
+import de.fraunhofer.isst.dataspaceconnector.model.RequestDeadline;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+
+/**
+ * This class tests that the data of a resource is only requested from its backend as long as the
+ * deadline of the request allows.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class RequestDeadlineTest {
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    private HttpServer backend;
+
+    @Before
+    public void startBackend() throws IOException {
+        backend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        backend.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        backend.createContext("/fast", exchange -> {
+            final var data = "Hi, I'm data!".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, data.length);
+            exchange.getResponseBody().write(data);
+            exchange.close();
+        });
+        backend.setExecutor(Executors.newCachedThreadPool());
+        backend.start();
+    }
+
+    @After
+    public void stopBackend() {
+        backend.stop(0);
+    }
+
+    @Test
+    public void getDataByRepresentation_rangeWithoutRepresentation_honorsDeadline() {
+        final var resource = offeredResourceService.addResource(getResourceMetadata("/slow"));
+        final var start = System.nanoTime();
+
+        try {
+            offeredResourceService.getDataByRepresentation(resource, null,
+                ByteRange.of(0, 5L), RequestDeadline.after(Duration.ofMillis(300)));
+            Assert.fail("The deadline should pass before the backend answers.");
+        } catch (DeadlineExceededException exception) {
+            Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).getSeconds() < 5);
+        } finally {
+            offeredResourceService.deleteResource(resource);
+        }
+    }
+
+    @Test
+    public void getDataByRepresentation_rangeWithoutDeadline_returnsRange() {
+        final var resource = offeredResourceService.addResource(getResourceMetadata("/fast"));
+
+        try {
+            Assert.assertEquals("Hi, I", offeredResourceService.getDataByRepresentation(resource,
+                null, ByteRange.of(0, 5L), RequestDeadline.none()));
+        } finally {
+            offeredResourceService.deleteResource(resource);
+        }
+    }
+
+    private ResourceMetadata getResourceMetadata(String path) {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.HTTP_GET);
+        source.setUrl(URI.create("http://localhost:" + backend.getAddress().getPort() + path));
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle("Test resource");
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}
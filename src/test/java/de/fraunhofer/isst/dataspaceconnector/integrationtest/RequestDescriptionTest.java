@@ -5,18 +5,17 @@ import de.fraunhofer.iais.eis.ids.jsonld.Serializer;
 import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestService;
 import de.fraunhofer.isst.dataspaceconnector.services.communication.ConnectorRequestServiceImpl;
 import de.fraunhofer.isst.dataspaceconnector.services.resource.RequestedResourceRepository;
-import de.fraunhofer.isst.ids.framework.spring.starter.IDSHttpService;
 import de.fraunhofer.isst.ids.framework.util.MultipartStringParser;
 import okhttp3.*;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -45,8 +44,11 @@ public class RequestDescriptionTest {
     @Autowired
     private MockMvc mockMvc;
 
-    @MockBean
-    private IDSHttpService idsHttpService;
+    @Mock
+    private OkHttpClient client;
+
+    @Mock
+    private Call call;
 
     @Autowired
     private RequestedResourceRepository requestedResourceRepository;
@@ -68,15 +70,16 @@ public class RequestDescriptionTest {
 
         MockitoAnnotations.initMocks(this);
 
-        Field idsHttpServiceField = ConnectorRequestServiceImpl.class.getDeclaredField("idsHttpService");
-        idsHttpServiceField.setAccessible(true);
-        idsHttpServiceField.set(connectorRequestService, this.idsHttpService);
+        Field clientField = ConnectorRequestServiceImpl.class.getDeclaredField("client");
+        clientField.setAccessible(true);
+        clientField.set(connectorRequestService, this.client);
+        when(client.newCall(any(Request.class))).thenReturn(call);
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     public void requestSelfDescription() throws Exception {
-        when(idsHttpService.send(any(RequestBody.class), any(URI.class)))
+        when(call.execute())
                 .thenReturn(getResponse(getSelfDescriptionMultipart()));
 
         String response = mockMvc.perform(MockMvcRequestBuilders
@@ -97,7 +100,7 @@ public class RequestDescriptionTest {
             requestedResourceRepository.deleteAll();
         }
 
-        when(idsHttpService.send(any(RequestBody.class), any(URI.class)))
+        when(call.execute())
                 .thenReturn(getResponse(getValidArtifactDescriptionMultipart()));
 
         mockMvc.perform(MockMvcRequestBuilders
@@ -116,7 +119,7 @@ public class RequestDescriptionTest {
             requestedResourceRepository.deleteAll();
         }
 
-        when(idsHttpService.send(any(RequestBody.class), any(URI.class)))
+        when(call.execute())
                 .thenReturn(getResponse(getInvalidArtifactDescriptionMultipart()));
 
         mockMvc.perform(MockMvcRequestBuilders
@@ -0,0 +1,132 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRestoreResult;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.PayloadService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceBackupRunner;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceBackupService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * This class tests that exported resources are restored unchanged.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class ResourceBackupTest {
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Autowired
+    private OfferedResourceRepository offeredResourceRepository;
+
+    @Autowired
+    private ResourceBackupService resourceBackupService;
+
+    @Autowired
+    private ResourceBackupRunner resourceBackupRunner;
+
+    @Test
+    public void exportResources_restoreResources_roundTrip() throws Exception {
+        offeredResourceRepository.deleteAll();
+
+        final var first = offeredResourceService.addResource(getResourceMetadata("First"));
+        final var second = offeredResourceService.addResource(getResourceMetadata("Second"));
+        offeredResourceService.addData(first, "Backed up data");
+
+        final var backup = new ByteArrayOutputStream();
+        Assert.assertTrue(resourceBackupService.exportResources(backup) >= 2);
+
+        offeredResourceRepository.deleteAll();
+        final var result = resourceBackupService.restoreResources(
+            new ByteArrayInputStream(backup.toByteArray()));
+
+        Assert.assertEquals(0, result.getFailed());
+        Assert.assertEquals(2, result.getOffered());
+        Assert.assertEquals("First", offeredResourceService.getMetadata(first).getTitle());
+        Assert.assertEquals("Second", offeredResourceService.getMetadata(second).getTitle());
+        Assert.assertEquals("Backed up data", offeredResourceService.getData(first));
+    }
+
+    @Test
+    public void restoreResources_payloadFails_otherResourcesRestored() throws Exception {
+        offeredResourceRepository.deleteAll();
+
+        final var first = offeredResourceService.addResource(getResourceMetadata("First"));
+        final var second = offeredResourceService.addResource(getResourceMetadata("Second"));
+        offeredResourceService.addData(first, "Backed up data");
+        offeredResourceService.addData(second, "Broken data");
+
+        final var backup = new ByteArrayOutputStream();
+        resourceBackupService.exportResources(backup);
+        offeredResourceRepository.deleteAll();
+
+        // The payload of the second resource cannot be stored.
+        final var payloadServiceField = ResourceBackupService.class
+            .getDeclaredField("payloadService");
+        payloadServiceField.setAccessible(true);
+        final var payloadService = (PayloadService) payloadServiceField.get(resourceBackupService);
+        final var failingPayloadService = Mockito.spy(payloadService);
+        Mockito.doThrow(new UncheckedIOException(new IOException("Disk full")))
+            .when(failingPayloadService).prepare("Broken data");
+        payloadServiceField.set(resourceBackupService, failingPayloadService);
+
+        final ResourceRestoreResult result;
+        try {
+            result = resourceBackupService.restoreResources(
+                new ByteArrayInputStream(backup.toByteArray()));
+        } finally {
+            payloadServiceField.set(resourceBackupService, payloadService);
+        }
+
+        Assert.assertEquals(1, result.getOffered());
+        Assert.assertEquals(1, result.getFailed());
+        Assert.assertEquals("Backed up data", offeredResourceService.getData(first));
+        Assert.assertFalse(offeredResourceRepository.existsById(second));
+    }
+
+    @Test
+    public void run_noBackupOption_contextKeepsRunning() {
+        Assert.assertFalse(resourceBackupRunner.isCompleted());
+        Assert.assertEquals(0, resourceBackupRunner.getExitCode());
+    }
+
+    private ResourceMetadata getResourceMetadata(String title) {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle(title);
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "backup"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}
@@ -0,0 +1,216 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceChange;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceChangeRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceChangeService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * This class tests that writes of offered resources are recorded in the change log and can be
+ * read page by page or as event stream.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ResourceChangeTest {
+
+    private static final long TIMEOUT = 10_000;
+
+    private final String changeStreamEndpoint = "/admin/api/resources/changes/stream";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Autowired
+    private ResourceChangeService resourceChangeService;
+
+    @Autowired
+    private ResourceChangeRepository resourceChangeRepository;
+
+    private int maxBacklog;
+
+    @Before
+    public void init() throws Exception {
+        maxBacklog = (int) getMaxBacklogField().get(resourceChangeService);
+    }
+
+    @After
+    public void restore() throws Exception {
+        getMaxBacklogField().set(resourceChangeService, maxBacklog);
+    }
+
+    @Test
+    public void getChanges_sinceLastKnown_pagedInOrder() throws Exception {
+        final var since = getLastSequence();
+        final var first = offeredResourceService.addResource(getResourceMetadata());
+        offeredResourceService.updateResource(first, getResourceMetadata());
+        offeredResourceService.deleteResource(first);
+        awaitChanges(since, 3);
+
+        final var page = resourceChangeService.getChanges(since, 2);
+        final var changes = getChanges(page);
+        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals(ResourceChange.Type.CREATED, changes.get(0).getType());
+        Assert.assertEquals(ResourceChange.Type.UPDATED, changes.get(1).getType());
+        Assert.assertEquals(first, changes.get(0).getResourceId());
+        Assert.assertEquals(true, page.get("more"));
+        Assert.assertEquals(false, page.get("reset"));
+        Assert.assertEquals(changes.get(1).getSequence(), page.get("last"));
+
+        final var next = resourceChangeService.getChanges((long) page.get("last"), 2);
+        Assert.assertEquals(1, getChanges(next).size());
+        Assert.assertEquals(ResourceChange.Type.DELETED, getChanges(next).get(0).getType());
+        Assert.assertEquals(false, next.get("more"));
+
+        // A caller that knows every change gets none and keeps its sequence number.
+        final var last = (long) next.get("last");
+        final var empty = resourceChangeService.getChanges(last, 2);
+        Assert.assertTrue(getChanges(empty).isEmpty());
+        Assert.assertEquals(last, empty.get("last"));
+    }
+
+    @Test
+    public void getChanges_removedChanges_reset() throws Exception {
+        final var since = getLastSequence();
+        final var resource = offeredResourceService.addResource(getResourceMetadata());
+        offeredResourceService.deleteResource(resource);
+        awaitChanges(since, 2);
+
+        // Everything but the latest change is removed, so the caller missed one.
+        resourceChangeRepository.deleteRecordedBefore(new Date(System.currentTimeMillis()
+            + 60_000));
+        Assert.assertEquals(true, resourceChangeService.getChanges(since, 10).get("reset"));
+        Assert.assertEquals(false, resourceChangeService.getChanges(getLastSequence() - 1, 10)
+            .get("reset"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void streamChanges_missedAndNewChanges_sent() throws Exception {
+        final var since = getLastSequence();
+        final var missed = offeredResourceService.addResource(getResourceMetadata());
+        awaitChanges(since, 1);
+
+        final var response = openStream(since);
+        awaitContent(response, "\"resource\":\"" + missed + "\"");
+
+        final var created = offeredResourceService.addResource(getResourceMetadata());
+        awaitContent(response, "\"resource\":\"" + created + "\"");
+
+        final var content = response.getContentAsString();
+        Assert.assertTrue(content.indexOf(missed.toString()) < content.indexOf(created.toString()));
+        Assert.assertTrue(content.contains("event:change"));
+        Assert.assertFalse(content.contains("event:reset"));
+
+        offeredResourceService.deleteResource(missed);
+        offeredResourceService.deleteResource(created);
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void streamChanges_backlogExceeded_reset() throws Exception {
+        final var since = getLastSequence();
+        final var resource = offeredResourceService.addResource(getResourceMetadata());
+        offeredResourceService.deleteResource(resource);
+        awaitChanges(since, 2);
+        getMaxBacklogField().set(resourceChangeService, 1);
+
+        final var response = openStream(since);
+        awaitContent(response, "event:reset");
+
+        Assert.assertFalse(response.getContentAsString().contains("event:change"));
+    }
+
+    private MockHttpServletResponse openStream(long since) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders
+            .get(changeStreamEndpoint)
+            .param("since", String.valueOf(since)))
+            .andReturn().getResponse();
+    }
+
+    private long getLastSequence() {
+        final var latest = resourceChangeRepository.findFirstByOrderBySequenceDesc();
+        return latest == null ? 0 : latest.getSequence();
+    }
+
+    /**
+     * Waits until the change log recorded a number of changes, they are saved in the background.
+     */
+    private void awaitChanges(long since, int count) throws InterruptedException {
+        final var deadline = System.currentTimeMillis() + TIMEOUT;
+        while (getChanges(resourceChangeService.getChanges(since, count)).size() < count) {
+            Assert.assertTrue("The changes were not recorded in time.",
+                System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    private void awaitContent(MockHttpServletResponse response, String expected)
+        throws Exception {
+        final var deadline = System.currentTimeMillis() + TIMEOUT;
+        while (!response.getContentAsString().contains(expected)) {
+            Assert.assertTrue("The stream did not send " + expected,
+                System.currentTimeMillis() < deadline);
+            Thread.sleep(20);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ResourceChange> getChanges(Map<String, Object> page) {
+        return (List<ResourceChange>) page.get("changes");
+    }
+
+    private Field getMaxBacklogField() throws NoSuchFieldException {
+        final var field = ResourceChangeService.class.getDeclaredField("maxBacklog");
+        field.setAccessible(true);
+        return field;
+    }
+
+    private ResourceMetadata getResourceMetadata() {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle("Test resource");
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}
@@ -0,0 +1,124 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportItem;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceImportResult;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+/**
+ * This class tests the bulk import of offered resources.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ResourceImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Autowired
+    private OfferedResourceRepository offeredResourceRepository;
+
+    @Test
+    public void importResources_mixedItems() {
+        offeredResourceRepository.deleteAll();
+
+        final var existingId = UUID.randomUUID();
+        offeredResourceService.addResourceWithId(getResourceMetadata(), existingId);
+
+        final var items = new ArrayList<ResourceImportItem>();
+        for (var i = 0; i < 250; i++) {
+            items.add(new ResourceImportItem(null, getResourceMetadata(), "Data " + i));
+        }
+        items.add(new ResourceImportItem(existingId, getResourceMetadata(), null));
+        items.add(new ResourceImportItem(null, null, null));
+        items.add(null);
+
+        final var results = offeredResourceService.importResources(items);
+
+        Assert.assertEquals(items.size(), results.size());
+        for (var i = 0; i < 250; i++) {
+            Assert.assertEquals(i, results.get(i).getIndex());
+            Assert.assertEquals(ResourceImportResult.Status.CREATED, results.get(i).getStatus());
+        }
+        Assert.assertEquals(ResourceImportResult.Status.ALREADY_EXISTS,
+            results.get(250).getStatus());
+        Assert.assertEquals(ResourceImportResult.Status.INVALID, results.get(251).getStatus());
+        Assert.assertEquals(ResourceImportResult.Status.INVALID, results.get(252).getStatus());
+
+        Assert.assertEquals(251, offeredResourceRepository.count());
+        Assert.assertEquals("Data 42",
+            offeredResourceService.getResource(results.get(42).getUuid()).getData());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    public void importResourcesNdjson_linesWithInvalidLine_resultPerLine() throws Exception {
+        offeredResourceRepository.deleteAll();
+
+        final var body = objectMapper.writeValueAsString(
+            new ResourceImportItem(null, getResourceMetadata(), "Data 1")) + "\r\n"
+            + "\n"
+            + "{ no json\n"
+            + objectMapper.writeValueAsString(
+            new ResourceImportItem(null, getResourceMetadata(), "Data 2"));
+
+        final var response = mockMvc.perform(MockMvcRequestBuilders
+            .post("/admin/api/resources/import")
+            .contentType("application/x-ndjson")
+            .content(body))
+            .andReturn().getResponse();
+
+        Assert.assertEquals(207, response.getStatus());
+        final var results = objectMapper.readTree(response.getContentAsString());
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals("CREATED", results.get(0).get("status").asText());
+        Assert.assertEquals("INVALID", results.get(1).get("status").asText());
+        Assert.assertEquals("CREATED", results.get(2).get("status").asText());
+        Assert.assertEquals(2, offeredResourceRepository.count());
+    }
+
+    private ResourceMetadata getResourceMetadata() {
+        final var representation = new ResourceRepresentation();
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle("Test resource");
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(UUID.randomUUID(), representation));
+        return metadata;
+    }
+}
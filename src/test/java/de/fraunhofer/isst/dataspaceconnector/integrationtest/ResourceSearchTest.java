@@ -0,0 +1,95 @@
+package de.fraunhofer.isst.dataspaceconnector.integrationtest;
+
+import de.fraunhofer.isst.dataspaceconnector.model.BackendSource;
+import de.fraunhofer.isst.dataspaceconnector.model.OfferedResource;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceMetadata;
+import de.fraunhofer.isst.dataspaceconnector.model.ResourceRepresentation;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceRepository;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.OfferedResourceService;
+import de.fraunhofer.isst.dataspaceconnector.services.resource.ResourceSearchService;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * This class tests that resources written through the repository and the resource service are
+ * found by the search, which does not read the database.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class ResourceSearchTest {
+
+    @Autowired
+    private OfferedResourceRepository offeredResourceRepository;
+
+    @Autowired
+    private OfferedResourceService offeredResourceService;
+
+    @Autowired
+    private ResourceSearchService resourceSearchService;
+
+    @Test
+    public void save_repositoryWrite_foundBySearch() {
+        final var term = getUniqueTerm();
+        final var uuid = UUID.randomUUID();
+        offeredResourceRepository.save(new OfferedResource(uuid, new Date(), new Date(),
+            getResourceMetadata("Saved " + term), null));
+
+        final var result = resourceSearchService.search(term, 0, 10);
+        Assert.assertEquals(1, result.getTotal());
+        Assert.assertEquals(uuid, result.getHits().get(0).getUuid());
+
+        offeredResourceRepository.deleteById(uuid);
+        Assert.assertEquals(0, resourceSearchService.search(term, 0, 10).getTotal());
+    }
+
+    @Test
+    public void updateResource_serviceWrite_indexUpdated() {
+        final var oldTerm = getUniqueTerm();
+        final var newTerm = getUniqueTerm();
+        final var uuid = offeredResourceService.addResource(getResourceMetadata(oldTerm));
+        Assert.assertEquals(uuid, resourceSearchService.search(oldTerm, 0, 10).getHits().get(0)
+            .getUuid());
+
+        offeredResourceService.updateResource(uuid, getResourceMetadata(newTerm));
+        Assert.assertEquals(0, resourceSearchService.search(oldTerm, 0, 10).getTotal());
+        Assert.assertEquals(uuid, resourceSearchService.search(newTerm, 0, 10).getHits().get(0)
+            .getUuid());
+
+        offeredResourceService.deleteResource(uuid);
+        Assert.assertEquals(0, resourceSearchService.search(newTerm, 0, 10).getTotal());
+    }
+
+    private String getUniqueTerm() {
+        return "term" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    private ResourceMetadata getResourceMetadata(String title) {
+        final var representationId = UUID.randomUUID();
+        final var representation = new ResourceRepresentation();
+        representation.setUuid(representationId);
+        representation.setType("Type");
+        representation.setByteSize(1);
+        representation.setName("Name");
+
+        final var source = new BackendSource();
+        source.setType(BackendSource.Type.LOCAL);
+        representation.setSource(source);
+
+        final var metadata = new ResourceMetadata();
+        metadata.setTitle(title);
+        metadata.setDescription("");
+        metadata.setKeywords(Arrays.asList("test", "resource"));
+        metadata.setVersion("v1.0");
+        metadata.setRepresentations(Collections.singletonMap(representationId, representation));
+        return metadata;
+    }
+}